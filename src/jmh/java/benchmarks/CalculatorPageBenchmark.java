@@ -0,0 +1,77 @@
+package benchmarks;
+
+import io.appium.java_client.windows.WindowsDriver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openqa.selenium.WebElement;
+import pages.P01_CalculatorPage;
+import stubs.FakeCalculatorExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one calculator operation through P01_CalculatorPage, from clear to result.
+ * With commandLatencyMicros=0 the score is pure framework overhead; a non-zero
+ * latency shows how that overhead compares to WinAppDriver round trips.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CalculatorPageBenchmark {
+
+    @Param({"0", "250"})
+    public long commandLatencyMicros;
+
+    private WindowsDriver<WebElement> driver;
+    private P01_CalculatorPage page;
+
+    @Setup(Level.Trial)
+    public void startSession() {
+        ConsoleSink.mute();
+        FakeCalculatorExecutor app = new FakeCalculatorExecutor();
+        app.setCommandLatency(Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(commandLatencyMicros)));
+        driver = app.newDriver();
+        page = new P01_CalculatorPage(driver);
+        page.add("1", "1");
+    }
+
+    @TearDown(Level.Trial)
+    public void quitSession() {
+        driver.quit();
+        ConsoleSink.restore();
+    }
+
+    @Benchmark
+    public P01_CalculatorPage add() {
+        return page.add("12", "30");
+    }
+
+    @Benchmark
+    public P01_CalculatorPage subtract() {
+        return page.subtract("50", "8");
+    }
+
+    @Benchmark
+    public P01_CalculatorPage multiply() {
+        return page.multiply("6", "7");
+    }
+
+    @Benchmark
+    public P01_CalculatorPage divide() {
+        return page.divide("84", "2");
+    }
+
+    @Benchmark
+    public String getResult() {
+        return page.getResult();
+    }
+}
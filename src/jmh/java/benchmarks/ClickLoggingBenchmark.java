@@ -0,0 +1,63 @@
+package benchmarks;
+
+import io.appium.java_client.windows.WindowsDriver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openqa.selenium.WebElement;
+import pages.P01_CalculatorPage;
+import stubs.FakeCalculatorExecutor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-click cost of P01_CalculatorPage against the zero-latency fake driver,
+ * with console output going to a real file as it would to a terminal, so
+ * what the page logs per click is part of the score.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ClickLoggingBenchmark {
+
+    private WindowsDriver<WebElement> driver;
+    private P01_CalculatorPage page;
+
+    @Setup(Level.Trial)
+    public void startSession() {
+        ConsoleSink.redirectToFile();
+        driver = new FakeCalculatorExecutor().newDriver();
+        page = new P01_CalculatorPage(driver);
+        page.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void quitSession() {
+        driver.quit();
+        ConsoleSink.restore();
+    }
+
+    @Benchmark
+    public P01_CalculatorPage clickNumber() {
+        return page.clickNumber(7);
+    }
+
+    @Benchmark
+    public P01_CalculatorPage clickPlus() {
+        return page.clickPlus();
+    }
+
+    /**
+     * Five digit clicks plus the operand-level messages around them.
+     */
+    @Benchmark
+    public P01_CalculatorPage enterNumber() {
+        return page.clear().enterNumber("12345");
+    }
+}
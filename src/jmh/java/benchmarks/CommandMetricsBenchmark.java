@@ -0,0 +1,68 @@
+package benchmarks;
+
+import io.appium.java_client.windows.WindowsDriver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import stubs.FakeCalculatorExecutor;
+import utils.CommandMetrics;
+import utils.InstrumentedCommandExecutor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of per-command latency histograms: the same zero-latency fake
+ * command with and without InstrumentedCommandExecutor in front of it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CommandMetricsBenchmark {
+
+    private WindowsDriver<WebElement> plain;
+    private WindowsDriver<WebElement> instrumented;
+
+    @Setup(Level.Trial)
+    public void startSessions() {
+        plain = newSession(new FakeCalculatorExecutor());
+        instrumented = InstrumentedCommandExecutor.newDriver(new FakeCalculatorExecutor(), capabilities());
+        CommandMetrics.startTest();
+    }
+
+    @TearDown(Level.Trial)
+    public void quitSessions() {
+        CommandMetrics.endTest();
+        plain.quit();
+        instrumented.quit();
+    }
+
+    @Benchmark
+    public String windowHandle() {
+        return plain.getWindowHandle();
+    }
+
+    @Benchmark
+    public String windowHandleInstrumented() {
+        return instrumented.getWindowHandle();
+    }
+
+    private static WindowsDriver<WebElement> newSession(HttpCommandExecutor executor) {
+        return new WindowsDriver<>(executor, capabilities());
+    }
+
+    private static DesiredCapabilities capabilities() {
+        DesiredCapabilities capabilities = new DesiredCapabilities();
+        capabilities.setCapability("app", "Microsoft.WindowsCalculator_8wekyb3d8bbwe!App");
+        capabilities.setCapability("platformName", "Windows");
+        return capabilities;
+    }
+}
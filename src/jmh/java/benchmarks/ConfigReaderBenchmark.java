@@ -0,0 +1,67 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import utils.ConfigReader;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup cost of ConfigReader, which page objects hit on every construction,
+ * and the cost of building a configuration snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConfigReaderBenchmark {
+
+    public String key = "winAppDriverUrl";
+    public String missingKey = "noSuchProperty";
+
+    @Benchmark
+    public String getProperty() {
+        return ConfigReader.getProperty(key);
+    }
+
+    @Benchmark
+    public String getPropertyMissing() {
+        return ConfigReader.getProperty(missingKey);
+    }
+
+    @Benchmark
+    public String getSetting() {
+        return ConfigReader.getSetting("displaySettleTimeoutMs", "500");
+    }
+
+    @Benchmark
+    public long getSettingParsed() {
+        return Long.parseLong(ConfigReader.getSetting("displaySettleTimeoutMs", "500"));
+    }
+
+    @Benchmark
+    public long getLong() {
+        return ConfigReader.getLong("displaySettleTimeoutMs", 500);
+    }
+
+    /**
+     * What every session creation paid before the snapshot: now a no-op.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void loadConfig() {
+        ConfigReader.loadConfig();
+    }
+
+    /**
+     * Startup cost: read both files, the environment and -D, merge, validate.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object reload() {
+        return ConfigReader.reload();
+    }
+}
@@ -0,0 +1,54 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Swaps System.out for a discarding stream during a benchmark trial.
+ * Messages are still built and printed, so their cost is measured, but
+ * the forked JVM does not flood the console with millions of lines.
+ * {@link #redirectToFile()} keeps the write to the OS as well, for
+ * benchmarks of the logging itself.
+ */
+final class ConsoleSink {
+
+    private static PrintStream original;
+
+    private ConsoleSink() {
+    }
+
+    static synchronized void mute() {
+        if (original == null) {
+            original = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream(), false));
+        }
+    }
+
+    /**
+     * Swaps System.out for an auto-flushing stream into a temporary file, so
+     * every line costs a write system call as it does on a console.
+     */
+    static synchronized void redirectToFile() {
+        if (original == null) {
+            try {
+                File sink = File.createTempFile("console", ".log");
+                sink.deleteOnExit();
+                original = System.out;
+                System.setOut(new PrintStream(new FileOutputStream(sink), true));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    static synchronized void restore() {
+        if (original != null) {
+            System.setOut(original);
+            original = null;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package benchmarks;
+
+import io.appium.java_client.windows.WindowsDriver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openqa.selenium.WebElement;
+import pages.InputMode;
+import pages.P01_CalculatorPage;
+import stubs.FakeCalculatorExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of P01_CalculatorPage.enterNumber by operand length and input mode.
+ * The display is cleared on the model between invocations, outside the measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EnterNumberBenchmark {
+
+    @Param({"1", "4", "8", "16"})
+    public int digits;
+
+    @Param({"CLICK", "KEYBOARD"})
+    public InputMode inputMode;
+
+    @Param({"0", "250"})
+    public long commandLatencyMicros;
+
+    private FakeCalculatorExecutor app;
+    private WindowsDriver<WebElement> driver;
+    private P01_CalculatorPage page;
+    private String operand;
+
+    @Setup(Level.Trial)
+    public void startSession() {
+        ConsoleSink.mute();
+        app = new FakeCalculatorExecutor();
+        app.setCommandLatency(Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(commandLatencyMicros)));
+        driver = app.newDriver();
+        page = new P01_CalculatorPage(driver).withInputMode(inputMode);
+        StringBuilder number = new StringBuilder();
+        for (int i = 0; i < digits; i++) {
+            number.append((i % 9) + 1);
+        }
+        operand = number.toString();
+    }
+
+    @Setup(Level.Invocation)
+    public void clearDisplay() {
+        app.getModel().press("Clear");
+    }
+
+    @TearDown(Level.Trial)
+    public void quitSession() {
+        driver.quit();
+        ConsoleSink.restore();
+    }
+
+    @Benchmark
+    public P01_CalculatorPage enterNumber() {
+        return page.enterNumber(operand);
+    }
+}
@@ -0,0 +1,117 @@
+package benchmarks;
+
+import listeners.TestExecutionListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.testng.IClass;
+import org.testng.IInvokedMethod;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-test cost of the TestExecutionListener callbacks that run for every passing test.
+ * onTestFailure is left out: it takes a screenshot and queues a report per call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TestExecutionListenerBenchmark {
+
+    private TestExecutionListener listener;
+    private ITestResult result;
+    private ITestResult parameterizedResult;
+    private IInvokedMethod invokedMethod;
+
+    @Setup(Level.Trial)
+    public void createListener() {
+        ConsoleSink.mute();
+        listener = new TestExecutionListener();
+        ITestNGMethod method = fake(ITestNGMethod.class, Map.of(
+                "getMethodName", "testAddition",
+                "isTest", true));
+        IClass testClass = fake(IClass.class, Map.of("getName", "testcases.TC01_Calculator"));
+        result = fakeResult(method, testClass, new Object[0]);
+        parameterizedResult = fakeResult(method, testClass, new Object[]{"12", "30", "42"});
+        invokedMethod = fake(IInvokedMethod.class, Map.of(
+                "isTestMethod", true,
+                "getTestMethod", method,
+                "getTestResult", result));
+    }
+
+    @TearDown(Level.Trial)
+    public void restoreConsole() {
+        ConsoleSink.restore();
+    }
+
+    @Benchmark
+    public void onTestStart() {
+        listener.onTestStart(result);
+    }
+
+    @Benchmark
+    public void onTestStartWithParameters() {
+        listener.onTestStart(parameterizedResult);
+    }
+
+    @Benchmark
+    public void onTestSuccess() {
+        listener.onTestSuccess(result);
+    }
+
+    @Benchmark
+    public void invocation() {
+        listener.beforeInvocation(invokedMethod, result);
+        listener.afterInvocation(invokedMethod, result);
+    }
+
+    private static ITestResult fakeResult(ITestNGMethod method, IClass testClass, Object[] parameters) {
+        long now = System.currentTimeMillis();
+        return fake(ITestResult.class, Map.of(
+                "getMethod", method,
+                "getTestClass", testClass,
+                "getParameters", parameters,
+                "getStartMillis", now,
+                "getEndMillis", now + 42,
+                "getStatus", ITestResult.SUCCESS,
+                "getName", "testAddition"));
+    }
+
+    /**
+     * @return a TestNG interface answering the given methods by name and
+     * returning null/zero/false for everything else
+     */
+    private static <T> T fake(Class<T> type, Map<String, Object> answers) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            if (answers.containsKey(method.getName())) {
+                return answers.get(method.getName());
+            }
+            switch (method.getName()) {
+                case "hashCode": return System.identityHashCode(self);
+                case "equals": return self == args[0];
+                case "toString": return type.getSimpleName() + answers;
+                default: break;
+            }
+            Class<?> returnType = method.getReturnType();
+            if (returnType == boolean.class) {
+                return false;
+            } else if (returnType == long.class) {
+                return 0L;
+            } else if (returnType == int.class) {
+                return 0;
+            }
+            return null;
+        });
+        return type.cast(proxy);
+    }
+}
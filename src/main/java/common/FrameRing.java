@@ -0,0 +1,201 @@
+package common;
+
+import org.monte.media.Format;
+import org.monte.media.FormatKeys;
+import org.monte.media.avi.AVIWriter;
+import org.monte.media.math.Rational;
+
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+import static org.monte.media.VideoFormatKeys.*;
+
+/**
+ * The last few seconds of a recording, kept in memory until a test decides
+ * whether the video is worth encoding. Holds at most {@code capacity} frame
+ * ticks (frame rate x seconds); older ticks fall out as new ones arrive.
+ * <p>
+ * Frames are kept as raw RGB pixels in slots that are reused once they fall
+ * out of the window, so a recording that runs for a whole suite allocates
+ * nothing after its first few seconds. A frame identical to the one before it
+ * (the Calculator window is still most of the time) only extends that frame's
+ * duration, which keeps both memory and the encoded file small.
+ */
+public final class FrameRing {
+
+    private final int capacity;
+    private final int frameRate;
+    private final int[][] slots;
+    private final int[] repeats;
+    private int[] spare;
+    private int head;
+    private int size;
+    private int ticks;
+    private int width;
+    private int height;
+    private long framesAdded;
+
+    /**
+     * @param frameRate frames captured per second
+     * @param capacity frames (ticks at frameRate) to keep, e.g. frameRate x seconds
+     */
+    public FrameRing(int frameRate, int capacity) {
+        if (frameRate <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Frame rate and capacity must be positive: " + frameRate + ", " + capacity);
+        }
+        this.frameRate = frameRate;
+        this.capacity = capacity;
+        this.slots = new int[capacity][];
+        this.repeats = new int[capacity];
+    }
+
+    /**
+     * Adds one captured frame. A frame of a different size than the ones held
+     * (the window was resized) starts the ring over.
+     */
+    public void add(BufferedImage frame) {
+        if (frame.getWidth() != width || frame.getHeight() != height) {
+            clear();
+            Arrays.fill(slots, null);
+            spare = null;
+            width = frame.getWidth();
+            height = frame.getHeight();
+        }
+        framesAdded++;
+        int[] pixels = spare != null ? spare : new int[width * height];
+        spare = null;
+        copyPixels(frame, pixels);
+
+        if (size > 0 && Arrays.equals(pixels, slots[slot(size - 1)])) {
+            repeats[slot(size - 1)]++;
+            spare = pixels;
+        } else {
+            if (size == capacity) {
+                evictOldest();
+            }
+            int slot = slot(size);
+            spare = slots[slot];
+            slots[slot] = pixels;
+            repeats[slot] = 1;
+            size++;
+        }
+        ticks++;
+        while (ticks > capacity) {
+            ticks--;
+            if (--repeats[head] == 0) {
+                evictOldest();
+            }
+        }
+    }
+
+    /**
+     * Forgets every frame; slot memory is kept for the next recording.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+        ticks = 0;
+        framesAdded = 0;
+    }
+
+    /**
+     * @return distinct frames held
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return frame ticks held (distinct frames plus repeats), at most the capacity
+     */
+    public int getTicks() {
+        return ticks;
+    }
+
+    /**
+     * @return frames added since the ring was created or cleared, including those that fell out
+     */
+    public long getFramesAdded() {
+        return framesAdded;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return bytes of pixel memory the ring holds on to
+     */
+    public long getRetainedBytes() {
+        long arrays = spare != null ? 1 : 0;
+        for (int[] slot : slots) {
+            if (slot != null) {
+                arrays++;
+            }
+        }
+        return arrays * width * height * Integer.BYTES;
+    }
+
+    /**
+     * Encodes the frames held as an AVI (TechSmith screen capture codec, the
+     * same as the full-screen recorder). Each distinct frame is written once,
+     * with its repeats as its duration.
+     * @return the AVI file contents, or null if the ring is empty
+     */
+    public byte[] toAvi() {
+        if (size == 0) {
+            return null;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            AVIWriter out = new AVIWriter(new MemoryCacheImageOutputStream(bytes));
+            try {
+                int track = out.addTrack(new Format(FormatKeys.MediaTypeKey, FormatKeys.MediaType.VIDEO,
+                        FormatKeys.EncodingKey, ENCODING_AVI_TECHSMITH_SCREEN_CAPTURE,
+                        CompressorNameKey, ENCODING_AVI_TECHSMITH_SCREEN_CAPTURE,
+                        WidthKey, width, HeightKey, height, DepthKey, 24,
+                        FormatKeys.FrameRateKey, Rational.valueOf(frameRate), QualityKey, 1.0f,
+                        FormatKeys.KeyFrameIntervalKey, frameRate * 60));
+                BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+                int[] target = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+                for (int i = 0; i < size; i++) {
+                    int slot = slot(i);
+                    System.arraycopy(slots[slot], 0, target, 0, target.length);
+                    out.write(track, image, repeats[slot]);
+                }
+            } finally {
+                out.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ Failed to encode recording: " + e.getMessage(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private int slot(int index) {
+        return (head + index) % capacity;
+    }
+
+    private void evictOldest() {
+        ticks -= repeats[head];
+        repeats[head] = 0;
+        head = (head + 1) % capacity;
+        size--;
+    }
+
+    private void copyPixels(BufferedImage frame, int[] pixels) {
+        if (frame.getType() == BufferedImage.TYPE_INT_RGB || frame.getType() == BufferedImage.TYPE_INT_ARGB) {
+            int[] source = ((DataBufferInt) frame.getRaster().getDataBuffer()).getData();
+            if (source.length == pixels.length) {
+                System.arraycopy(source, 0, pixels, 0, pixels.length);
+                return;
+            }
+        }
+        frame.getRGB(0, 0, width, height, pixels, 0, width);
+    }
+}
@@ -0,0 +1,41 @@
+package common;
+
+import java.awt.AWTException;
+import java.awt.Rectangle;
+import java.awt.Robot;
+import java.awt.image.BufferedImage;
+
+/**
+ * Where a window recording gets its frames from: the real screen, or a
+ * synthetic source when there is no screen to capture (e.g. stub runs on Linux).
+ */
+public interface FrameSource {
+
+    /**
+     * Captures one frame of the given screen area.
+     * @param area screen bounds to capture
+     * @return an image of exactly area.width x area.height pixels
+     */
+    BufferedImage capture(Rectangle area);
+
+    /**
+     * Captures the desktop with {@link Robot}; the Robot is created on the first capture.
+     */
+    static FrameSource screen() {
+        return new FrameSource() {
+            private Robot robot;
+
+            @Override
+            public synchronized BufferedImage capture(Rectangle area) {
+                if (robot == null) {
+                    try {
+                        robot = new Robot();
+                    } catch (AWTException e) {
+                        throw new IllegalStateException("❌ Screen capture is not available: " + e.getMessage(), e);
+                    }
+                }
+                return robot.createScreenCapture(area);
+            }
+        };
+    }
+}
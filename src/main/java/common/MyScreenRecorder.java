@@ -7,12 +7,20 @@ import org.monte.media.FormatKeys.MediaType;
 import org.monte.media.Registry;
 import org.monte.media.math.Rational;
 import org.monte.screenrecorder.ScreenRecorder;
+import utils.ConfigReader;
 
 import java.awt.*;
 import java.io.File;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.monte.media.AudioFormatKeys.*;
 import static org.monte.media.VideoFormatKeys.*;
@@ -21,10 +29,32 @@ import static org.monte.media.VideoFormatKeys.DepthKey;
 import static org.monte.media.VideoFormatKeys.ENCODING_AVI_TECHSMITH_SCREEN_CAPTURE;
 import static org.monte.media.VideoFormatKeys.QualityKey;
 
+/**
+ * Screen recording for tests. {@link #startRecording(String)} records the
+ * whole screen to the recordingsDir folder (default recordings/) for as long
+ * as it runs.
+ * <p>
+ * Window recording ({@link #startWindowRecording(String, Rectangle)}) captures
+ * only the app window into an in-memory ring holding the last
+ * recordingSeconds of frames, so nothing is encoded or written unless the
+ * test fails; see {@link WindowRecording} and {@link FrameRing}.
+ */
 public class MyScreenRecorder extends ScreenRecorder {
     public static ScreenRecorder screenRecorder;
     public String name;
 
+    // Window recordings: the one running on each test thread, and rings free for reuse
+    private static final Map<Thread, WindowRecording> windowRecordings = new ConcurrentHashMap<>();
+    private static final Queue<FrameRing> freeRings = new ConcurrentLinkedQueue<>();
+    private static volatile FrameSource frameSource;
+    private static volatile ScheduledExecutorService captureScheduler;
+    private static final AtomicLong recorded = new AtomicLong();
+    private static final AtomicLong discarded = new AtomicLong();
+    private static final AtomicLong encoded = new AtomicLong();
+    private static final AtomicLong captureCpuNanos = new AtomicLong();
+    private static final AtomicLong encodeCpuNanos = new AtomicLong();
+    private static final AtomicLong bytesWritten = new AtomicLong();
+
     public MyScreenRecorder(GraphicsConfiguration cfg, Rectangle captureArea, Format fileFormat,
                             Format screenFormat, Format mouseFormat, Format audioFormat, File movieFolder, String name)
             throws IOException, AWTException {
@@ -48,7 +78,7 @@ public class MyScreenRecorder extends ScreenRecorder {
     }
 
     public static void startRecording(String methodName) throws Exception {
-        File file = new File("./recordings/");
+        File file = new File(ConfigReader.getSetting("recordingsDir", "recordings"));
 
         Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
         int width = screenSize.width;
@@ -75,4 +105,109 @@ public class MyScreenRecorder extends ScreenRecorder {
     public static void stopRecording() throws Exception {
         screenRecorder.stop();
     }
-}
\ No newline at end of file
+
+    /**
+     * @return true if tests record their app window (windowRecording property)
+     */
+    public static boolean isWindowRecordingEnabled() {
+        return ConfigReader.getBoolean("windowRecording", false);
+    }
+
+    /**
+     * Sets where window recordings capture frames from; defaults to the screen.
+     */
+    public static void setFrameSource(FrameSource source) {
+        frameSource = source;
+    }
+
+    /**
+     * Starts recording a window for the calling thread's test, replacing (and
+     * discarding) any recording the thread still has. Keeps the last
+     * recordingSeconds (default 10) at recordingFps (default 10).
+     * @param name test name, used for the video file
+     * @param bounds the window's screen bounds
+     */
+    public static WindowRecording startWindowRecording(String name, Rectangle bounds) {
+        discardWindowRecording();
+        int frameRate = ConfigReader.getInt("recordingFps", 10);
+        int seconds = ConfigReader.getInt("recordingSeconds", 10);
+        FrameRing ring = freeRings.poll();
+        if (ring == null || ring.getCapacity() != frameRate * seconds) {
+            ring = new FrameRing(frameRate, frameRate * seconds);
+        }
+        FrameSource source = frameSource != null ? frameSource : (frameSource = FrameSource.screen());
+        WindowRecording recording = new WindowRecording(name, bounds, source, ring, MyScreenRecorder::released);
+        windowRecordings.put(Thread.currentThread(), recording);
+        recorded.incrementAndGet();
+        recording.start(getCaptureScheduler(), frameRate);
+        return recording;
+    }
+
+    /**
+     * Stops the calling thread's window recording and hands it over for
+     * encoding; call {@link WindowRecording#encode()} off the test thread.
+     * @return the recording, or null if the thread is not recording
+     */
+    public static WindowRecording stopWindowRecording() {
+        WindowRecording recording = windowRecordings.remove(Thread.currentThread());
+        if (recording != null) {
+            recording.stop();
+        }
+        return recording;
+    }
+
+    /**
+     * Stops the calling thread's window recording and drops its frames.
+     * @return the discarded recording (for its capture metrics), or null if the thread is not recording
+     */
+    public static WindowRecording discardWindowRecording() {
+        WindowRecording recording = windowRecordings.remove(Thread.currentThread());
+        if (recording != null) {
+            discarded.incrementAndGet();
+            recording.discard();
+        }
+        return recording;
+    }
+
+    /**
+     * @return window recording totals, or null if nothing was recorded
+     */
+    public static String windowRecordingSummary() {
+        if (recorded.get() == 0) {
+            return null;
+        }
+        return String.format("Window recordings: %d recorded, %d discarded, %d encoded (%d bytes), "
+                        + "capture CPU %.1f ms, encode CPU %.1f ms",
+                recorded.get(), discarded.get(), encoded.get(), bytesWritten.get(),
+                captureCpuNanos.get() / 1e6, encodeCpuNanos.get() / 1e6);
+    }
+
+    private static void released(WindowRecording recording) {
+        captureCpuNanos.addAndGet(recording.getCaptureCpuNanos());
+        if (recording.isEncoded()) {
+            encoded.incrementAndGet();
+            encodeCpuNanos.addAndGet(recording.getEncodeCpuNanos());
+            bytesWritten.addAndGet(recording.getBytesWritten());
+        }
+        FrameRing ring = recording.getRing();
+        ring.clear();
+        freeRings.offer(ring);
+    }
+
+    private static ScheduledExecutorService getCaptureScheduler() {
+        ScheduledExecutorService current = captureScheduler;
+        if (current == null) {
+            synchronized (MyScreenRecorder.class) {
+                if (captureScheduler == null) {
+                    captureScheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+                        Thread thread = new Thread(task, "window-capture");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+                current = captureScheduler;
+            }
+        }
+        return current;
+    }
+}
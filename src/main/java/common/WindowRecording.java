@@ -0,0 +1,204 @@
+package common;
+
+import java.awt.Rectangle;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * One test's window recording: frames of the app window are captured on the
+ * recorder's capture thread into a {@link FrameRing}. When the test ends the
+ * recording is either discarded (nothing touches the disk) or encoded by
+ * whoever calls {@link #encode()} - normally the artifact writer thread.
+ * Tracks the CPU time spent capturing and encoding, and the bytes encoded.
+ */
+public final class WindowRecording {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final String name;
+    private final Rectangle bounds;
+    private final FrameSource source;
+    private final FrameRing ring;
+    private final Consumer<WindowRecording> onRelease;
+    private final AtomicLong captureCpuNanos = new AtomicLong();
+    private final AtomicLong captureFailures = new AtomicLong();
+    private ScheduledFuture<?> capture;
+    private boolean stopped;
+    private boolean released;
+    private long framesCaptured;
+    private int framesKept;
+    private volatile boolean encoded;
+    private volatile long encodeCpuNanos;
+    private volatile long bytesWritten;
+    private volatile String lastCaptureError;
+
+    WindowRecording(String name, Rectangle bounds, FrameSource source, FrameRing ring, Consumer<WindowRecording> onRelease) {
+        this.name = name;
+        this.bounds = new Rectangle(bounds);
+        this.source = source;
+        this.ring = ring;
+        this.onRelease = onRelease;
+    }
+
+    void start(ScheduledExecutorService scheduler, int frameRate) {
+        long period = TimeUnit.SECONDS.toNanos(1) / frameRate;
+        capture = scheduler.scheduleAtFixedRate(this::captureFrame, 0, period, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops capturing; once this returns no capture is in progress.
+     */
+    void stop() {
+        synchronized (ring) {
+            if (!stopped) {
+                stopped = true;
+                framesCaptured = ring.getFramesAdded();
+                framesKept = ring.size();
+            }
+        }
+        if (capture != null) {
+            capture.cancel(false);
+        }
+    }
+
+    /**
+     * Drops the frames without encoding them.
+     */
+    void discard() {
+        stop();
+        release();
+    }
+
+    /**
+     * Encodes the frames held as an AVI and releases the frame memory. Meant
+     * for a background thread; the CPU time it takes is added to this
+     * recording's encode time.
+     * @return the AVI contents, or null if no frame was captured
+     */
+    public byte[] encode() {
+        stop();
+        long cpuStart = threadCpuNanos();
+        try {
+            byte[] avi;
+            synchronized (ring) {
+                if (released) {
+                    throw new IllegalStateException("❌ Recording " + name + " was already released");
+                }
+                avi = ring.toAvi();
+            }
+            bytesWritten = avi == null ? 0 : avi.length;
+            encoded = true;
+            return avi;
+        } finally {
+            encodeCpuNanos = threadCpuNanos() - cpuStart;
+            release();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Rectangle getBounds() {
+        return new Rectangle(bounds);
+    }
+
+    /**
+     * @return frames captured for this recording, including those that fell out of the ring
+     */
+    public long getFramesCaptured() {
+        synchronized (ring) {
+            return stopped ? framesCaptured : ring.getFramesAdded();
+        }
+    }
+
+    /**
+     * @return distinct frames held in the ring
+     */
+    public int getFramesKept() {
+        synchronized (ring) {
+            return stopped ? framesKept : ring.size();
+        }
+    }
+
+    public long getCaptureCpuNanos() {
+        return captureCpuNanos.get();
+    }
+
+    public long getCaptureFailures() {
+        return captureFailures.get();
+    }
+
+    /**
+     * @return true once {@link #encode()} has produced the video
+     */
+    public boolean isEncoded() {
+        return encoded;
+    }
+
+    /**
+     * @return CPU time of {@link #encode()}, 0 if the recording was not encoded
+     */
+    public long getEncodeCpuNanos() {
+        return encodeCpuNanos;
+    }
+
+    /**
+     * @return bytes of video produced by {@link #encode()}, 0 if the recording was not encoded
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public String summary() {
+        String failures = captureFailures.get() == 0 ? ""
+                : String.format(", %d captures failed (%s)", captureFailures.get(), lastCaptureError);
+        return String.format("Recording %s %dx%d: %d frames captured, %d distinct kept, capture CPU %.1f ms, "
+                        + "encode CPU %.1f ms, %d bytes written%s",
+                name, bounds.width, bounds.height, getFramesCaptured(), getFramesKept(),
+                captureCpuNanos.get() / 1e6, encodeCpuNanos / 1e6, bytesWritten, failures);
+    }
+
+    FrameRing getRing() {
+        return ring;
+    }
+
+    /**
+     * Hands the ring back for reuse; the recording's counts stay readable.
+     */
+    private void release() {
+        synchronized (ring) {
+            if (released) {
+                return;
+            }
+            released = true;
+        }
+        onRelease.accept(this);
+    }
+
+    private void captureFrame() {
+        long cpuStart = threadCpuNanos();
+        try {
+            synchronized (ring) {
+                if (!stopped) {
+                    ring.add(source.capture(bounds));
+                }
+            }
+        } catch (RuntimeException e) {
+            // an exception would cancel the schedule; count it and keep recording
+            captureFailures.incrementAndGet();
+            lastCaptureError = e.getMessage();
+        } finally {
+            captureCpuNanos.addAndGet(threadCpuNanos() - cpuStart);
+        }
+    }
+
+    private static long threadCpuNanos() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : 0;
+    }
+}
@@ -0,0 +1,166 @@
+package pages;
+
+import org.openqa.selenium.remote.RemoteWebDriver;
+import utils.ConfigReader;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Shadow model of one Calculator session: what the display shows, the
+ * operator waiting for its second operand and the mode, as far as the page
+ * object knows from its own actions. Every page object created on the
+ * session shares it, so a clear issued by the test setup is still known when
+ * the test's own add() wants to clear again.
+ * <p>
+ * Knowledge is conservative: an input makes the display unknown until it is
+ * read, and an action that throws leaves the state unknown. A field is
+ * only set after the app confirmed it (a read) or an action that cannot end
+ * any other way succeeded (Clear, a verified mode switch).
+ * <p>
+ * shadowState=false turns the model off; shadowVerifyEvery=N (strict mode)
+ * checks every Nth action the model would skip against the app instead.
+ */
+public class CalculatorState {
+
+    // keyed by the driver object so a relaunched session starts unknown; dropped with the driver
+    private static final Map<RemoteWebDriver, CalculatorState> SESSION_STATES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final boolean enabled;
+    private final int verifyEvery;
+    private int skipsSinceCheck;
+
+    private String display;
+    private boolean cleared;
+    private String pendingOperator;
+    private boolean operatorKnown;
+    private String mode;
+
+    CalculatorState(boolean enabled, int verifyEvery) {
+        this.enabled = enabled;
+        this.verifyEvery = verifyEvery;
+    }
+
+    /**
+     * Returns the state shared by all page objects on the driver's session.
+     */
+    public static CalculatorState forDriver(RemoteWebDriver driver) {
+        return SESSION_STATES.computeIfAbsent(driver, session -> new CalculatorState(
+                ConfigReader.getBoolean("shadowState", true),
+                ConfigReader.getInt("shadowVerifyEvery", 0)));
+    }
+
+    /**
+     * @return the raw display text ("Display is 42") if it was read since the last input, else null
+     */
+    public String getDisplay() {
+        return enabled ? display : null;
+    }
+
+    /**
+     * @return true if the last input was a Clear: the display shows 0 and no operation is pending
+     */
+    public boolean isCleared() {
+        return enabled && cleared;
+    }
+
+    /**
+     * @return "+", "-", "×" or "÷" while an operator waits for its second operand,
+     * null when none does or when that is not known
+     */
+    public String getPendingOperator() {
+        return pendingOperator;
+    }
+
+    /**
+     * @return "Standard", "Scientific" or "Programmer", or null when not known
+     */
+    public String getMode() {
+        return enabled ? mode : null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Counts an action the model is about to skip.
+     * @return true in strict mode when this one should be checked against the app instead
+     */
+    boolean dueForCheck() {
+        if (verifyEvery <= 0) {
+            return false;
+        }
+        if (++skipsSinceCheck >= verifyEvery) {
+            skipsSinceCheck = 0;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * An input is about to be sent: whatever it does, the display is no longer known.
+     */
+    void beforeInput() {
+        display = null;
+        cleared = false;
+    }
+
+    void cleared() {
+        cleared = true;
+        pendingOperator = null;
+        operatorKnown = true;
+    }
+
+    /**
+     * @param operator the operator now pending, or null after Equals
+     */
+    void operator(String operator) {
+        pendingOperator = operator;
+        operatorKnown = true;
+    }
+
+    /**
+     * Several keys went in at once (a key plan); the operator they leave is not tracked.
+     */
+    void keysSent() {
+        pendingOperator = null;
+        operatorKnown = false;
+    }
+
+    void observed(String displayText) {
+        display = displayText;
+    }
+
+    void modeSwitching() {
+        beforeInput();
+        mode = null;
+    }
+
+    void modeEntered(String modeName) {
+        mode = modeName;
+    }
+
+    /**
+     * Drops everything; the next action of each kind goes to the app.
+     */
+    void forget() {
+        beforeInput();
+        keysSent();
+        mode = null;
+        skipsSinceCheck = 0;
+    }
+
+    @Override
+    public String toString() {
+        if (!enabled) {
+            return "CalculatorState[off]";
+        }
+        return String.format("CalculatorState[display=%s, cleared=%s, operator=%s, mode=%s]",
+                display == null ? "?" : display.replace("Display is ", ""), cleared,
+                operatorKnown ? (pendingOperator == null ? "none" : pendingOperator) : "?",
+                mode == null ? "?" : mode);
+    }
+}
@@ -0,0 +1,28 @@
+package pages;
+
+import utils.ConfigReader;
+
+/**
+ * How P01_CalculatorPage delivers operands to the Calculator window.
+ */
+public enum InputMode {
+
+    /** One locator lookup and click per digit (original behaviour). */
+    CLICK,
+
+    /** The whole operand is typed as a single keyboard payload. */
+    KEYBOARD;
+
+    /**
+     * Resolves the run-wide mode from -DinputMode or the inputMode property
+     * in config.properties, defaulting to CLICK.
+     */
+    public static InputMode fromConfig() {
+        String value = ConfigReader.getSetting("inputMode", CLICK.name());
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("❌ Unsupported inputMode: " + value + " (expected click or keyboard)", e);
+        }
+    }
+}
@@ -2,21 +2,53 @@ package pages;
 
 import io.appium.java_client.windows.WindowsDriver;
 import org.openqa.selenium.By;
+import org.openqa.selenium.Keys;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import java.time.Duration;
+import java.util.List;
 import io.appium.java_client.MobileBy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pages.expression.CalcKey;
+import pages.expression.EvaluationResult;
+import pages.expression.Expression;
+import pages.expression.KeyPlan;
+import pages.expression.KeyPlanner;
+import utils.AdaptiveWait;
+import utils.AppInstances;
+import utils.ConfigReader;
+import utils.ElementCache;
+import utils.InputStats;
+import utils.UiSnapshot;
 
 
 /**
  * Page Object Model for Windows Calculator
  * Implements Fluent Design Pattern for readable test steps
+ * Operations log at INFO; individual clicks and keystrokes only at TRACE
+ * (-DpageLogLevel=trace), so they cost nothing in a normal run
+ * Actions the session's shadow state proves redundant (a clear of a cleared
+ * display, re-entering the current mode, reading a display already read) are
+ * skipped, see CalculatorState
+ * With uiSnapshot=true buttons are resolved from one page source fetch per
+ * mode instead of one findElement each, see UiSnapshot
  */
 public class P01_CalculatorPage {
 
-    private WindowsDriver driver;
+    private static final Logger logger = LogManager.getLogger(P01_CalculatorPage.class);
+
+    private WindowsDriver<WebElement> driver;
     private WebDriverWait wait;
+    private ElementCache elementCache;
+    private UiSnapshot snapshot;
+    private CalculatorState state;
+    private InputMode inputMode;
+    private Duration displaySettleTimeout;
+    private Duration displayStable;
+    private Duration modeSwitchTimeout;
 
     // Number buttons (0-9)
     private By num0Button = By.name("Zero");
@@ -45,9 +77,12 @@ public class P01_CalculatorPage {
     private By squareButton = By.name("Square");
     private By reciprocalButton = By.name("Reciprocal");
     private By percentButton = By.name("Percent");
+    private By clearMemoryButton = By.name("Clear all memory");
 
     // Display
     private By displayField = MobileBy.AccessibilityId("CalculatorResults");
+    private By modeHeader = MobileBy.AccessibilityId("Header");
+    private static final String CLEARED_DISPLAY = "Display is 0";
 
     // Menu and mode
     private By menuButton = By.name("Open Navigation");
@@ -55,9 +90,29 @@ public class P01_CalculatorPage {
     private By scientificMode = By.name("Scientific Calculator");
     private By programmerMode = By.name("Programmer Calculator");
 
-    public P01_CalculatorPage(WindowsDriver driver) {
+    public P01_CalculatorPage(WindowsDriver<WebElement> driver) {
         this.driver = driver;
         this.wait = new WebDriverWait(driver, 25);
+        this.elementCache = ElementCache.forDriver(driver);
+        this.snapshot = UiSnapshot.isEnabled() ? UiSnapshot.forDriver(driver) : null;
+        this.state = CalculatorState.forDriver(driver);
+        this.inputMode = InputMode.fromConfig();
+        this.displaySettleTimeout = Duration.ofMillis(
+                ConfigReader.getLong("displaySettleTimeoutMs", 500));
+        this.displayStable = Duration.ofMillis(
+                ConfigReader.getLong("displayStableMs", 100));
+        this.modeSwitchTimeout = Duration.ofMillis(
+                ConfigReader.getLong("modeSwitchTimeoutMs", 5000));
+    }
+
+    /**
+     * Override the run-wide operand input mode for this page object
+     * @param inputMode CLICK or KEYBOARD
+     * @return this for fluent chaining
+     */
+    public P01_CalculatorPage withInputMode(InputMode inputMode) {
+        this.inputMode = inputMode;
+        return this;
     }
 
     /**
@@ -65,9 +120,9 @@ public class P01_CalculatorPage {
      * @return this for fluent chaining
      */
     public P01_CalculatorPage waitForCalculatorToLoad() {
-        System.out.println("⏳ Waiting for Calculator to load...");
+        logger.info("⏳ Waiting for Calculator to load...");
         wait.until(ExpectedConditions.presenceOfElementLocated(num1Button));
-        System.out.println("✓ Calculator loaded");
+        logger.info("✓ Calculator loaded");
         return this;
     }
 
@@ -76,12 +131,24 @@ public class P01_CalculatorPage {
      * @return this for fluent chaining
      */
     public P01_CalculatorPage clear() {
-        System.out.println("🧹 Clearing calculator");
-        WebElement clear = wait.until(
-                ExpectedConditions.elementToBeClickable(clearButton)
-        );
-        clear.click();
-        System.out.println("✓ Calculator cleared");
+        if (state.isCleared()) {
+            if (!state.dueForCheck()) {
+                ShadowStats.skipped(ShadowStats.Action.CLEAR);
+                logger.debug("🪞 Already cleared, skipping Clear");
+                return this;
+            }
+            String text = fetchDisplay();
+            boolean matched = text.equals(CLEARED_DISPLAY);
+            check(matched, CLEARED_DISPLAY, text);
+            if (matched) {
+                state.observed(text);
+                return this;
+            }
+        }
+        logger.debug("🧹 Clearing calculator");
+        press(clearButton);
+        state.cleared();
+        ShadowStats.performed(ShadowStats.Action.CLEAR);
         return this;
     }
 
@@ -90,12 +157,8 @@ public class P01_CalculatorPage {
      * @return this for fluent chaining
      */
     public P01_CalculatorPage clearEntry() {
-        System.out.println("🧹 Clearing entry");
-        WebElement clearEntry = wait.until(
-                ExpectedConditions.elementToBeClickable(clearEntryButton)
-        );
-        clearEntry.click();
-        System.out.println("✓ Entry cleared");
+        logger.debug("🧹 Clearing entry");
+        press(clearEntryButton);
         return this;
     }
 
@@ -105,23 +168,26 @@ public class P01_CalculatorPage {
      * @return this for fluent chaining
      */
     public P01_CalculatorPage clickNumber(int number) {
-        System.out.println("🔢 Clicking number: " + number);
-        By numberLocator = getNumberLocator(number);
-        WebElement numButton = wait.until(
-                ExpectedConditions.elementToBeClickable(numberLocator)
-        );
-        numButton.click();
-        System.out.println("✓ Number " + number + " clicked");
+        press(getNumberLocator(number));
+        if (logger.isTraceEnabled()) {
+            logger.trace("✓ Number {} clicked", number);
+        }
         return this;
     }
 
     /**
-     * Enter a multi-digit number
+     * Enter a multi-digit number. A leading '-' is applied with the sign toggle
+     * after the digits, as the Calculator expects.
+     * In KEYBOARD mode the whole operand is sent as one keystroke payload,
+     * falling back to clicks if the keyboard command fails
      * @param number the number to enter
      * @return this for fluent chaining
      */
     public P01_CalculatorPage enterNumber(String number) {
-        System.out.println("🔢 Entering number: " + number);
+        logger.debug("🔢 Entering number: {}", number);
+        if (inputMode == InputMode.KEYBOARD && typeNumber(number)) {
+            return this;
+        }
         for (char digit : number.toCharArray()) {
             if (digit == '.') {
                 clickDecimal();
@@ -129,7 +195,9 @@ public class P01_CalculatorPage {
                 clickNumber(Character.getNumericValue(digit));
             }
         }
-        System.out.println("✓ Number entered");
+        if (number.startsWith("-")) {
+            clickPositiveNegative();
+        }
         return this;
     }
 
@@ -138,8 +206,8 @@ public class P01_CalculatorPage {
      * @return this for fluent chaining
      */
     public P01_CalculatorPage clickPlus() {
-        System.out.println("➕ Clicking Plus");
         clickButton(plusButton, "Plus");
+        state.operator("+");
         return this;
     }
 
@@ -148,8 +216,8 @@ public class P01_CalculatorPage {
      * @return this for fluent chaining
      */
     public P01_CalculatorPage clickMinus() {
-        System.out.println("➖ Clicking Minus");
         clickButton(minusButton, "Minus");
+        state.operator("-");
         return this;
     }
 
@@ -158,8 +226,8 @@ public class P01_CalculatorPage {
      * @return this for fluent chaining
      */
     public P01_CalculatorPage clickMultiply() {
-        System.out.println("✖️ Clicking Multiply");
         clickButton(multiplyButton, "Multiply");
+        state.operator("×");
         return this;
     }
 
@@ -168,8 +236,8 @@ public class P01_CalculatorPage {
      * @return this for fluent chaining
      */
     public P01_CalculatorPage clickDivide() {
-        System.out.println("➗ Clicking Divide");
         clickButton(divideButton, "Divide");
+        state.operator("÷");
         return this;
     }
 
@@ -178,9 +246,10 @@ public class P01_CalculatorPage {
      * @return this for fluent chaining
      */
     public P01_CalculatorPage clickEquals() {
-        System.out.println("🟰 Clicking Equals");
+        String before = readDisplay();
         clickButton(equalsButton, "Equals");
-        sleep(500); // Wait for calculation
+        state.operator(null);
+        waitForDisplayChange(before); // Wait for calculation
         return this;
     }
 
@@ -189,7 +258,6 @@ public class P01_CalculatorPage {
      * @return this for fluent chaining
      */
     public P01_CalculatorPage clickDecimal() {
-        System.out.println("• Clicking Decimal");
         clickButton(decimalButton, "Decimal");
         return this;
     }
@@ -199,7 +267,6 @@ public class P01_CalculatorPage {
      * @return this for fluent chaining
      */
     public P01_CalculatorPage clickBackspace() {
-        System.out.println("⌫ Clicking Backspace");
         clickButton(backspaceButton, "Backspace");
         return this;
     }
@@ -209,7 +276,6 @@ public class P01_CalculatorPage {
      * @return this for fluent chaining
      */
     public P01_CalculatorPage clickPositiveNegative() {
-        System.out.println("±️ Clicking Positive/Negative");
         clickButton(positiveNegativeButton, "Positive/Negative");
         return this;
     }
@@ -219,7 +285,6 @@ public class P01_CalculatorPage {
      * @return this for fluent chaining
      */
     public P01_CalculatorPage clickSquareRoot() {
-        System.out.println("√ Clicking Square Root");
         clickButton(squareRootButton, "Square Root");
         return this;
     }
@@ -229,7 +294,6 @@ public class P01_CalculatorPage {
      * @return this for fluent chaining
      */
     public P01_CalculatorPage clickSquare() {
-        System.out.println("x² Clicking Square");
         clickButton(squareButton, "Square");
         return this;
     }
@@ -239,7 +303,6 @@ public class P01_CalculatorPage {
      * @return this for fluent chaining
      */
     public P01_CalculatorPage clickReciprocal() {
-        System.out.println("1/x Clicking Reciprocal");
         clickButton(reciprocalButton, "Reciprocal");
         return this;
     }
@@ -249,7 +312,6 @@ public class P01_CalculatorPage {
      * @return this for fluent chaining
      */
     public P01_CalculatorPage clickPercent() {
-        System.out.println("% Clicking Percent");
         clickButton(percentButton, "Percent");
         return this;
     }
@@ -259,14 +321,10 @@ public class P01_CalculatorPage {
      * @return the displayed result as a string
      */
     public String getResult() {
-        System.out.println("📊 Getting result from display");
-        WebElement display = wait.until(
-                ExpectedConditions.presenceOfElementLocated(displayField)
-        );
-        String result = display.getText();
+        String result = readDisplay();
         // Remove "Display is" prefix if present
         result = result.replace("Display is ", "");
-        System.out.println("✓ Result: " + result);
+        logger.debug("📊 Result: {}", result);
         return result;
     }
 
@@ -279,10 +337,9 @@ public class P01_CalculatorPage {
         String actualResult = getResult();
         boolean matches = actualResult.equals(expectedResult);
         if (matches) {
-            System.out.println("✅ Result verification passed: " + actualResult);
+            logger.info("✅ Result verification passed: {}", actualResult);
         } else {
-            System.out.println("❌ Result verification failed. Expected: " +
-                    expectedResult + ", Actual: " + actualResult);
+            logger.warn("❌ Result verification failed. Expected: {}, Actual: {}", expectedResult, actualResult);
         }
         return matches;
     }
@@ -294,7 +351,7 @@ public class P01_CalculatorPage {
      * @return this for fluent chaining
      */
     public P01_CalculatorPage add(String num1, String num2) {
-        System.out.println("➕ Performing addition: " + num1 + " + " + num2);
+        logger.info("➕ Performing addition: {} + {}", num1, num2);
         return clear()
                 .enterNumber(num1)
                 .clickPlus()
@@ -309,7 +366,7 @@ public class P01_CalculatorPage {
      * @return this for fluent chaining
      */
     public P01_CalculatorPage subtract(String num1, String num2) {
-        System.out.println("➖ Performing subtraction: " + num1 + " - " + num2);
+        logger.info("➖ Performing subtraction: {} - {}", num1, num2);
         return clear()
                 .enterNumber(num1)
                 .clickMinus()
@@ -324,7 +381,7 @@ public class P01_CalculatorPage {
      * @return this for fluent chaining
      */
     public P01_CalculatorPage multiply(String num1, String num2) {
-        System.out.println("✖️ Performing multiplication: " + num1 + " × " + num2);
+        logger.info("✖️ Performing multiplication: {} × {}", num1, num2);
         return clear()
                 .enterNumber(num1)
                 .clickMultiply()
@@ -339,7 +396,7 @@ public class P01_CalculatorPage {
      * @return this for fluent chaining
      */
     public P01_CalculatorPage divide(String num1, String num2) {
-        System.out.println("➗ Performing division: " + num1 + " ÷ " + num2);
+        logger.info("➗ Performing division: {} ÷ {}", num1, num2);
         return clear()
                 .enterNumber(num1)
                 .clickDivide()
@@ -347,17 +404,91 @@ public class P01_CalculatorPage {
                 .clickEquals();
     }
 
+    /**
+     * Evaluate an arithmetic expression with the usual precedence, e.g. "2 + 3 * (4 - 1.5)".
+     * The expression is planned into the shortest key sequence for the Calculator's
+     * immediate execution (see KeyPlanner), typed as one keyboard payload in KEYBOARD
+     * mode or clicked key by key, and the display is compared with the value
+     * computed in-JVM with BigDecimal
+     * @param expression the expression to evaluate
+     * @return displayed and expected value, plan size and command count
+     */
+    public EvaluationResult evaluate(String expression) {
+        logger.info("🧮 Evaluating: {}", expression);
+        Expression parsed = Expression.parse(expression);
+        KeyPlan plan = KeyPlanner.plan(parsed);
+        String expected = parsed.expectedDisplay();
+
+        EvaluationResult result = execute(expression, plan, expected);
+        if (result.matches()) {
+            logger.info("✓ {}", result);
+        } else {
+            logger.warn("❌ {}", result);
+        }
+        return result;
+    }
+
+    /**
+     * Run a key plan and read the display it leaves, without logging each key;
+     * the building block of evaluate() and the differential fuzzer
+     * @param label what the plan computes, for reporting
+     * @param plan the keys to press, starting with a clear
+     * @param expected the display value the plan should produce
+     * @return displayed and expected value, plan size and command count
+     */
+    public EvaluationResult execute(String label, KeyPlan plan, String expected) {
+        int commands = pressAll(plan);
+        state.keysSent();
+        String target = "Display is " + expected;
+        // Always read the new result: each poll is one display read, and a display that
+        // is neither the expected text nor stable for displayStableMs may still be changing
+        int[] reads = {0};
+        String[] last = {null};
+        long[] lastChange = {0};
+        String displayed = AdaptiveWait.poll("display-settle", displaySettleTimeout, () -> {
+            reads[0]++;
+            String text = fetchDisplay();
+            long now = System.nanoTime();
+            if (!text.equals(last[0])) {
+                last[0] = text;
+                lastChange[0] = now;
+            }
+            return text.equals(target) || now - lastChange[0] >= displayStable.toNanos() ? text : null;
+        });
+        commands += reads[0];
+        if (displayed == null) {
+            // Still changing at the bound: report whatever it shows now
+            displayed = fetchDisplay();
+            commands++;
+        }
+        state.observed(displayed);
+        return new EvaluationResult(label, plan, displayed.replace("Display is ", ""), expected, commands);
+    }
+
     /**
      * Switch calculator mode
      * @param mode "Standard", "Scientific", or "Programmer"
      * @return this for fluent chaining
      */
     public P01_CalculatorPage switchMode(String mode) {
-        System.out.println("🔄 Switching to " + mode + " mode");
+        String modeName = modeName(mode);
+        if (modeName.equals(state.getMode())) {
+            if (!state.dueForCheck()) {
+                ShadowStats.skipped(ShadowStats.Action.MODE_SWITCH);
+                logger.info("🪞 Already in {} mode", modeName);
+                return this;
+            }
+            boolean matched = readMode(modeName);
+            check(matched, modeName + " mode", "another mode");
+            if (matched) {
+                return this;
+            }
+        }
+        logger.info("🔄 Switching to {} mode", mode);
+        state.modeSwitching();
         try {
             WebElement menu = driver.findElement(menuButton);
-            menu.click();
-            sleep(500);
+            AppInstances.input(driver, false, menu::click);
 
             By modeLocator;
             switch (mode.toLowerCase()) {
@@ -371,15 +502,96 @@ public class P01_CalculatorPage {
                     modeLocator = standardMode;
             }
 
-            WebElement modeButton = driver.findElement(modeLocator);
-            modeButton.click();
-            System.out.println("✓ Switched to " + mode + " mode");
+            WebElement modeButton = AdaptiveWait.until("menu-open", modeSwitchTimeout,
+                    () -> driver.findElement(modeLocator));
+            AppInstances.input(driver, false, modeButton::click);
+            AdaptiveWait.until("mode-switch", modeSwitchTimeout, () -> readMode(modeName));
+            // The new mode rebuilds the keypad, so previously resolved handles are gone
+            elementCache.invalidateAll();
+            if (snapshot != null) {
+                snapshot.invalidate();
+            }
+            state.modeEntered(modeName);
+            ShadowStats.performed(ShadowStats.Action.MODE_SWITCH);
+            logger.info("✓ Switched to {} mode", mode);
         } catch (Exception e) {
-            System.out.println("⚠️ Failed to switch mode: " + e.getMessage());
+            logger.warn("⚠️ Failed to switch mode: {}", e.getMessage());
         }
         return this;
     }
 
+    /**
+     * Bring a reused session back to a known state: Standard mode,
+     * empty memory and a cleared display. The shadow state is not trusted
+     * here; every step goes to the app
+     * @return true if the calculator is verifiably reset
+     */
+    public boolean resetToKnownState() {
+        logger.info("♻️ Resetting calculator to a known state");
+        state.forget();
+        try {
+            if (!isInMode("Standard")) {
+                switchMode("Standard");
+                if (!isInMode("Standard")) {
+                    logger.warn("⚠️ Calculator did not return to Standard mode");
+                    return false;
+                }
+            }
+            // Clear all memory is disabled while memory is empty
+            List<WebElement> clearMemory = driver.findElements(clearMemoryButton);
+            if (!clearMemory.isEmpty() && clearMemory.get(0).isEnabled()) {
+                AppInstances.input(driver, false, clearMemory.get(0)::click);
+            }
+            clear();
+            boolean reset = "0".equals(getResult());
+            if (reset) {
+                logger.info("✓ Calculator reset");
+            } else {
+                logger.warn("⚠️ Calculator display did not clear");
+            }
+            return reset;
+        } catch (Exception e) {
+            logger.warn("⚠️ Failed to reset calculator: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Check the mode named by the header
+     * @param mode "Standard", "Scientific", or "Programmer"
+     * @return true if the calculator is in that mode
+     */
+    public boolean isInMode(String mode) {
+        String known = state.getMode();
+        if (known != null) {
+            boolean expected = known.equalsIgnoreCase(mode);
+            if (!state.dueForCheck()) {
+                ShadowStats.skipped(ShadowStats.Action.MODE_READ);
+                return expected;
+            }
+            boolean actual = readMode(mode);
+            check(actual == expected, known + " mode", "header " + (actual ? "" : "not ") + "naming " + mode);
+            return actual;
+        }
+        return readMode(mode);
+    }
+
+    /**
+     * Element cache shared by all page objects on this session
+     * @return the session element cache with its hit/miss/stale counters
+     */
+    public ElementCache getElementCache() {
+        return elementCache;
+    }
+
+    /**
+     * Shadow state shared by all page objects on this session
+     * @return what this session's page objects know about the app
+     */
+    public CalculatorState getState() {
+        return state;
+    }
+
     /**
      * Get the number button locator
      * @param number the number (0-9)
@@ -407,22 +619,199 @@ public class P01_CalculatorPage {
      * @param buttonName the button name for logging
      */
     private void clickButton(By locator, String buttonName) {
-        WebElement button = wait.until(
-                ExpectedConditions.elementToBeClickable(locator)
-        );
-        button.click();
-        System.out.println("✓ " + buttonName + " button clicked");
+        press(locator);
+        if (logger.isTraceEnabled()) {
+            logger.trace("✓ {} button clicked", buttonName);
+        }
     }
 
     /**
-     * Utility method for waiting
-     * @param milliseconds time to sleep
+     * Click a button through the session element cache, under the host's
+     * input lock when other Calculator instances share the host. The button
+     * is resolved before the lock is taken: a cache miss can wait for it, and
+     * the other instances need not wait with it
+     * @param locator the button locator
+     */
+    private void press(By locator) {
+        state.beforeInput();
+        elementCache.withElement(locator, this::waitUntilClickable,
+                button -> AppInstances.input(driver, false, button::click));
+        InputStats.record(1, 1);
+    }
+
+    /**
+     * Run a key plan: one keyboard payload in KEYBOARD mode (falling back to
+     * clicks if it fails, the plan starts with a clear), else one click per key
+     * @param plan the keys to press
+     * @return the number of input commands sent
+     */
+    private int pressAll(KeyPlan plan) {
+        if (inputMode == InputMode.KEYBOARD) {
+            String keystrokes = plan.toKeystrokes();
+            state.beforeInput();
+            try {
+                AppInstances.input(driver, true, () -> driver.getKeyboard().sendKeys(keystrokes));
+                InputStats.record(plan.size(), 1);
+                if (logger.isTraceEnabled()) {
+                    logger.trace("⌨️ Typed {} keys in 1 command", plan.size());
+                }
+                return 1;
+            } catch (WebDriverException e) {
+                logger.warn("⚠️ Keyboard entry failed, falling back to clicks: {}", e.getMessage());
+            }
+        }
+        for (CalcKey key : plan.getKeys()) {
+            press(By.name(key.getButtonName()));
+        }
+        return plan.size();
+    }
+
+    /**
+     * Type a whole operand into the Calculator window with a single command
+     * @param number the operand, e.g. "-12.5"
+     * @return false if the keyboard command failed and the click path should be used
      */
-    private void sleep(long milliseconds) {
+    private boolean typeNumber(String number) {
+        String keystrokes = toKeystrokes(number);
+        state.beforeInput();
         try {
-            Thread.sleep(milliseconds);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            AppInstances.input(driver, true, () -> driver.getKeyboard().sendKeys(keystrokes));
+            InputStats.record(keystrokes.length(), 1);
+            if (logger.isTraceEnabled()) {
+                logger.trace("⌨️ Typed {} keystrokes in 1 command", keystrokes.length());
+            }
+            return true;
+        } catch (WebDriverException e) {
+            logger.warn("⚠️ Keyboard entry failed, falling back to clicks: {}", e.getMessage());
+            clearEntry();
+            return false;
+        }
+    }
+
+    /**
+     * Map an operand to Calculator keyboard shortcuts: digits and '.' as typed,
+     * F9 (negate) after the digits for a leading '-'
+     * @param number the operand
+     * @return the keystroke payload
+     */
+    private String toKeystrokes(String number) {
+        StringBuilder keystrokes = new StringBuilder();
+        for (char key : number.toCharArray()) {
+            if (key == '.' || Character.isDigit(key)) {
+                keystrokes.append(key);
+            }
+        }
+        if (number.startsWith("-")) {
+            keystrokes.append(Keys.F9);
+        }
+        return keystrokes.toString();
+    }
+
+    /**
+     * Resolves a button the first time it is used in a session, from the UI
+     * snapshot if there is one; later clicks reuse the cached handle
+     * @param locator the button locator
+     * @return the clickable element
+     */
+    private WebElement waitUntilClickable(By locator) {
+        WebElement indexed = snapshot == null ? null : snapshot.find(locator);
+        return indexed != null ? indexed : wait.until(ExpectedConditions.elementToBeClickable(locator));
+    }
+
+    /**
+     * Read the raw accessible text of the result display, or return it from the
+     * shadow state if it was read since the last input
+     * @return e.g. "Display is 42"
+     */
+    private String readDisplay() {
+        String known = state.getDisplay();
+        if (known != null) {
+            if (!state.dueForCheck()) {
+                ShadowStats.skipped(ShadowStats.Action.DISPLAY_READ);
+                return known;
+            }
+            String text = fetchDisplay();
+            check(text.equals(known), known, text);
+            state.observed(text);
+            return text;
+        }
+        String text = fetchDisplay();
+        state.observed(text);
+        return text;
+    }
+
+    /**
+     * Read the display from the app, bypassing the shadow state
+     * @return e.g. "Display is 42"
+     */
+    private String fetchDisplay() {
+        ShadowStats.performed(ShadowStats.Action.DISPLAY_READ);
+        return elementCache.getText(displayField, locator -> {
+            WebElement indexed = snapshot == null ? null : snapshot.find(locator);
+            return indexed != null ? indexed : wait.until(ExpectedConditions.presenceOfElementLocated(locator));
+        });
+    }
+
+    /**
+     * Read the mode header from the app, bypassing the shadow state
+     * @param mode "Standard", "Scientific", or "Programmer"
+     * @return true if the header names that mode
+     */
+    private boolean readMode(String mode) {
+        ShadowStats.performed(ShadowStats.Action.MODE_READ);
+        boolean inMode = driver.findElement(modeHeader).getText().toLowerCase().contains(mode.toLowerCase());
+        if (inMode) {
+            state.modeEntered(modeName(mode));
+        }
+        return inMode;
+    }
+
+    /**
+     * Record a strict-mode check; on a mismatch the shadow state is dropped
+     * and the action goes to the app
+     * @param matched whether the app was in the expected state
+     * @param expected what the shadow state predicted, for the log
+     * @param actual what the app showed, for the log
+     */
+    private void check(boolean matched, String expected, String actual) {
+        ShadowStats.checked(matched);
+        if (!matched) {
+            logger.warn("⚠️ Shadow state diverged: expected {}, app shows {}; resyncing from the app",
+                    expected, actual);
+            state.forget();
+        }
+    }
+
+    /**
+     * Canonical mode name, as switchMode maps it
+     * @param mode any case; anything else than scientific or programmer means Standard
+     * @return "Standard", "Scientific", or "Programmer"
+     */
+    private static String modeName(String mode) {
+        switch (mode.toLowerCase()) {
+            case "scientific":
+                return "Scientific";
+            case "programmer":
+                return "Programmer";
+            default:
+                return "Standard";
+        }
+    }
+
+    /**
+     * Wait until the display differs from its previous text. Results equal to
+     * the previous display never change it, so the wait is bounded by
+     * displaySettleTimeoutMs rather than failing; only a changed display
+     * becomes the known display
+     * @param before display text read before the action
+     */
+    private void waitForDisplayChange(String before) {
+        String changed = AdaptiveWait.poll("display-change", displaySettleTimeout, () -> {
+            String text = fetchDisplay();
+            return text.equals(before) ? null : text;
+        });
+        if (changed != null) {
+            state.observed(changed);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,146 @@
+package pages;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counters of the actions P01_CalculatorPage sent to the app versus those the
+ * session's {@link CalculatorState} proved redundant and skipped, run-wide
+ * and for the test running on the current thread, plus strict-mode checks
+ * and the divergences they found.
+ */
+public final class ShadowStats {
+
+    public enum Action {
+        CLEAR("clears"),
+        MODE_SWITCH("mode switches"),
+        DISPLAY_READ("display reads"),
+        MODE_READ("mode reads");
+
+        private final String label;
+
+        Action(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final int ACTIONS = Action.values().length;
+    // per action: performed, skipped; then checks, divergences
+    private static final int CHECKS = 2 * ACTIONS;
+    private static final int DIVERGENCES = CHECKS + 1;
+
+    private static final AtomicLongArray run = new AtomicLongArray(DIVERGENCES + 1);
+    private static final ThreadLocal<long[]> test = ThreadLocal.withInitial(() -> new long[DIVERGENCES + 1]);
+
+    private ShadowStats() {
+    }
+
+    /**
+     * Starts counting for a new test on the current thread.
+     */
+    public static void startTest() {
+        test.set(new long[DIVERGENCES + 1]);
+    }
+
+    static void performed(Action action) {
+        add(2 * action.ordinal());
+    }
+
+    static void skipped(Action action) {
+        add(2 * action.ordinal() + 1);
+    }
+
+    /**
+     * Records a strict-mode check of the model against the app.
+     * @param matched false if the app was not in the state the model expected
+     */
+    static void checked(boolean matched) {
+        add(CHECKS);
+        if (!matched) {
+            add(DIVERGENCES);
+        }
+    }
+
+    public static long getPerformed(Action action) {
+        return run.get(2 * action.ordinal());
+    }
+
+    public static long getSkipped(Action action) {
+        return run.get(2 * action.ordinal() + 1);
+    }
+
+    public static long getTestSkipped(Action action) {
+        return test.get()[2 * action.ordinal() + 1];
+    }
+
+    public static long getTestSkipped() {
+        long[] counts = test.get();
+        long skipped = 0;
+        for (int i = 0; i < ACTIONS; i++) {
+            skipped += counts[2 * i + 1];
+        }
+        return skipped;
+    }
+
+    public static long getChecks() {
+        return run.get(CHECKS);
+    }
+
+    public static long getDivergences() {
+        return run.get(DIVERGENCES);
+    }
+
+    public static void reset() {
+        for (int i = 0; i < run.length(); i++) {
+            run.set(i, 0);
+        }
+        startTest();
+    }
+
+    /**
+     * @return what the current thread's test skipped, e.g.
+     * "Shadow: skipped 3 of 7 actions (2 clears, 1 display reads)"
+     */
+    public static String testSummary() {
+        long[] counts = test.get();
+        long[] snapshot = new long[counts.length];
+        System.arraycopy(counts, 0, snapshot, 0, counts.length);
+        return format(snapshot);
+    }
+
+    public static String summary() {
+        long[] snapshot = new long[run.length()];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = run.get(i);
+        }
+        return format(snapshot);
+    }
+
+    private static void add(int index) {
+        run.incrementAndGet(index);
+        test.get()[index]++;
+    }
+
+    private static String format(long[] counts) {
+        long total = 0;
+        long skipped = 0;
+        List<String> kinds = new ArrayList<>();
+        for (Action action : Action.values()) {
+            long actionSkipped = counts[2 * action.ordinal() + 1];
+            total += counts[2 * action.ordinal()] + actionSkipped;
+            skipped += actionSkipped;
+            if (actionSkipped > 0) {
+                kinds.add(actionSkipped + " " + action.label);
+            }
+        }
+        String summary = String.format("Shadow: skipped %d of %d actions", skipped, total);
+        if (!kinds.isEmpty()) {
+            summary += " (" + String.join(", ", kinds) + ")";
+        }
+        if (counts[CHECKS] > 0) {
+            summary += String.format(", %d checked, %d diverged", counts[CHECKS], counts[DIVERGENCES]);
+        }
+        return summary;
+    }
+}
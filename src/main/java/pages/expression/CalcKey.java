@@ -0,0 +1,76 @@
+package pages.expression;
+
+import org.openqa.selenium.Keys;
+
+/**
+ * A Standard-mode Calculator key: its button's UI Automation name for clicking
+ * and its keyboard shortcut for typing.
+ */
+public enum CalcKey {
+
+    ZERO("Zero", "0", "0"),
+    ONE("One", "1", "1"),
+    TWO("Two", "2", "2"),
+    THREE("Three", "3", "3"),
+    FOUR("Four", "4", "4"),
+    FIVE("Five", "5", "5"),
+    SIX("Six", "6", "6"),
+    SEVEN("Seven", "7", "7"),
+    EIGHT("Eight", "8", "8"),
+    NINE("Nine", "9", "9"),
+    DECIMAL("Decimal separator", ".", "."),
+    PLUS("Plus", "+", "+"),
+    MINUS("Minus", "-", "-"),
+    MULTIPLY("Multiply by", "*", "×"),
+    DIVIDE("Divide by", "/", "÷"),
+    EQUALS("Equals", "=", "="),
+    NEGATE("Positive negative", Keys.F9.toString(), "±"),
+    SQUARE_ROOT("Square root", "@", "√"),
+    SQUARE("Square", "q", "x²"),
+    RECIPROCAL("Reciprocal", "r", "1/x"),
+    PERCENT("Percent", "%", "%"),
+    CLEAR("Clear", Keys.ESCAPE.toString(), "C"),
+    MEMORY_STORE("Memory store", Keys.chord(Keys.CONTROL, "m"), "MS"),
+    MEMORY_RECALL("Memory recall", Keys.chord(Keys.CONTROL, "r"), "MR");
+
+    private final String buttonName;
+    private final String keystrokes;
+    private final String label;
+
+    CalcKey(String buttonName, String keystrokes, String label) {
+        this.buttonName = buttonName;
+        this.keystrokes = keystrokes;
+        this.label = label;
+    }
+
+    /**
+     * @return the key for a digit character, e.g. '7' -> SEVEN
+     */
+    public static CalcKey digit(char digit) {
+        if (digit < '0' || digit > '9') {
+            throw new IllegalArgumentException("Not a digit: " + digit);
+        }
+        return values()[digit - '0'];
+    }
+
+    /**
+     * @return the button's Name property, e.g. "Multiply by"
+     */
+    public String getButtonName() {
+        return buttonName;
+    }
+
+    /**
+     * @return the keyboard shortcut, e.g. "*", F9 for NEGATE, Ctrl+M for MEMORY_STORE
+     */
+    public String getKeystrokes() {
+        return keystrokes;
+    }
+
+    /**
+     * @return the key cap, e.g. "×", "±", "MS"
+     */
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,45 @@
+package pages.expression;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * How the Standard Calculator computes and shows values: results are kept at
+ * 34 significant digits and displayed rounded to 16, without trailing zeros,
+ * switching to exponent notation ("1.e+20") outside the plain range.
+ */
+public final class DisplayFormat {
+
+    /** Internal precision of results */
+    public static final MathContext PRECISION = MathContext.DECIMAL128;
+    /** Digits shown, and the most digits an operand may be typed with */
+    public static final int DISPLAY_DIGITS = 16;
+
+    public static final String DIVIDE_BY_ZERO = "Cannot divide by zero";
+    public static final String INVALID_INPUT = "Invalid input";
+
+    private static final MathContext DISPLAY = new MathContext(DISPLAY_DIGITS, RoundingMode.HALF_EVEN);
+
+    private DisplayFormat() {
+    }
+
+    /**
+     * Formats a value the way the result display shows it, e.g. "0.3333333333333333".
+     */
+    public static String format(BigDecimal value) {
+        BigDecimal rounded = value.round(DISPLAY).stripTrailingZeros();
+        if (rounded.signum() == 0) {
+            return "0";
+        }
+        int exponent = rounded.precision() - rounded.scale() - 1;
+        if (exponent < DISPLAY_DIGITS && exponent > -DISPLAY_DIGITS) {
+            return rounded.toPlainString();
+        }
+        String mantissa = rounded.movePointLeft(exponent).toPlainString();
+        if (!mantissa.contains(".")) {
+            mantissa += ".";
+        }
+        return mantissa + "e" + (exponent > 0 ? "+" : "") + exponent;
+    }
+}
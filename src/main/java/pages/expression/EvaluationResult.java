@@ -0,0 +1,68 @@
+package pages.expression;
+
+/**
+ * Outcome of running an expression on the Calculator: what the display showed,
+ * what BigDecimal says it should show, and what it cost.
+ */
+public class EvaluationResult {
+
+    private final String expression;
+    private final KeyPlan plan;
+    private final String displayed;
+    private final String expected;
+    private final int commandCount;
+
+    public EvaluationResult(String expression, KeyPlan plan, String displayed, String expected, int commandCount) {
+        this.expression = expression;
+        this.plan = plan;
+        this.displayed = displayed;
+        this.expected = expected;
+        this.commandCount = commandCount;
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    public KeyPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * @return keys pressed, including the leading clear
+     */
+    public int getPlanSize() {
+        return plan.size();
+    }
+
+    /**
+     * @return display value after the plan ran, e.g. "14" or "Cannot divide by zero"
+     */
+    public String getDisplayed() {
+        return displayed;
+    }
+
+    /**
+     * @return display value computed in-JVM with BigDecimal
+     */
+    public String getExpected() {
+        return expected;
+    }
+
+    /**
+     * @return driver commands sent for input and display reads (element lookups not included)
+     */
+    public int getCommandCount() {
+        return commandCount;
+    }
+
+    public boolean matches() {
+        return expected.equals(displayed);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s = %s (expected %s) | %d keys, %d commands | %s",
+                expression, displayed, expected, getPlanSize(), commandCount, plan);
+    }
+}
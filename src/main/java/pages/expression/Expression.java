@@ -0,0 +1,373 @@
+package pages.expression;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * An arithmetic expression over the Standard Calculator's operations:
+ * + - * / with the usual precedence, parentheses, unary minus, and the
+ * functions sqrt(x), sqr(x) and recip(x). Evaluates in-JVM with BigDecimal
+ * at the Calculator's internal precision.
+ */
+public abstract class Expression {
+
+    /**
+     * Parses an expression such as "2 + 3 * (4 - 1.5)" or "sqrt(16) / -2".
+     * @throws IllegalArgumentException if the text is not a valid expression
+     */
+    public static Expression parse(String text) {
+        return new Parser(text).parse();
+    }
+
+    /**
+     * @return the exact value at the Calculator's internal precision
+     * @throws ArithmeticException with the Calculator's error text, e.g. "Cannot divide by zero"
+     */
+    public abstract BigDecimal evaluate();
+
+    /**
+     * @return what the display should show: the formatted value or the error text
+     */
+    public String expectedDisplay() {
+        try {
+            return DisplayFormat.format(evaluate());
+        } catch (ArithmeticException e) {
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * @return the first sub-expression, in evaluation order, that fails on its own
+     * although its operands evaluate; empty if the expression evaluates
+     */
+    public Optional<Expression> firstFailure() {
+        for (Expression operand : operands()) {
+            Optional<Expression> failure = operand.firstFailure();
+            if (failure.isPresent()) {
+                return failure;
+            }
+        }
+        try {
+            evaluate();
+            return Optional.empty();
+        } catch (ArithmeticException e) {
+            return Optional.of(this);
+        }
+    }
+
+    abstract Expression[] operands();
+
+    /**
+     * A literal operand, at most 16 digits as the Calculator accepts.
+     */
+    public static final class Number extends Expression {
+
+        private final BigDecimal value;
+
+        Number(BigDecimal value) {
+            this.value = value;
+        }
+
+        /**
+         * @return the shortest way to type the operand, e.g. ".5" for 0.50
+         */
+        public String digits() {
+            String plain = value.stripTrailingZeros().toPlainString();
+            return plain.startsWith("0.") ? plain.substring(1) : plain;
+        }
+
+        @Override
+        public BigDecimal evaluate() {
+            return value;
+        }
+
+        @Override
+        Expression[] operands() {
+            return new Expression[0];
+        }
+
+        @Override
+        public String toString() {
+            return value.toPlainString();
+        }
+    }
+
+    /**
+     * Unary minus.
+     */
+    public static final class Negate extends Expression {
+
+        private final Expression operand;
+
+        Negate(Expression operand) {
+            this.operand = operand;
+        }
+
+        public Expression getOperand() {
+            return operand;
+        }
+
+        @Override
+        public BigDecimal evaluate() {
+            return operand.evaluate().negate();
+        }
+
+        @Override
+        Expression[] operands() {
+            return new Expression[]{operand};
+        }
+
+        @Override
+        public String toString() {
+            return "-" + operand;
+        }
+    }
+
+    /**
+     * sqrt(x), sqr(x) or recip(x), each a single Calculator key.
+     */
+    public static final class Function extends Expression {
+
+        private final String name;
+        private final Expression operand;
+
+        Function(String name, Expression operand) {
+            this.name = name;
+            this.operand = operand;
+        }
+
+        public Expression getOperand() {
+            return operand;
+        }
+
+        public CalcKey getKey() {
+            switch (name) {
+                case "sqrt": return CalcKey.SQUARE_ROOT;
+                case "sqr": return CalcKey.SQUARE;
+                default: return CalcKey.RECIPROCAL;
+            }
+        }
+
+        @Override
+        public BigDecimal evaluate() {
+            BigDecimal value = operand.evaluate();
+            switch (name) {
+                case "sqrt":
+                    if (value.signum() < 0) {
+                        throw new ArithmeticException(DisplayFormat.INVALID_INPUT);
+                    }
+                    return value.sqrt(DisplayFormat.PRECISION);
+                case "sqr":
+                    return value.multiply(value, DisplayFormat.PRECISION);
+                default:
+                    if (value.signum() == 0) {
+                        throw new ArithmeticException(DisplayFormat.DIVIDE_BY_ZERO);
+                    }
+                    return BigDecimal.ONE.divide(value, DisplayFormat.PRECISION);
+            }
+        }
+
+        @Override
+        Expression[] operands() {
+            return new Expression[]{operand};
+        }
+
+        @Override
+        public String toString() {
+            return name + "(" + operand + ")";
+        }
+    }
+
+    /**
+     * A binary operation.
+     */
+    public static final class Binary extends Expression {
+
+        private final char operator;
+        private final Expression left;
+        private final Expression right;
+
+        Binary(char operator, Expression left, Expression right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        /**
+         * @return '+', '-', '*' or '/'
+         */
+        public char getOperator() {
+            return operator;
+        }
+
+        public CalcKey getKey() {
+            switch (operator) {
+                case '+': return CalcKey.PLUS;
+                case '-': return CalcKey.MINUS;
+                case '*': return CalcKey.MULTIPLY;
+                default: return CalcKey.DIVIDE;
+            }
+        }
+
+        public boolean isCommutative() {
+            return operator == '+' || operator == '*';
+        }
+
+        public Expression getLeft() {
+            return left;
+        }
+
+        public Expression getRight() {
+            return right;
+        }
+
+        @Override
+        public BigDecimal evaluate() {
+            BigDecimal a = left.evaluate();
+            BigDecimal b = right.evaluate();
+            switch (operator) {
+                case '+': return a.add(b, DisplayFormat.PRECISION);
+                case '-': return a.subtract(b, DisplayFormat.PRECISION);
+                case '*': return a.multiply(b, DisplayFormat.PRECISION);
+                default:
+                    if (b.signum() == 0) {
+                        throw new ArithmeticException(DisplayFormat.DIVIDE_BY_ZERO);
+                    }
+                    return a.divide(b, DisplayFormat.PRECISION);
+            }
+        }
+
+        @Override
+        Expression[] operands() {
+            return new Expression[]{left, right};
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " " + operator + " " + right + ")";
+        }
+    }
+
+    /**
+     * Recursive-descent parser:
+     * expr = term (('+'|'-') term)*, term = unary (('*'|'/') unary)*,
+     * unary = ('-'|'+') unary | number | '(' expr ')' | name '(' expr ')'
+     */
+    private static final class Parser {
+
+        private final String text;
+        private int position;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Expression parse() {
+            Expression expression = expression();
+            skipSpaces();
+            if (position < text.length()) {
+                throw error("Unexpected '" + text.charAt(position) + "'");
+            }
+            return expression;
+        }
+
+        private Expression expression() {
+            Expression result = term();
+            for (char operator = peek(); operator == '+' || operator == '-'; operator = peek()) {
+                position++;
+                result = new Binary(operator, result, term());
+            }
+            return result;
+        }
+
+        private Expression term() {
+            Expression result = unary();
+            for (char operator = peek(); isMultiplicative(operator); operator = peek()) {
+                position++;
+                result = new Binary(operator == '×' || operator == '*' ? '*' : '/', result, unary());
+            }
+            return result;
+        }
+
+        private Expression unary() {
+            char next = peek();
+            if (next == '-') {
+                position++;
+                return new Negate(unary());
+            } else if (next == '+') {
+                position++;
+                return unary();
+            } else if (next == '(') {
+                position++;
+                Expression inner = expression();
+                expect(')');
+                return inner;
+            } else if (Character.isDigit(next) || next == '.') {
+                return number();
+            } else if (Character.isLetter(next)) {
+                return function();
+            }
+            throw error(next == 0 ? "Unexpected end of expression" : "Unexpected '" + next + "'");
+        }
+
+        private Expression number() {
+            int start = position;
+            while (position < text.length()
+                    && (Character.isDigit(text.charAt(position)) || text.charAt(position) == '.')) {
+                position++;
+            }
+            String literal = text.substring(start, position);
+            BigDecimal value;
+            try {
+                value = new BigDecimal(literal);
+            } catch (NumberFormatException e) {
+                throw error("Invalid number '" + literal + "'");
+            }
+            if (literal.replace(".", "").replaceFirst("^0+(?=.)", "").length() > DisplayFormat.DISPLAY_DIGITS) {
+                throw error("More than " + DisplayFormat.DISPLAY_DIGITS + " digits in '" + literal + "'");
+            }
+            return new Number(value);
+        }
+
+        private Expression function() {
+            int start = position;
+            while (position < text.length() && Character.isLetter(text.charAt(position))) {
+                position++;
+            }
+            String name = text.substring(start, position);
+            if (!name.equals("sqrt") && !name.equals("sqr") && !name.equals("recip")) {
+                throw error("Unknown function '" + name + "'");
+            }
+            expect('(');
+            Expression operand = expression();
+            expect(')');
+            return new Function(name, operand);
+        }
+
+        private boolean isMultiplicative(char operator) {
+            return operator == '*' || operator == '/' || operator == '×' || operator == '÷';
+        }
+
+        private char peek() {
+            skipSpaces();
+            return position < text.length() ? text.charAt(position) : 0;
+        }
+
+        private void expect(char expected) {
+            if (peek() != expected) {
+                throw error("Expected '" + expected + "'");
+            }
+            position++;
+        }
+
+        private void skipSpaces() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("❌ " + message + " at position " + position + " in: " + text);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package pages.expression;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The key sequence that makes the Calculator show an expression's value,
+ * starting from a clear (C) and ending settled, i.e. with nothing pending.
+ */
+public class KeyPlan {
+
+    private final List<CalcKey> keys;
+    private final boolean usesMemory;
+
+    KeyPlan(List<CalcKey> keys, boolean usesMemory) {
+        this.keys = Collections.unmodifiableList(keys);
+        this.usesMemory = usesMemory;
+    }
+
+    /**
+     * A plan from an explicit key sequence, e.g. one generated by the fuzzer.
+     * @param keys the keys in order, normally starting with CLEAR
+     */
+    public static KeyPlan of(List<CalcKey> keys) {
+        boolean memory = keys.contains(CalcKey.MEMORY_STORE) || keys.contains(CalcKey.MEMORY_RECALL);
+        return new KeyPlan(new ArrayList<>(keys), memory);
+    }
+
+    public List<CalcKey> getKeys() {
+        return keys;
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * @return true if the plan parks an intermediate result in memory (MS/MR)
+     */
+    public boolean usesMemory() {
+        return usesMemory;
+    }
+
+    /**
+     * @return the whole plan as one keyboard payload
+     */
+    public String toKeystrokes() {
+        return keys.stream().map(CalcKey::getKeystrokes).collect(Collectors.joining());
+    }
+
+    /**
+     * @return the key caps, e.g. "C 3 × 4 + 2 ="
+     */
+    @Override
+    public String toString() {
+        return keys.stream().map(CalcKey::getLabel).collect(Collectors.joining(" "));
+    }
+}
@@ -0,0 +1,175 @@
+package pages.expression;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Plans the shortest key sequence for an {@link Expression} on the Standard
+ * Calculator. Standard mode executes immediately, left to right (2 + 3 × 4
+ * shows 20), so precedence and parentheses are handled by reordering:
+ * <ul>
+ *   <li>a right operand that can be typed as one entry (a number, optionally
+ *   negated or passed through √, x², 1/x) goes straight after the operator;</li>
+ *   <li>for + and × a complex right side is computed first and the simple
+ *   left side applied after it;</li>
+ *   <li>a − R becomes −R + a, and a ÷ R becomes (1/R) × a;</li>
+ *   <li>otherwise the right side is parked in memory (MS ... MR).</li>
+ * </ul>
+ * Memory has one slot, so an expression needing it on both sides of one
+ * operator cannot be planned. Percent is not supported: its meaning depends
+ * on the pending operator.
+ */
+public final class KeyPlanner {
+
+    private KeyPlanner() {
+    }
+
+    /**
+     * @return the plan; for an expression that errors (e.g. division by zero) the
+     * plan stops at the failing step, since later keys would clear the error text
+     * @throws IllegalArgumentException if the expression needs more than one memory slot
+     */
+    public static KeyPlan plan(Expression expression) {
+        Expression target = expression.firstFailure().orElse(expression);
+        Fragment fragment = standalone(target).settled();
+        List<CalcKey> keys = new ArrayList<>();
+        keys.add(CalcKey.CLEAR);
+        keys.addAll(fragment.keys);
+        return new KeyPlan(keys, fragment.usesMemory);
+    }
+
+    /**
+     * Keys that, right after an operator, make the current entry hold the value
+     * without touching the pending operation; null if the value needs a calculation.
+     */
+    private static Fragment operand(Expression node) {
+        if (node instanceof Expression.Number) {
+            Fragment fragment = new Fragment();
+            for (char digit : ((Expression.Number) node).digits().toCharArray()) {
+                fragment.keys.add(digit == '.' ? CalcKey.DECIMAL : CalcKey.digit(digit));
+            }
+            return fragment;
+        } else if (node instanceof Expression.Negate) {
+            Fragment inner = operand(((Expression.Negate) node).getOperand());
+            return inner == null ? null : inner.then(CalcKey.NEGATE);
+        } else if (node instanceof Expression.Function) {
+            Expression.Function function = (Expression.Function) node;
+            Fragment inner = operand(function.getOperand());
+            return inner == null ? null : inner.then(function.getKey());
+        }
+        return null;
+    }
+
+    /**
+     * Keys that, from a clear or settled display, make the display show the value.
+     */
+    private static Fragment standalone(Expression node) {
+        Fragment entry = operand(node);
+        if (entry != null) {
+            return entry;
+        }
+        if (node instanceof Expression.Negate) {
+            return standalone(((Expression.Negate) node).getOperand()).settled().then(CalcKey.NEGATE);
+        } else if (node instanceof Expression.Function) {
+            Expression.Function function = (Expression.Function) node;
+            return standalone(function.getOperand()).settled().then(function.getKey());
+        }
+        return binary((Expression.Binary) node);
+    }
+
+    private static Fragment binary(Expression.Binary node) {
+        Expression left = node.getLeft();
+        Expression right = node.getRight();
+        Fragment leftOperand = operand(left);
+        Fragment rightOperand = operand(right);
+        List<Fragment> candidates = new ArrayList<>();
+
+        Fragment leftFirst = standalone(left);
+        Fragment rightFirst = standalone(right);
+
+        // L op r
+        if (rightOperand != null) {
+            candidates.add(leftFirst.then(node.getKey()).append(rightOperand).chained());
+        }
+        if (leftOperand != null) {
+            if (node.isCommutative()) {
+                // R op l
+                candidates.add(rightFirst.then(node.getKey()).append(leftOperand).chained());
+            } else if (node.getOperator() == '-') {
+                // -R + l
+                candidates.add(rightFirst.settled().then(CalcKey.NEGATE).then(CalcKey.PLUS)
+                        .append(leftOperand).chained());
+            } else if (isNonZero(right)) {
+                // (1/R) × l
+                candidates.add(rightFirst.settled().then(CalcKey.RECIPROCAL).then(CalcKey.MULTIPLY)
+                        .append(leftOperand).chained());
+            }
+        }
+        if (!leftFirst.usesMemory) {
+            // R MS, L op MR
+            Fragment parked = rightFirst.settled().then(CalcKey.MEMORY_STORE);
+            parked.usesMemory = true;
+            candidates.add(parked.append(leftFirst).then(node.getKey()).then(CalcKey.MEMORY_RECALL).chained());
+        }
+        Optional<Fragment> shortest = candidates.stream().min(Comparator.comparingInt(Fragment::size));
+        return shortest.orElseThrow(() -> new IllegalArgumentException(
+                "❌ Expression needs more than one memory slot: " + node));
+    }
+
+    private static boolean isNonZero(Expression node) {
+        try {
+            return node.evaluate().signum() != 0;
+        } catch (ArithmeticException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Part of a plan. Chained means an operation is still pending, so the value
+     * shown is not yet the fragment's value for unary keys or memory.
+     */
+    private static final class Fragment {
+
+        final List<CalcKey> keys = new ArrayList<>();
+        boolean chained;
+        boolean usesMemory;
+
+        Fragment then(CalcKey key) {
+            Fragment next = copy();
+            next.keys.add(key);
+            next.chained = false;
+            return next;
+        }
+
+        Fragment append(Fragment other) {
+            Fragment next = copy();
+            next.keys.addAll(other.keys);
+            next.usesMemory |= other.usesMemory;
+            return next;
+        }
+
+        Fragment chained() {
+            Fragment next = copy();
+            next.chained = true;
+            return next;
+        }
+
+        Fragment settled() {
+            return chained ? then(CalcKey.EQUALS) : this;
+        }
+
+        int size() {
+            return keys.size();
+        }
+
+        private Fragment copy() {
+            Fragment copy = new Fragment();
+            copy.keys.addAll(keys);
+            copy.chained = chained;
+            copy.usesMemory = usesMemory;
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package pages.fuzz;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pages.P01_CalculatorPage;
+import pages.expression.EvaluationResult;
+import pages.expression.KeyPlan;
+import utils.ConfigReader;
+
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Differential fuzzing: drives generated key sequences through
+ * {@link P01_CalculatorPage} in a tight loop and compares each final display
+ * with the {@link CalculatorOracle}. Runs are reproducible from their seed and
+ * can be paced to a target rate of key presses per second.
+ */
+public class CalculatorFuzzer {
+
+    private static final Logger logger = LogManager.getLogger(CalculatorFuzzer.class);
+
+    private final P01_CalculatorPage page;
+    private final FuzzCaseGenerator generator;
+    private CalculatorOracle oracle = new CalculatorOracle();
+    private double targetOpsPerSecond;
+
+    public CalculatorFuzzer(P01_CalculatorPage page, long seed) {
+        this.page = page;
+        this.generator = new FuzzCaseGenerator(seed);
+    }
+
+    /**
+     * A fuzzer configured by fuzzSeed (random when unset, and logged) and fuzzOpsPerSecond.
+     */
+    public static CalculatorFuzzer fromConfig(P01_CalculatorPage page) {
+        String configuredSeed = ConfigReader.getSetting("fuzzSeed", "");
+        long seed = configuredSeed.isEmpty() ? System.nanoTime() : Long.parseLong(configuredSeed);
+        logger.info("🎲 Fuzz seed: {} (rerun with -DfuzzSeed={})", seed, seed);
+        return new CalculatorFuzzer(page, seed)
+                .withTargetRate(ConfigReader.getDouble("fuzzOpsPerSecond", 0));
+    }
+
+    /**
+     * @param opsPerSecond key presses per second to pace the run at; 0 runs flat out
+     * @return this for fluent chaining
+     */
+    public CalculatorFuzzer withTargetRate(double opsPerSecond) {
+        this.targetOpsPerSecond = opsPerSecond;
+        return this;
+    }
+
+    /**
+     * @param oracle reference to compare against, by default the Calculator's precision
+     * @return this for fluent chaining
+     */
+    public CalculatorFuzzer withOracle(CalculatorOracle oracle) {
+        this.oracle = oracle;
+        return this;
+    }
+
+    public FuzzCaseGenerator getGenerator() {
+        return generator;
+    }
+
+    /**
+     * Runs cases 0 to count - 1 of the seed.
+     */
+    public FuzzReport run(int count) {
+        return run(count, Long.MAX_VALUE);
+    }
+
+    /**
+     * Runs cases until the duration has passed.
+     */
+    public FuzzReport run(Duration duration) {
+        return run(Integer.MAX_VALUE, System.nanoTime() + duration.toNanos());
+    }
+
+    private FuzzReport run(int count, long deadline) {
+        FuzzReport report = new FuzzReport(generator.getSeed(), targetOpsPerSecond);
+        long start = System.nanoTime();
+        long operations = 0;
+        for (int index = 0; index < count && System.nanoTime() < deadline; index++) {
+            FuzzCase fuzzCase = generator.generate(index);
+            CalculatorOracle.Prediction prediction = oracle.predict(fuzzCase);
+            KeyPlan plan = KeyPlan.of(fuzzCase.keys().subList(0, prediction.getKeyCount()));
+            pace(start, operations);
+
+            EvaluationResult result = page.execute(fuzzCase.toString(), plan, prediction.getDisplay());
+            operations += plan.size();
+            report.record(fuzzCase, plan.size(), result.getCommandCount(), prediction.isError(),
+                    prediction.getDisplay(), result.getDisplayed());
+            if (!result.matches()) {
+                logger.warn("❌ Fuzz mismatch #{}: {} -> {} (expected {})",
+                        index, fuzzCase, result.getDisplayed(), prediction.getDisplay());
+            }
+        }
+        report.finish(System.nanoTime() - start);
+        logger.info("🎲 {}", report.summary());
+        return report;
+    }
+
+    /**
+     * Holds the next case back until the keys sent so far are due at the target rate.
+     */
+    private void pace(long start, long operations) {
+        if (targetOpsPerSecond <= 0) {
+            return;
+        }
+        long due = start + (long) (operations * 1e9 / targetOpsPerSecond);
+        long wait;
+        while ((wait = due - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package pages.fuzz;
+
+import pages.expression.CalcKey;
+import pages.expression.DisplayFormat;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.List;
+
+/**
+ * In-JVM reference for a fuzz case. It folds the operands left to right as
+ * the Calculator does (immediate execution, results kept at
+ * {@link DisplayFormat#PRECISION}) and formats the result for the display.
+ * Percent follows the Calculator: with + or - pending it is that percentage
+ * of the running value, with × or ÷ pending it is x/100, and alone it is 0.
+ */
+public class CalculatorOracle {
+
+    private final MathContext precision;
+
+    public CalculatorOracle() {
+        this(DisplayFormat.PRECISION);
+    }
+
+    /**
+     * @param precision internal precision to model; other than the default only to
+     *                  check that a divergent reference is caught
+     */
+    public CalculatorOracle(MathContext precision) {
+        this.precision = precision;
+    }
+
+    /**
+     * @return what the display should show, and how many of the case's keys to press;
+     * an error ends the case at the key that raises it, so the message stays on screen
+     */
+    public Prediction predict(FuzzCase fuzzCase) {
+        List<FuzzCase.Operand> operands = fuzzCase.getOperands();
+        BigDecimal running = null;
+        CalcKey pending = null;
+        int keys = 1;
+        for (int i = 0; i < operands.size(); i++) {
+            FuzzCase.Operand operand = operands.get(i);
+            if (i > 0) {
+                pending = fuzzCase.getOperators().get(i - 1);
+                keys++;
+            }
+            BigDecimal value = new BigDecimal(operand.getLiteral());
+            keys += operand.getLiteral().length();
+            for (CalcKey modifier : operand.getModifiers()) {
+                keys++;
+                if (value.signum() < 0 && modifier == CalcKey.SQUARE_ROOT) {
+                    return new Prediction(DisplayFormat.INVALID_INPUT, keys);
+                }
+                if (value.signum() == 0 && modifier == CalcKey.RECIPROCAL) {
+                    return new Prediction(DisplayFormat.DIVIDE_BY_ZERO, keys);
+                }
+                value = unary(modifier, value, running, pending);
+            }
+            if (i == 0) {
+                running = value;
+                continue;
+            }
+            // The pending operation runs on the next operator, or on equals
+            if (pending == CalcKey.DIVIDE && value.signum() == 0) {
+                return new Prediction(DisplayFormat.DIVIDE_BY_ZERO, keys + 1);
+            }
+            running = binary(pending, running, value);
+        }
+        return new Prediction(DisplayFormat.format(running), keys + 1);
+    }
+
+    private BigDecimal unary(CalcKey key, BigDecimal value, BigDecimal running, CalcKey pending) {
+        switch (key) {
+            case NEGATE:
+                return value.negate();
+            case SQUARE:
+                return value.multiply(value, precision);
+            case SQUARE_ROOT:
+                return value.sqrt(precision);
+            case RECIPROCAL:
+                return BigDecimal.ONE.divide(value, precision);
+            case PERCENT:
+                BigDecimal percentage = value.divide(BigDecimal.valueOf(100), precision);
+                if (pending == CalcKey.PLUS || pending == CalcKey.MINUS) {
+                    return running.multiply(percentage, precision);
+                }
+                return pending == null ? BigDecimal.ZERO : percentage;
+            default:
+                throw new IllegalArgumentException("Not a unary key: " + key);
+        }
+    }
+
+    private BigDecimal binary(CalcKey operator, BigDecimal left, BigDecimal right) {
+        switch (operator) {
+            case PLUS:
+                return left.add(right, precision);
+            case MINUS:
+                return left.subtract(right, precision);
+            case MULTIPLY:
+                return left.multiply(right, precision);
+            case DIVIDE:
+                return left.divide(right, precision);
+            default:
+                throw new IllegalArgumentException("Not an operator: " + operator);
+        }
+    }
+
+    /**
+     * Expected display for a case and the number of its keys that lead there.
+     */
+    public static final class Prediction {
+
+        private final String display;
+        private final int keyCount;
+
+        Prediction(String display, int keyCount) {
+            this.display = display;
+            this.keyCount = keyCount;
+        }
+
+        /**
+         * @return e.g. "42" or "Cannot divide by zero"
+         */
+        public String getDisplay() {
+            return display;
+        }
+
+        /**
+         * @return keys to press, including the leading clear
+         */
+        public int getKeyCount() {
+            return keyCount;
+        }
+
+        public boolean isError() {
+            return DisplayFormat.DIVIDE_BY_ZERO.equals(display) || DisplayFormat.INVALID_INPUT.equals(display);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package pages.fuzz;
+
+import pages.expression.CalcKey;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * One generated input sequence: typed operands, each followed by unary keys
+ * (±, x², √, 1/x, %), joined by binary operators and finished with equals.
+ * The keys are pressed exactly in this order, i.e. with immediate execution.
+ */
+public class FuzzCase {
+
+    private final int index;
+    private final List<Operand> operands;
+    private final List<CalcKey> operators;
+
+    /**
+     * @param index position in the generated run, 0 for hand-built cases
+     * @param operands at least one operand
+     * @param operators one binary operator between each pair of operands
+     */
+    public FuzzCase(int index, List<Operand> operands, List<CalcKey> operators) {
+        if (operands.isEmpty() || operators.size() != operands.size() - 1) {
+            throw new IllegalArgumentException("Need one operator between each pair of operands");
+        }
+        this.index = index;
+        this.operands = Collections.unmodifiableList(new ArrayList<>(operands));
+        this.operators = Collections.unmodifiableList(new ArrayList<>(operators));
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public List<Operand> getOperands() {
+        return operands;
+    }
+
+    public List<CalcKey> getOperators() {
+        return operators;
+    }
+
+    /**
+     * @return every key of the case: C, operands and operators, then =
+     */
+    public List<CalcKey> keys() {
+        List<CalcKey> keys = new ArrayList<>();
+        keys.add(CalcKey.CLEAR);
+        for (int i = 0; i < operands.size(); i++) {
+            if (i > 0) {
+                keys.add(operators.get(i - 1));
+            }
+            keys.addAll(operands.get(i).keys());
+        }
+        keys.add(CalcKey.EQUALS);
+        return keys;
+    }
+
+    /**
+     * @return the key caps without the leading clear, e.g. "12.5 ± + 9 √ ÷ 0 ="
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < operands.size(); i++) {
+            if (i > 0) {
+                text.append(' ').append(operators.get(i - 1).getLabel()).append(' ');
+            }
+            text.append(operands.get(i));
+        }
+        return text.append(" =").toString();
+    }
+
+    /**
+     * A typed number and the unary keys pressed right after it.
+     */
+    public static final class Operand {
+
+        private final String literal;
+        private final List<CalcKey> modifiers;
+
+        /**
+         * @param literal digits with an optional decimal point, e.g. "0.25"
+         * @param modifiers unary keys in the order pressed
+         */
+        public Operand(String literal, CalcKey... modifiers) {
+            if (!literal.matches("\\d+(\\.\\d+)?")) {
+                throw new IllegalArgumentException("Not a typed number: " + literal);
+            }
+            this.literal = literal;
+            this.modifiers = Collections.unmodifiableList(Arrays.asList(modifiers));
+        }
+
+        public String getLiteral() {
+            return literal;
+        }
+
+        public List<CalcKey> getModifiers() {
+            return modifiers;
+        }
+
+        List<CalcKey> keys() {
+            List<CalcKey> keys = new ArrayList<>();
+            for (char c : literal.toCharArray()) {
+                keys.add(c == '.' ? CalcKey.DECIMAL : CalcKey.digit(c));
+            }
+            keys.addAll(modifiers);
+            return keys;
+        }
+
+        @Override
+        public String toString() {
+            if (modifiers.isEmpty()) {
+                return literal;
+            }
+            return literal + " " + modifiers.stream().map(CalcKey::getLabel).collect(Collectors.joining(" "));
+        }
+    }
+}
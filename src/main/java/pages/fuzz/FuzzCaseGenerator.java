@@ -0,0 +1,91 @@
+package pages.fuzz;
+
+import pages.expression.CalcKey;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generates random key sequences for differential fuzzing. Each case is
+ * derived from the run seed and its index alone, so any reported case can
+ * be regenerated without replaying the run.
+ */
+public class FuzzCaseGenerator {
+
+    private static final CalcKey[] OPERATORS = {CalcKey.PLUS, CalcKey.MINUS, CalcKey.MULTIPLY, CalcKey.DIVIDE};
+    private static final CalcKey[] UNARY = {
+            CalcKey.NEGATE, CalcKey.SQUARE, CalcKey.SQUARE_ROOT, CalcKey.RECIPROCAL, CalcKey.PERCENT
+    };
+    private static final int MAX_OPERANDS = 5;
+    private static final int MAX_INTEGER_DIGITS = 6;
+    private static final int MAX_FRACTION_DIGITS = 4;
+
+    private final long seed;
+
+    public FuzzCaseGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @param index case number within the run
+     * @return the same case for the same seed and index
+     */
+    public FuzzCase generate(int index) {
+        SplittableRandom random = new SplittableRandom(seed ^ (0x9E3779B97F4A7C15L * (index + 1)));
+        int count = 1 + random.nextInt(MAX_OPERANDS);
+        List<FuzzCase.Operand> operands = new ArrayList<>(count);
+        List<CalcKey> operators = new ArrayList<>(count - 1);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                operators.add(OPERATORS[random.nextInt(OPERATORS.length)]);
+            }
+            operands.add(new FuzzCase.Operand(literal(random), modifiers(random)));
+        }
+        return new FuzzCase(index, operands, operators);
+    }
+
+    /**
+     * Zero often enough to reach division by zero, otherwise an integer or decimal
+     * of up to 10 typed digits.
+     */
+    private static String literal(SplittableRandom random) {
+        if (random.nextInt(8) == 0) {
+            return "0";
+        }
+        StringBuilder literal = new StringBuilder();
+        int integerDigits = random.nextInt(4) == 0 ? 0 : 1 + random.nextInt(MAX_INTEGER_DIGITS);
+        if (integerDigits == 0) {
+            literal.append('0');
+        } else {
+            literal.append((char) ('1' + random.nextInt(9)));
+            for (int i = 1; i < integerDigits; i++) {
+                literal.append((char) ('0' + random.nextInt(10)));
+            }
+        }
+        if (integerDigits == 0 || random.nextInt(3) == 0) {
+            literal.append('.');
+            int fractionDigits = 1 + random.nextInt(MAX_FRACTION_DIGITS);
+            for (int i = 0; i < fractionDigits; i++) {
+                literal.append((char) ('0' + random.nextInt(10)));
+            }
+        }
+        return literal.toString();
+    }
+
+    /**
+     * Usually none, sometimes one or two unary keys; negation is the most common.
+     */
+    private static CalcKey[] modifiers(SplittableRandom random) {
+        int count = random.nextInt(10) < 6 ? 0 : 1 + random.nextInt(2);
+        CalcKey[] modifiers = new CalcKey[count];
+        for (int i = 0; i < count; i++) {
+            modifiers[i] = random.nextInt(3) == 0 ? CalcKey.NEGATE : UNARY[random.nextInt(UNARY.length)];
+        }
+        return modifiers;
+    }
+}
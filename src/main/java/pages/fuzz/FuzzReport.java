@@ -0,0 +1,161 @@
+package pages.fuzz;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a fuzzing run: throughput against the target rate, and the
+ * mismatches between the Calculator and the oracle (the first few kept
+ * verbatim, all of them counted).
+ */
+public class FuzzReport {
+
+    static final int MAX_SAMPLES = 20;
+
+    private final long seed;
+    private final double targetOpsPerSecond;
+    private final List<Mismatch> samples = new ArrayList<>();
+    private int cases;
+    private long operations;
+    private long commands;
+    private int errorCases;
+    private int mismatches;
+    private long elapsedNanos;
+
+    FuzzReport(long seed, double targetOpsPerSecond) {
+        this.seed = seed;
+        this.targetOpsPerSecond = targetOpsPerSecond;
+    }
+
+    void record(FuzzCase fuzzCase, int keys, int commandCount, boolean error, String expected, String displayed) {
+        cases++;
+        operations += keys;
+        commands += commandCount;
+        if (error) {
+            errorCases++;
+        }
+        if (!expected.equals(displayed)) {
+            mismatches++;
+            if (samples.size() < MAX_SAMPLES) {
+                samples.add(new Mismatch(fuzzCase, expected, displayed));
+            }
+        }
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getCases() {
+        return cases;
+    }
+
+    /**
+     * @return keys pressed on the Calculator
+     */
+    public long getOperations() {
+        return operations;
+    }
+
+    /**
+     * @return driver commands sent for input and display reads
+     */
+    public long getCommands() {
+        return commands;
+    }
+
+    /**
+     * @return cases expected to end on "Cannot divide by zero" or "Invalid input"
+     */
+    public int getErrorCases() {
+        return errorCases;
+    }
+
+    public int getMismatches() {
+        return mismatches;
+    }
+
+    public double getMismatchRate() {
+        return cases == 0 ? 0.0 : (double) mismatches / cases;
+    }
+
+    /**
+     * @return the first mismatches, in run order
+     */
+    public List<Mismatch> getSamples() {
+        return Collections.unmodifiableList(samples);
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return keys pressed per second of wall time
+     */
+    public double getOpsPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : operations * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * @return the requested rate, 0 if the run was not paced
+     */
+    public double getTargetOpsPerSecond() {
+        return targetOpsPerSecond;
+    }
+
+    /**
+     * @return true if the run kept up with the target rate (within 5%), or was not paced
+     */
+    public boolean isTargetSustained() {
+        return targetOpsPerSecond <= 0 || getOpsPerSecond() >= targetOpsPerSecond * 0.95;
+    }
+
+    public String summary() {
+        String target = targetOpsPerSecond > 0
+                ? String.format(" (target %.0f, %s)", targetOpsPerSecond, isTargetSustained() ? "sustained" : "NOT sustained")
+                : "";
+        return String.format("Fuzz seed %d: %d cases, %d ops in %d ms = %.0f ops/s%s, %.2f commands/case, "
+                        + "%d error cases, %d mismatches (%.2f%%)",
+                seed, cases, operations, elapsedNanos / 1_000_000, getOpsPerSecond(), target,
+                cases == 0 ? 0.0 : (double) commands / cases, errorCases, mismatches, getMismatchRate() * 100);
+    }
+
+    /**
+     * A case where the display disagreed with the oracle.
+     */
+    public static final class Mismatch {
+
+        private final FuzzCase fuzzCase;
+        private final String expected;
+        private final String displayed;
+
+        Mismatch(FuzzCase fuzzCase, String expected, String displayed) {
+            this.fuzzCase = fuzzCase;
+            this.expected = expected;
+            this.displayed = displayed;
+        }
+
+        public FuzzCase getCase() {
+            return fuzzCase;
+        }
+
+        public String getExpected() {
+            return expected;
+        }
+
+        public String getDisplayed() {
+            return displayed;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("#%d %s -> %s (expected %s)", fuzzCase.getIndex(), fuzzCase, displayed, expected);
+        }
+    }
+}
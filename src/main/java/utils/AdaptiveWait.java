@@ -0,0 +1,153 @@
+package utils;
+
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Condition-driven waits that replace fixed sleeps.
+ * Polling starts at a couple of milliseconds and backs off exponentially,
+ * bounded by a hard timeout; the real duration of every wait is recorded
+ * per label so the time a suite spends waiting can be reported.
+ */
+public final class AdaptiveWait {
+
+    private static final long INITIAL_POLL_NANOS = Duration.ofMillis(2).toNanos();
+    private static final long MAX_POLL_NANOS = Duration.ofMillis(100).toNanos();
+
+    private static final Map<String, WaitStats> STATS = new ConcurrentHashMap<>();
+
+    private AdaptiveWait() {
+    }
+
+    /**
+     * Waits until the condition yields a value that is neither null nor FALSE.
+     * An element or window not found yet, or a stale element, counts as "not
+     * yet"; any other exception (a lost session or connection) is rethrown at once.
+     * @param label name under which the wait duration is recorded
+     * @param timeout hard upper bound
+     * @param condition condition to poll
+     * @return the first non-null, non-FALSE value
+     * @throws TimeoutException if the bound is reached first
+     */
+    public static <T> T until(String label, Duration timeout, Supplier<T> condition) {
+        T value = poll(label, timeout, condition);
+        if (value == null) {
+            throw new TimeoutException("Timed out after " + timeout.toMillis() + " ms waiting for " + label);
+        }
+        return value;
+    }
+
+    /**
+     * Same as {@link #until} but returns null instead of throwing on timeout,
+     * for waits where "nothing changed" is a legitimate outcome.
+     */
+    public static <T> T poll(String label, Duration timeout, Supplier<T> condition) {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        long interval = INITIAL_POLL_NANOS;
+        while (true) {
+            T value = evaluate(condition);
+            long now = System.nanoTime();
+            if (value != null && !Boolean.FALSE.equals(value)) {
+                record(label, now - start, false);
+                return value;
+            }
+            if (now >= deadline) {
+                record(label, now - start, true);
+                return null;
+            }
+            LockSupport.parkNanos(Math.min(interval, deadline - now));
+            interval = Math.min(interval * 2, MAX_POLL_NANOS);
+        }
+    }
+
+    /**
+     * @return recorded statistics for a label, or null if it never waited
+     */
+    public static WaitStats getStats(String label) {
+        return STATS.get(label);
+    }
+
+    /**
+     * @return total time spent waiting across all labels, in milliseconds
+     */
+    public static long getTotalWaitMillis() {
+        return STATS.values().stream().mapToLong(WaitStats::getTotalMillis).sum();
+    }
+
+    public static void reset() {
+        STATS.clear();
+    }
+
+    public static String summary() {
+        StringBuilder summary = new StringBuilder("Waits: total " + getTotalWaitMillis() + " ms");
+        new TreeMap<>(STATS).forEach((label, stats) -> summary.append("\n   ").append(label).append(": ").append(stats));
+        return summary.toString();
+    }
+
+    private static <T> T evaluate(Supplier<T> condition) {
+        try {
+            return condition.get();
+        } catch (NotFoundException | StaleElementReferenceException e) {
+            return null;
+        }
+    }
+
+    private static void record(String label, long nanos, boolean timedOut) {
+        STATS.computeIfAbsent(label, key -> new WaitStats()).record(nanos, timedOut);
+    }
+
+    /**
+     * Counters for one wait label.
+     */
+    public static final class WaitStats {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private void record(long nanos, boolean timedOut) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            if (timedOut) {
+                timeouts.increment();
+            }
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTimeouts() {
+            return timeouts.sum();
+        }
+
+        public long getTotalMillis() {
+            return Duration.ofNanos(totalNanos.sum()).toMillis();
+        }
+
+        public long getMaxMillis() {
+            return Duration.ofNanos(maxNanos.get()).toMillis();
+        }
+
+        @Override
+        public String toString() {
+            long waits = getCount();
+            return String.format("%d waits, total %d ms, avg %.1f ms, max %d ms, %d timeouts",
+                    waits, getTotalMillis(), waits == 0 ? 0.0 : totalNanos.sum() / 1e6 / waits,
+                    getMaxMillis(), getTimeouts());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Expands run files written by {@link AllureRunWriter} into the standard
+ * allure-results layout (one *-result.json / *-container.json per record,
+ * attachments as files) so the Allure CLI can read them:
+ * <pre>
+ *   java -cp "target/classes:..." utils.AllureRunExporter allure-results/runs allure-results
+ * </pre>
+ * The first argument is a run file or a directory of run files (all are
+ * expanded); the second is the output directory.
+ */
+public final class AllureRunExporter {
+
+    private static final Logger logger = LogManager.getLogger(AllureRunExporter.class);
+
+    private AllureRunExporter() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: AllureRunExporter <run file or runs directory> <output directory>");
+        }
+        Path source = Paths.get(args[0]);
+        Path target = Paths.get(args[1]);
+        int files = Files.isDirectory(source) ? exportAll(source, target) : export(source, target);
+        logger.info("📦 Expanded {} into {} Allure files in {}", source, files, target);
+    }
+
+    /**
+     * Expands every run file in a directory, oldest first.
+     * @return files written
+     */
+    public static int exportAll(Path runsDirectory, Path targetDirectory) {
+        List<Path> runs;
+        try (Stream<Path> files = Files.list(runsDirectory)) {
+            runs = files.filter(path -> path.getFileName().toString().endsWith(AllureRunWriter.RUN_FILE_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ Cannot list Allure runs in " + runsDirectory, e);
+        }
+        int written = 0;
+        for (Path run : runs) {
+            written += export(run, targetDirectory);
+        }
+        return written;
+    }
+
+    /**
+     * Expands one run file; an empty file holds no records.
+     * @return files written
+     */
+    public static int export(Path runFile, Path targetDirectory) {
+        int written = 0;
+        try {
+            if (Files.size(runFile) == 0) {
+                return 0;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ Cannot read Allure run file " + runFile, e);
+        }
+        try (InputStream file = Files.newInputStream(runFile);
+             DataInputStream in = new DataInputStream(new GZIPInputStream(new BufferedInputStream(file), 64 * 1024))) {
+            Files.createDirectories(targetDirectory);
+            while (true) {
+                String name;
+                try {
+                    name = in.readUTF();
+                } catch (EOFException end) {
+                    return written;
+                }
+                byte[] content = new byte[in.readInt()];
+                in.readFully(content);
+                Path target = targetDirectory.resolve(name).normalize();
+                if (!target.startsWith(targetDirectory.normalize())) {
+                    throw new IOException("Record name escapes the output directory: " + name);
+                }
+                Files.write(target, content);
+                written++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ Cannot expand Allure run file " + runFile + ": " + e.getMessage(), e);
+        }
+    }
+}
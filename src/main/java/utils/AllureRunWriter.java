@@ -0,0 +1,222 @@
+package utils;
+
+import io.qameta.allure.AllureResultsWriter;
+import io.qameta.allure.internal.Allure2ModelJackson;
+import io.qameta.allure.internal.shadowed.jackson.databind.ObjectMapper;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.model.TestResultContainer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Allure results writer that keeps a whole run in one compressed file
+ * instead of one small JSON file per test result, container and attachment.
+ * <p>
+ * Records are serialized exactly as Allure's own writer would, buffered in
+ * memory, and appended to {@code <runsDirectory>/<runId>.results.gz} once
+ * {@code batchSize} records are waiting (and on {@link #flush()}). Each
+ * batch is a complete gzip member, so a run cut short still reads back up
+ * to its last batch. A record is the standard file name (UTF), its length
+ * (int) and its bytes; {@link AllureRunExporter} expands a run file into
+ * the usual allure-results layout for the Allure CLI.
+ * <p>
+ * Only the newest {@code keepRuns} run files are kept; older ones are
+ * deleted when a new run starts.
+ */
+public class AllureRunWriter implements AllureResultsWriter, AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(AllureRunWriter.class);
+
+    static final String RUN_FILE_SUFFIX = ".results.gz";
+    private static final DateTimeFormatter RUN_ID = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final Path runFile;
+    private final int batchSize;
+    private final ObjectMapper mapper = Allure2ModelJackson.createMapper();
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private final DataOutputStream records = new DataOutputStream(buffer);
+    private int buffered;
+    private long recordsWritten;
+    private long batchesWritten;
+    private long bytesWritten;
+    private long ioNanos;
+    private int runsPruned;
+
+    /**
+     * Starts a new run file and prunes old ones.
+     * @param runsDirectory directory holding the run files
+     * @param batchSize records buffered before they are appended to the file
+     * @param keepRuns run files to keep, counting this one
+     */
+    public AllureRunWriter(Path runsDirectory, int batchSize, int keepRuns) {
+        this.batchSize = Math.max(1, batchSize);
+        this.runFile = runsDirectory.resolve(LocalDateTime.now().format(RUN_ID)
+                + "-" + ProcessHandle.current().pid() + RUN_FILE_SUFFIX);
+        try {
+            Files.createDirectories(runsDirectory);
+            runsPruned = prune(runsDirectory, Math.max(1, keepRuns) - 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ Cannot prepare Allure runs directory " + runsDirectory, e);
+        }
+    }
+
+    /**
+     * A writer for allure-results/runs sized by allureBatchSize (default 100)
+     * and allureKeepRuns (default 10).
+     * @param resultsDirectory the Allure results directory
+     */
+    public static AllureRunWriter fromConfig(Path resultsDirectory) {
+        return new AllureRunWriter(resultsDirectory.resolve("runs"),
+                ConfigReader.getInt("allureBatchSize", 100),
+                ConfigReader.getInt("allureKeepRuns", 10));
+    }
+
+    @Override
+    public void write(TestResult testResult) {
+        add(testResult.getUuid() + "-result.json", serialize(testResult));
+    }
+
+    @Override
+    public void write(TestResultContainer testResultContainer) {
+        add(testResultContainer.getUuid() + "-container.json", serialize(testResultContainer));
+    }
+
+    @Override
+    public void write(String source, InputStream attachment) {
+        try (InputStream in = attachment) {
+            add(source, in.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ Cannot read Allure attachment " + source, e);
+        }
+    }
+
+    /**
+     * Appends everything buffered to the run file.
+     */
+    public synchronized void flush() {
+        if (buffered == 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(runFile,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024)) {
+            buffer.writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ Cannot write Allure run file " + runFile, e);
+        } finally {
+            ioNanos += System.nanoTime() - start;
+        }
+        recordsWritten += buffered;
+        batchesWritten++;
+        buffered = 0;
+        buffer.reset();
+        try {
+            bytesWritten = Files.size(runFile);
+        } catch (IOException e) {
+            logger.warn("⚠️ Cannot read size of {}: {}", runFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Flushes the last batch.
+     */
+    @Override
+    public void close() {
+        flush();
+    }
+
+    public Path getRunFile() {
+        return runFile;
+    }
+
+    public synchronized long getRecordsWritten() {
+        return recordsWritten;
+    }
+
+    /**
+     * @return appends to the run file; each opens, writes and closes it once
+     */
+    public synchronized long getBatchesWritten() {
+        return batchesWritten;
+    }
+
+    /**
+     * @return compressed size of the run file
+     */
+    public synchronized long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * @return time spent appending batches, compression included
+     */
+    public synchronized long getIoNanos() {
+        return ioNanos;
+    }
+
+    public int getRunsPruned() {
+        return runsPruned;
+    }
+
+    public synchronized String summary() {
+        return String.format("Allure results: %d records in 1 file (%s, %d bytes), %d batch writes, I/O %.1f ms, "
+                        + "%d old runs pruned",
+                recordsWritten, runFile.getFileName(), bytesWritten, batchesWritten, ioNanos / 1e6, runsPruned);
+    }
+
+    private byte[] serialize(Object result) {
+        try {
+            return mapper.writeValueAsBytes(result);
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ Cannot serialize Allure result", e);
+        }
+    }
+
+    private synchronized void add(String name, byte[] content) {
+        try {
+            records.writeUTF(name);
+            records.writeInt(content.length);
+            records.write(content);
+        } catch (IOException e) {
+            // a ByteArrayOutputStream does not throw
+            throw new UncheckedIOException(e);
+        }
+        if (++buffered >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Deletes all but the newest {@code keep} run files (run ids sort by time).
+     */
+    private static int prune(Path runsDirectory, int keep) throws IOException {
+        List<Path> runs;
+        try (Stream<Path> files = Files.list(runsDirectory)) {
+            runs = files.filter(path -> path.getFileName().toString().endsWith(RUN_FILE_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        int pruned = 0;
+        for (Path run : runs.subList(0, Math.max(0, runs.size() - keep))) {
+            Files.deleteIfExists(run);
+            pruned++;
+        }
+        return pruned;
+    }
+}
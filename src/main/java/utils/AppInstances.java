@@ -0,0 +1,245 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The Calculator instances running side by side on each WinAppDriver host,
+ * one per session, each in its own window. A host has one mouse and one
+ * foreground window, so input is serialized per host: a click moves the
+ * real mouse and brings its window to the front, and keystrokes go to
+ * whatever window is in front. Input therefore holds the host's input lock,
+ * and keystrokes first switch to their own window if another instance took
+ * the focus; reads (element text, page source) run concurrently. Windows are
+ * tiled so that no instance covers another's buttons.
+ * <p>
+ * Each instance takes the lowest free slot on its host; a relaunched
+ * session reuses the slot, so the per-slot figures describe "the k-th
+ * instance": tests per second of its busy time and how much of that time it
+ * waited for the input lock. Rising lock waits as instances are added mark
+ * the point past which more instances per host stop paying off.
+ */
+public final class AppInstances {
+
+    private static final Logger logger = LogManager.getLogger(AppInstances.class);
+
+    private static final Map<RemoteWebDriver, Instance> running = new ConcurrentHashMap<>();
+    private static final Map<String, Desktop> desktops = new ConcurrentHashMap<>();
+
+    private AppInstances() {
+    }
+
+    /**
+     * Books a new session as an instance on its host.
+     * @param tile move the window into the instance's tile, for hosts running more than one
+     */
+    public static void register(RemoteWebDriver session, URL host, boolean tile) {
+        Desktop desktop = desktops.computeIfAbsent(host.toString(), Desktop::new);
+        Slot slot = desktop.claim();
+        Instance instance = new Instance(session, desktop, slot, session.getWindowHandle());
+        running.put(session, instance);
+        if (tile) {
+            tile(instance, ConfigReader.getInt("appInstanceTileColumns", 4));
+        }
+        logger.info("🪟 Calculator instance #{} on {} (window {})", slot.number, desktop.host, instance.windowHandle);
+    }
+
+    /**
+     * Frees the instance's slot; its figures stay in the summary.
+     */
+    public static void release(RemoteWebDriver session) {
+        Instance instance = running.remove(session);
+        if (instance != null) {
+            instance.desktop.free(instance.slot);
+        }
+    }
+
+    /**
+     * Sends input to the session's window under its host's input lock. Unknown
+     * sessions (e.g. in-process fakes) run the input directly.
+     * @param keyboard true for keystrokes, which need the window in front;
+     *                 false for clicks, which bring it to the front themselves
+     */
+    public static void input(RemoteWebDriver session, boolean keyboard, Runnable action) {
+        Instance instance = running.get(session);
+        if (instance == null) {
+            action.run();
+            return;
+        }
+        Desktop desktop = instance.desktop;
+        long start = System.nanoTime();
+        desktop.input.lock();
+        long waited = System.nanoTime() - start;
+        instance.slot.inputs.increment();
+        instance.slot.waitNanos.add(waited);
+        instance.slot.maxWaitNanos.accumulateAndGet(waited, Math::max);
+        try {
+            if (keyboard && desktop.focused != instance) {
+                session.switchTo().window(instance.windowHandle);
+                instance.slot.focusSwitches.increment();
+            }
+            // a click activates the window; a failed switch leaves the focus unknown
+            desktop.focused = null;
+            action.run();
+            desktop.focused = instance;
+        } finally {
+            desktop.input.unlock();
+        }
+    }
+
+    /**
+     * Books a finished test on the session's instance.
+     */
+    public static void recordTest(RemoteWebDriver session, long durationNanos) {
+        Instance instance = running.get(session);
+        if (instance == null) {
+            return;
+        }
+        long end = System.nanoTime();
+        instance.slot.tests.increment();
+        instance.slot.busyNanos.add(durationNanos);
+        instance.desktop.firstStartNanos.accumulateAndGet(end - durationNanos, Math::min);
+        instance.desktop.lastEndNanos.accumulateAndGet(end, Math::max);
+    }
+
+    /**
+     * @return the slot number (1-based) of the session's instance, or 0 if it is not registered
+     */
+    public static int instanceOf(RemoteWebDriver session) {
+        Instance instance = running.get(session);
+        return instance == null ? 0 : instance.slot.number;
+    }
+
+    /**
+     * @return per host: instances side by side, throughput, and per instance
+     *         tests per second and input lock waits; null if no instance ran
+     */
+    public static String summary() {
+        if (desktops.isEmpty()) {
+            return null;
+        }
+        StringBuilder summary = new StringBuilder();
+        for (Desktop desktop : new TreeMap<>(desktops).values()) {
+            summary.append(summary.length() == 0 ? "" : "; ").append(desktop.summary());
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Forgets every instance and figure, for a new suite in the same JVM.
+     */
+    public static void reset() {
+        running.clear();
+        desktops.clear();
+    }
+
+    private static void tile(Instance instance, int columns) {
+        try {
+            Dimension size = instance.session.manage().window().getSize();
+            int index = instance.slot.number - 1;
+            instance.session.manage().window().setPosition(new Point(
+                    (index % columns) * size.getWidth(), (index / columns) * size.getHeight()));
+        } catch (WebDriverException e) {
+            logger.warn("⚠️ Could not tile Calculator instance #{}: {}", instance.slot.number, e.getMessage());
+        }
+    }
+
+    private static double perSecond(long count, long nanos) {
+        return nanos <= 0 ? 0 : count * 1e9 / nanos;
+    }
+
+    private static final class Desktop {
+        final String host;
+        final ReentrantLock input = new ReentrantLock(true);
+        final List<Slot> slots = new ArrayList<>();
+        final AtomicLong firstStartNanos = new AtomicLong(Long.MAX_VALUE);
+        final AtomicLong lastEndNanos = new AtomicLong(Long.MIN_VALUE);
+        volatile Instance focused;
+        int peak;
+
+        Desktop(String host) {
+            this.host = host;
+        }
+
+        synchronized Slot claim() {
+            for (Slot slot : slots) {
+                if (!slot.taken) {
+                    slot.taken = true;
+                    return slot;
+                }
+            }
+            Slot slot = new Slot(slots.size() + 1);
+            slot.taken = true;
+            slots.add(slot);
+            peak = slots.size();
+            return slot;
+        }
+
+        synchronized void free(Slot slot) {
+            slot.taken = false;
+        }
+
+        synchronized String summary() {
+            long tests = 0;
+            StringBuilder perInstance = new StringBuilder();
+            for (Slot slot : slots) {
+                long busy = slot.busyNanos.sum();
+                long waited = slot.waitNanos.sum();
+                tests += slot.tests.sum();
+                perInstance.append(String.format("%s#%d %d tests %.1f/s, %d inputs waited %d ms for the input lock "
+                                + "(%.0f%% of busy, max %d ms), %d focus switches",
+                        perInstance.length() == 0 ? "" : ", ", slot.number, slot.tests.sum(),
+                        perSecond(slot.tests.sum(), busy), slot.inputs.sum(), TimeUnit.NANOSECONDS.toMillis(waited),
+                        busy == 0 ? 0.0 : 100.0 * waited / busy, TimeUnit.NANOSECONDS.toMillis(slot.maxWaitNanos.get()),
+                        slot.focusSwitches.sum()));
+            }
+            long wall = lastEndNanos.get() - firstStartNanos.get();
+            return String.format("App instances on %s: %d side by side, %d tests at %.1f tests/s; %s",
+                    host, peak, tests, perSecond(tests, wall), perInstance);
+        }
+    }
+
+    private static final class Slot {
+        final int number;
+        boolean taken;
+        final LongAdder tests = new LongAdder();
+        final LongAdder busyNanos = new LongAdder();
+        final LongAdder inputs = new LongAdder();
+        final LongAdder waitNanos = new LongAdder();
+        final AtomicLong maxWaitNanos = new AtomicLong();
+        final LongAdder focusSwitches = new LongAdder();
+
+        Slot(int number) {
+            this.number = number;
+        }
+    }
+
+    private static final class Instance {
+        final RemoteWebDriver session;
+        final Desktop desktop;
+        final Slot slot;
+        final String windowHandle;
+
+        Instance(RemoteWebDriver session, Desktop desktop, Slot slot, String windowHandle) {
+            this.session = session;
+            this.desktop = desktop;
+            this.slot = slot;
+            this.windowHandle = windowHandle;
+        }
+    }
+}
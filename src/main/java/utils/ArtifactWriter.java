@@ -0,0 +1,281 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Writes test artifacts (screenshots, failure reports) off the test thread.
+ * The test thread only hands over what it already has in memory; encoding
+ * and file I/O run on a small bounded executor. When the queue is full the
+ * artifact is dropped and counted rather than making the test wait, so a
+ * burst of failures cannot stall the suite. {@link #flush(Duration)} is the
+ * barrier that waits for everything queued, and writes an index of the
+ * artifacts written so far.
+ */
+public class ArtifactWriter {
+
+    private static final Logger logger = LogManager.getLogger(ArtifactWriter.class);
+
+    private final Path indexFile;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final List<Entry> index = new ArrayList<>();
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final LatencyHistogram handOffLatency = new LatencyHistogram();
+    private final LatencyHistogram writeLatency = new LatencyHistogram();
+
+    /**
+     * @param indexFile HTML index of every artifact written, rewritten on flush
+     * @param threads writer threads
+     * @param queueCapacity artifacts that may wait for a writer before new ones are dropped
+     */
+    public ArtifactWriter(Path indexFile, int threads, int queueCapacity) {
+        this.indexFile = indexFile;
+        this.queueCapacity = queueCapacity;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> {
+                    Thread thread = new Thread(task, "artifact-writer-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * A writer sized by artifactWriterThreads (default 1) and artifactQueueCapacity (default 32).
+     */
+    public static ArtifactWriter fromConfig(Path indexFile) {
+        return new ArtifactWriter(indexFile,
+                ConfigReader.getInt("artifactWriterThreads", 1),
+                ConfigReader.getInt("artifactQueueCapacity", 32));
+    }
+
+    /**
+     * A file to write; its content is produced on the writer thread.
+     */
+    public static PendingFile file(Path path, Supplier<byte[]> content) {
+        return new PendingFile(path, content);
+    }
+
+    /**
+     * Queues a group of files that belong together, e.g. a failed test's screenshot and report.
+     * @param title index entry, e.g. the test name
+     * @param detail one line shown under the title, e.g. the failure reason
+     * @param files files to write, in order
+     * @return false if the queue was full and the artifact was dropped
+     */
+    public boolean submit(String title, String detail, List<PendingFile> files) {
+        long start = System.nanoTime();
+        submitted.incrementAndGet();
+        int depth = pending.incrementAndGet();
+        try {
+            executor.execute(() -> write(title, detail, files));
+            maxQueueDepth.accumulateAndGet(depth, Math::max);
+            return true;
+        } catch (RejectedExecutionException e) {
+            dropped.incrementAndGet();
+            finished();
+            logger.warn("⚠️ Artifact queue full ({}), dropped artifacts of {}", queueCapacity, title);
+            return false;
+        } finally {
+            handOffLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Waits until every queued artifact is written, then rewrites the index.
+     * @return false if the timeout passed first
+     */
+    public boolean flush(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (pending) {
+            while (pending.get() > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(pending, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        writeIndex();
+        return true;
+    }
+
+    /**
+     * @return artifacts queued or being written right now (at most queue capacity + threads)
+     */
+    public int getQueueDepth() {
+        return pending.get();
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    public long getSubmitted() {
+        return submitted.get();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getWriteFailures() {
+        return failed.get();
+    }
+
+    /**
+     * @return time the test thread spent handing artifacts over
+     */
+    public LatencyHistogram getHandOffLatency() {
+        return handOffLatency;
+    }
+
+    /**
+     * @return time from a writer picking up an artifact to its last file being written
+     */
+    public LatencyHistogram getWriteLatency() {
+        return writeLatency;
+    }
+
+    public Path getIndexFile() {
+        return indexFile;
+    }
+
+    public String summary() {
+        return String.format("Artifacts: %d submitted, %d written, %d dropped, %d failed, max pending %d (queue capacity %d)%n"
+                        + "  hand-off: %s%n  write: %s",
+                getSubmitted(), getWritten(), getDropped(), getWriteFailures(), getMaxQueueDepth(), queueCapacity,
+                handOffLatency.summary(), writeLatency.summary());
+    }
+
+    private void write(String title, String detail, List<PendingFile> files) {
+        long start = System.nanoTime();
+        try {
+            List<Path> paths = new ArrayList<>();
+            for (PendingFile file : files) {
+                byte[] content = file.content.get();
+                if (content == null) {
+                    continue;
+                }
+                Files.createDirectories(file.path.toAbsolutePath().getParent());
+                Files.write(file.path, content);
+                paths.add(file.path);
+            }
+            synchronized (index) {
+                index.add(new Entry(title, detail, paths));
+            }
+            written.incrementAndGet();
+            writeLatency.record(System.nanoTime() - start);
+            logger.info("📄 Artifacts written for {}: {}", title, paths);
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            logger.error("❌ Failed to write artifacts for {}: {}", title, e.getMessage());
+        } finally {
+            finished();
+        }
+    }
+
+    private void finished() {
+        if (pending.decrementAndGet() == 0) {
+            synchronized (pending) {
+                pending.notifyAll();
+            }
+        }
+    }
+
+    private void writeIndex() {
+        List<Entry> entries;
+        synchronized (index) {
+            if (index.isEmpty()) {
+                return;
+            }
+            entries = new ArrayList<>(index);
+        }
+        Path directory = indexFile.toAbsolutePath().getParent();
+        StringBuilder html = new StringBuilder();
+        html.append("<html><head><meta charset=\"UTF-8\"><title>Test Artifacts</title></head><body>")
+                .append("<h2>Test Artifacts (").append(entries.size()).append(")</h2><ul>");
+        for (Entry entry : entries) {
+            html.append("<li><b>").append(escape(entry.title)).append("</b> - ").append(escape(entry.detail));
+            for (Path path : entry.paths) {
+                String link = directory.relativize(path.toAbsolutePath()).toString().replace('\\', '/');
+                html.append(" [<a href=\"").append(escape(link)).append("\">")
+                        .append(escape(path.getFileName().toString())).append("</a>]");
+            }
+            html.append("</li>");
+        }
+        html.append("</ul></body></html>");
+        try {
+            Files.createDirectories(directory);
+            Files.write(indexFile, html.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.error("❌ Failed to write artifact index {}: {}", indexFile, e.getMessage());
+        }
+    }
+
+    private static String escape(String text) {
+        return text == null ? "" : text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    /**
+     * A file whose content is produced when it is written.
+     */
+    public static final class PendingFile {
+
+        private final Path path;
+        private final Supplier<byte[]> content;
+
+        private PendingFile(Path path, Supplier<byte[]> content) {
+            this.path = path;
+            this.content = content;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+    }
+
+    private static final class Entry {
+
+        private final String title;
+        private final String detail;
+        private final List<Path> paths;
+
+        private Entry(String title, String detail, List<Path> paths) {
+            this.title = title;
+            this.detail = detail;
+            this.paths = paths;
+        }
+    }
+}
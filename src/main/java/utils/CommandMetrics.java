@@ -0,0 +1,76 @@
+package utils;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency of every WebDriver command, per command name, for the whole run
+ * and for the test method currently running on each thread.
+ * Fed by {@link InstrumentedCommandExecutor}.
+ */
+public class CommandMetrics {
+
+    private static final Map<String, LatencyHistogram> suite = new ConcurrentHashMap<>();
+    private static final Map<Thread, Map<String, LatencyHistogram>> currentTests = new ConcurrentHashMap<>();
+
+    private CommandMetrics() {
+    }
+
+    /**
+     * Records one command round trip.
+     * @param command WebDriver command name, e.g. "findElement", "clickElement"
+     */
+    public static void record(String command, long nanos) {
+        suite.computeIfAbsent(command, name -> new LatencyHistogram()).record(nanos);
+        Map<String, LatencyHistogram> test = currentTests.get(Thread.currentThread());
+        if (test != null) {
+            test.computeIfAbsent(command, name -> new LatencyHistogram()).record(nanos);
+        }
+    }
+
+    /**
+     * Starts collecting the calling thread's commands for a test method.
+     */
+    public static void startTest() {
+        currentTests.put(Thread.currentThread(), new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Stops collecting for the calling thread's test method.
+     * @return its histograms by command name, sorted; empty if startTest() was not called
+     */
+    public static Map<String, LatencyHistogram> endTest() {
+        Map<String, LatencyHistogram> test = currentTests.remove(Thread.currentThread());
+        return test == null ? new TreeMap<>() : new TreeMap<>(test);
+    }
+
+    /**
+     * @return histograms for the whole run by command name, sorted
+     */
+    public static Map<String, LatencyHistogram> getSuiteHistograms() {
+        return new TreeMap<>(suite);
+    }
+
+    public static void reset() {
+        suite.clear();
+        currentTests.clear();
+    }
+
+    /**
+     * @return one line per command, e.g. "  findElement: n=12 p50=1.20ms ..."
+     */
+    public static String format(Map<String, LatencyHistogram> histograms) {
+        if (histograms.isEmpty()) {
+            return "  (no WebDriver commands)";
+        }
+        StringBuilder text = new StringBuilder();
+        histograms.forEach((command, histogram) -> {
+            if (text.length() > 0) {
+                text.append(System.lineSeparator());
+            }
+            text.append("  ").append(command).append(": ").append(histogram.summary());
+        });
+        return text.toString();
+    }
+}
@@ -1,48 +1,133 @@
 package utils;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Loads and validates configuration values from config.properties
- * located in src/test/resources.
+ * The run's configuration, as an immutable {@link ConfigSnapshot} built once
+ * from system properties, environment variables, TestNG suite parameters,
+ * config.properties and properties/environment.properties (both from the
+ * classpath, src/test/resources). Lookups read the current snapshot and
+ * never touch a file.
+ * <p>
+ * {@link #reload()} builds a new snapshot and swaps it in atomically; a
+ * reader sees either the old snapshot or the new one, never a mix. With
+ * configWatch=true a daemon thread does that whenever one of the two files
+ * changes on disk (the copies on the classpath, target/test-classes under
+ * Maven), for long soak runs that are tuned while they run.
  */
 public class ConfigReader {
 
-    private static final Properties props = new Properties();
+    private static final Logger logger = LogManager.getLogger(ConfigReader.class);
+
+    static final String CONFIG_FILE = "config.properties";
+    static final String ENVIRONMENT_FILE = "properties/environment.properties";
+
+    private static final AtomicLong versions = new AtomicLong();
+    private static volatile ConfigSnapshot snapshot;
+    private static volatile Map<String, String> testNgParameters = Collections.emptyMap();
+    private static WatchService watchService;
+    private static Thread watcher;
+    private static final AtomicLong watchReloads = new AtomicLong();
 
     static {
         loadConfig();
     }
 
     /**
-     * Loads the configuration file once at startup.
+     * Loads the configuration once at startup; later calls keep the current
+     * snapshot. Use {@link #reload()} to pick up changes.
      */
     public static void loadConfig() {
-        try (InputStream input = ConfigReader.class.getClassLoader().getResourceAsStream("config.properties")) {
-
-            if (input == null) {
-                throw new RuntimeException("❌ config.properties not found in classpath (expected in src/test/resources)");
+        if (snapshot != null) {
+            return;
+        }
+        synchronized (ConfigReader.class) {
+            if (snapshot == null) {
+                long start = System.nanoTime();
+                reload();
+                StartupTimeline.record(StartupTimeline.CONFIG, start, System.nanoTime());
+                logger.info("✅ {}", snapshot.summary());
+                if (snapshot.getBoolean("configWatch", false)) {
+                    startWatching();
+                }
             }
+        }
+    }
 
-            props.load(input);
-            System.out.println("✅ Configuration loaded successfully");
-
-            validateConfig();
+    /**
+     * Rebuilds the snapshot from every layer and swaps it in.
+     * @return the new snapshot
+     */
+    public static synchronized ConfigSnapshot reload() {
+        ConfigSnapshot next = ConfigSnapshot.builder()
+                .layer(ConfigSnapshot.Source.ENVIRONMENT_PROPERTIES, readProperties(ENVIRONMENT_FILE, false))
+                .layer(ConfigSnapshot.Source.CONFIG_PROPERTIES, readProperties(CONFIG_FILE, true))
+                .layer(ConfigSnapshot.Source.TESTNG_PARAMETERS, testNgParameters)
+                .environmentVariables(System.getenv())
+                .layer(ConfigSnapshot.Source.SYSTEM_PROPERTIES, systemProperties())
+                .version(versions.incrementAndGet())
+                .build();
+        validateConfig(next);
+        ConfigSnapshot previous = snapshot;
+        snapshot = next;
+        if (previous != null) {
+            List<String> changed = next.changedSince(previous);
+            if (!changed.isEmpty()) {
+                logger.info("🔄 Configuration v{}: {} changed", next.getVersion(), changed);
+            }
+        }
+        return next;
+    }
 
-        } catch (IOException e) {
-            throw new RuntimeException("❌ Failed to load configuration file: " + e.getMessage(), e);
+    /**
+     * Adds the suite's TestNG parameters as a layer (above the files, below
+     * environment variables and -D) and reloads.
+     */
+    public static void setTestNgParameters(Map<String, String> parameters) {
+        synchronized (ConfigReader.class) {
+            testNgParameters = parameters == null ? Collections.emptyMap() : Map.copyOf(parameters);
+            reload();
         }
     }
 
+    /**
+     * @return the configuration in effect now; hold on to it to read several
+     * keys from the same version
+     */
+    public static ConfigSnapshot snapshot() {
+        return snapshot;
+    }
+
     /**
      * Validates required properties and basic correctness.
      */
-    private static void validateConfig() {
-        String appPath = props.getProperty("appPath");
-        String winAppDriverUrl = props.getProperty("winAppDriverUrl");
+    private static void validateConfig(ConfigSnapshot config) {
+        String appPath = config.get("appPath");
+        String winAppDriverUrl = config.get("winAppDriverUrl");
 
         if (winAppDriverUrl == null || winAppDriverUrl.isEmpty()) {
             throw new RuntimeException("❌ Missing required property: winAppDriverUrl");
@@ -58,13 +143,172 @@ public class ConfigReader {
             }
         }
 
-        System.out.println("✅ Configuration validation completed.");
+        logger.debug("✅ Configuration validation completed.");
     }
 
     /**
      * Get a property value by key.
      */
     public static String getProperty(String key) {
-        return props.getProperty(key);
+        return snapshot.get(key);
+    }
+
+    /**
+     * Get a run setting: a -D system property wins over an environment
+     * variable, TestNG parameter or the files, falling back to the given
+     * default when no layer sets it.
+     */
+    public static String getSetting(String key, String defaultValue) {
+        return snapshot.get(key, defaultValue);
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        return snapshot.getInt(key, defaultValue);
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        return snapshot.getLong(key, defaultValue);
+    }
+
+    public static double getDouble(String key, double defaultValue) {
+        return snapshot.getDouble(key, defaultValue);
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        return snapshot.getBoolean(key, defaultValue);
+    }
+
+    /**
+     * Reloads whenever config.properties or environment.properties changes on
+     * disk. Only files outside a jar can be watched.
+     */
+    public static synchronized void startWatching() {
+        if (watcher != null) {
+            return;
+        }
+        Map<Path, Set<Path>> watched = new HashMap<>();
+        for (String resource : new String[]{CONFIG_FILE, ENVIRONMENT_FILE}) {
+            Path file = resourcePath(resource);
+            if (file != null) {
+                watched.computeIfAbsent(file.getParent(), directory -> new HashSet<>()).add(file.getFileName());
+            }
+        }
+        if (watched.isEmpty()) {
+            logger.warn("⚠️ No configuration file on disk to watch");
+            return;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            for (Path directory : watched.keySet()) {
+                directory.register(watchService, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+            }
+        } catch (IOException e) {
+            logger.warn("⚠️ Cannot watch configuration files: {}", e.getMessage());
+            return;
+        }
+        WatchService service = watchService;
+        watcher = new Thread(() -> watch(service, watched), "config-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        logger.info("👀 Watching {} for configuration changes", watched.keySet());
+    }
+
+    public static synchronized void stopWatching() {
+        if (watcher == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.debug("Closing the configuration watcher: {}", e.getMessage());
+        }
+        watcher.interrupt();
+        watcher = null;
+        watchService = null;
+    }
+
+    /**
+     * @return reloads triggered by the file watcher
+     */
+    public static long getWatchReloads() {
+        return watchReloads.get();
+    }
+
+    private static void watch(WatchService service, Map<Path, Set<Path>> watched) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean relevant = false;
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.context() instanceof Path
+                            && watched.getOrDefault(directory, Collections.emptySet()).contains((Path) event.context())) {
+                        relevant = true;
+                    }
+                }
+                key.reset();
+                if (relevant) {
+                    // editors write in several steps; let them finish
+                    TimeUnit.MILLISECONDS.sleep(50);
+                    while ((key = service.poll()) != null) {
+                        key.pollEvents();
+                        key.reset();
+                    }
+                    try {
+                        reload();
+                        watchReloads.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        logger.error("❌ Configuration change rejected, keeping v{}: {}",
+                                snapshot.getVersion(), e.getMessage());
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // stopWatching
+        }
+    }
+
+    private static Map<String, String> readProperties(String resource, boolean required) {
+        try (InputStream input = ConfigReader.class.getClassLoader().getResourceAsStream(resource)) {
+            if (input == null) {
+                if (required) {
+                    throw new RuntimeException("❌ " + resource + " not found in classpath (expected in src/test/resources)");
+                }
+                return Collections.emptyMap();
+            }
+            Properties props = new Properties();
+            props.load(input);
+            Map<String, String> values = new HashMap<>();
+            for (String name : props.stringPropertyNames()) {
+                values.put(name, props.getProperty(name));
+            }
+            return values;
+        } catch (IOException e) {
+            throw new RuntimeException("❌ Failed to load configuration file " + resource + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static Map<String, String> systemProperties() {
+        Properties properties = System.getProperties();
+        Map<String, String> values = new HashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            values.put(name, properties.getProperty(name));
+        }
+        return values;
+    }
+
+    /**
+     * @return the file behind a classpath resource, or null if it is not a plain file
+     */
+    private static Path resourcePath(String resource) {
+        URL url = ConfigReader.class.getClassLoader().getResource(resource);
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return Paths.get(url.toURI());
+        } catch (URISyntaxException e) {
+            return null;
+        }
     }
 }
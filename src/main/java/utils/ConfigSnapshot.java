@@ -0,0 +1,259 @@
+package utils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The run's configuration at one point in time: every layer merged once into
+ * a single map, so a lookup is one hash probe however many sources there are.
+ * Layers, highest precedence first: system properties (-D), environment
+ * variables, TestNG suite parameters, config.properties,
+ * environment.properties. An empty value counts as not set and falls
+ * through to the next layer.
+ * <p>
+ * Environment variables are matched in UPPER_SNAKE form: WIN_APP_DRIVER_URL
+ * sets winAppDriverUrl, STUB_LATENCY_MS sets stubLatencyMs.
+ * <p>
+ * A snapshot never changes. Typed lookups parse a value once and keep the
+ * result; a malformed number fails with the key and the layer it came from.
+ */
+public final class ConfigSnapshot {
+
+    /**
+     * Where a value came from, lowest precedence first.
+     */
+    public enum Source {
+        ENVIRONMENT_PROPERTIES("environment.properties"),
+        CONFIG_PROPERTIES("config.properties"),
+        TESTNG_PARAMETERS("TestNG parameters"),
+        ENVIRONMENT_VARIABLES("environment variables"),
+        SYSTEM_PROPERTIES("system properties");
+
+        private final String label;
+
+        Source(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private final Map<String, String> values;
+    private final Map<String, Source> sources;
+    private final Map<Source, Integer> layerSizes;
+    private final long version;
+    private final Instant createdAt = Instant.now();
+    private final Map<String, Object> parsed = new ConcurrentHashMap<>();
+
+    private ConfigSnapshot(Map<Source, Map<String, String>> layers, long version) {
+        Map<String, String> merged = new HashMap<>();
+        Map<String, Source> origin = new HashMap<>();
+        Map<Source, Integer> sizes = new EnumMap<>(Source.class);
+        for (Source source : Source.values()) {
+            Map<String, String> layer = layers.getOrDefault(source, Collections.emptyMap());
+            sizes.put(source, layer.size());
+            layer.forEach((key, value) -> {
+                if (key != null && value != null && !value.isEmpty()) {
+                    merged.put(key, value);
+                    origin.put(key, source);
+                }
+            });
+        }
+        this.values = Collections.unmodifiableMap(merged);
+        this.sources = Collections.unmodifiableMap(origin);
+        this.layerSizes = Collections.unmodifiableMap(sizes);
+        this.version = version;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The configuration key an environment variable sets: WIN_APP_DRIVER_URL becomes winAppDriverUrl.
+     * @return null for names that are not UPPER_SNAKE
+     */
+    public static String keyForEnvironmentVariable(String name) {
+        if (name.isEmpty() || !name.chars().allMatch(c -> (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_')) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder(name.length());
+        boolean upperNext = false;
+        for (char c : name.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (c == '_') {
+                upperNext = key.length() > 0;
+            } else {
+                key.append(upperNext ? Character.toUpperCase(c) : c);
+                upperNext = false;
+            }
+        }
+        return key.length() == 0 ? null : key.toString();
+    }
+
+    /**
+     * @return the value, or null when no layer sets it
+     */
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    public String get(String key, String defaultValue) {
+        String value = values.get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        Object value = parse(key, Integer.class);
+        return value == null ? defaultValue : (Integer) value;
+    }
+
+    public long getLong(String key, long defaultValue) {
+        Object value = parse(key, Long.class);
+        return value == null ? defaultValue : (Long) value;
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        Object value = parse(key, Double.class);
+        return value == null ? defaultValue : (Double) value;
+    }
+
+    /**
+     * "true" in any case is true, anything else false, as Boolean.parseBoolean.
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Object value = parse(key, Boolean.class);
+        return value == null ? defaultValue : (Boolean) value;
+    }
+
+    /**
+     * @return the layer the key's value came from, or null when it is not set
+     */
+    public Source getSource(String key) {
+        return sources.get(key);
+    }
+
+    public Set<String> keys() {
+        return values.keySet();
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * @return 1 for the first snapshot of the run, counting up with every reload
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * @return keys added, removed or changed in this snapshot compared to an older one, sorted
+     */
+    public List<String> changedSince(ConfigSnapshot older) {
+        Set<String> keys = new TreeSet<>(values.keySet());
+        keys.addAll(older.values.keySet());
+        List<String> changed = new ArrayList<>();
+        for (String key : keys) {
+            if (!String.valueOf(values.get(key)).equals(String.valueOf(older.values.get(key)))) {
+                changed.add(key);
+            }
+        }
+        return changed;
+    }
+
+    public String summary() {
+        StringBuilder layers = new StringBuilder();
+        for (int i = Source.values().length - 1; i >= 0; i--) {
+            Source source = Source.values()[i];
+            long used = sources.values().stream().filter(source::equals).count();
+            layers.append(String.format("%s%s %d/%d", layers.length() == 0 ? "" : ", ", source, used,
+                    layerSizes.get(source)));
+        }
+        return String.format("Configuration v%d: %d keys (%s)", version, size(), layers);
+    }
+
+    private Object parse(String key, Class<?> type) {
+        Object cached = parsed.get(key);
+        if (type.isInstance(cached)) {
+            return cached;
+        }
+        String value = values.get(key);
+        if (value == null) {
+            return null;
+        }
+        Object result;
+        try {
+            if (type == Integer.class) {
+                result = Integer.parseInt(value.trim());
+            } else if (type == Long.class) {
+                result = Long.parseLong(value.trim());
+            } else if (type == Double.class) {
+                result = Double.parseDouble(value.trim());
+            } else {
+                result = Boolean.parseBoolean(value.trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("❌ %s=%s (from %s) is not a valid %s",
+                    key, value, sources.get(key), type.getSimpleName()), e);
+        }
+        parsed.put(key, result);
+        return result;
+    }
+
+    /**
+     * Collects layers; each source may be given once, in any order.
+     */
+    public static final class Builder {
+
+        private final Map<Source, Map<String, String>> layers = new EnumMap<>(Source.class);
+        private long version = 1;
+
+        private Builder() {
+        }
+
+        public Builder layer(Source source, Map<String, String> values) {
+            layers.put(source, Map.copyOf(values));
+            return this;
+        }
+
+        /**
+         * Adds the environment variables, renamed to configuration keys.
+         */
+        public Builder environmentVariables(Map<String, String> environment) {
+            Map<String, String> layer = new HashMap<>();
+            environment.forEach((name, value) -> {
+                String key = keyForEnvironmentVariable(name);
+                if (key != null) {
+                    layer.put(key, value);
+                }
+            });
+            return layer(Source.ENVIRONMENT_VARIABLES, layer);
+        }
+
+        public Builder version(long version) {
+            this.version = version;
+            return this;
+        }
+
+        public ConfigSnapshot build() {
+            return new ConfigSnapshot(layers, version);
+        }
+    }
+}
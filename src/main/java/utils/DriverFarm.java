@@ -0,0 +1,476 @@
+package utils;
+
+import io.appium.java_client.windows.WindowsDriver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebElement;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * WinAppDriver sessions spread over several hosts, one {@link DriverPool} per
+ * host. Each lease goes to the least loaded healthy host, preferring one
+ * with a warm idle session, so a host that finishes its tests sooner serves
+ * more of them.
+ * <p>
+ * Hosts are probed on /status before the run. A host whose sessions fail
+ * farmQuarantineAfter times in a row is quarantined: it gets no new leases,
+ * its idle sessions are closed and its leased ones drain, to be quit when
+ * returned. A test that fails on infrastructure on a quarantined host is
+ * requeued: its retry runs on another host. After farmQuarantineMs
+ * the host is probed again and returns if it answers.
+ * <p>
+ * With a single host the farm is its pool: no probes, no quarantine.
+ */
+public class DriverFarm {
+
+    private static final Logger logger = LogManager.getLogger(DriverFarm.class);
+
+    private static final long POLL_MILLIS = 50;
+
+    /**
+     * One WinAppDriver endpoint and its sessions.
+     */
+    public static final class Host {
+
+        private final URL url;
+        private final DriverPool pool;
+        private volatile boolean quarantined;
+        private volatile long quarantinedAtNanos;
+
+        private final AtomicInteger leased = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final LongAdder tests = new LongAdder();
+        private final LongAdder busyNanos = new LongAdder();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicInteger quarantines = new AtomicInteger();
+        private final AtomicInteger requeued = new AtomicInteger();
+
+        private Host(URL url, DriverPool pool) {
+            this.url = url;
+            this.pool = pool;
+        }
+
+        public URL getUrl() {
+            return url;
+        }
+
+        public DriverPool getPool() {
+            return pool;
+        }
+
+        public boolean isQuarantined() {
+            return quarantined;
+        }
+
+        /**
+         * @return sessions leased to tests now
+         */
+        public int getLeased() {
+            return leased.get();
+        }
+
+        /**
+         * @return tests run on the host's sessions
+         */
+        public long getTests() {
+            return tests.sum();
+        }
+
+        /**
+         * @return summed duration of those tests
+         */
+        public long getBusyMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(busyNanos.sum());
+        }
+
+        /**
+         * @return sessions that could not be created, failed their health check or were discarded
+         */
+        public int getFailures() {
+            return failures.get();
+        }
+
+        public int getQuarantines() {
+            return quarantines.get();
+        }
+
+        /**
+         * @return tests that failed here while the host was quarantined and ran again elsewhere
+         */
+        public int getRequeued() {
+            return requeued.get();
+        }
+    }
+
+    private final List<Host> hosts;
+    private final Duration leaseTimeout;
+    private volatile int quarantineAfter = 2;
+    private volatile Duration quarantineTime = Duration.ofMinutes(1);
+    private volatile Duration probeTimeout = Duration.ofSeconds(2);
+
+    private final Map<WindowsDriver<WebElement>, Host> owners = new ConcurrentHashMap<>();
+    private final AtomicLong firstStartNanos = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong lastEndNanos = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * @param urls the hosts, at least one
+     * @param slotsPerHost sessions each host may hold
+     * @param factory creates a new, ready session on a host
+     * @param healthCheck run on every returned session; false recycles it
+     * @param leaseTimeout how long a lease may wait for a free session
+     */
+    public DriverFarm(List<URL> urls, int slotsPerHost, Function<URL, WindowsDriver<WebElement>> factory,
+                      Predicate<WindowsDriver<WebElement>> healthCheck, Duration leaseTimeout) {
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException("❌ A driver farm needs at least one WinAppDriver URL");
+        }
+        List<Host> all = new ArrayList<>();
+        for (URL url : urls) {
+            all.add(new Host(url, new DriverPool(slotsPerHost, () -> factory.apply(url), healthCheck, leaseTimeout)));
+        }
+        this.hosts = Collections.unmodifiableList(all);
+        this.leaseTimeout = leaseTimeout;
+    }
+
+    /**
+     * @param afterFailures consecutive session failures that quarantine a host
+     * @param time how long a host stays out before it is probed again
+     * @param probe timeout of a /status probe
+     */
+    public void setQuarantinePolicy(int afterFailures, Duration time, Duration probe) {
+        this.quarantineAfter = Math.max(1, afterFailures);
+        this.quarantineTime = time;
+        this.probeTimeout = probe;
+    }
+
+    /**
+     * Sets how a kept-alive session is reset before reuse, on every host.
+     */
+    public void setResetAction(Predicate<WindowsDriver<WebElement>> resetAction) {
+        hosts.forEach(host -> host.pool.setResetAction(resetAction));
+    }
+
+    /**
+     * Probes every host's /status at once; hosts that do not answer are
+     * quarantined before any test is sent to them.
+     * @return number of healthy hosts
+     */
+    public int checkHealth() {
+        if (hosts.size() == 1) {
+            return 1;
+        }
+        List<CompletableFuture<Boolean>> probes = hosts.stream()
+                .map(host -> CompletableFuture.supplyAsync(() -> probe(host.url, probeTimeout)))
+                .collect(Collectors.toList());
+        int healthy = 0;
+        for (int i = 0; i < hosts.size(); i++) {
+            Host host = hosts.get(i);
+            if (probes.get(i).join()) {
+                healthy++;
+                logger.info("🩺 WinAppDriver host {} is up", host.url);
+            } else {
+                quarantine(host, "no answer on /status");
+            }
+        }
+        return healthy;
+    }
+
+    /**
+     * Leases a session from the best available host, waiting while every
+     * healthy host is fully leased. A host failing to create a session counts
+     * a failure and the next host is tried.
+     */
+    public WindowsDriver<WebElement> lease() {
+        if (hosts.size() == 1) {
+            Host host = hosts.get(0);
+            return leased(host, host.pool.lease());
+        }
+        long deadline = System.nanoTime() + leaseTimeout.toNanos();
+        while (true) {
+            reprobeExpired();
+            Host host = claim();
+            if (host != null) {
+                WindowsDriver<WebElement> session = null;
+                try {
+                    session = host.pool.tryLease();
+                } catch (RuntimeException e) {
+                    logger.warn("⚠️ WinAppDriver host {} could not start a session: {}", host.url, e.getMessage());
+                    failed(host, e.getMessage());
+                }
+                if (session != null) {
+                    owners.put(session, host);
+                    return session;
+                }
+                host.leased.decrementAndGet();
+                continue;
+            }
+            if (hosts.stream().allMatch(Host::isQuarantined)) {
+                throw new RuntimeException("❌ No healthy WinAppDriver host left of " + hosts.size() + ": " + urls());
+            }
+            if (System.nanoTime() >= deadline) {
+                throw new RuntimeException("❌ No WinAppDriver session became free within "
+                        + leaseTimeout.toMillis() + " ms on " + hosts.size() + " hosts");
+            }
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("❌ Interrupted while waiting for a WinAppDriver session", e);
+            }
+        }
+    }
+
+    /**
+     * Returns a leased session to its host; a quarantined host's session is quit.
+     */
+    public void release(WindowsDriver<WebElement> session) {
+        Host host = returned(session);
+        if (host == null) {
+            return;
+        }
+        if (host.quarantined) {
+            host.pool.discard(session);
+        } else if (host.pool.release(session)) {
+            host.consecutiveFailures.set(0);
+        } else {
+            failed(host, "session failed its health check");
+        }
+    }
+
+    /**
+     * Quits a session a failure left unusable; counts against its host.
+     */
+    public void discard(WindowsDriver<WebElement> session) {
+        Host host = returned(session);
+        if (host != null) {
+            host.pool.discard(session);
+            failed(host, "session discarded after a failure");
+        }
+    }
+
+    /**
+     * Quits a session whose host was quarantined while a test ran on it, so
+     * the test's next lease goes to another host.
+     */
+    public void requeue(WindowsDriver<WebElement> session) {
+        Host host = returned(session);
+        if (host != null) {
+            host.pool.discard(session);
+            host.requeued.incrementAndGet();
+            logger.warn("↪️ Requeued a test from quarantined WinAppDriver host {}", host.url);
+        }
+    }
+
+    /**
+     * Books a test that just ended on the session's host; a passed test
+     * clears the host's run of failures.
+     * @param durationNanos how long the test ran
+     */
+    public void recordTest(WindowsDriver<WebElement> session, long durationNanos, boolean passed) {
+        Host host = owners.get(session);
+        if (host == null) {
+            return;
+        }
+        long end = System.nanoTime();
+        host.tests.increment();
+        host.busyNanos.add(durationNanos);
+        firstStartNanos.accumulateAndGet(end - durationNanos, Math::min);
+        lastEndNanos.accumulateAndGet(end, Math::max);
+        if (passed) {
+            host.consecutiveFailures.set(0);
+        }
+    }
+
+    /**
+     * @return true if the session's host was quarantined since it was leased
+     */
+    public boolean isQuarantined(WindowsDriver<WebElement> session) {
+        Host host = owners.get(session);
+        return host != null && host.quarantined;
+    }
+
+    /**
+     * @return the host a leased session runs on, or null
+     */
+    public URL hostOf(WindowsDriver<WebElement> session) {
+        Host host = owners.get(session);
+        return host == null ? null : host.url;
+    }
+
+    /**
+     * Keeps every host's idle sessions alive for a later test.
+     * @return number of sessions kept
+     */
+    public int keepIdleForReuse() {
+        return hosts.stream().mapToInt(host -> host.pool.keepIdleForReuse()).sum();
+    }
+
+    /**
+     * Quits every host's idle sessions.
+     * @return number of sessions closed
+     */
+    public int closeIdle() {
+        return hosts.stream().mapToInt(host -> host.pool.closeIdle()).sum();
+    }
+
+    public List<Host> getHosts() {
+        return hosts;
+    }
+
+    /**
+     * @return time from the start of the first recorded test to the end of the last
+     */
+    public long getMakespanMillis() {
+        long first = firstStartNanos.get();
+        long last = lastEndNanos.get();
+        return last < first ? 0 : TimeUnit.NANOSECONDS.toMillis(last - first);
+    }
+
+    public int getRequeued() {
+        return hosts.stream().mapToInt(Host::getRequeued).sum();
+    }
+
+    public String summary() {
+        if (hosts.size() == 1) {
+            return hosts.get(0).pool.summary();
+        }
+        long makespan = getMakespanMillis();
+        StringBuilder summary = new StringBuilder(String.format(
+                "Driver farm: %d hosts, makespan %d ms, %d tests requeued", hosts.size(), makespan, getRequeued()));
+        for (Host host : hosts) {
+            summary.append(String.format("; %s %s: %d tests, %.1f tests/s, %d ms in tests, %d failures",
+                    host.url, host.quarantined ? "quarantined" : "healthy", host.getTests(),
+                    makespan == 0 ? 0.0 : host.getTests() * 1000.0 / makespan, host.getBusyMillis(), host.getFailures()));
+        }
+        return summary.toString();
+    }
+
+    /**
+     * @return true if the host answers GET /status with 200 within the timeout
+     */
+    static boolean probe(URL url, Duration timeout) {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(url.toString().replaceAll("/+$", "") + "/status").openConnection();
+            connection.setConnectTimeout((int) timeout.toMillis());
+            connection.setReadTimeout((int) timeout.toMillis());
+            return connection.getResponseCode() == HttpURLConnection.HTTP_OK;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Takes a slot on the least loaded healthy host with one free, preferring
+     * a warm idle session among equals. Choosing and counting the slot happen
+     * under one lock, so workers leasing at once spread over the hosts; the
+     * session itself is started outside it.
+     * @return the host, its leased count already raised, or null if every slot is taken
+     */
+    private synchronized Host claim() {
+        Host best = null;
+        for (Host host : hosts) {
+            if (host.quarantined || host.leased.get() >= host.pool.getMaxSize()) {
+                continue;
+            }
+            if (best == null || host.leased.get() < best.leased.get()
+                    || (host.leased.get() == best.leased.get()
+                    && best.pool.getIdleSessions() == 0 && host.pool.getIdleSessions() > 0)) {
+                best = host;
+            }
+        }
+        if (best != null) {
+            best.leased.incrementAndGet();
+        }
+        return best;
+    }
+
+    /**
+     * Probes the quarantined hosts whose time is up; those answering return.
+     */
+    private void reprobeExpired() {
+        for (Host host : hosts) {
+            if (host.quarantined && System.nanoTime() - host.quarantinedAtNanos >= quarantineTime.toNanos()) {
+                reprobe(host);
+            }
+        }
+    }
+
+    private void reprobe(Host host) {
+        synchronized (host) {
+            if (!host.quarantined || System.nanoTime() - host.quarantinedAtNanos < quarantineTime.toNanos()) {
+                return;
+            }
+            if (probe(host.url, probeTimeout)) {
+                host.consecutiveFailures.set(0);
+                host.quarantined = false;
+                logger.info("🩺 WinAppDriver host {} answers again, back in the farm", host.url);
+            } else {
+                host.quarantinedAtNanos = System.nanoTime();
+            }
+        }
+    }
+
+    private void failed(Host host, String reason) {
+        host.failures.incrementAndGet();
+        if (hosts.size() > 1 && host.consecutiveFailures.incrementAndGet() >= quarantineAfter) {
+            quarantine(host, reason);
+        }
+    }
+
+    private void quarantine(Host host, String reason) {
+        synchronized (host) {
+            if (host.quarantined) {
+                return;
+            }
+            host.quarantined = true;
+            host.quarantinedAtNanos = System.nanoTime();
+            host.quarantines.incrementAndGet();
+        }
+        int closed = host.pool.closeIdle();
+        logger.warn("🚧 Quarantined WinAppDriver host {} ({}): {} leased sessions drain, {} idle closed",
+                host.url, reason, host.leased.get(), closed);
+    }
+
+    private WindowsDriver<WebElement> leased(Host host, WindowsDriver<WebElement> session) {
+        owners.put(session, host);
+        host.leased.incrementAndGet();
+        return session;
+    }
+
+    /**
+     * @return the session's host, no longer counting the session as leased
+     */
+    private Host returned(WindowsDriver<WebElement> session) {
+        Host host = owners.remove(session);
+        if (host != null) {
+            host.leased.decrementAndGet();
+        }
+        return host;
+    }
+
+    private String urls() {
+        return hosts.stream().map(host -> host.url.toString()).collect(Collectors.joining(", "));
+    }
+}
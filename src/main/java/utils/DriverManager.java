@@ -1,96 +1,525 @@
 package utils;
 
+import io.appium.java_client.MobileBy;
+import io.appium.java_client.MobileCommand;
+import io.appium.java_client.remote.AppiumCommandExecutor;
 import io.appium.java_client.windows.WindowsDriver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.HttpCommandExecutor;
 
 import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 /**
  * Manages WinAppDriver sessions and configuration for Windows applications (e.g., Calculator).
+ * Sessions come from a {@link DriverPool}; each thread leases its own session,
+ * so TestNG can run test methods in parallel. With several WinAppDriver hosts
+ * (winAppDriverUrls) there is one pool per host, behind a {@link DriverFarm}.
  */
 public class DriverManager {
 
-    private static WindowsDriver<WebElement> driver = null;
+    private static final Logger logger = LogManager.getLogger(DriverManager.class);
+
+    // Session currently leased by each worker thread
+    private static final Map<Thread, WindowsDriver<WebElement>> leases = new ConcurrentHashMap<>();
+    // The <test> each worker thread serves, so a <test> that ends returns only its own sessions
+    private static final Map<Thread, String> scopes = new ConcurrentHashMap<>();
+    private static volatile DriverFarm pool;
+    private static volatile int poolSize;
+    private static volatile int sessionsPerHost;
+    private static volatile Predicate<WindowsDriver<WebElement>> resetAction;
+    // HTTP transport shared by all sessions when httpClient=pooled
+    private static volatile PooledHttpClientFactory httpClients;
+
+    // The app counts as ready once its result display is in the UI tree
+    private static final By READY_LOCATOR = MobileBy.AccessibilityId("CalculatorResults");
 
     // Optional runtime overrides (can be set from testBase)
-    private static String winAppDriverUrlOverride;
-    private static String appPathOverride;
+    private static volatile String winAppDriverUrlOverride;
+    private static volatile List<String> winAppDriverUrlsOverride;
+    private static volatile String appPathOverride;
 
     // --- Setters ---
     public static void setWinAppDriverUrl(String url) {
         winAppDriverUrlOverride = url;
     }
 
+    /**
+     * Spreads sessions over several WinAppDriver hosts; null or empty falls
+     * back to winAppDriverUrls, then to the single URL. Takes effect when the
+     * pool is first used.
+     */
+    public static void setWinAppDriverUrls(List<String> urls) {
+        winAppDriverUrlsOverride = urls;
+    }
+
     public static void setAppPath(String path) {
         appPathOverride = path;
     }
 
     /**
-     * Returns a singleton WindowsDriver instance.
+     * Sets the number of sessions the pool may hold; takes effect when the pool
+     * is first used. Defaults to the driverPoolSize property, else 1.
+     */
+    public static void setPoolSize(int size) {
+        poolSize = size;
+    }
+
+    /**
+     * Sets how a kept-alive session is reset before the next test reuses it
+     * (see sessionKeepAlive). Returning false relaunches the app instead.
+     */
+    public static void setResetAction(Predicate<WindowsDriver<WebElement>> action) {
+        resetAction = action;
+        DriverFarm current = pool;
+        if (current != null) {
+            current.setResetAction(action);
+        }
+    }
+
+    /**
+     * @return true if sessions survive quitDriver() and are reset for the next test
+     */
+    public static boolean isKeepAlive() {
+        return ConfigReader.getBoolean("sessionKeepAlive", false);
+    }
+
+    /**
+     * Returns the WindowsDriver leased by the calling thread, leasing one
+     * from the pool on first use.
      */
     public static WindowsDriver<WebElement> getDriver() {
-        if (driver == null) {
+        Thread current = Thread.currentThread();
+        WindowsDriver<WebElement> session = leases.get(current);
+        if (session == null) {
+            session = getPool().lease();
+            leases.put(current, session);
+        }
+        return session;
+    }
 
-            // Load configuration file (if not already loaded)
-            ConfigReader.loadConfig();
+    /**
+     * Returns the calling thread's session without leasing a new one.
+     * @return the leased driver, or null if the thread holds none
+     */
+    public static WindowsDriver<WebElement> getCurrentDriver() {
+        return leases.get(Thread.currentThread());
+    }
 
-            // Determine final URL and App path
-            String finalUrl = (winAppDriverUrlOverride != null && !winAppDriverUrlOverride.isEmpty())
-                    ? winAppDriverUrlOverride
-                    : ConfigReader.getProperty("winAppDriverUrl");
+    /**
+     * Returns the calling thread's session to the pool.
+     */
+    public static void releaseDriver() {
+        WindowsDriver<WebElement> session = leases.remove(Thread.currentThread());
+        if (session != null) {
+            getPool().release(session);
+        }
+    }
+
+    /**
+     * Quits the calling thread's session instead of returning it, so its next
+     * getDriver() starts a fresh one; for a session a failure left unusable.
+     */
+    public static void discardDriver() {
+        WindowsDriver<WebElement> session = leases.remove(Thread.currentThread());
+        if (session != null) {
+            getPool().discard(session);
+            logger.info("♻️ Discarded this thread's WinAppDriver session");
+        }
+    }
+
+    /**
+     * @return true if the calling thread's session is on a host the farm
+     * quarantined since the session was leased
+     */
+    public static boolean isOnQuarantinedHost() {
+        WindowsDriver<WebElement> session = leases.get(Thread.currentThread());
+        DriverFarm current = pool;
+        return session != null && current != null && current.isQuarantined(session);
+    }
 
-            String finalAppPath = (appPathOverride != null && !appPathOverride.isEmpty())
-                    ? appPathOverride
-                    : ConfigReader.getProperty("calculatorAppPath");
+    /**
+     * Quits the calling thread's session on a quarantined host, so its next
+     * getDriver() leases from another host.
+     */
+    public static void requeueDriver() {
+        WindowsDriver<WebElement> session = leases.remove(Thread.currentThread());
+        if (session != null) {
+            getPool().requeue(session);
+        }
+    }
+
+    /**
+     * Books a finished test on the host and the app instance of the calling
+     * thread's session, for the farm's per-host and per-instance throughput.
+     */
+    public static void recordTest(long durationMillis, boolean passed) {
+        WindowsDriver<WebElement> session = leases.get(Thread.currentThread());
+        DriverFarm current = pool;
+        if (session != null && current != null) {
+            current.recordTest(session, TimeUnit.MILLISECONDS.toNanos(durationMillis), passed);
+            AppInstances.recordTest(session, TimeUnit.MILLISECONDS.toNanos(durationMillis));
+        }
+    }
 
-            System.out.println("⚙️ WinAppDriver URL: " + finalUrl);
-            System.out.println("📘 Target App Path: " + finalAppPath);
+    /**
+     * @return the WinAppDriver host of the calling thread's session, or null if it holds none
+     */
+    public static URL getCurrentHost() {
+        WindowsDriver<WebElement> session = leases.get(Thread.currentThread());
+        DriverFarm current = pool;
+        return session == null || current == null ? null : current.hostOf(session);
+    }
 
-            // Validate app path (only if it's a file path)
-            if (finalAppPath.toLowerCase().endsWith(".exe")) {
-                File appFile = new File(finalAppPath);
-                if (!appFile.exists() || !appFile.isFile()) {
-                    throw new RuntimeException("❌ App not found at path: " + finalAppPath);
+    /**
+     * Starts sessions in the background so they are ready, idle in the pool,
+     * by the time the tests ask: the host is probed on /status first, so an
+     * unreachable WinAppDriver fails the future at once instead of after a
+     * session timeout, then the sessions start side by side.
+     * @param sessions how many sessions to start, at most the pool sizes of all hosts together
+     * @return completes when they are ready, exceptionally if one could not be started
+     */
+    public static CompletableFuture<Void> prewarm(int sessions) {
+        Executor threads = task -> {
+            Thread thread = new Thread(task, "session-prewarm");
+            thread.setDaemon(true);
+            thread.start();
+        };
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            DriverFarm farm = getPool();
+            List<DriverFarm.Host> hosts = farm.getHosts();
+            if (hosts.size() == 1) {
+                Duration timeout = Duration.ofMillis(ConfigReader.getLong("farmProbeTimeoutMs", 2000));
+                if (!DriverFarm.probe(hosts.get(0).getUrl(), timeout)) {
+                    throw new RuntimeException("❌ WinAppDriver does not answer on " + hosts.get(0).getUrl() + "/status");
+                }
+            }
+            StartupTimeline.record(StartupTimeline.STATUS, start, System.nanoTime());
+            return farm;
+        }, threads).thenCompose(farm -> {
+            long start = System.nanoTime();
+            // the farm spreads the leases over its hosts, so every host's pool gets its share
+            int capacity = farm.getHosts().stream().mapToInt(host -> host.getPool().getMaxSize()).sum();
+            int count = Math.min(sessions, capacity);
+            List<CompletableFuture<WindowsDriver<WebElement>>> started = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                started.add(CompletableFuture.supplyAsync(farm::lease, threads));
+            }
+            return CompletableFuture.allOf(started.toArray(new CompletableFuture<?>[0])).whenComplete((done, failure) -> {
+                // every session that did start goes to the pool, idle
+                started.stream().filter(session -> !session.isCompletedExceptionally())
+                        .forEach(session -> farm.release(session.join()));
+                if (failure == null) {
+                    logger.info("🔥 {} WinAppDriver session(s) pre-warmed in {} ms", count,
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                }
+            });
+        });
+    }
+
+    /**
+     * Marks the calling thread as serving the named &lt;test&gt;, so
+     * {@link #quitDriver(String)} returns its session when that &lt;test&gt; ends.
+     * @param test the &lt;test&gt; name, or null to clear the mark
+     */
+    public static void setTestScope(String test) {
+        if (test == null) {
+            scopes.remove(Thread.currentThread());
+        } else {
+            scopes.put(Thread.currentThread(), test);
+        }
+    }
+
+    /**
+     * Returns the calling thread's session; see {@link #quitDriver(String)}.
+     */
+    public static void quitDriver() {
+        quitDriver(null);
+    }
+
+    /**
+     * Ends a &lt;test&gt;'s use of WinAppDriver: the sessions of the calling
+     * thread and of the threads marked with {@link #setTestScope} as serving
+     * the &lt;test&gt; are returned. Sessions other &lt;test&gt;s hold are left
+     * alone, so one that ends early does not take them from tests still
+     * running. Once no thread holds a lease any more the idle sessions are
+     * closed - or, in keep-alive mode, kept for the next test and reset on its
+     * first lease.
+     * @param test the &lt;test&gt; that ended, or null for the calling thread alone
+     */
+    public static void quitDriver(String test) {
+        if (pool == null) {
+            return;
+        }
+        Thread current = Thread.currentThread();
+        for (Thread thread : new ArrayList<>(leases.keySet())) {
+            if (thread == current || (test != null && test.equals(scopes.get(thread)))) {
+                scopes.remove(thread);
+                WindowsDriver<WebElement> session = leases.remove(thread);
+                if (session != null) {
+                    pool.release(session);
                 }
             }
+        }
+        if (isKeepAlive()) {
+            int kept = pool.keepIdleForReuse();
+            logger.info("♻️ WinAppDriver sessions kept alive for the next test: {}", kept);
+            return;
+        }
+        if (!leases.isEmpty()) {
+            logger.info("🟡 Idle WinAppDriver sessions kept until {} other lease(s) are returned", leases.size());
+            return;
+        }
+        int closed = pool.closeIdle();
+        if (closed > 0) {
+            logger.info("🟡 WinAppDriver sessions closed: {}", closed);
+        }
+    }
+
+    /**
+     * Closes every session and discards the pool, returning its metrics.
+     * Call once every test has ended: sessions still leased are taken back.
+     * @return pool summary, or null if no session was ever requested
+     */
+    public static synchronized String shutdown() {
+        if (pool == null) {
+            return null;
+        }
+        List<WindowsDriver<WebElement>> leased = new ArrayList<>(leases.values());
+        leases.clear();
+        scopes.clear();
+        leased.forEach(pool::release);
+        int closed = pool.closeIdle();
+        if (closed > 0) {
+            logger.info("🟡 WinAppDriver sessions closed: {}", closed);
+        }
+        String summary = pool.summary();
+        pool = null;
+        PooledHttpClientFactory transport = httpClients;
+        if (transport != null) {
+            transport.closeIdleConnections();
+        }
+        return summary;
+    }
 
-            // --- Set Desired Capabilities ---
-            DesiredCapabilities capabilities = new DesiredCapabilities();
-            capabilities.setCapability("app", "Microsoft.WindowsCalculator_8wekyb3d8bbwe!App");
-            //capabilities.setCapability("app", finalAppPath);
-            capabilities.setCapability("platformName", "Windows");
-            capabilities.setCapability("deviceName", "WindowsPC");
+    /**
+     * @return request and connection counts of the pooled HTTP transport,
+     *         or null if it is not in use
+     */
+    public static String getHttpSummary() {
+        PooledHttpClientFactory transport = httpClients;
+        return transport == null ? null : transport.summary();
+    }
 
+    /**
+     * @return the pooled HTTP transport, or null if sessions use Selenium's default
+     */
+    public static PooledHttpClientFactory getHttpClientFactory() {
+        return httpClients;
+    }
+
+    /**
+     * @return the pool metrics so far, or null if no session was ever requested
+     */
+    public static String getPoolSummary() {
+        DriverFarm current = pool;
+        return current == null ? null : current.summary();
+    }
+
+    /**
+     * @return the farm behind the pool, or null if no session was ever requested
+     */
+    public static DriverFarm getFarm() {
+        return pool;
+    }
+
+    private static DriverFarm getPool() {
+        DriverFarm current = pool;
+        if (current == null) {
+            synchronized (DriverManager.class) {
+                if (pool == null) {
+                    int size = poolSize > 0 ? poolSize
+                            : ConfigReader.getInt("driverPoolSize", 1);
+                    Duration leaseTimeout = Duration.ofMillis(
+                            ConfigReader.getLong("driverLeaseTimeoutMs", 300000));
+                    List<URL> hosts = hostUrls();
+                    sessionsPerHost = size;
+                    DriverFarm farm = new DriverFarm(hosts, size, DriverManager::createSession,
+                            DriverManager::isHealthy, leaseTimeout);
+                    farm.setQuarantinePolicy(ConfigReader.getInt("farmQuarantineAfter", 2),
+                            Duration.ofMillis(ConfigReader.getLong("farmQuarantineMs", 60000)),
+                            Duration.ofMillis(ConfigReader.getLong("farmProbeTimeoutMs", 2000)));
+                    if (resetAction != null) {
+                        farm.setResetAction(resetAction);
+                    }
+                    if (hosts.size() > 1) {
+                        int healthy = farm.checkHealth();
+                        logger.info("🧰 WinAppDriver farm: {} of {} hosts healthy, {} sessions per host",
+                                healthy, hosts.size(), size);
+                    } else {
+                        logger.info("🧰 WinAppDriver session pool size: {}", size);
+                    }
+                    pool = farm;
+                }
+                current = pool;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * The WinAppDriver hosts: the runtime list, else winAppDriverUrls
+     * (comma-separated), else the single URL.
+     */
+    private static List<URL> hostUrls() {
+        List<String> configured = winAppDriverUrlsOverride;
+        if (configured == null || configured.isEmpty()) {
+            configured = new ArrayList<>();
+            for (String url : ConfigReader.getSetting("winAppDriverUrls", "").split(",")) {
+                if (!url.trim().isEmpty()) {
+                    configured.add(url.trim());
+                }
+            }
+        }
+        if (configured.isEmpty()) {
+            configured = List.of((winAppDriverUrlOverride != null && !winAppDriverUrlOverride.isEmpty())
+                    ? winAppDriverUrlOverride
+                    : ConfigReader.getProperty("winAppDriverUrl"));
+        }
+        List<URL> urls = new ArrayList<>();
+        for (String url : configured) {
             try {
-                driver = new WindowsDriver<>(new URL(finalUrl), capabilities);
-                // ✅ Wait for the app to be fully ready
-                Thread.sleep(2000);
-                System.out.println("🟢 WinAppDriver session started successfully for app: " + finalAppPath);
+                urls.add(new URL(url));
             } catch (MalformedURLException e) {
-                throw new RuntimeException("❌ Invalid WinAppDriver URL: " + finalUrl, e);
-            } catch (Exception e) {
-                throw new RuntimeException("❌ Failed to start WindowsDriver session. Details: " + e.getMessage(), e);
+                throw new RuntimeException("❌ Invalid WinAppDriver URL: " + url, e);
             }
         }
-        return driver;
+        return urls;
     }
 
     /**
-     * Quits the current WinAppDriver session.
+     * Starts a new WinAppDriver session on a host and waits until the app is ready.
      */
-    public static void quitDriver() {
-        if (driver != null) {
-            try {
-                driver.quit();
-                System.out.println("🟡 WinAppDriver session closed.");
-            } catch (Exception e) {
-                System.err.println("⚠️ Error while closing driver: " + e.getMessage());
-            } finally {
-                driver = null;
+    private static WindowsDriver<WebElement> createSession(URL url) {
+        String finalAppPath = (appPathOverride != null && !appPathOverride.isEmpty())
+                ? appPathOverride
+                : ConfigReader.getProperty("calculatorAppPath");
+
+        logger.info("⚙️ WinAppDriver URL: {}", url);
+        logger.info("📘 Target App Path: {}", finalAppPath);
+
+        // Validate app path (only if it's a file path)
+        if (finalAppPath.toLowerCase().endsWith(".exe")) {
+            File appFile = new File(finalAppPath);
+            if (!appFile.exists() || !appFile.isFile()) {
+                throw new RuntimeException("❌ App not found at path: " + finalAppPath);
             }
         }
+
+        // --- Set Desired Capabilities ---
+        DesiredCapabilities capabilities = new DesiredCapabilities();
+        capabilities.setCapability("app", "Microsoft.WindowsCalculator_8wekyb3d8bbwe!App");
+        //capabilities.setCapability("app", finalAppPath);
+        capabilities.setCapability("platformName", "Windows");
+        capabilities.setCapability("deviceName", "WindowsPC");
+
+        WindowsDriver<WebElement> driver = null;
+        try {
+            long start = System.nanoTime();
+            HttpCommandExecutor executor = newCommandExecutor(url);
+            driver = ConfigReader.getBoolean("commandMetrics", true)
+                    ? InstrumentedCommandExecutor.newDriver(executor, capabilities)
+                    : new WindowsDriver<>(executor, capabilities);
+            long started = System.nanoTime();
+            StartupTimeline.record(StartupTimeline.SESSION, start, started);
+            // ✅ Wait for the app to be fully ready
+            waitUntilReady(driver);
+            StartupTimeline.record(StartupTimeline.READY, started, System.nanoTime());
+            AppInstances.register(driver, url,
+                    sessionsPerHost > 1 && ConfigReader.getBoolean("appInstanceTiling", true));
+            logger.info("🟢 WinAppDriver session started successfully for app: {}", finalAppPath);
+            return driver;
+        } catch (Exception e) {
+            if (driver != null) {
+                // the session is up but the app never got ready: quit it, or it outlives its pool slot
+                try {
+                    AppInstances.release(driver);
+                    driver.quit();
+                } catch (Exception quitError) {
+                    logger.warn("⚠️ Could not quit the half-started session: {}", quitError.getMessage());
+                }
+            }
+            throw new RuntimeException("❌ Failed to start WindowsDriver session. Details: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Command executor for a new session over the configured HTTP transport.
+     */
+    private static HttpCommandExecutor newCommandExecutor(URL url) {
+        PooledHttpClientFactory transport = httpClientFactory();
+        return transport == null
+                ? new AppiumCommandExecutor(MobileCommand.commandRepository, url)
+                : new AppiumCommandExecutor(MobileCommand.commandRepository, url, transport);
+    }
+
+    /**
+     * The transport named by httpClient: default (Selenium's own, a connection
+     * pool per session) or pooled (one keep-alive pool for all sessions, with
+     * tuned timeouts). The pooled one is built on first use and kept.
+     */
+    private static PooledHttpClientFactory httpClientFactory() {
+        String kind = ConfigReader.getSetting("httpClient", "default").trim();
+        if (kind.equalsIgnoreCase("default")) {
+            return null;
+        }
+        if (!kind.equalsIgnoreCase("pooled")) {
+            throw new IllegalArgumentException("❌ Unknown httpClient: " + kind + " (expected default or pooled)");
+        }
+        PooledHttpClientFactory current = httpClients;
+        if (current == null) {
+            synchronized (DriverManager.class) {
+                if (httpClients == null) {
+                    httpClients = new PooledHttpClientFactory(
+                            ConfigReader.getInt("httpMaxIdleConnections", 16),
+                            Duration.ofMillis(ConfigReader.getLong("httpKeepAliveMs", 20000)),
+                            Duration.ofMillis(ConfigReader.getLong("httpConnectTimeoutMs", 5000)),
+                            Duration.ofMillis(ConfigReader.getLong("httpReadTimeoutMs", 120000)));
+                    logger.info("🔌 WinAppDriver HTTP transport: pooled keep-alive connections");
+                }
+                current = httpClients;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Blocks until the app's UI is present instead of sleeping a fixed time.
+     */
+    private static void waitUntilReady(WindowsDriver<WebElement> session) {
+        Duration timeout = Duration.ofMillis(ConfigReader.getLong("appReadyTimeoutMs", 20000));
+        AdaptiveWait.until("app-ready", timeout, () -> session.findElement(READY_LOCATOR));
+    }
+
+    /**
+     * Health check for returned sessions: the session must still answer.
+     */
+    private static boolean isHealthy(WindowsDriver<WebElement> session) {
+        return session.getSessionId() != null && session.getWindowHandle() != null;
     }
 }
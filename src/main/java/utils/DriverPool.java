@@ -0,0 +1,290 @@
+package utils;
+
+import io.appium.java_client.windows.WindowsDriver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of WinAppDriver sessions with lease/return semantics.
+ * Sessions are created lazily up to the pool size; returned sessions are
+ * health-checked and either kept for the next lease or quit and recycled.
+ * Idle sessions can be kept alive across test boundaries: they are reset to a
+ * known state on their next lease and relaunched only if that reset fails.
+ */
+public class DriverPool {
+
+    private static final Logger logger = LogManager.getLogger(DriverPool.class);
+
+    private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final int maxSize;
+    private final Supplier<WindowsDriver<WebElement>> factory;
+    private final Predicate<WindowsDriver<WebElement>> healthCheck;
+    private final Duration leaseTimeout;
+
+    // Most recently returned first, so callers keep reusing warm sessions
+    private final BlockingDeque<WindowsDriver<WebElement>> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger live = new AtomicInteger();
+    private final Set<WindowsDriver<WebElement>> needsReset = ConcurrentHashMap.newKeySet();
+    private volatile Predicate<WindowsDriver<WebElement>> resetAction = session -> true;
+
+    private final LongAdder leases = new LongAdder();
+    private final LongAdder leaseWaitNanos = new LongAdder();
+    private final AtomicLong maxLeaseWaitNanos = new AtomicLong();
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger recycled = new AtomicInteger();
+    private final AtomicInteger reused = new AtomicInteger();
+    private final AtomicInteger resetFailures = new AtomicInteger();
+
+    /**
+     * @param maxSize maximum number of live sessions
+     * @param factory creates a new, ready session
+     * @param healthCheck run on every returned session; false recycles it
+     * @param leaseTimeout how long a lease may wait for a free session
+     */
+    public DriverPool(int maxSize, Supplier<WindowsDriver<WebElement>> factory,
+                      Predicate<WindowsDriver<WebElement>> healthCheck, Duration leaseTimeout) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.factory = factory;
+        this.healthCheck = healthCheck;
+        this.leaseTimeout = leaseTimeout;
+    }
+
+    /**
+     * Leases a session: an idle one if available, a new one while the pool is
+     * below its size, otherwise waits for another caller to return one.
+     */
+    public WindowsDriver<WebElement> lease() {
+        long start = System.nanoTime();
+        long deadline = start + leaseTimeout.toNanos();
+        try {
+            while (true) {
+                WindowsDriver<WebElement> session = prepare(idle.pollFirst());
+                if (session != null) {
+                    return session;
+                }
+                if (reserveSlot()) {
+                    return create();
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new RuntimeException("❌ No WinAppDriver session became free within "
+                            + leaseTimeout.toMillis() + " ms (pool size " + maxSize + ")");
+                }
+                // Bounded poll so a slot freed by a recycled session is noticed too
+                session = prepare(idle.pollFirst(Math.min(remaining, POLL_NANOS), TimeUnit.NANOSECONDS));
+                if (session != null) {
+                    return session;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("❌ Interrupted while waiting for a WinAppDriver session", e);
+        } finally {
+            long waited = System.nanoTime() - start;
+            leases.increment();
+            leaseWaitNanos.add(waited);
+            maxLeaseWaitNanos.accumulateAndGet(waited, Math::max);
+        }
+    }
+
+    /**
+     * Leases a session without waiting: an idle one, else a new one while the
+     * pool is below its size.
+     * @return the session, or null if every slot is taken
+     */
+    public WindowsDriver<WebElement> tryLease() {
+        WindowsDriver<WebElement> session = prepare(idle.pollFirst());
+        if (session == null && reserveSlot()) {
+            session = create();
+        }
+        if (session != null) {
+            leases.increment();
+        }
+        return session;
+    }
+
+    /**
+     * Returns a leased session. Sessions failing the health check are quit
+     * and their slot is freed for a fresh one.
+     * @return true if the session passed the health check and was kept
+     */
+    public boolean release(WindowsDriver<WebElement> session) {
+        boolean healthy;
+        try {
+            healthy = healthCheck.test(session);
+        } catch (RuntimeException e) {
+            healthy = false;
+        }
+        if (healthy) {
+            idle.offerFirst(session);
+        } else {
+            discard(session);
+        }
+        return healthy;
+    }
+
+    /**
+     * Quits a session instead of returning it, e.g. after an unrecoverable failure.
+     */
+    public void discard(WindowsDriver<WebElement> session) {
+        needsReset.remove(session);
+        recycled.incrementAndGet();
+        quit(session);
+    }
+
+    /**
+     * Sets how a kept-alive session is brought back to a known state before reuse.
+     * @param resetAction returns false (or throws) if the session must be relaunched
+     */
+    public void setResetAction(Predicate<WindowsDriver<WebElement>> resetAction) {
+        this.resetAction = resetAction;
+    }
+
+    /**
+     * Keeps every idle session alive for a later test instead of quitting it;
+     * each is reset before its next lease.
+     * @return number of sessions kept
+     */
+    public int keepIdleForReuse() {
+        List<WindowsDriver<WebElement>> sessions = new ArrayList<>(idle);
+        needsReset.addAll(sessions);
+        return sessions.size();
+    }
+
+    /**
+     * Quits every idle session; leased sessions are left to their holders.
+     * @return number of sessions closed
+     */
+    public int closeIdle() {
+        List<WindowsDriver<WebElement>> sessions = new ArrayList<>();
+        idle.drainTo(sessions);
+        sessions.forEach(session -> {
+            needsReset.remove(session);
+            quit(session);
+        });
+        return sessions.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getLiveSessions() {
+        return live.get();
+    }
+
+    public int getIdleSessions() {
+        return idle.size();
+    }
+
+    public int getSessionsCreated() {
+        return created.get();
+    }
+
+    public int getSessionsRecycled() {
+        return recycled.get();
+    }
+
+    public int getSessionsReused() {
+        return reused.get();
+    }
+
+    public int getResetFailures() {
+        return resetFailures.get();
+    }
+
+    public long getLeases() {
+        return leases.sum();
+    }
+
+    public long getMaxLeaseWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLeaseWaitNanos.get());
+    }
+
+    public long getTotalLeaseWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(leaseWaitNanos.sum());
+    }
+
+    public String summary() {
+        return String.format("Driver pool: size %d, %d leases, lease wait total %d ms / max %d ms, "
+                        + "%d sessions created, %d reused across tests, %d recycled, %d failed resets",
+                maxSize, getLeases(), getTotalLeaseWaitMillis(), getMaxLeaseWaitMillis(),
+                getSessionsCreated(), getSessionsReused(), getSessionsRecycled(), getResetFailures());
+    }
+
+    /**
+     * Resets a kept-alive session before it is handed out again.
+     * @return the session, or null if it was null or had to be discarded
+     */
+    private WindowsDriver<WebElement> prepare(WindowsDriver<WebElement> session) {
+        if (session == null || !needsReset.remove(session)) {
+            return session;
+        }
+        boolean reset;
+        try {
+            reset = resetAction.test(session);
+        } catch (RuntimeException e) {
+            reset = false;
+        }
+        if (reset) {
+            reused.incrementAndGet();
+            return session;
+        }
+        resetFailures.incrementAndGet();
+        logger.warn("⚠️ Kept-alive session could not be reset, relaunching");
+        discard(session);
+        return null;
+    }
+
+    private boolean reserveSlot() {
+        int current;
+        do {
+            current = live.get();
+            if (current >= maxSize) {
+                return false;
+            }
+        } while (!live.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private WindowsDriver<WebElement> create() {
+        try {
+            WindowsDriver<WebElement> session = factory.get();
+            created.incrementAndGet();
+            return session;
+        } catch (RuntimeException e) {
+            live.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void quit(WindowsDriver<WebElement> session) {
+        live.decrementAndGet();
+        try {
+            ElementCache.release(session);
+            AppInstances.release(session);
+            session.quit();
+        } catch (Exception e) {
+            logger.warn("⚠️ Error while closing pooled driver: {}", e.getMessage());
+        }
+    }
+}
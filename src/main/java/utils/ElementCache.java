@@ -0,0 +1,134 @@
+package utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.SessionId;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Session-scoped cache of resolved element handles, keyed by locator.
+ * Every page object created on the same WinAppDriver session shares one cache,
+ * so buttons that never move are looked up once instead of on every click.
+ */
+public class ElementCache {
+
+    private static final Map<SessionId, ElementCache> SESSION_CACHES = new ConcurrentHashMap<>();
+
+    private final Map<By, WebElement> elements = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+
+    /**
+     * Returns the cache shared by all page objects on the driver's session.
+     */
+    public static ElementCache forDriver(RemoteWebDriver driver) {
+        return SESSION_CACHES.computeIfAbsent(driver.getSessionId(), id -> new ElementCache());
+    }
+
+    /**
+     * Drops the cache of a session that is about to be closed.
+     */
+    public static void release(RemoteWebDriver driver) {
+        SessionId sessionId = driver.getSessionId();
+        if (sessionId != null) {
+            SESSION_CACHES.remove(sessionId);
+        }
+    }
+
+    /**
+     * Returns the cached element for the locator, resolving it on a miss.
+     * @param locator the element locator
+     * @param resolver lookup used when the element is not cached yet
+     * @return the resolved element
+     */
+    public WebElement get(By locator, Function<By, WebElement> resolver) {
+        WebElement element = elements.get(locator);
+        if (element != null) {
+            hits.incrementAndGet();
+            return element;
+        }
+        return resolve(locator, resolver);
+    }
+
+    /**
+     * Clicks the element, re-resolving it once if the cached handle went stale.
+     */
+    public void click(By locator, Function<By, WebElement> resolver) {
+        withElement(locator, resolver, WebElement::click);
+    }
+
+    /**
+     * Reads the element text, re-resolving it once if the cached handle went stale.
+     */
+    public String getText(By locator, Function<By, WebElement> resolver) {
+        String[] text = new String[1];
+        withElement(locator, resolver, element -> text[0] = element.getText());
+        return text[0];
+    }
+
+    /**
+     * Runs an action against the cached element. A StaleElementReferenceException
+     * evicts the handle and the action is retried once on a freshly resolved element.
+     */
+    public void withElement(By locator, Function<By, WebElement> resolver, Consumer<WebElement> action) {
+        WebElement element = get(locator, resolver);
+        try {
+            action.accept(element);
+        } catch (StaleElementReferenceException e) {
+            staleHits.incrementAndGet();
+            elements.remove(locator, element);
+            action.accept(resolve(locator, resolver));
+        }
+    }
+
+    /**
+     * Evicts a single locator, e.g. after the element is known to have been re-created.
+     */
+    public void invalidate(By locator) {
+        elements.remove(locator);
+    }
+
+    /**
+     * Evicts every cached handle of this session.
+     */
+    public void invalidateAll() {
+        elements.clear();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getStaleHits() {
+        return staleHits.get();
+    }
+
+    public int size() {
+        return elements.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ElementCache[size=%d, hits=%d, misses=%d, stale=%d]",
+                size(), getHits(), getMisses(), getStaleHits());
+    }
+
+    private WebElement resolve(By locator, Function<By, WebElement> resolver) {
+        misses.incrementAndGet();
+        WebElement element = resolver.apply(locator);
+        elements.put(locator, element);
+        return element;
+    }
+}
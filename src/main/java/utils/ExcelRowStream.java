@@ -0,0 +1,394 @@
+package utils;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams the rows of one .xlsx sheet as TestNG data-provider rows without
+ * loading the workbook. The sheet XML is parsed with POI's SAX event model on
+ * a background thread that hands rows over through a small bounded queue, so
+ * only a few batches of rows are in memory however long the sheet is.
+ * <p>
+ * The first row is the header; each later row becomes an Object[] of the
+ * cells' displayed text (as Excel formats them), in the order of the
+ * requested columns. Blank rows are skipped. The workbook is closed when the
+ * last row has been read, on the first error, or by {@link #close()}.
+ * <p>
+ * Use {@link #open} from a serial data provider: TestNG reads the whole
+ * iterator of a parallel = true provider before running any row, which
+ * defeats the bounded queue. To fan a sheet out over the data-provider
+ * threads, use {@link #chunks} instead.
+ */
+public class ExcelRowStream implements Iterator<Object[]>, AutoCloseable {
+
+    // rows travel in batches so the two threads do not hand off on every row
+    private static final int BATCH_SIZE = 256;
+    private static final int QUEUE_CAPACITY = 4;
+    private static final long OFFER_POLL_MS = 100;
+    private static final Object END = new Object();
+
+    private final Path workbook;
+    private final String sheetName;
+    private final String[] columns;
+    private final BlockingQueue<Object> rows = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final Thread parser;
+    private volatile boolean closed;
+    private Object[][] batch = new Object[0][];
+    private int position;
+    private boolean finished;
+
+    private ExcelRowStream(Path workbook, String sheetName, String[] columns) {
+        this.workbook = workbook;
+        this.sheetName = sheetName;
+        this.columns = columns;
+        this.parser = new Thread(this::parse, "excel-rows-" + workbook.getFileName());
+        this.parser.setDaemon(true);
+    }
+
+    /**
+     * Starts streaming a sheet.
+     * @param workbook the .xlsx file
+     * @param sheetName the sheet to read, or null for the first sheet
+     * @param columns header names to return, in parameter order; none for every column
+     */
+    public static ExcelRowStream open(Path workbook, String sheetName, String... columns) {
+        ExcelRowStream stream = new ExcelRowStream(workbook, sheetName, columns);
+        stream.parser.start();
+        return stream;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (position == batch.length && !finished) {
+            Object item;
+            try {
+                item = rows.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new IllegalStateException("Interrupted while reading " + workbook, e);
+            }
+            if (item == END) {
+                finished = true;
+            } else if (item instanceof RuntimeException) {
+                finished = true;
+                close();
+                throw (RuntimeException) item;
+            } else {
+                batch = (Object[][]) item;
+                position = 0;
+            }
+        }
+        return position < batch.length;
+    }
+
+    @Override
+    public Object[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more rows in " + workbook);
+        }
+        return batch[position++];
+    }
+
+    /**
+     * Serves a sheet to a parallel data provider in chunks. TestNG drains the
+     * returned iterator up front, so it holds one small {@link Chunk} handle
+     * per chunkSize rows instead of the rows; each invocation then pulls the
+     * next chunkSize rows from one shared stream with {@link Chunk#rows()}.
+     * Rows in memory are bounded by the running invocations times chunkSize.
+     * <p>
+     * The sheet is read twice: once here to count the rows, once as the
+     * chunks are taken. Rows go to chunks in the order invocations start, not
+     * in chunk-number order.
+     * @param workbook the .xlsx file
+     * @param sheetName the sheet to read, or null for the first sheet
+     * @param chunkSize rows per invocation
+     * @param columns header names to return, in parameter order; none for every column
+     */
+    public static Iterator<Object[]> chunks(Path workbook, String sheetName, int chunkSize, String... columns) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("❌ Chunk size must be at least 1, got " + chunkSize);
+        }
+        long rows = 0;
+        try (ExcelRowStream counting = open(workbook, sheetName, columns)) {
+            while (counting.hasNext()) {
+                counting.next();
+                rows++;
+            }
+        }
+        ChunkSource source = new ChunkSource(workbook, sheetName, columns);
+        int count = (int) ((rows + chunkSize - 1) / chunkSize);
+        List<Object[]> handles = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            handles.add(new Object[]{new Chunk(source, i, count, chunkSize)});
+        }
+        return handles.iterator();
+    }
+
+    /**
+     * @return data rows parsed so far (header and blank rows excluded); runs
+     * up to a few batches ahead of the rows returned by next()
+     */
+    public long getRowsRead() {
+        return rowsRead.get();
+    }
+
+    /**
+     * @return true while the background parser is still running
+     */
+    public boolean isParsing() {
+        return parser.isAlive();
+    }
+
+    /**
+     * Stops the parser and releases the workbook; rows not yet read are dropped.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        rows.clear();
+    }
+
+    private void parse() {
+        OPCPackage pkg = null;
+        try {
+            pkg = OPCPackage.open(workbook.toFile(), PackageAccess.READ);
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                try (InputStream sheet = sheets.next()) {
+                    if (sheetName == null || sheetName.equals(sheets.getSheetName())) {
+                        XMLReader xml = XMLHelper.newXMLReader();
+                        RowHandler handler = new RowHandler();
+                        xml.setContentHandler(new XSSFSheetXMLHandler(
+                                styles, null, strings, handler, new DataFormatter(), false));
+                        xml.parse(new InputSource(sheet));
+                        handler.flush();
+                        hand(END);
+                        return;
+                    }
+                }
+            }
+            throw new IllegalArgumentException("❌ No sheet '" + sheetName + "' in " + workbook);
+        } catch (Stopped e) {
+            // closed by the consumer
+        } catch (RuntimeException e) {
+            handFailure(e);
+        } catch (Exception e) {
+            handFailure(new IllegalStateException("❌ Failed to read " + workbook + ": " + e.getMessage(), e));
+        } finally {
+            if (pkg != null) {
+                // read-only packages are released with revert(); close() would try to save
+                pkg.revert();
+            }
+        }
+    }
+
+    private void handFailure(RuntimeException failure) {
+        try {
+            hand(failure);
+        } catch (Stopped e) {
+            // nobody is reading any more
+        }
+    }
+
+    /**
+     * Blocks while the queue is full, so the parser never runs far ahead of the tests.
+     */
+    private void hand(Object item) {
+        try {
+            while (!rows.offer(item, OFFER_POLL_MS, TimeUnit.MILLISECONDS)) {
+                if (closed) {
+                    throw new Stopped();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new Stopped();
+        }
+        if (closed) {
+            rows.clear();
+            throw new Stopped();
+        }
+    }
+
+    /**
+     * Collects the cells of one row; the header row fixes which column goes where.
+     */
+    private class RowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final List<String> header = new ArrayList<>();
+        // sheet column index -> position in the returned row, -1 if not requested; null until the header is read
+        private int[] positions;
+        private String[] current;
+        private final List<Object[]> pending = new ArrayList<>(BATCH_SIZE);
+        private int nextColumn;
+        private boolean blank;
+
+        @Override
+        public void startRow(int rowNum) {
+            nextColumn = 0;
+            blank = true;
+            if (positions != null) {
+                current = new String[columns.length > 0 ? columns.length : header.size()];
+                Arrays.fill(current, "");
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference == null ? nextColumn : new CellReference(cellReference).getCol();
+            nextColumn = column + 1;
+            if (positions == null) {
+                while (header.size() < column) {
+                    header.add("");
+                }
+                header.add(formattedValue == null ? "" : formattedValue.trim());
+                return;
+            }
+            if (column < positions.length && positions[column] >= 0 && formattedValue != null) {
+                current[positions[column]] = formattedValue;
+                blank &= formattedValue.trim().isEmpty();
+            }
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (positions == null) {
+                positions = resolveColumns(header);
+                return;
+            }
+            if (!blank) {
+                rowsRead.incrementAndGet();
+                pending.add(current);
+                if (pending.size() == BATCH_SIZE) {
+                    flush();
+                }
+            }
+        }
+
+        void flush() {
+            if (!pending.isEmpty()) {
+                hand(pending.toArray(new Object[0][]));
+                pending.clear();
+            }
+        }
+
+        private int[] resolveColumns(List<String> names) {
+            int[] resolved = new int[names.size()];
+            if (columns.length == 0) {
+                for (int i = 0; i < resolved.length; i++) {
+                    resolved[i] = i;
+                }
+                return resolved;
+            }
+            Arrays.fill(resolved, -1);
+            for (int position = 0; position < columns.length; position++) {
+                int column = names.indexOf(columns[position]);
+                if (column < 0) {
+                    throw new IllegalArgumentException("❌ No column '" + columns[position] + "' in " + workbook
+                            + " (header: " + names + ")");
+                }
+                resolved[column] = position;
+            }
+            return resolved;
+        }
+    }
+
+    /**
+     * One invocation's share of a sheet served by {@link #chunks}.
+     */
+    public static final class Chunk {
+
+        private final ChunkSource source;
+        private final int number;
+        private final int count;
+        private final int size;
+
+        private Chunk(ChunkSource source, int number, int count, int size) {
+            this.source = source;
+            this.number = number;
+            this.count = count;
+            this.size = size;
+        }
+
+        /**
+         * Takes this chunk's rows from the shared stream; call it once, when
+         * the invocation starts.
+         * @return up to the chunk size rows, fewer for the last chunk
+         */
+        public List<Object[]> rows() {
+            return source.take(size);
+        }
+
+        @Override
+        public String toString() {
+            return "chunk " + number + " of " + count;
+        }
+    }
+
+    /**
+     * The stream the chunks of one sheet share; opened by the first chunk
+     * taken, so the counting pass has finished with the workbook by then.
+     */
+    private static class ChunkSource {
+
+        private final Path workbook;
+        private final String sheetName;
+        private final String[] columns;
+        private ExcelRowStream stream;
+
+        ChunkSource(Path workbook, String sheetName, String[] columns) {
+            this.workbook = workbook;
+            this.sheetName = sheetName;
+            this.columns = columns;
+        }
+
+        synchronized List<Object[]> take(int size) {
+            if (stream == null) {
+                stream = open(workbook, sheetName, columns);
+            }
+            List<Object[]> taken = new ArrayList<>(size);
+            while (taken.size() < size && stream.hasNext()) {
+                taken.add(stream.next());
+            }
+            return taken;
+        }
+    }
+
+    /**
+     * Unwinds the SAX parse once the stream has been closed.
+     */
+    private static class Stopped extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Stopped() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package utils;
+
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Why a test failed, as far as its throwable tells. Only infrastructure
+ * failures (the session, the HTTP link to WinAppDriver, a timeout) are worth
+ * a retry; an assertion or a missing element is the app's answer and fails
+ * the same way again.
+ */
+public enum FailureClass {
+
+    /** Session lost or not created, WinAppDriver unreachable or erroring, a wait timed out. */
+    INFRASTRUCTURE,
+
+    /** The app did something else than expected: an assertion, a missing element. */
+    PRODUCT,
+
+    /** Anything else, typically a bug in the test or framework code. */
+    TEST;
+
+    public boolean isRetryable() {
+        return this == INFRASTRUCTURE;
+    }
+
+    /**
+     * Classifies by the whole cause chain: an assertion or a missing element
+     * anywhere in it makes a product failure, so a WebDriverWait that timed
+     * out looking for a button is not retried. Otherwise any infrastructure
+     * throwable in the chain counts, so a RuntimeException wrapping a dropped
+     * session is still infrastructure.
+     * @param failure the test's throwable, may be null
+     */
+    public static FailureClass classify(Throwable failure) {
+        List<Throwable> chain = new ArrayList<>();
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Throwable cause = failure; cause != null && seen.add(cause); cause = cause.getCause()) {
+            chain.add(cause);
+        }
+        for (Throwable cause : chain) {
+            if (cause instanceof AssertionError || cause instanceof NoSuchElementException) {
+                return PRODUCT;
+            }
+        }
+        for (Throwable cause : chain) {
+            if (isInfrastructure(cause)) {
+                return INFRASTRUCTURE;
+            }
+        }
+        return TEST;
+    }
+
+    private static boolean isInfrastructure(Throwable cause) {
+        return cause instanceof NoSuchSessionException
+                || cause instanceof SessionNotCreatedException
+                || cause instanceof UnreachableBrowserException
+                || cause instanceof NoSuchWindowException
+                || cause instanceof StaleElementReferenceException
+                || cause instanceof TimeoutException
+                || cause instanceof java.util.concurrent.TimeoutException
+                || cause instanceof IOException
+                // a plain WebDriverException is WinAppDriver's "unknown error", an HTTP 500
+                || cause.getClass() == WebDriverException.class;
+    }
+}
@@ -0,0 +1,197 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-test history of infrastructure failures and retries, kept across runs
+ * in a small tab-separated file (flakeStatsFile, default
+ * test-history/flake-stats.tsv). A test's flake rate sizes the suite's retry
+ * budget; a test whose retries never passed is not retried any more.
+ * Counts are halved once a test passes {@value #MAX_RUNS} runs, so old
+ * history fades.
+ */
+public class FlakeStats {
+
+    private static final Logger logger = LogManager.getLogger(FlakeStats.class);
+
+    static final int MAX_RUNS = 50;
+    private static final String HEADER = "# test\truns\tinfraFailures\tretries\trescued";
+
+    private final Map<String, Entry> entries = new TreeMap<>();
+
+    /**
+     * One test's counts.
+     */
+    public static final class Entry {
+        private int runs;
+        private int infraFailures;
+        private int retries;
+        private int rescued;
+
+        public int getRuns() {
+            return runs;
+        }
+
+        /**
+         * @return runs in which at least one attempt failed on infrastructure
+         */
+        public int getInfraFailures() {
+            return infraFailures;
+        }
+
+        public int getRetries() {
+            return retries;
+        }
+
+        /**
+         * @return runs that failed first and passed on a retry
+         */
+        public int getRescued() {
+            return rescued;
+        }
+    }
+
+    /**
+     * Reads the history; a missing or unreadable file is an empty history.
+     */
+    public static FlakeStats load(Path file) {
+        FlakeStats stats = new FlakeStats();
+        if (!Files.exists(file)) {
+            return stats;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t");
+                if (fields.length != 5) {
+                    continue;
+                }
+                Entry entry = stats.entry(fields[0]);
+                entry.runs = Integer.parseInt(fields[1]);
+                entry.infraFailures = Integer.parseInt(fields[2]);
+                entry.retries = Integer.parseInt(fields[3]);
+                entry.rescued = Integer.parseInt(fields[4]);
+            }
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("⚠️ Ignoring unreadable flake statistics {}: {}", file, e.getMessage());
+            return new FlakeStats();
+        }
+        return stats;
+    }
+
+    /**
+     * Adds this run's counts to the history on disk, so concurrent or
+     * consecutive suites accumulate rather than overwrite each other.
+     */
+    public static void merge(Path file, FlakeStats run) {
+        if (run.entries.isEmpty()) {
+            return;
+        }
+        synchronized (FlakeStats.class) {
+            FlakeStats history = load(file);
+            history.add(run);
+            try {
+                history.save(file);
+            } catch (IOException e) {
+                logger.warn("⚠️ Could not save flake statistics to {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Records one finished test.
+     * @param infraFailure whether an attempt failed on infrastructure
+     * @param retries retries it was given
+     * @param rescued whether a retry passed
+     */
+    public synchronized void record(String test, boolean infraFailure, int retries, boolean rescued) {
+        Entry entry = entry(test);
+        entry.runs++;
+        entry.infraFailures += infraFailure ? 1 : 0;
+        entry.retries += retries;
+        entry.rescued += rescued ? 1 : 0;
+        decay(entry);
+    }
+
+    /**
+     * @return the test's counts, or null if it has none
+     */
+    public synchronized Entry get(String test) {
+        return entries.get(test);
+    }
+
+    /**
+     * @return share of the test's runs that hit an infrastructure failure, 0 without history
+     */
+    public synchronized double getFlakeRate(String test) {
+        Entry entry = entries.get(test);
+        return entry == null || entry.runs == 0 ? 0.0 : (double) entry.infraFailures / entry.runs;
+    }
+
+    /**
+     * @return true once a test was retried at least three times and no retry ever passed
+     */
+    public synchronized boolean retriesNeverHelp(String test) {
+        Entry entry = entries.get(test);
+        return entry != null && entry.retries >= 3 && entry.rescued == 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized void add(FlakeStats other) {
+        synchronized (other) {
+            other.entries.forEach((test, counts) -> {
+                Entry entry = entry(test);
+                entry.runs += counts.runs;
+                entry.infraFailures += counts.infraFailures;
+                entry.retries += counts.retries;
+                entry.rescued += counts.rescued;
+                decay(entry);
+            });
+        }
+    }
+
+    synchronized void save(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            writer.write(HEADER + "\n");
+            for (Map.Entry<String, Entry> test : entries.entrySet()) {
+                Entry entry = test.getValue();
+                writer.write(String.format("%s\t%d\t%d\t%d\t%d\n", test.getKey(),
+                        entry.runs, entry.infraFailures, entry.retries, entry.rescued));
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void decay(Entry entry) {
+        while (entry.runs > MAX_RUNS) {
+            entry.runs /= 2;
+            entry.infraFailures /= 2;
+            entry.retries /= 2;
+            entry.rescued /= 2;
+        }
+    }
+
+    private Entry entry(String test) {
+        return entries.computeIfAbsent(test, name -> new Entry());
+    }
+}
@@ -0,0 +1,53 @@
+package utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Run-wide counters of keystrokes delivered to the Calculator versus the
+ * driver commands used to deliver them, so the batching ratio of the
+ * keyboard input mode can be compared with the click path.
+ */
+public final class InputStats {
+
+    private static final AtomicLong keystrokes = new AtomicLong();
+    private static final AtomicLong commands = new AtomicLong();
+
+    private InputStats() {
+    }
+
+    /**
+     * Records one delivery of input.
+     * @param keystrokeCount logical key presses delivered
+     * @param commandCount driver commands issued to deliver them
+     */
+    public static void record(int keystrokeCount, int commandCount) {
+        keystrokes.addAndGet(keystrokeCount);
+        commands.addAndGet(commandCount);
+    }
+
+    public static long getKeystrokes() {
+        return keystrokes.get();
+    }
+
+    public static long getCommands() {
+        return commands.get();
+    }
+
+    /**
+     * @return keystrokes per driver command; 1.0 for the click path
+     */
+    public static double keystrokesPerCommand() {
+        long sent = commands.get();
+        return sent == 0 ? 0.0 : (double) keystrokes.get() / sent;
+    }
+
+    public static void reset() {
+        keystrokes.set(0);
+        commands.set(0);
+    }
+
+    public static String summary() {
+        return String.format("Input: %d keystrokes in %d commands (%.2f keystrokes/command)",
+                getKeystrokes(), getCommands(), keystrokesPerCommand());
+    }
+}
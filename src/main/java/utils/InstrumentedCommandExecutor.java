@@ -0,0 +1,61 @@
+package utils;
+
+import io.appium.java_client.windows.WindowsDriver;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.Response;
+
+import java.io.IOException;
+
+/**
+ * Wraps a session's command executor and times every command into {@link CommandMetrics}.
+ * Adds two System.nanoTime() calls and a histogram increment per command.
+ * <p>
+ * WindowsDriver only accepts an HttpCommandExecutor, so sessions are started
+ * with {@link #newDriver}: the driver gets the real executor, with its own
+ * HTTP client, and this wrapper is put in front of it before the first command.
+ */
+public class InstrumentedCommandExecutor implements CommandExecutor {
+
+    private final CommandExecutor delegate;
+
+    public InstrumentedCommandExecutor(CommandExecutor delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Starts a session over the given executor with every command timed, the new session included.
+     */
+    public static WindowsDriver<WebElement> newDriver(HttpCommandExecutor executor, Capabilities capabilities) {
+        return new InstrumentedDriver(executor, capabilities);
+    }
+
+    @Override
+    public Response execute(Command command) throws IOException {
+        long start = System.nanoTime();
+        try {
+            return delegate.execute(command);
+        } finally {
+            CommandMetrics.record(command.getName(), System.nanoTime() - start);
+        }
+    }
+
+    // Appium's driver hierarchy mixes raw and generic find methods; every subclass inherits the warnings
+    @SuppressWarnings("unchecked")
+    private static final class InstrumentedDriver extends WindowsDriver<WebElement> {
+
+        InstrumentedDriver(HttpCommandExecutor executor, Capabilities capabilities) {
+            super(executor, capabilities);
+        }
+
+        @Override
+        protected void startSession(Capabilities capabilities) {
+            // called from the RemoteWebDriver constructor, after it set the executor and its logs
+            setCommandExecutor(new InstrumentedCommandExecutor(getCommandExecutor()));
+            super.startSession(capabilities);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package utils;
+
+import okhttp3.Call;
+import okhttp3.ConnectionPool;
+import okhttp3.EventListener;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.internal.OkHttpClient;
+
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.URL;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HTTP transport shared by every WinAppDriver session (httpClient=pooled).
+ * Selenium's default gives each session a connection pool of its own, so
+ * every new session opens new TCP connections, and waits up to 2 minutes to
+ * connect and 3 hours for a reply. Here all sessions draw kept-alive
+ * connections from one pool, and a stalled host fails within the configured
+ * timeouts instead of holding its worker.
+ * <p>
+ * Idle connections are dropped after keepAlive, which should stay below the
+ * server's own idle timeout so a command never lands on a connection the
+ * server has just closed: failed requests are not retried, since OkHttp
+ * would otherwise send a timed-out click again on a new connection.
+ * Requests are not pipelined: OkHttp does not pipeline HTTP/1.1 requests,
+ * and a session sends one command at a time anyway; concurrent sessions each
+ * get a connection from the pool.
+ */
+public class PooledHttpClientFactory implements HttpClient.Factory {
+
+    private final ConnectionPool pool;
+    private final Duration keepAlive;
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong connections = new AtomicLong();
+    private final EventListener counter = new EventListener() {
+        @Override
+        public void callStart(Call call) {
+            requests.incrementAndGet();
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress address, Proxy proxy) {
+            connections.incrementAndGet();
+        }
+    };
+
+    /**
+     * @param maxIdleConnections connections kept open while idle, across all hosts
+     * @param keepAlive how long an idle connection is kept open
+     * @param connectTimeout limit for opening a connection
+     * @param readTimeout limit for waiting on a reply; must exceed the slowest command
+     */
+    public PooledHttpClientFactory(int maxIdleConnections, Duration keepAlive,
+                                   Duration connectTimeout, Duration readTimeout) {
+        if (maxIdleConnections < 1) {
+            throw new IllegalArgumentException("❌ httpMaxIdleConnections must be at least 1, got " + maxIdleConnections);
+        }
+        this.pool = new ConnectionPool(maxIdleConnections, keepAlive.toMillis(), TimeUnit.MILLISECONDS);
+        this.keepAlive = keepAlive;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * Clients built here use the pool and the configured timeouts; timeouts
+     * set on the builder are ignored.
+     */
+    @Override
+    public HttpClient.Builder builder() {
+        // the builder's own readTimeout field would shadow ours inside it
+        long readMillis = readTimeout.toMillis();
+        return new HttpClient.Builder() {
+            @Override
+            public HttpClient createClient(URL url) {
+                okhttp3.OkHttpClient client = new okhttp3.OkHttpClient.Builder()
+                        .connectionPool(pool)
+                        .connectTimeout(connectTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                        .readTimeout(readMillis, TimeUnit.MILLISECONDS)
+                        .writeTimeout(readMillis, TimeUnit.MILLISECONDS)
+                        .followRedirects(true)
+                        .retryOnConnectionFailure(false)
+                        .proxy(proxy)
+                        .eventListener(counter)
+                        .build();
+                return new OkHttpClient(client, url);
+            }
+        };
+    }
+
+    /**
+     * Does nothing: Selenium calls this on every session's quit, which would
+     * close the idle connections the other sessions are about to reuse.
+     * Idle connections expire after keepAlive; see {@link #closeIdleConnections()}.
+     */
+    @Override
+    public void cleanupIdleClients() {
+    }
+
+    /**
+     * Closes the idle connections now; counters are kept.
+     */
+    public void closeIdleConnections() {
+        pool.evictAll();
+    }
+
+    /**
+     * @return requests sent since creation
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * @return TCP connections opened since creation
+     */
+    public long getConnections() {
+        return connections.get();
+    }
+
+    public String summary() {
+        long sent = requests.get();
+        long opened = connections.get();
+        return String.format("HTTP: %d requests over %d connections (%.1f per connection), keep-alive %d ms, "
+                        + "connect timeout %d ms, read timeout %d ms",
+                sent, opened, opened == 0 ? 0.0 : (double) sent / opened, keepAlive.toMillis(),
+                connectTimeout.toMillis(), readTimeout.toMillis());
+    }
+}
@@ -0,0 +1,236 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides, for one suite, whether a failed test is run again. Only
+ * infrastructure failures are retried (see {@link FailureClass}), each
+ * invocation at most retryMaxPerTest times, the whole suite at most its retry
+ * budget times, and never a test whose past retries all failed too.
+ * <p>
+ * retryBudget=auto sizes the budget from the flake history of the suite's
+ * tests: twice the infrastructure failures they are expected to have, at
+ * least retryBudgetMin. Time spent in retries (session recycling and the
+ * reruns themselves) is reported per suite, and each test's outcome is added
+ * to the history at the end.
+ */
+public class RetryPolicy {
+
+    private static final Logger logger = LogManager.getLogger(RetryPolicy.class);
+
+    /**
+     * The outcome of a failed attempt; only RETRY runs the test again.
+     */
+    public enum Decision {
+        RETRY,
+        NOT_INFRASTRUCTURE,
+        PER_TEST_LIMIT,
+        RETRIES_NEVER_HELP,
+        BUDGET_SPENT;
+
+        public boolean isRetry() {
+            return this == RETRY;
+        }
+    }
+
+    private final FlakeStats history;
+    private final FlakeStats run = new FlakeStats();
+    private final int maxRetriesPerTest;
+    private final int budget;
+
+    private final Map<String, Invocation> invocations = new ConcurrentHashMap<>();
+    private final AtomicInteger used = new AtomicInteger();
+    private final AtomicInteger rescued = new AtomicInteger();
+    private final Map<Decision, AtomicInteger> decisions = new EnumMap<>(Decision.class);
+    private final Map<FailureClass, AtomicInteger> notRetried = new EnumMap<>(FailureClass.class);
+    private final AtomicLong retryNanos = new AtomicLong();
+    private final AtomicLong recycleNanos = new AtomicLong();
+
+    /**
+     * @param history past runs, used for the never-helps rule
+     * @param maxRetriesPerTest retries one invocation may get
+     * @param budget retries the whole suite may get
+     */
+    public RetryPolicy(FlakeStats history, int maxRetriesPerTest, int budget) {
+        this.history = history;
+        this.maxRetriesPerTest = maxRetriesPerTest;
+        this.budget = budget;
+        for (Decision decision : Decision.values()) {
+            decisions.put(decision, new AtomicInteger());
+        }
+        for (FailureClass failureClass : FailureClass.values()) {
+            notRetried.put(failureClass, new AtomicInteger());
+        }
+    }
+
+    /**
+     * Reads retryMaxPerTest (default 2), retryBudget (a number, or auto),
+     * retryBudgetMin (default 2) and the history from flakeStatsFile.
+     * @param tests the suite's tests, to size an automatic budget
+     */
+    public static RetryPolicy fromConfig(Collection<String> tests) {
+        FlakeStats history = FlakeStats.load(statsFile());
+        String configured = ConfigReader.getSetting("retryBudget", "auto").trim();
+        int budget;
+        if (configured.equalsIgnoreCase("auto")) {
+            budget = autoBudget(history, tests, ConfigReader.getInt("retryBudgetMin", 2));
+        } else {
+            try {
+                budget = Integer.parseInt(configured);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("❌ retryBudget=" + configured + " is neither a number nor auto", e);
+            }
+        }
+        return new RetryPolicy(history, ConfigReader.getInt("retryMaxPerTest", 2), budget);
+    }
+
+    /**
+     * @return twice the infrastructure failures the tests are expected to hit, at least the minimum
+     */
+    public static int autoBudget(FlakeStats history, Collection<String> tests, int minimum) {
+        double expected = 0;
+        for (String test : tests) {
+            expected += history.getFlakeRate(test);
+        }
+        return Math.max(minimum, (int) Math.ceil(2 * expected));
+    }
+
+    /**
+     * @return flakeStatsFile (default test-history/flake-stats.tsv)
+     */
+    public static Path statsFile() {
+        return Paths.get(ConfigReader.getSetting("flakeStatsFile", "test-history/flake-stats.tsv"));
+    }
+
+    /**
+     * Decides on a failed attempt.
+     * @param test the test method, as kept in the flake history
+     * @param invocation the test method with its parameters, to count retries per data row
+     * @param failure what the attempt threw
+     * @param durationNanos how long the attempt ran
+     */
+    public Decision onFailure(String test, String invocation, Throwable failure, long durationNanos) {
+        Invocation state = invocations.computeIfAbsent(invocation, key -> new Invocation());
+        FailureClass failureClass = FailureClass.classify(failure);
+        if (state.retries > 0) {
+            retryNanos.addAndGet(durationNanos);
+        }
+        Decision decision;
+        if (!failureClass.isRetryable()) {
+            notRetried.get(failureClass).incrementAndGet();
+            decision = Decision.NOT_INFRASTRUCTURE;
+        } else {
+            state.infraFailure = true;
+            if (state.retries >= maxRetriesPerTest) {
+                decision = Decision.PER_TEST_LIMIT;
+            } else if (history.retriesNeverHelp(test)) {
+                decision = Decision.RETRIES_NEVER_HELP;
+            } else if (used.getAndUpdate(count -> count < budget ? count + 1 : count) >= budget) {
+                decision = Decision.BUDGET_SPENT;
+            } else {
+                state.retries++;
+                decision = Decision.RETRY;
+            }
+        }
+        decisions.get(decision).incrementAndGet();
+        if (decision.isRetry()) {
+            logger.warn("🔁 Retrying {} ({} of {}) after {}: {}", invocation, state.retries, maxRetriesPerTest,
+                    failureClass, failure);
+        } else if (failureClass.isRetryable()) {
+            logger.warn("⛔ Not retrying {} ({}): {}", invocation, decision, failure);
+        }
+        return decision;
+    }
+
+    /**
+     * Adds the time spent replacing the session before a retry.
+     */
+    public void recordRecycle(long nanos) {
+        recycleNanos.addAndGet(nanos);
+        retryNanos.addAndGet(nanos);
+    }
+
+    /**
+     * Records an invocation's final attempt and adds it to this run's flake statistics.
+     */
+    public void onFinished(String test, String invocation, boolean passed, Throwable failure, long durationNanos) {
+        Invocation state = invocations.remove(invocation);
+        int retries = state == null ? 0 : state.retries;
+        boolean infraFailure = (state != null && state.infraFailure)
+                || (!passed && FailureClass.classify(failure).isRetryable());
+        if (retries > 0) {
+            retryNanos.addAndGet(durationNanos);
+            if (passed) {
+                rescued.incrementAndGet();
+            }
+        }
+        run.record(test, infraFailure, retries, passed && retries > 0);
+    }
+
+    /**
+     * Adds this run's statistics to the history file.
+     */
+    public void save(Path file) {
+        FlakeStats.merge(file, run);
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+
+    public int getRetries() {
+        return used.get();
+    }
+
+    public int getRescued() {
+        return rescued.get();
+    }
+
+    public int getDecisions(Decision decision) {
+        return decisions.get(decision).get();
+    }
+
+    public int getNotRetried(FailureClass failureClass) {
+        return notRetried.get(failureClass).get();
+    }
+
+    public long getRetryMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(retryNanos.get());
+    }
+
+    public long getRecycleMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(recycleNanos.get());
+    }
+
+    public FlakeStats getRunStats() {
+        return run;
+    }
+
+    public String summary() {
+        return String.format("Retries: %d of budget %d, %d rescued, %d ms in retries (%d ms recycling sessions); "
+                        + "not retried: %d product, %d test-code, %d at per-test limit, %d never helped, %d over budget",
+                getRetries(), budget, getRescued(), getRetryMillis(), getRecycleMillis(),
+                getNotRetried(FailureClass.PRODUCT), getNotRetried(FailureClass.TEST),
+                getDecisions(Decision.PER_TEST_LIMIT), getDecisions(Decision.RETRIES_NEVER_HELP),
+                getDecisions(Decision.BUDGET_SPENT));
+    }
+
+    /**
+     * Retries of one test invocation; its attempts run one after another on one thread.
+     */
+    private static final class Invocation {
+        volatile int retries;
+        volatile boolean infraFailure;
+    }
+}
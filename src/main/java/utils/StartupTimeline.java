@@ -0,0 +1,95 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Time to first test, phase by phase: configuration load, reporter set-up,
+ * WinAppDriver /status probe, session start, first element ready, and how
+ * long the first test still waited for its session. Phases running on
+ * different threads overlap, so the breakdown shows the work they add up to
+ * next to the wall time from the first phase to the first test.
+ * Only the first record of each phase counts.
+ */
+public final class StartupTimeline {
+
+    public static final String CONFIG = "config";
+    public static final String REPORTERS = "reporters";
+    public static final String STATUS = "status probe";
+    public static final String SESSION = "session";
+    public static final String READY = "first element ready";
+    public static final String WAIT = "first test waited";
+
+    private static final Map<String, long[]> phases = new LinkedHashMap<>();
+    private static final AtomicBoolean firstTest = new AtomicBoolean();
+
+    private StartupTimeline() {
+    }
+
+    /**
+     * Records a phase unless it was recorded already.
+     */
+    public static void record(String phase, long startNanos, long endNanos) {
+        synchronized (phases) {
+            phases.putIfAbsent(phase, new long[]{startNanos, endNanos});
+        }
+    }
+
+    /**
+     * @return the phase's duration, or -1 if it was not recorded
+     */
+    public static long getMillis(String phase) {
+        synchronized (phases) {
+            long[] span = phases.get(phase);
+            return span == null ? -1 : TimeUnit.NANOSECONDS.toMillis(span[1] - span[0]);
+        }
+    }
+
+    /**
+     * Marks the start of the first test.
+     * @return the breakdown on the first call, null afterwards
+     */
+    public static String firstTestStarted() {
+        return firstTest.compareAndSet(false, true) ? summary(System.nanoTime()) : null;
+    }
+
+    /**
+     * @param firstTestNanos when the first test started
+     */
+    public static String summary(long firstTestNanos) {
+        List<Map.Entry<String, long[]>> recorded;
+        synchronized (phases) {
+            recorded = new ArrayList<>(phases.entrySet());
+        }
+        if (recorded.isEmpty()) {
+            return "Startup: no phases recorded";
+        }
+        recorded.sort((a, b) -> Long.compare(a.getValue()[0], b.getValue()[0]));
+        long origin = recorded.get(0).getValue()[0];
+        long work = 0;
+        StringBuilder breakdown = new StringBuilder();
+        for (Map.Entry<String, long[]> phase : recorded) {
+            long nanos = phase.getValue()[1] - phase.getValue()[0];
+            work += nanos;
+            breakdown.append(String.format("%s%s %d ms", breakdown.length() == 0 ? "" : ", ",
+                    phase.getKey(), TimeUnit.NANOSECONDS.toMillis(nanos)));
+        }
+        return String.format("Startup: first test %d ms after %s started; %s; phases add up to %d ms",
+                TimeUnit.NANOSECONDS.toMillis(firstTestNanos - origin), recorded.get(0).getKey(), breakdown,
+                TimeUnit.NANOSECONDS.toMillis(work));
+    }
+
+    /**
+     * Forgets every phase, for a new suite in the same JVM.
+     */
+    public static void reset() {
+        synchronized (phases) {
+            phases.clear();
+        }
+        firstTest.set(false);
+    }
+}
@@ -0,0 +1,149 @@
+package utils;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One thing that happened during a run, as published on the
+ * {@link TestEventBus}. Events are immutable snapshots taken on the test
+ * thread, so reporters can read them later on their own threads without
+ * touching TestNG's live result objects.
+ */
+public final class TestEvent {
+
+    public enum Type {
+        SUITE_STARTED, TEST_STARTED, TEST_PASSED, TEST_FAILED, TEST_SKIPPED, SUITE_FINISHED
+    }
+
+    private final Type type;
+    private final String suiteName;
+    private final String className;
+    private final String methodName;
+    private final String description;
+    private final List<String> parameters;
+    private final List<String> groups;
+    private final long startMillis;
+    private final long endMillis;
+    private final Throwable throwable;
+    private final String threadName;
+    private final long publishedNanos;
+
+    private TestEvent(Type type, String suiteName, String className, String methodName, String description,
+                      List<String> parameters, List<String> groups, long startMillis, long endMillis,
+                      Throwable throwable) {
+        this.type = type;
+        this.suiteName = suiteName;
+        this.className = className;
+        this.methodName = methodName;
+        this.description = description;
+        this.parameters = parameters == null ? Collections.emptyList() : List.copyOf(parameters);
+        this.groups = groups == null ? Collections.emptyList() : List.copyOf(groups);
+        this.startMillis = startMillis;
+        this.endMillis = endMillis;
+        this.throwable = throwable;
+        this.threadName = Thread.currentThread().getName();
+        this.publishedNanos = System.nanoTime();
+    }
+
+    public static TestEvent suiteStarted(String suiteName) {
+        long now = System.currentTimeMillis();
+        return new TestEvent(Type.SUITE_STARTED, suiteName, null, null, null, null, null, now, now, null);
+    }
+
+    public static TestEvent suiteFinished(String suiteName) {
+        long now = System.currentTimeMillis();
+        return new TestEvent(Type.SUITE_FINISHED, suiteName, null, null, null, null, null, now, now, null);
+    }
+
+    /**
+     * A test method starting or finishing.
+     * @param parameters the method's arguments as text (data-provider rows)
+     * @param throwable the failure or skip reason, or null
+     */
+    public static TestEvent test(Type type, String suiteName, String className, String methodName,
+                                 String description, List<String> parameters, List<String> groups,
+                                 long startMillis, long endMillis, Throwable throwable) {
+        if (type == Type.SUITE_STARTED || type == Type.SUITE_FINISHED) {
+            throw new IllegalArgumentException("Not a test event: " + type);
+        }
+        return new TestEvent(type, suiteName, className, methodName, description, parameters, groups,
+                startMillis, endMillis, throwable);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return true for a passed, failed or skipped test
+     */
+    public boolean isTestFinished() {
+        return type == Type.TEST_PASSED || type == Type.TEST_FAILED || type == Type.TEST_SKIPPED;
+    }
+
+    public String getSuiteName() {
+        return suiteName;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    /**
+     * @return class.method, or the suite name for suite events
+     */
+    public String getTestName() {
+        return className == null ? suiteName : className + "." + methodName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public List<String> getParameters() {
+        return parameters;
+    }
+
+    public List<String> getGroups() {
+        return groups;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public long getEndMillis() {
+        return endMillis;
+    }
+
+    public long getDurationMillis() {
+        return endMillis - startMillis;
+    }
+
+    public Throwable getThrowable() {
+        return throwable;
+    }
+
+    /**
+     * @return the thread that published the event
+     */
+    public String getThreadName() {
+        return threadName;
+    }
+
+    /**
+     * @return System.nanoTime() when the event was created, for measuring reporter lag
+     */
+    public long getPublishedNanos() {
+        return publishedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + getTestName();
+    }
+}
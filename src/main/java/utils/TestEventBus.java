@@ -0,0 +1,363 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Fans test events out to reporters without running them on the test
+ * thread. Every {@link TestEventSubscriber} gets a bounded queue and a
+ * daemon thread of its own, so a slow HTML renderer only delays itself.
+ * Publishing copies the event into each queue; when a queue is full the
+ * publisher waits up to the publish timeout (reports should not lose
+ * tests), then drops the event for that subscriber and counts it.
+ * Subscriber threads poll their queue and park for the poll interval when
+ * it is empty instead of being woken per event: a wake-up would let the
+ * reporter take the CPU from the test thread at every publish (on a
+ * one-core agent, the whole time it handles the event), whereas polling
+ * costs a few milliseconds of report lag.
+ * <p>
+ * Per subscriber the bus measures what reporting costs: time handling
+ * events, lag from publish to handled, queue high-water mark, drops,
+ * failures and the CPU time of its thread. {@link #flush(Duration)} waits
+ * for every queue to drain; {@link #close(Duration)} also stops the threads.
+ */
+public class TestEventBus {
+
+    private static final Logger logger = LogManager.getLogger(TestEventBus.class);
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final TestEvent STOP = TestEvent.suiteFinished("<stop>");
+
+    /**
+     * Reporters enabled when the reporters setting is absent.
+     */
+    public static final String DEFAULT_REPORTERS = "log,extent,chaintest,allure";
+
+    private final int queueCapacity;
+    private final long publishTimeoutNanos;
+    private final long pollNanos;
+    private final List<Channel> channels = new CopyOnWriteArrayList<>();
+    private final LatencyHistogram publishLatency = new LatencyHistogram();
+    private final AtomicLong published = new AtomicLong();
+
+    /**
+     * @param queueCapacity events each subscriber may have waiting
+     * @param publishTimeout how long a publisher waits on a full queue before dropping
+     * @param pollInterval how long an idle subscriber thread parks before looking again
+     */
+    public TestEventBus(int queueCapacity, Duration publishTimeout, Duration pollInterval) {
+        this.queueCapacity = queueCapacity;
+        this.publishTimeoutNanos = publishTimeout.toNanos();
+        this.pollNanos = Math.max(1, pollInterval.toNanos());
+    }
+
+    /**
+     * A bus sized by reporterQueueCapacity (default 256), reporterPublishTimeoutMs
+     * (default 5000) and reporterPollMs (default 5).
+     */
+    public static TestEventBus fromConfig() {
+        return new TestEventBus(ConfigReader.getInt("reporterQueueCapacity", 256),
+                Duration.ofMillis(ConfigReader.getLong("reporterPublishTimeoutMs", 5000)),
+                Duration.ofMillis(ConfigReader.getLong("reporterPollMs", 5)));
+    }
+
+    /**
+     * Whether a reporter is switched on by the reporters setting, a comma
+     * separated list (default {@value #DEFAULT_REPORTERS}); "none" turns all off.
+     */
+    public static boolean isReporterEnabled(String name) {
+        Set<String> enabled = Arrays.stream(ConfigReader.getSetting("reporters", DEFAULT_REPORTERS).split(","))
+                .map(reporter -> reporter.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        return enabled.contains(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Starts a thread for the subscriber; it sees events published from now on.
+     */
+    public void subscribe(TestEventSubscriber subscriber) {
+        Channel channel = new Channel(subscriber, queueCapacity, pollNanos);
+        channels.add(channel);
+        channel.thread.start();
+    }
+
+    /**
+     * Hands the event to every subscriber's queue; returns as soon as it is queued.
+     */
+    public void publish(TestEvent event) {
+        long start = System.nanoTime();
+        published.incrementAndGet();
+        for (Channel channel : channels) {
+            channel.offer(event, publishTimeoutNanos);
+        }
+        publishLatency.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Waits until every subscriber has handled everything published so far.
+     * @return false if the timeout passed first
+     */
+    public boolean flush(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (Channel channel : channels) {
+            if (!channel.awaitIdle(deadline)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drains the queues, lets each subscriber close on its own thread and stops the threads.
+     * @return false if a subscriber was still busy when the timeout passed
+     */
+    public boolean close(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        boolean drained = flush(timeout);
+        for (Channel channel : channels) {
+            channel.queue.offer(STOP);
+        }
+        for (Channel channel : channels) {
+            try {
+                channel.thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            drained &= !channel.thread.isAlive();
+        }
+        return drained;
+    }
+
+    public long getPublished() {
+        return published.get();
+    }
+
+    /**
+     * @return time the test thread spent publishing, all queues included
+     */
+    public LatencyHistogram getPublishLatency() {
+        return publishLatency;
+    }
+
+    /**
+     * @return metrics for each subscriber, in subscription order
+     */
+    public List<SubscriberStats> getStats() {
+        List<SubscriberStats> stats = new ArrayList<>();
+        for (Channel channel : channels) {
+            stats.add(channel.stats);
+        }
+        return stats;
+    }
+
+    public String summary() {
+        StringBuilder summary = new StringBuilder(String.format("Reporters: %d events to %d reporters (queue capacity %d)%n"
+                + "  publish on test thread: %s", getPublished(), channels.size(), queueCapacity, publishLatency.summary()));
+        for (Channel channel : channels) {
+            summary.append(String.format("%n  %s", channel.stats.summary()));
+        }
+        return summary.toString();
+    }
+
+    /**
+     * What one subscriber cost the run.
+     */
+    public static final class SubscriberStats {
+
+        private final String name;
+        private final AtomicLong handled = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong stalls = new AtomicLong();
+        private final AtomicInteger maxQueueDepth = new AtomicInteger();
+        private final AtomicLong cpuNanos = new AtomicLong(-1);
+        private final LatencyHistogram handleLatency = new LatencyHistogram();
+        private final LatencyHistogram lag = new LatencyHistogram();
+
+        private SubscriberStats(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getHandled() {
+            return handled.get();
+        }
+
+        /**
+         * @return events whose handler threw
+         */
+        public long getFailed() {
+            return failed.get();
+        }
+
+        /**
+         * @return events not delivered because the queue stayed full past the publish timeout
+         */
+        public long getDropped() {
+            return dropped.get();
+        }
+
+        /**
+         * @return publishes that found the queue full and had to wait
+         */
+        public long getStalls() {
+            return stalls.get();
+        }
+
+        public int getMaxQueueDepth() {
+            return maxQueueDepth.get();
+        }
+
+        /**
+         * @return CPU time of the subscriber's thread, or -1 while it runs or if not measurable
+         */
+        public long getCpuNanos() {
+            return cpuNanos.get();
+        }
+
+        /**
+         * @return time spent in the subscriber's onEvent
+         */
+        public LatencyHistogram getHandleLatency() {
+            return handleLatency;
+        }
+
+        /**
+         * @return time from publish to the subscriber finishing the event
+         */
+        public LatencyHistogram getLag() {
+            return lag;
+        }
+
+        public String summary() {
+            return String.format("%s: %d handled, %d failed, %d dropped, %d stalls, max queued %d%s%n"
+                            + "    handle: %s%n    lag: %s",
+                    name, getHandled(), getFailed(), getDropped(), getStalls(), getMaxQueueDepth(),
+                    getCpuNanos() < 0 ? "" : String.format(", CPU %.1f ms", getCpuNanos() / 1e6),
+                    handleLatency.summary(), lag.summary());
+        }
+    }
+
+    private static final class Channel {
+
+        private final TestEventSubscriber subscriber;
+        private final BlockingQueue<TestEvent> queue;
+        private final SubscriberStats stats;
+        private final AtomicInteger pending = new AtomicInteger();
+        private final long pollNanos;
+        private final Thread thread;
+
+        private Channel(TestEventSubscriber subscriber, int capacity, long pollNanos) {
+            this.subscriber = subscriber;
+            this.pollNanos = pollNanos;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.stats = new SubscriberStats(subscriber.getName());
+            this.thread = new Thread(this::run, "reporter-" + subscriber.getName());
+            this.thread.setDaemon(true);
+        }
+
+        private void offer(TestEvent event, long timeoutNanos) {
+            int depth = pending.incrementAndGet();
+            stats.maxQueueDepth.accumulateAndGet(depth, Math::max);
+            if (queue.offer(event)) {
+                return;
+            }
+            stats.stalls.incrementAndGet();
+            try {
+                if (queue.offer(event, timeoutNanos, TimeUnit.NANOSECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            stats.dropped.incrementAndGet();
+            finished();
+            logger.warn("⚠️ Reporter {} queue full ({}), dropped {}", stats.name, queue.size(), event);
+        }
+
+        private void run() {
+            try {
+                while (true) {
+                    TestEvent event = queue.poll();
+                    if (event == null) {
+                        LockSupport.parkNanos(this, pollNanos);
+                        continue;
+                    }
+                    if (event == STOP) {
+                        break;
+                    }
+                    handle(event);
+                }
+                subscriber.close();
+            } catch (Exception e) {
+                logger.error("❌ Reporter {} failed to close: {}", stats.name, e.getMessage(), e);
+            } finally {
+                if (THREADS.isCurrentThreadCpuTimeSupported()) {
+                    stats.cpuNanos.set(THREADS.getCurrentThreadCpuTime());
+                }
+            }
+        }
+
+        private void handle(TestEvent event) {
+            long start = System.nanoTime();
+            try {
+                subscriber.onEvent(event);
+            } catch (Exception e) {
+                stats.failed.incrementAndGet();
+                logger.error("❌ Reporter {} failed on {}: {}", stats.name, event, e.getMessage(), e);
+            } finally {
+                long end = System.nanoTime();
+                stats.handleLatency.record(end - start);
+                stats.lag.record(end - event.getPublishedNanos());
+                stats.handled.incrementAndGet();
+                finished();
+            }
+        }
+
+        private void finished() {
+            if (pending.decrementAndGet() == 0) {
+                synchronized (pending) {
+                    pending.notifyAll();
+                }
+            }
+        }
+
+        private boolean awaitIdle(long deadline) {
+            synchronized (pending) {
+                while (pending.get() > 0) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(pending, remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+}
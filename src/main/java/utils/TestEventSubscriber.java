@@ -0,0 +1,26 @@
+package utils;
+
+/**
+ * A reporter fed by the {@link TestEventBus}. Each subscriber gets its own
+ * queue and thread, so {@link #onEvent(TestEvent)} is never called
+ * concurrently and may take its time without holding up a test.
+ */
+public interface TestEventSubscriber {
+
+    /**
+     * @return short name used for the reporters setting, thread name and metrics
+     */
+    String getName();
+
+    /**
+     * Handles one event on the subscriber's thread. An exception is counted
+     * and logged; the subscriber keeps receiving events.
+     */
+    void onEvent(TestEvent event) throws Exception;
+
+    /**
+     * Called on the subscriber's thread after its last event.
+     */
+    default void close() throws Exception {
+    }
+}
@@ -0,0 +1,161 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Per-test durations and last outcome from previous runs, kept in a small
+ * tab-separated file (testHistoryFile, default test-history/durations.tsv)
+ * for {@link TestScheduler}. A test's duration is a moving average that
+ * weights the latest run by {@value #WEIGHT}, so a test that got slower is
+ * scheduled accordingly after a run or two.
+ */
+public class TestHistory {
+
+    private static final Logger logger = LogManager.getLogger(TestHistory.class);
+
+    static final double WEIGHT = 0.3;
+    private static final String HEADER = "# test\truns\tmillis\tlastFailed";
+
+    private final Map<String, Entry> entries = new TreeMap<>();
+    private long fingerprint;
+
+    /**
+     * One test's history.
+     */
+    public static final class Entry {
+        private int runs;
+        private double millis;
+        private boolean lastFailed;
+
+        public int getRuns() {
+            return runs;
+        }
+
+        /**
+         * @return moving average of the test's duration, all its invocations together
+         */
+        public double getMillis() {
+            return millis;
+        }
+
+        public boolean isLastFailed() {
+            return lastFailed;
+        }
+    }
+
+    /**
+     * Reads the history; a missing or unreadable file is an empty history.
+     */
+    public static TestHistory load(Path file) {
+        TestHistory history = new TestHistory();
+        if (!Files.exists(file)) {
+            return history;
+        }
+        try {
+            byte[] content = Files.readAllBytes(file);
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            for (String line : new String(content, StandardCharsets.UTF_8).split("\n")) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t");
+                if (fields.length != 4) {
+                    continue;
+                }
+                Entry entry = history.entry(fields[0]);
+                entry.runs = Integer.parseInt(fields[1]);
+                entry.millis = Double.parseDouble(fields[2]);
+                entry.lastFailed = Boolean.parseBoolean(fields[3]);
+            }
+            history.fingerprint = crc.getValue();
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("⚠️ Ignoring unreadable test history {}: {}", file, e.getMessage());
+            return new TestHistory();
+        }
+        return history;
+    }
+
+    /**
+     * Adds this run's results to the history on disk, so consecutive or
+     * concurrent runs accumulate rather than overwrite each other.
+     */
+    public static void merge(Path file, TestHistory run) {
+        if (run.entries.isEmpty()) {
+            return;
+        }
+        synchronized (TestHistory.class) {
+            TestHistory history = load(file);
+            synchronized (run) {
+                run.entries.forEach((test, result) -> history.record(test, result.millis, result.lastFailed));
+            }
+            try {
+                history.save(file);
+            } catch (IOException e) {
+                logger.warn("⚠️ Could not save test history to {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Records one run of a test.
+     * @param millis time taken by all its invocations
+     * @param failed whether it failed
+     */
+    public synchronized void record(String test, double millis, boolean failed) {
+        Entry entry = entry(test);
+        entry.millis = entry.runs == 0 ? millis : WEIGHT * millis + (1 - WEIGHT) * entry.millis;
+        entry.runs++;
+        entry.lastFailed = failed;
+    }
+
+    /**
+     * @return the test's history, or null if it never ran
+     */
+    public synchronized Entry get(String test) {
+        return entries.get(test);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return CRC32 of the file this history was read from, 0 if none; shards of
+     * one run must show the same value to split the tests the same way
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    synchronized void save(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            writer.write(HEADER + "\n");
+            for (Map.Entry<String, Entry> test : entries.entrySet()) {
+                Entry entry = test.getValue();
+                writer.write(String.format(Locale.ROOT, "%s\t%d\t%.1f\t%s\n", test.getKey(),
+                        entry.runs, entry.millis, entry.lastFailed));
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Entry entry(String test) {
+        return entries.computeIfAbsent(test, name -> new Entry());
+    }
+}
@@ -0,0 +1,245 @@
+package utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.zip.CRC32;
+
+/**
+ * Orders a set of tests from their {@link TestHistory}: longest predicted
+ * duration first (LPT), so the long tests start while every worker is free
+ * and the short ones fill the tail instead of leaving workers idle behind
+ * one late long test. Tests without history are predicted at the average of
+ * those with history; equal predictions keep their declared order.
+ * <p>
+ * A shard i/n keeps the tests whose qualified name hashes to i of n, so
+ * every machine splits the same way whatever its local history holds and
+ * however the suite groups tests into &lt;test&gt; blocks; history only orders
+ * the tests within a shard. Optionally the tests that failed in their last
+ * run go first, for fast feedback.
+ */
+public final class TestScheduler {
+
+    /** Predicted duration of a test when no test of the set has history. */
+    static final double DEFAULT_MILLIS = 1000;
+
+    private TestScheduler() {
+    }
+
+    /**
+     * One machine's part of a sharded run, 1-based: 2/3 is the second of three.
+     */
+    public static final class Shard {
+
+        public static final Shard ALL = new Shard(1, 1);
+
+        private final int index;
+        private final int count;
+
+        public Shard(int index, int count) {
+            if (count < 1 || index < 1 || index > count) {
+                throw new IllegalArgumentException("❌ Invalid shard " + index + "/" + count + " (expected i/n with 1 <= i <= n)");
+            }
+            this.index = index;
+            this.count = count;
+        }
+
+        /**
+         * @param value "i/n", or null or empty for the whole run
+         */
+        public static Shard parse(String value) {
+            if (value == null || value.trim().isEmpty()) {
+                return ALL;
+            }
+            String[] parts = value.trim().split("/");
+            try {
+                if (parts.length == 2) {
+                    return new Shard(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+                }
+            } catch (NumberFormatException e) {
+                // reported below
+            }
+            throw new IllegalArgumentException("❌ Invalid shard " + value + " (expected i/n, e.g. -Dshard=2/3)");
+        }
+
+        /**
+         * @return true if the test belongs to this shard; depends on the name alone
+         */
+        public boolean includes(String test) {
+            if (count == 1) {
+                return true;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(test.getBytes(StandardCharsets.UTF_8));
+            return crc.getValue() % count == index - 1;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        @Override
+        public String toString() {
+            return index + "/" + count;
+        }
+    }
+
+    /**
+     * The tests one machine runs, in the order to run them.
+     */
+    public static final class Plan {
+
+        private final List<String> order;
+        private final int totalTests;
+        private final int workers;
+        private final Shard shard;
+        private final int failedFirst;
+        private final double predictedMillis;
+        private final double declaredOrderMillis;
+
+        Plan(List<String> order, int totalTests, int workers, Shard shard, int failedFirst,
+             double predictedMillis, double declaredOrderMillis) {
+            this.order = Collections.unmodifiableList(order);
+            this.totalTests = totalTests;
+            this.workers = workers;
+            this.shard = shard;
+            this.failedFirst = failedFirst;
+            this.predictedMillis = predictedMillis;
+            this.declaredOrderMillis = declaredOrderMillis;
+        }
+
+        /**
+         * @return the tests of this shard, in run order; a test listed twice runs twice
+         */
+        public List<String> getOrder() {
+            return order;
+        }
+
+        /**
+         * @return predicted wall time of this shard on its workers, in this order
+         */
+        public double getPredictedMillis() {
+            return predictedMillis;
+        }
+
+        /**
+         * @return predicted wall time of the same tests in their declared order
+         */
+        public double getDeclaredOrderMillis() {
+            return declaredOrderMillis;
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public String summary() {
+            return String.format("%d of %d tests (shard %s) on %d workers, %d recently failed first; "
+                            + "predicted makespan %.0f ms (%.0f ms in declared order)",
+                    order.size(), totalTests, shard, workers, failedFirst, predictedMillis, declaredOrderMillis);
+        }
+    }
+
+    /**
+     * @param tests the tests in their declared order
+     * @param history durations and outcomes of previous runs
+     * @param workers threads the tests run on
+     * @param shard the part of the tests to keep
+     * @param failedFirst run the tests that failed last time before all others
+     */
+    public static Plan plan(List<String> tests, TestHistory history, int workers, Shard shard, boolean failedFirst) {
+        int threads = Math.max(1, workers);
+        double fallback = averageKnown(tests, history);
+        List<Item> declared = new ArrayList<>();
+        for (int i = 0; i < tests.size(); i++) {
+            String test = tests.get(i);
+            TestHistory.Entry entry = history.get(test);
+            declared.add(new Item(test, i, entry == null ? fallback : entry.getMillis(),
+                    entry != null && entry.isLastFailed()));
+        }
+
+        List<Item> longestFirst = new ArrayList<>(declared);
+        longestFirst.sort(Comparator.comparingDouble((Item item) -> -item.millis).thenComparingInt(item -> item.position));
+
+        List<Item> mine = new ArrayList<>();
+        for (Item item : longestFirst) {
+            if (shard.includes(item.test)) {
+                mine.add(item);
+            }
+        }
+
+        List<Item> ordered = new ArrayList<>();
+        int failed = 0;
+        if (failedFirst) {
+            for (Item item : mine) {
+                if (item.lastFailed) {
+                    ordered.add(item);
+                    failed++;
+                }
+            }
+        }
+        for (Item item : mine) {
+            if (!(failedFirst && item.lastFailed)) {
+                ordered.add(item);
+            }
+        }
+
+        List<Item> mineDeclared = new ArrayList<>(mine);
+        mineDeclared.sort(Comparator.comparingInt(item -> item.position));
+        List<String> order = new ArrayList<>();
+        ordered.forEach(item -> order.add(item.test));
+        return new Plan(order, tests.size(), threads, shard, failed,
+                makespan(ordered, threads), makespan(mineDeclared, threads));
+    }
+
+    /**
+     * Wall time of running the tests in order, each on the first worker to become free.
+     */
+    private static double makespan(List<Item> ordered, int workers) {
+        PriorityQueue<Double> free = new PriorityQueue<>();
+        for (int i = 0; i < workers; i++) {
+            free.add(0.0);
+        }
+        double end = 0;
+        for (Item item : ordered) {
+            double finish = free.poll() + item.millis;
+            free.add(finish);
+            end = Math.max(end, finish);
+        }
+        return end;
+    }
+
+    private static double averageKnown(List<String> tests, TestHistory history) {
+        double total = 0;
+        int known = 0;
+        for (String test : tests) {
+            TestHistory.Entry entry = history.get(test);
+            if (entry != null) {
+                total += entry.getMillis();
+                known++;
+            }
+        }
+        return known == 0 ? DEFAULT_MILLIS : total / known;
+    }
+
+    private static final class Item {
+        final String test;
+        final int position;
+        final double millis;
+        final boolean lastFailed;
+
+        Item(String test, int position, double millis, boolean lastFailed) {
+            this.test = test;
+            this.position = position;
+            this.millis = millis;
+            this.lastFailed = lastFailed;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package utils;
+
+import io.appium.java_client.MobileBy;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.RemoteWebElement;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Element lookups served from one page source fetch instead of one
+ * findElement each (uiSnapshot=true). The UI tree is fetched once, parsed
+ * with a streaming (StAX) parser and indexed by Name, AutomationId and
+ * RuntimeId; a lookup in the index returns a handle made from the element's
+ * RuntimeId, which is the element id WinAppDriver itself hands out.
+ * <p>
+ * The snapshot is shared by all page objects on a session and kept until
+ * the screen changes: P01_CalculatorPage drops it on a mode switch. A
+ * locator looked up twice on the same snapshot had its handle evicted from
+ * the {@link ElementCache}, i.e. the handle went stale, so the snapshot is
+ * dropped and fetched again. Locators the index cannot answer (other
+ * strategies, elements not in the tree yet, disabled elements) return null
+ * and the caller falls back to findElement.
+ */
+public class UiSnapshot {
+
+    // keyed by the driver object so a relaunched session starts without a snapshot; dropped with the driver
+    private static final Map<RemoteWebDriver, UiSnapshot> SESSION_SNAPSHOTS =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final String NAME = "Name";
+    private static final String AUTOMATION_ID = "AutomationId";
+    private static final String RUNTIME_ID = "RuntimeId";
+
+    private static final AtomicLong snapshots = new AtomicLong();
+    private static final AtomicLong sourceChars = new AtomicLong();
+    private static final AtomicLong indexedElements = new AtomicLong();
+    private static final AtomicLong fetchNanos = new AtomicLong();
+    private static final AtomicLong parseNanos = new AtomicLong();
+    private static final AtomicLong served = new AtomicLong();
+    private static final AtomicLong fallbacks = new AtomicLong();
+    private static final AtomicLong staleSnapshots = new AtomicLong();
+
+    private final RemoteWebDriver driver;
+    private Index index;
+    private final Set<By> servedFromIndex = new HashSet<>();
+
+    private UiSnapshot(RemoteWebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * @return true if page objects should resolve elements from a snapshot
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.getBoolean("uiSnapshot", false);
+    }
+
+    /**
+     * Returns the snapshot shared by all page objects on the driver's session.
+     */
+    public static UiSnapshot forDriver(RemoteWebDriver driver) {
+        return SESSION_SNAPSHOTS.computeIfAbsent(driver, UiSnapshot::new);
+    }
+
+    /**
+     * Resolves a locator from the snapshot, fetching the page source first if
+     * there is no current snapshot.
+     * @return a handle to the element, or null if the caller must use findElement
+     */
+    public synchronized WebElement find(By locator) {
+        String[] key = key(locator);
+        if (key == null) {
+            fallbacks.incrementAndGet();
+            return null;
+        }
+        if (index != null && servedFromIndex.contains(locator)) {
+            staleSnapshots.incrementAndGet();
+            invalidate();
+        }
+        if (index == null) {
+            index = fetch();
+        }
+        Element element = index.get(key[0], key[1]);
+        if (element == null || !element.enabled) {
+            fallbacks.incrementAndGet();
+            return null;
+        }
+        servedFromIndex.add(locator);
+        served.incrementAndGet();
+        RemoteWebElement handle = new RemoteWebElement();
+        handle.setParent(driver);
+        handle.setId(element.runtimeId);
+        handle.setFileDetector(driver.getFileDetector());
+        return handle;
+    }
+
+    /**
+     * Drops the snapshot; the next lookup fetches the page source again.
+     */
+    public synchronized void invalidate() {
+        index = null;
+        servedFromIndex.clear();
+    }
+
+    /**
+     * @return elements in the current snapshot, 0 if there is none
+     */
+    public synchronized int size() {
+        return index == null ? 0 : index.size();
+    }
+
+    private Index fetch() {
+        long start = System.nanoTime();
+        String source = driver.getPageSource();
+        long fetched = System.nanoTime();
+        Index parsed = parse(source);
+        fetchNanos.addAndGet(fetched - start);
+        parseNanos.addAndGet(System.nanoTime() - fetched);
+        snapshots.incrementAndGet();
+        sourceChars.addAndGet(source.length());
+        indexedElements.addAndGet(parsed.size());
+        return parsed;
+    }
+
+    /**
+     * Parses a WinAppDriver page source into an index. Elements without a
+     * RuntimeId cannot be addressed and are left out; where several elements
+     * share a Name or AutomationId the first in document order wins, as with
+     * findElement.
+     * @throws IllegalArgumentException if the source is not well-formed XML
+     */
+    public static Index parse(String source) {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        Index index = new Index();
+        try {
+            // a Reader, so the declared encoding="utf-16" of the already decoded text is ignored
+            XMLStreamReader reader = factory.createXMLStreamReader(new StringReader(source));
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamReader.START_ELEMENT) {
+                        index.add(reader);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IllegalArgumentException("❌ Page source is not well-formed XML: " + e.getMessage(), e);
+        }
+        return index;
+    }
+
+    /**
+     * @return index attribute and value for the locator, or null if the index cannot answer it
+     */
+    private static String[] key(By locator) {
+        // Selenium 3 locators expose their value only through toString(), e.g. "By.name: Zero"
+        String text = locator.toString();
+        if (locator instanceof By.ByName) {
+            return new String[]{NAME, text.substring(text.indexOf(':') + 1).trim()};
+        }
+        if (locator instanceof MobileBy.ByAccessibilityId) {
+            return new String[]{AUTOMATION_ID, text.substring(text.indexOf(':') + 1).trim()};
+        }
+        if (locator instanceof By.ById) {
+            // WinAppDriver's id strategy is the RuntimeId
+            return new String[]{RUNTIME_ID, text.substring(text.indexOf(':') + 1).trim()};
+        }
+        return null;
+    }
+
+    public static long getServed() {
+        return served.get();
+    }
+
+    public static long getFallbacks() {
+        return fallbacks.get();
+    }
+
+    public static long getSnapshots() {
+        return snapshots.get();
+    }
+
+    /**
+     * @return run-wide snapshot sizes, fetch and parse times and lookups served
+     */
+    public static String summary() {
+        long taken = snapshots.get();
+        if (taken == 0) {
+            return "UI snapshots: none taken";
+        }
+        return String.format("UI snapshots: %d taken (%d re-taken after a stale handle), avg %.1f KB and %d elements, "
+                        + "fetch avg %.1f ms, parse avg %.2f ms; %d lookups served from the index, %d fell back to findElement",
+                taken, staleSnapshots.get(), sourceChars.get() / 1024.0 / taken, indexedElements.get() / taken,
+                TimeUnit.NANOSECONDS.toMicros(fetchNanos.get()) / 1000.0 / taken,
+                TimeUnit.NANOSECONDS.toMicros(parseNanos.get()) / 1000.0 / taken,
+                served.get(), fallbacks.get());
+    }
+
+    public static void reset() {
+        snapshots.set(0);
+        sourceChars.set(0);
+        indexedElements.set(0);
+        fetchNanos.set(0);
+        parseNanos.set(0);
+        served.set(0);
+        fallbacks.set(0);
+        staleSnapshots.set(0);
+    }
+
+    /**
+     * The elements of one page source by Name, AutomationId and RuntimeId.
+     */
+    public static final class Index {
+
+        private final Map<String, Map<String, Element>> byAttribute = new HashMap<>();
+        private int size;
+
+        private Index() {
+            byAttribute.put(NAME, new HashMap<>());
+            byAttribute.put(AUTOMATION_ID, new HashMap<>());
+            byAttribute.put(RUNTIME_ID, new HashMap<>());
+        }
+
+        private void add(XMLStreamReader reader) {
+            String runtimeId = reader.getAttributeValue(null, RUNTIME_ID);
+            if (runtimeId == null || runtimeId.isEmpty()) {
+                return;
+            }
+            Element element = new Element(reader.getLocalName(), runtimeId,
+                    !"False".equalsIgnoreCase(reader.getAttributeValue(null, "IsEnabled")));
+            size++;
+            for (Map.Entry<String, Map<String, Element>> attribute : byAttribute.entrySet()) {
+                String value = reader.getAttributeValue(null, attribute.getKey());
+                if (value != null && !value.isEmpty()) {
+                    attribute.getValue().putIfAbsent(value, element);
+                }
+            }
+        }
+
+        /**
+         * @param attribute "Name", "AutomationId" or "RuntimeId"
+         * @return the RuntimeId of the first element with that value, or null
+         */
+        public String find(String attribute, String value) {
+            Element element = get(attribute, value);
+            return element == null ? null : element.runtimeId;
+        }
+
+        /**
+         * @return the element's control type (its tag, e.g. "Button"), or null
+         */
+        public String controlType(String attribute, String value) {
+            Element element = get(attribute, value);
+            return element == null ? null : element.controlType;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        private Element get(String attribute, String value) {
+            Map<String, Element> values = byAttribute.get(attribute);
+            return values == null ? null : values.get(value);
+        }
+    }
+
+    private static final class Element {
+        final String controlType;
+        final String runtimeId;
+        final boolean enabled;
+
+        Element(String controlType, String runtimeId, boolean enabled) {
+            this.controlType = controlType;
+            this.runtimeId = runtimeId;
+            this.enabled = enabled;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package utils;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
 import java.awt.*;
 import java.awt.event.KeyEvent;
 import java.time.LocalDateTime;
@@ -7,6 +10,8 @@ import java.time.format.DateTimeFormatter;
 
 public class Utility {
 
+    private static final Logger logger = LogManager.getLogger(Utility.class);
+
     /**
      * Utility method to get current timestamp
      * @return formatted timestamp string
@@ -26,7 +31,7 @@ public class Utility {
             Thread.sleep(milliseconds);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            System.err.println("⚠️ Sleep interrupted: " + e.getMessage());
+            logger.warn("⚠️ Sleep interrupted: {}", e.getMessage());
         }
     }
 
@@ -35,7 +40,7 @@ public class Utility {
      * @param message message to log
      */
     protected void logInfo(String message) {
-        System.out.println("ℹ️ " + message);
+        logger.info("ℹ️ {}", message);
     }
 
     /**
@@ -43,7 +48,7 @@ public class Utility {
      * @param message error message to log
      */
     protected void logError(String message) {
-        System.err.println("❌ " + message);
+        logger.error("❌ {}", message);
     }
 
     /**
@@ -51,6 +56,6 @@ public class Utility {
      * @param message warning message to log
      */
     protected void logWarning(String message) {
-        System.out.println("⚠️ " + message);
+        logger.warn("⚠️ {}", message);
     }
 }
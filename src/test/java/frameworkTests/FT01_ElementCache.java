@@ -0,0 +1,80 @@
+package frameworkTests;
+
+import io.appium.java_client.windows.WindowsDriver;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import pages.P01_CalculatorPage;
+import stubs.FakeCalculatorExecutor;
+import utils.ElementCache;
+
+/**
+ * Verifies the session-scoped element cache against an in-process fake
+ * WinAppDriver that counts every command it receives.
+ */
+public class FT01_ElementCache {
+
+    private FakeCalculatorExecutor executor;
+    private WindowsDriver<WebElement> driver;
+
+    @BeforeMethod
+    public void startSession() {
+        executor = new FakeCalculatorExecutor();
+        driver = executor.newDriver();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void closeSession() {
+        ElementCache.release(driver);
+        driver.quit();
+    }
+
+    @Test(description = "Page objects on the same session share one element cache")
+    public void testCacheIsSharedPerSession() {
+        P01_CalculatorPage first = new P01_CalculatorPage(driver);
+        P01_CalculatorPage second = new P01_CalculatorPage(driver);
+
+        Assert.assertSame(first.getElementCache(), second.getElementCache());
+
+        first.add("25", "17");
+        Assert.assertEquals(second.getResult(), "42");
+    }
+
+    @Test(description = "Warm arithmetic test costs one round trip per click plus one read")
+    public void testRoundTripsPerArithmeticTest() {
+        new P01_CalculatorPage(driver).multiply("999999", "2");
+        new P01_CalculatorPage(driver).getResult();
+        int coldCommands = executor.getCommandCount() - 1; // minus new session
+
+        executor.resetCounters();
+        new P01_CalculatorPage(driver).multiply("999999", "2");
+        String result = new P01_CalculatorPage(driver).getResult();
+
+        // clear + 6 digits + multiply + digit + equals; equals reads the display
+        // before and once after the click, and getResult returns that last read
+        int clicks = 10;
+        int reads = 2;
+        int uncachedCommands = clicks * 4 + reads * 2;
+        Assert.assertEquals(result, "1999998");
+        Assert.assertEquals(executor.getCommandCount(), clicks + reads);
+        Assert.assertTrue(coldCommands < uncachedCommands,
+                "Cold run should already reuse repeated digits: " + coldCommands);
+        Assert.assertTrue(executor.getCommandCount() * 2 < uncachedCommands);
+        Assert.assertTrue(ElementCache.forDriver(driver).getHits() >= clicks);
+    }
+
+    @Test(description = "Stale handles are evicted and transparently re-resolved")
+    public void testStaleHandleIsReResolved() {
+        P01_CalculatorPage page = new P01_CalculatorPage(driver);
+        page.add("1", "2");
+        Assert.assertEquals(page.getResult(), "3");
+
+        executor.invalidateElementIds();
+        page.add("20", "22");
+
+        Assert.assertEquals(page.getResult(), "42");
+        Assert.assertTrue(page.getElementCache().getStaleHits() > 0);
+    }
+}
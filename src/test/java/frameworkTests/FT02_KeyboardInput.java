@@ -0,0 +1,80 @@
+package frameworkTests;
+
+import io.appium.java_client.windows.WindowsDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.DriverCommand;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import pages.InputMode;
+import pages.P01_CalculatorPage;
+import stubs.FakeCalculatorExecutor;
+import utils.ElementCache;
+import utils.InputStats;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Verifies keyboard-batched operand entry against a fake driver that
+ * records every command it receives.
+ */
+public class FT02_KeyboardInput {
+
+    private FakeCalculatorExecutor executor;
+    private WindowsDriver<WebElement> driver;
+
+    @BeforeMethod
+    public void startSession() {
+        executor = new FakeCalculatorExecutor();
+        driver = executor.newDriver();
+        InputStats.reset();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void closeSession() {
+        ElementCache.release(driver);
+        driver.quit();
+    }
+
+    @Test(description = "Each operand is delivered as one keyboard command")
+    public void testOperandIsOneCommand() {
+        P01_CalculatorPage page = new P01_CalculatorPage(driver).withInputMode(InputMode.KEYBOARD);
+
+        page.multiply("999999", "2");
+
+        Assert.assertEquals(page.getResult(), "1999998");
+        List<String> payloads = executor.getCommands().stream()
+                .filter(command -> DriverCommand.SEND_KEYS_TO_ACTIVE_ELEMENT.equals(command.getName()))
+                .map(Command::getParameters)
+                .map(params -> FakeCalculatorExecutor.keysOf(params.get("value")))
+                .collect(Collectors.toList());
+        Assert.assertEquals(payloads, List.of("999999", "2"));
+        // clear, multiply and equals are still clicks; the seven digits are two commands
+        Assert.assertEquals(InputStats.getCommands(), 5);
+        Assert.assertEquals(InputStats.getKeystrokes(), 10);
+        Assert.assertEquals(InputStats.keystrokesPerCommand(), 2.0, 0.001);
+    }
+
+    @Test(description = "Decimal separator and sign are part of the keyboard payload")
+    public void testDecimalAndSign() {
+        P01_CalculatorPage page = new P01_CalculatorPage(driver).withInputMode(InputMode.KEYBOARD);
+
+        page.add("-12.5", "2.5");
+
+        Assert.assertEquals(page.getResult(), "-10");
+    }
+
+    @Test(description = "Click mode stays one command per keystroke")
+    public void testClickModeRatio() {
+        P01_CalculatorPage page = new P01_CalculatorPage(driver).withInputMode(InputMode.CLICK);
+
+        page.add("-12.5", "2.5");
+
+        Assert.assertEquals(page.getResult(), "-10");
+        Assert.assertEquals(executor.getCommandCount(DriverCommand.SEND_KEYS_TO_ACTIVE_ELEMENT), 0);
+        Assert.assertEquals(InputStats.keystrokesPerCommand(), 1.0, 0.001);
+    }
+}
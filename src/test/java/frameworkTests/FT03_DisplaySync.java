@@ -0,0 +1,74 @@
+package frameworkTests;
+
+import io.appium.java_client.windows.WindowsDriver;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import pages.P01_CalculatorPage;
+import stubs.FakeCalculatorExecutor;
+import utils.AdaptiveWait;
+import utils.ElementCache;
+
+import java.time.Duration;
+
+/**
+ * Verifies display-change driven synchronization against a fake driver
+ * whose display lags behind input by a configurable amount.
+ */
+public class FT03_DisplaySync {
+
+    private FakeCalculatorExecutor executor;
+    private WindowsDriver<WebElement> driver;
+
+    @BeforeMethod
+    public void startSession() {
+        executor = new FakeCalculatorExecutor();
+        driver = executor.newDriver();
+        AdaptiveWait.reset();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void closeSession() {
+        ElementCache.release(driver);
+        driver.quit();
+    }
+
+    @Test(description = "A passing arithmetic test spends near-zero time waiting")
+    public void testNoDeadTimeWhenDisplayIsImmediate() {
+        P01_CalculatorPage page = new P01_CalculatorPage(driver);
+
+        page.add("25", "17");
+
+        Assert.assertEquals(page.getResult(), "42");
+        Assert.assertTrue(AdaptiveWait.getTotalWaitMillis() < 50,
+                "Waited " + AdaptiveWait.getTotalWaitMillis() + " ms");
+    }
+
+    @Test(description = "Equals waits for the delayed display instead of a fixed sleep")
+    public void testWaitTracksDisplayDelay() {
+        executor.setDisplayDelay(Duration.ofMillis(150));
+        P01_CalculatorPage page = new P01_CalculatorPage(driver);
+
+        page.add("25", "17");
+
+        Assert.assertEquals(page.getResult(), "42");
+        AdaptiveWait.WaitStats stats = AdaptiveWait.getStats("display-change");
+        Assert.assertEquals(stats.getTimeouts(), 0);
+        Assert.assertTrue(stats.getMaxMillis() >= 100 && stats.getMaxMillis() < 400,
+                "Unexpected wait: " + stats);
+    }
+
+    @Test(description = "Mode switch waits for the header and drops stale keypad handles")
+    public void testModeSwitchWaitsForHeader() {
+        P01_CalculatorPage page = new P01_CalculatorPage(driver);
+        page.add("1", "1");
+
+        page.switchMode("Scientific");
+
+        Assert.assertEquals(executor.getModel().getMode(), "Scientific");
+        Assert.assertEquals(AdaptiveWait.getStats("mode-switch").getCount(), 1);
+        Assert.assertEquals(page.getElementCache().size(), 0);
+    }
+}
@@ -0,0 +1,123 @@
+package frameworkTests;
+
+import io.appium.java_client.windows.WindowsDriver;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import pages.P01_CalculatorPage;
+import stubs.FakeCalculatorExecutor;
+import utils.DriverPool;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies lease/return semantics of the session pool with several fake sessions.
+ */
+public class FT04_DriverPool {
+
+    private final List<FakeCalculatorExecutor> sessions = new CopyOnWriteArrayList<>();
+
+    private DriverPool newPool(int size) {
+        return new DriverPool(size, () -> {
+            FakeCalculatorExecutor executor = new FakeCalculatorExecutor();
+            sessions.add(executor);
+            return executor.newDriver();
+        }, session -> session.getWindowHandle() != null, Duration.ofSeconds(10));
+    }
+
+    @Test(description = "Concurrent workers each get their own session, created lazily up to the pool size")
+    public void testOneSessionPerWorker() throws Exception {
+        DriverPool pool = newPool(3);
+        ExecutorService workers = Executors.newFixedThreadPool(3);
+        CountDownLatch allLeased = new CountDownLatch(3);
+        Set<WindowsDriver<WebElement>> inUse = ConcurrentHashMap.newKeySet();
+        Map<Integer, String> results = new ConcurrentHashMap<>();
+
+        try {
+            List<Future<?>> futures = new CopyOnWriteArrayList<>();
+            for (int worker = 0; worker < 3; worker++) {
+                int operand = worker;
+                futures.add(workers.submit(() -> {
+                    WindowsDriver<WebElement> driver = pool.lease();
+                    inUse.add(driver);
+                    allLeased.countDown();
+                    try {
+                        allLeased.await(5, TimeUnit.SECONDS);
+                        P01_CalculatorPage page = new P01_CalculatorPage(driver);
+                        page.add(String.valueOf(operand), "40");
+                        results.put(operand, page.getResult());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        pool.release(driver);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        Assert.assertEquals(inUse.size(), 3, "Each worker must hold a distinct session");
+        Assert.assertEquals(results, Map.of(0, "40", 1, "41", 2, "42"));
+        Assert.assertEquals(pool.getSessionsCreated(), 3);
+        Assert.assertEquals(pool.getIdleSessions(), 3);
+        pool.closeIdle();
+        Assert.assertEquals(pool.getLiveSessions(), 0);
+    }
+
+    @Test(description = "Returned sessions are reused; unhealthy ones are recycled")
+    public void testHealthCheckOnReturn() {
+        DriverPool pool = newPool(1);
+
+        WindowsDriver<WebElement> first = pool.lease();
+        pool.release(first);
+        Assert.assertSame(pool.lease(), first, "Healthy session should be reused");
+
+        sessions.get(sessions.size() - 1).kill();
+        pool.release(first);
+        Assert.assertEquals(pool.getSessionsRecycled(), 1);
+
+        WindowsDriver<WebElement> replacement = pool.lease();
+        Assert.assertNotSame(replacement, first);
+        Assert.assertEquals(pool.getSessionsCreated(), 2);
+        pool.release(replacement);
+        pool.closeIdle();
+    }
+
+    @Test(description = "A full pool makes the next lease wait for a returned session")
+    public void testLeaseWaitsForReturn() throws Exception {
+        DriverPool pool = newPool(1);
+        WindowsDriver<WebElement> held = pool.lease();
+        ExecutorService releaser = Executors.newSingleThreadExecutor();
+        try {
+            releaser.submit(() -> {
+                TimeUnit.MILLISECONDS.sleep(200);
+                pool.release(held);
+                return null;
+            });
+
+            WindowsDriver<WebElement> next = pool.lease();
+
+            Assert.assertSame(next, held);
+            Assert.assertTrue(pool.getMaxLeaseWaitMillis() >= 150, pool.summary());
+            Assert.assertEquals(pool.getSessionsCreated(), 1);
+            pool.release(next);
+            pool.closeIdle();
+        } finally {
+            releaser.shutdownNow();
+        }
+    }
+}
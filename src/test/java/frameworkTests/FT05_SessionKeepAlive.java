@@ -0,0 +1,79 @@
+package frameworkTests;
+
+import io.appium.java_client.windows.WindowsDriver;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import pages.P01_CalculatorPage;
+import stubs.FakeCalculatorExecutor;
+import utils.DriverPool;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Verifies that kept-alive sessions are reset rather than relaunched between tests.
+ */
+public class FT05_SessionKeepAlive {
+
+    private final List<FakeCalculatorExecutor> sessions = new CopyOnWriteArrayList<>();
+
+    @BeforeMethod
+    public void clearSessions() {
+        sessions.clear();
+    }
+
+    private DriverPool newPool() {
+        DriverPool pool = new DriverPool(1, () -> {
+            FakeCalculatorExecutor executor = new FakeCalculatorExecutor();
+            sessions.add(executor);
+            return executor.newDriver();
+        }, session -> session.getWindowHandle() != null, Duration.ofSeconds(5));
+        pool.setResetAction(session -> new P01_CalculatorPage(session).resetToKnownState());
+        return pool;
+    }
+
+    @Test(description = "A dirty session is reset to Standard mode, empty memory and 0")
+    public void testSessionIsResetForNextTest() {
+        DriverPool pool = newPool();
+        WindowsDriver<WebElement> driver = pool.lease();
+        FakeCalculatorExecutor app = sessions.get(0);
+        new P01_CalculatorPage(driver).add("40", "2");
+        app.getModel().press("Memory store");
+        new P01_CalculatorPage(driver).switchMode("Scientific");
+        new P01_CalculatorPage(driver).enterNumber("123");
+        pool.release(driver);
+
+        pool.keepIdleForReuse();
+        WindowsDriver<WebElement> reused = pool.lease();
+
+        Assert.assertSame(reused, driver);
+        Assert.assertEquals(app.getModel().getMode(), "Standard");
+        Assert.assertFalse(app.getModel().hasMemory());
+        Assert.assertEquals(app.getModel().getDisplay(), "0");
+        Assert.assertEquals(pool.getSessionsCreated(), 1);
+        Assert.assertEquals(pool.getSessionsReused(), 1);
+        pool.release(reused);
+        pool.closeIdle();
+    }
+
+    @Test(description = "A session that cannot be reset is relaunched")
+    public void testFailedResetRelaunches() {
+        DriverPool pool = newPool();
+        WindowsDriver<WebElement> driver = pool.lease();
+        pool.release(driver);
+        pool.keepIdleForReuse();
+        sessions.get(0).kill();
+
+        WindowsDriver<WebElement> relaunched = pool.lease();
+
+        Assert.assertNotSame(relaunched, driver);
+        Assert.assertEquals(pool.getResetFailures(), 1);
+        Assert.assertEquals(pool.getSessionsCreated(), 2);
+        Assert.assertEquals(pool.getSessionsReused(), 0);
+        pool.release(relaunched);
+        pool.closeIdle();
+    }
+}
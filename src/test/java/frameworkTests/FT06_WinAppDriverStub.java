@@ -0,0 +1,121 @@
+package frameworkTests;
+
+import io.appium.java_client.windows.WindowsDriver;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.DriverCommand;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import pages.P01_CalculatorPage;
+import stubs.StubListener;
+import stubs.WinAppDriverStub;
+import utils.ConfigReader;
+import utils.DriverManager;
+
+import java.io.IOException;
+import java.net.URL;
+import java.time.Duration;
+
+/**
+ * Drives the framework over real HTTP against the embedded WinAppDriver stub.
+ */
+public class FT06_WinAppDriverStub {
+
+    private WinAppDriverStub stub;
+    private WindowsDriver<WebElement> driver;
+
+    @BeforeMethod
+    public void startStub() {
+        stub = WinAppDriverStub.start(0).withSeed(7);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopStub() {
+        if (driver != null) {
+            driver.quit();
+            driver = null;
+        }
+        stub.close();
+    }
+
+    private WindowsDriver<WebElement> newSession() {
+        DesiredCapabilities capabilities = new DesiredCapabilities();
+        capabilities.setCapability("app", "Microsoft.WindowsCalculator_8wekyb3d8bbwe!App");
+        capabilities.setCapability("platformName", "Windows");
+        capabilities.setCapability("deviceName", "WindowsPC");
+        driver = new WindowsDriver<>(stub.getUrl(), capabilities);
+        return driver;
+    }
+
+    @Test(description = "Page object operations work over the wire protocol")
+    public void testCalculatorOverHttp() {
+        P01_CalculatorPage page = new P01_CalculatorPage(newSession());
+
+        Assert.assertEquals(page.add("40", "2").getResult(), "42");
+        Assert.assertEquals(page.divide("7", "0").getResult(), "Cannot divide by zero");
+        Assert.assertTrue(driver.getScreenshotAs(OutputType.BYTES).length > 0);
+        Assert.assertEquals(stub.getSessionsCreated(), 1);
+    }
+
+    @Test(description = "Injected latency delays only the configured command")
+    public void testInjectedLatency() {
+        stub.withLatency(DriverCommand.CLICK_ELEMENT, Duration.ofMillis(40));
+        P01_CalculatorPage page = new P01_CalculatorPage(newSession());
+        page.getResult();
+
+        long start = System.nanoTime();
+        page.clear();
+        long clickMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        start = System.nanoTime();
+        page.getResult();
+        long readMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        Assert.assertTrue(clickMillis >= 40, "click took " + clickMillis + " ms");
+        Assert.assertTrue(readMillis < 40, "read took " + readMillis + " ms");
+    }
+
+    @Test(description = "Injected errors fail the configured command at the given rate")
+    public void testInjectedErrors() {
+        stub.configure(null, DriverCommand.GET_ELEMENT_TEXT + "=1.0");
+        P01_CalculatorPage page = new P01_CalculatorPage(newSession());
+
+        Assert.assertThrows(WebDriverException.class, page::getResult);
+        Assert.assertTrue(stub.getInjectedErrors() >= 1);
+    }
+
+    @Test(description = "With stub=true the stub listener serves the suite and closes its stubs at the end")
+    public void testStubListener() throws Exception {
+        StubListener idle = new StubListener();
+        idle.onStart(null);
+        idle.onFinish(null);
+
+        System.setProperty("stub", "true");
+        System.setProperty("stubHosts", "2");
+        ConfigReader.reload();
+        StubListener suite = new StubListener();
+        URL host;
+        try {
+            suite.onStart(null);
+            DriverManager.getDriver();
+            host = DriverManager.getCurrentHost();
+            Assert.assertNotNull(host);
+
+            // a TestNG run nested in the suite keeps the suite's stubs
+            StubListener nested = new StubListener();
+            nested.onStart(null);
+            nested.onFinish(null);
+            Assert.assertEquals(new P01_CalculatorPage(DriverManager.getDriver()).add("40", "2").getResult(), "42");
+        } finally {
+            DriverManager.shutdown();
+            suite.onFinish(null);
+            System.clearProperty("stub");
+            System.clearProperty("stubHosts");
+            ConfigReader.reload();
+        }
+        Assert.assertThrows(IOException.class, () -> new URL(host, "/status").openStream().close());
+    }
+}
@@ -0,0 +1,121 @@
+package frameworkTests;
+
+import io.appium.java_client.windows.WindowsDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.DriverCommand;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import pages.P01_CalculatorPage;
+import stubs.FakeCalculatorExecutor;
+import stubs.WinAppDriverStub;
+import utils.CommandMetrics;
+import utils.ConfigReader;
+import utils.DriverManager;
+import utils.InstrumentedCommandExecutor;
+import utils.LatencyHistogram;
+import utils.PooledHttpClientFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies the per-command latency histograms fed by the instrumented executor.
+ */
+public class FT07_CommandMetrics {
+
+    private static final long MICRO = TimeUnit.MICROSECONDS.toNanos(1);
+
+    @BeforeMethod
+    public void resetMetrics() {
+        CommandMetrics.reset();
+    }
+
+    private WindowsDriver<WebElement> instrumentedSession(FakeCalculatorExecutor app) {
+        DesiredCapabilities capabilities = new DesiredCapabilities();
+        capabilities.setCapability("app", "Microsoft.WindowsCalculator_8wekyb3d8bbwe!App");
+        capabilities.setCapability("platformName", "Windows");
+        return InstrumentedCommandExecutor.newDriver(app, capabilities);
+    }
+
+    @Test(description = "Percentiles are within one bucket (~6%) of the exact values")
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1000; i >= 1; i--) {
+            histogram.record(i * MICRO);
+        }
+
+        Assert.assertEquals(histogram.getCount(), 1000);
+        Assert.assertEquals(histogram.getMaxNanos(), 1000 * MICRO);
+        Assert.assertEquals(histogram.getPercentileNanos(50), 500 * MICRO, 500 * MICRO * 0.07);
+        Assert.assertEquals(histogram.getPercentileNanos(95), 950 * MICRO, 950 * MICRO * 0.07);
+        Assert.assertEquals(histogram.getPercentileNanos(99), 990 * MICRO, 990 * MICRO * 0.07);
+        Assert.assertEquals(histogram.getPercentileNanos(100), 1000 * MICRO);
+        Assert.assertEquals(new LatencyHistogram().getPercentileNanos(99), 0);
+    }
+
+    @Test(description = "Commands are timed per command name for the running test")
+    public void testPerTestHistograms() {
+        FakeCalculatorExecutor app = new FakeCalculatorExecutor();
+        app.setCommandLatency(Duration.ofMillis(2));
+        WindowsDriver<WebElement> driver = instrumentedSession(app);
+        app.resetCounters();
+
+        CommandMetrics.startTest();
+        new P01_CalculatorPage(driver).add("12", "30").getResult();
+        Map<String, LatencyHistogram> test = CommandMetrics.endTest();
+
+        LatencyHistogram clicks = test.get(DriverCommand.CLICK_ELEMENT);
+        Assert.assertEquals(clicks.getCount(), app.getCommandCount(DriverCommand.CLICK_ELEMENT));
+        Assert.assertEquals(test.get(DriverCommand.GET_ELEMENT_TEXT).getCount(),
+                app.getCommandCount(DriverCommand.GET_ELEMENT_TEXT));
+        Assert.assertTrue(clicks.getPercentileNanos(50) >= Duration.ofMillis(2).toNanos() * 0.94);
+        Assert.assertTrue(CommandMetrics.getSuiteHistograms().containsKey(DriverCommand.NEW_SESSION));
+        Assert.assertTrue(CommandMetrics.format(test).contains("clickElement: n="));
+    }
+
+    @Test(description = "A test only sees commands sent from its own thread")
+    public void testThreadIsolation() throws Exception {
+        WindowsDriver<WebElement> driver = instrumentedSession(new FakeCalculatorExecutor());
+
+        CommandMetrics.startTest();
+        Thread other = new Thread(() -> new P01_CalculatorPage(driver).clear());
+        other.start();
+        other.join();
+        Map<String, LatencyHistogram> test = CommandMetrics.endTest();
+
+        Assert.assertTrue(test.isEmpty(), "unexpected commands: " + test.keySet());
+        Assert.assertEquals(CommandMetrics.getSuiteHistograms().get(DriverCommand.CLICK_ELEMENT).getCount(), 1);
+    }
+
+    @Test(description = "Timed sessions send their commands over the session's own, pooled transport")
+    public void testInstrumentedSessionUsesPooledTransport() {
+        System.setProperty("httpClient", "pooled");
+        ConfigReader.reload();
+        try (WinAppDriverStub stub = WinAppDriverStub.start(0)) {
+            DriverManager.setWinAppDriverUrl(stub.getUrl().toString());
+            DriverManager.setAppPath("Microsoft.WindowsCalculator_8wekyb3d8bbwe!App");
+            DriverManager.setPoolSize(1);
+
+            WindowsDriver<WebElement> driver = DriverManager.getDriver();
+            PooledHttpClientFactory transport = DriverManager.getHttpClientFactory();
+            long requests = transport.getRequests();
+            long received = stub.getRequestCount();
+            driver.getWindowHandle();
+
+            Assert.assertTrue(driver.getCommandExecutor() instanceof InstrumentedCommandExecutor);
+            Assert.assertEquals(transport.getRequests() - requests, 1, transport.summary());
+            Assert.assertEquals(CommandMetrics.getSuiteHistograms().get(DriverCommand.NEW_SESSION).getCount(), 1);
+            Assert.assertEquals(stub.getRequestCount() - received, 1);
+        } finally {
+            DriverManager.shutdown();
+            DriverManager.setWinAppDriverUrl(null);
+            DriverManager.setAppPath(null);
+            DriverManager.setPoolSize(0);
+            System.clearProperty("httpClient");
+            ConfigReader.reload();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package frameworkTests;
+
+import io.appium.java_client.windows.WindowsDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.DriverCommand;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import pages.InputMode;
+import pages.P01_CalculatorPage;
+import pages.expression.EvaluationResult;
+import pages.expression.Expression;
+import pages.expression.KeyPlan;
+import pages.expression.KeyPlanner;
+import stubs.FakeCalculatorExecutor;
+import utils.ElementCache;
+
+/**
+ * Verifies expression parsing, key planning for immediate execution, and
+ * evaluate() against the fake Calculator.
+ */
+public class FT08_ExpressionEngine {
+
+    private FakeCalculatorExecutor executor;
+    private WindowsDriver<WebElement> driver;
+
+    @BeforeMethod
+    public void startSession() {
+        executor = new FakeCalculatorExecutor();
+        driver = executor.newDriver();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void closeSession() {
+        ElementCache.release(driver);
+        driver.quit();
+    }
+
+    private static String plan(String expression) {
+        return KeyPlanner.plan(Expression.parse(expression)).toString();
+    }
+
+    @Test(description = "Plans reorder operations instead of relying on precedence")
+    public void testPlans() {
+        Assert.assertEquals(plan("2 + 3 * 4"), "C 3 × 4 + 2 =");
+        Assert.assertEquals(plan("2 * 3 + 4"), "C 2 × 3 + 4 =");
+        Assert.assertEquals(plan("10 - 2 * 3"), "C 2 × 3 = ± + 1 0 =");
+        Assert.assertEquals(plan("1 / (2 + 3)"), "C 2 + 3 = 1/x × 1 =");
+        Assert.assertEquals(plan("-0.50 + sqrt(9)"), "C . 5 ± + 9 √ =");
+        Assert.assertEquals(plan("sqr(1 + 2)"), "C 1 + 2 = x²");
+        Assert.assertEquals(plan("(1 + 2) * (3 + 4)"), "C 3 + 4 = MS 1 + 2 × MR =");
+        Assert.assertEquals(plan("7"), "C 7");
+    }
+
+    @Test(description = "A failing step ends the plan so the error stays on the display")
+    public void testErrorPlans() {
+        Assert.assertEquals(plan("1 + 8 / (2 - 2) + 5"), "C 2 - 2 = MS 8 ÷ MR =");
+        Assert.assertEquals(plan("sqrt(-4) * 2"), "C 4 ± √");
+        Assert.assertEquals(Expression.parse("1 / 0").expectedDisplay(), "Cannot divide by zero");
+    }
+
+    @Test(description = "Malformed expressions and a second memory slot are rejected")
+    public void testRejected() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> Expression.parse("2 +"));
+        Assert.assertThrows(IllegalArgumentException.class, () -> Expression.parse("2 ^ 3"));
+        Assert.assertThrows(IllegalArgumentException.class, () -> Expression.parse("12345678901234567 + 1"));
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> KeyPlanner.plan(Expression.parse("((1+2)*(3+4)) - ((5+6)*(7+8))")));
+    }
+
+    @DataProvider
+    public Object[][] expressions() {
+        return new Object[][]{
+                {"2 + 3 * 4", "14"},
+                {"(1 + 2) * (3 + 4)", "21"},
+                {"10 - 2 * 3", "4"},
+                {"100 / (2 + 3) - 1", "19"},
+                {"1 / 3 * 3", "1"},
+                {"-12.5 + 2.5", "-10"},
+                {"sqrt(16) + sqr(3) - recip(4)", "12.75"},
+                {"2 - (3 - (4 - 5))", "-2"},
+                {"1 + 8 / (2 - 2) + 5", "Cannot divide by zero"},
+                {"sqrt(2 - 6)", "Invalid input"},
+        };
+    }
+
+    @Test(dataProvider = "expressions", description = "Clicked plans show the BigDecimal value")
+    public void testEvaluateByClicks(String expression, String expected) {
+        EvaluationResult result = new P01_CalculatorPage(driver).withInputMode(InputMode.CLICK).evaluate(expression);
+
+        Assert.assertEquals(result.getExpected(), expected);
+        Assert.assertEquals(result.getDisplayed(), expected, result.toString());
+        Assert.assertEquals(executor.getCommandCount(DriverCommand.CLICK_ELEMENT), result.getPlanSize());
+    }
+
+    @Test(dataProvider = "expressions", description = "Typed plans take one input command")
+    public void testEvaluateByKeyboard(String expression, String expected) {
+        EvaluationResult result = new P01_CalculatorPage(driver).withInputMode(InputMode.KEYBOARD).evaluate(expression);
+
+        Assert.assertEquals(result.getDisplayed(), expected, result.toString());
+        Assert.assertEquals(executor.getCommandCount(DriverCommand.SEND_KEYS_TO_ACTIVE_ELEMENT), 1);
+        Assert.assertEquals(executor.getCommandCount(DriverCommand.CLICK_ELEMENT), 0);
+        Assert.assertEquals(result.getCommandCount(), executor.getCommandCount(DriverCommand.SEND_KEYS_TO_ACTIVE_ELEMENT)
+                + executor.getCommandCount(DriverCommand.GET_ELEMENT_TEXT));
+    }
+
+    @Test(description = "A repeated expression is checked against its own result, not the previous one")
+    public void testRepeatedExpressionReadsNewResult() {
+        P01_CalculatorPage page = new P01_CalculatorPage(driver).withInputMode(InputMode.KEYBOARD);
+        Assert.assertTrue(page.evaluate("2 + 3 * 4").matches());
+
+        executor.setDisplayOverride("15");
+        EvaluationResult second = page.evaluate("2 + 3 * 4");
+
+        Assert.assertFalse(second.matches(), second.toString());
+        Assert.assertEquals(second.getDisplayed(), "15");
+    }
+
+    @Test(description = "Many expressions run back to back on one session")
+    public void testManyExpressionsPerSession() {
+        P01_CalculatorPage page = new P01_CalculatorPage(driver).withInputMode(InputMode.KEYBOARD);
+        for (int a = 1; a <= 10; a++) {
+            for (int b = 1; b <= 10; b++) {
+                String expression = a + " - " + b + " * (" + a + " + " + b + ") / 4";
+                EvaluationResult result = page.evaluate(expression);
+                Assert.assertTrue(result.matches(), result.toString());
+            }
+        }
+    }
+}
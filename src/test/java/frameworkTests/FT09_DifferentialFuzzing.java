@@ -0,0 +1,162 @@
+package frameworkTests;
+
+import io.appium.java_client.windows.WindowsDriver;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import pages.InputMode;
+import pages.P01_CalculatorPage;
+import pages.expression.CalcKey;
+import pages.expression.DisplayFormat;
+import pages.fuzz.CalculatorFuzzer;
+import pages.fuzz.CalculatorOracle;
+import pages.fuzz.FuzzCase;
+import pages.fuzz.FuzzCaseGenerator;
+import pages.fuzz.FuzzReport;
+import stubs.FakeCalculatorExecutor;
+import utils.ElementCache;
+
+import java.math.MathContext;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Verifies the fuzz generator, the oracle and the fuzzing runner against the fake Calculator.
+ */
+public class FT09_DifferentialFuzzing {
+
+    private FakeCalculatorExecutor executor;
+    private WindowsDriver<WebElement> driver;
+
+    @BeforeMethod
+    public void startSession() {
+        executor = new FakeCalculatorExecutor();
+        driver = executor.newDriver();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void closeSession() {
+        ElementCache.release(driver);
+        driver.quit();
+    }
+
+    private static FuzzCase fuzzCase(List<FuzzCase.Operand> operands, CalcKey... operators) {
+        return new FuzzCase(0, operands, List.of(operators));
+    }
+
+    @Test(description = "Cases are reproducible from seed and index")
+    public void testSeedReproducible() {
+        FuzzCaseGenerator generator = new FuzzCaseGenerator(42);
+
+        Assert.assertEquals(new FuzzCaseGenerator(42).generate(17).toString(), generator.generate(17).toString());
+        Assert.assertEquals(generator.generate(17).keys(), generator.generate(17).keys());
+        Assert.assertNotEquals(new FuzzCaseGenerator(43).generate(17).toString(), generator.generate(17).toString());
+    }
+
+    @Test(description = "Generated cases reach every unary key, decimals and both error displays")
+    public void testGeneratorCoverage() {
+        FuzzCaseGenerator generator = new FuzzCaseGenerator(7);
+        CalculatorOracle oracle = new CalculatorOracle();
+        Set<CalcKey> keys = EnumSet.noneOf(CalcKey.class);
+        Set<String> errors = new HashSet<>();
+        for (int i = 0; i < 2000; i++) {
+            FuzzCase fuzzCase = generator.generate(i);
+            keys.addAll(fuzzCase.keys());
+            CalculatorOracle.Prediction prediction = oracle.predict(fuzzCase);
+            if (prediction.isError()) {
+                errors.add(prediction.getDisplay());
+            }
+        }
+        Assert.assertTrue(keys.containsAll(EnumSet.of(CalcKey.NEGATE, CalcKey.SQUARE, CalcKey.SQUARE_ROOT,
+                CalcKey.RECIPROCAL, CalcKey.PERCENT, CalcKey.DECIMAL, CalcKey.DIVIDE)), keys.toString());
+        Assert.assertEquals(errors, Set.of(DisplayFormat.DIVIDE_BY_ZERO, DisplayFormat.INVALID_INPUT));
+    }
+
+    @Test(description = "The oracle follows immediate execution, percent rules and error truncation")
+    public void testOracle() {
+        CalculatorOracle oracle = new CalculatorOracle();
+
+        CalculatorOracle.Prediction chained = oracle.predict(fuzzCase(List.of(
+                new FuzzCase.Operand("2"), new FuzzCase.Operand("3"), new FuzzCase.Operand("4")),
+                CalcKey.PLUS, CalcKey.MULTIPLY));
+        Assert.assertEquals(chained.getDisplay(), "20");
+        Assert.assertEquals(chained.getKeyCount(), 7);
+
+        Assert.assertEquals(oracle.predict(fuzzCase(List.of(
+                new FuzzCase.Operand("50"), new FuzzCase.Operand("10", CalcKey.PERCENT)),
+                CalcKey.PLUS)).getDisplay(), "55");
+        Assert.assertEquals(oracle.predict(fuzzCase(List.of(
+                new FuzzCase.Operand("50"), new FuzzCase.Operand("10", CalcKey.PERCENT)),
+                CalcKey.MULTIPLY)).getDisplay(), "5");
+        Assert.assertEquals(oracle.predict(fuzzCase(List.of(
+                new FuzzCase.Operand("0.5", CalcKey.NEGATE, CalcKey.SQUARE)))).getDisplay(), "0.25");
+        Assert.assertEquals(oracle.predict(fuzzCase(List.of(
+                new FuzzCase.Operand("3", CalcKey.RECIPROCAL), new FuzzCase.Operand("3")),
+                CalcKey.MULTIPLY)).getDisplay(), "1");
+
+        // C 1 ÷ 0 + : the error appears on the operator, the rest is not pressed
+        CalculatorOracle.Prediction divideByZero = oracle.predict(fuzzCase(List.of(
+                new FuzzCase.Operand("1"), new FuzzCase.Operand("0"), new FuzzCase.Operand("5")),
+                CalcKey.DIVIDE, CalcKey.PLUS));
+        Assert.assertEquals(divideByZero.getDisplay(), DisplayFormat.DIVIDE_BY_ZERO);
+        Assert.assertEquals(divideByZero.getKeyCount(), 5);
+
+        CalculatorOracle.Prediction invalid = oracle.predict(fuzzCase(List.of(
+                new FuzzCase.Operand("4", CalcKey.NEGATE, CalcKey.SQUARE_ROOT, CalcKey.SQUARE))));
+        Assert.assertEquals(invalid.getDisplay(), DisplayFormat.INVALID_INPUT);
+        Assert.assertEquals(invalid.getKeyCount(), 4);
+    }
+
+    @Test(description = "The fake Calculator agrees with the oracle on every generated case")
+    public void testNoMismatchesAgainstFake() {
+        P01_CalculatorPage page = new P01_CalculatorPage(driver).withInputMode(InputMode.KEYBOARD);
+
+        FuzzReport report = new CalculatorFuzzer(page, 20240611L).run(1000);
+
+        Assert.assertEquals(report.getCases(), 1000);
+        Assert.assertEquals(report.getMismatches(), 0, report.getSamples().toString());
+        Assert.assertTrue(report.getErrorCases() > 0);
+        Assert.assertTrue(report.getOperations() > report.getCases() * 3L);
+        Assert.assertTrue(report.getOpsPerSecond() > 0);
+    }
+
+    @Test(description = "Clicked cases agree as well")
+    public void testNoMismatchesByClicks() {
+        P01_CalculatorPage page = new P01_CalculatorPage(driver).withInputMode(InputMode.CLICK);
+
+        FuzzReport report = new CalculatorFuzzer(page, 99L).run(100);
+
+        Assert.assertEquals(report.getMismatches(), 0, report.getSamples().toString());
+        Assert.assertTrue(report.getCommands() > report.getOperations());
+    }
+
+    @Test(description = "A reference with less precision is caught and its cases can be regenerated")
+    public void testDivergentOracleIsReported() {
+        P01_CalculatorPage page = new P01_CalculatorPage(driver).withInputMode(InputMode.KEYBOARD);
+        CalculatorFuzzer fuzzer = new CalculatorFuzzer(page, 5L).withOracle(new CalculatorOracle(MathContext.DECIMAL32));
+
+        FuzzReport report = fuzzer.run(300);
+
+        Assert.assertTrue(report.getMismatches() > 0);
+        Assert.assertEquals(report.getMismatchRate(), report.getMismatches() / 300.0, 1e-9);
+        FuzzReport.Mismatch first = report.getSamples().get(0);
+        Assert.assertEquals(fuzzer.getGenerator().generate(first.getCase().getIndex()).toString(), first.getCase().toString());
+        Assert.assertNotEquals(first.getDisplayed(), first.getExpected());
+    }
+
+    @Test(description = "A paced run does not exceed its target rate")
+    public void testTargetRate() {
+        P01_CalculatorPage page = new P01_CalculatorPage(driver).withInputMode(InputMode.KEYBOARD);
+
+        FuzzReport report = new CalculatorFuzzer(page, 11L).withTargetRate(2000).run(100);
+
+        Assert.assertEquals(report.getTargetOpsPerSecond(), 2000.0);
+        Assert.assertTrue(report.getOpsPerSecond() < 2000 * 1.1, report.summary());
+        Assert.assertTrue(report.getElapsedNanos() >= (report.getOperations() - 30) * 1_000_000_000L / 2000,
+                report.summary());
+    }
+}
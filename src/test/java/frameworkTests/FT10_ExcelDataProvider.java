@@ -0,0 +1,340 @@
+package frameworkTests;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.testng.Assert;
+import org.testng.TestNG;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import testcases.TC04_ExcelCases;
+import utils.ConfigReader;
+import utils.ExcelRowStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Verifies the streaming case-sheet reader: row mapping, chunked fan-out, and
+ * the heap on a generated sheet of 100,000 rows, read directly and run through
+ * TC04_ExcelCases' serial and chunked data providers under TestNG.
+ */
+public class FT10_ExcelDataProvider {
+
+    static final int LARGE_ROWS = 100_000;
+    private static final String[] OPERATIONS = {"add", "subtract", "multiply", "divide"};
+
+    private static Path smallWorkbook;
+    private static Path largeWorkbook;
+
+    @BeforeClass
+    public void generateWorkbooks() throws IOException {
+        smallWorkbook = Files.createTempFile("cases-small", ".xlsx");
+        largeWorkbook = Files.createTempFile("cases-large", ".xlsx");
+        writeWorkbook(smallWorkbook, 40);
+        writeWorkbook(largeWorkbook, LARGE_ROWS);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteWorkbooks() throws IOException {
+        Files.deleteIfExists(smallWorkbook);
+        Files.deleteIfExists(largeWorkbook);
+    }
+
+    /**
+     * Writes a case sheet with SXSSF (streaming, so generation is flat too): a header,
+     * numeric and text cells, a blank row every 1000 rows and a column nobody reads.
+     */
+    private static void writeWorkbook(Path path, int rows) throws IOException {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100); OutputStream out = Files.newOutputStream(path)) {
+            Sheet sheet = workbook.createSheet("Cases");
+            Row header = sheet.createRow(0);
+            String[] names = {"note", "operation", "num1", "num2", "expected"};
+            for (int column = 0; column < names.length; column++) {
+                header.createCell(column).setCellValue(names[column]);
+            }
+            int rowNum = 1;
+            for (int i = 0; i < rows; i++) {
+                if (i % 1000 == 999) {
+                    sheet.createRow(rowNum++);
+                }
+                Row row = sheet.createRow(rowNum++);
+                row.createCell(0).setCellValue("case " + i);
+                row.createCell(1).setCellValue(OPERATIONS[i % OPERATIONS.length]);
+                row.createCell(2).setCellValue(i);
+                row.createCell(3).setCellValue("0." + (i % 10));
+                row.createCell(4).setCellValue(String.valueOf(i));
+            }
+            workbook.write(out);
+        }
+    }
+
+    @Test(description = "Rows come back as text in the requested column order")
+    public void testRowMapping() {
+        List<Object[]> rows = new ArrayList<>();
+        ExcelRowStream stream = ExcelRowStream.open(smallWorkbook, "Cases", "operation", "num1", "num2");
+        stream.forEachRemaining(rows::add);
+
+        Assert.assertEquals(rows.size(), 40);
+        Assert.assertEquals(stream.getRowsRead(), 40);
+        Assert.assertEquals(rows.get(0), new Object[]{"add", "0", "0.0"});
+        Assert.assertEquals(rows.get(6), new Object[]{"multiply", "6", "0.6"});
+        Assert.assertEquals(rows.get(39), new Object[]{"divide", "39", "0.9"});
+    }
+
+    @Test(description = "Without a column list every column is returned, first sheet by default")
+    public void testAllColumns() {
+        ExcelRowStream stream = ExcelRowStream.open(smallWorkbook, null);
+
+        Assert.assertEquals(stream.next(), new Object[]{"case 0", "add", "0", "0.0", "0"});
+        stream.close();
+    }
+
+    @Test(description = "The shipped case workbook feeds the four operation helpers")
+    public void testShippedWorkbook() {
+        List<Object[]> rows = new ArrayList<>();
+        ExcelRowStream.open(Paths.get("src/test/resources/testdata/calculator-cases.xlsx"), "Cases",
+                "operation", "num1", "num2", "expected").forEachRemaining(rows::add);
+
+        Assert.assertFalse(rows.isEmpty());
+        Assert.assertEquals(rows.get(0), new Object[]{"add", "25", "17", "42"});
+        for (Object[] row : rows) {
+            Assert.assertTrue(List.of(OPERATIONS).contains(row[0]), String.valueOf(row[0]));
+        }
+    }
+
+    @Test(description = "Unknown sheets and columns fail on first read")
+    public void testMissingSheetOrColumn() {
+        ExcelRowStream noSheet = ExcelRowStream.open(smallWorkbook, "Nope");
+        Assert.assertThrows(IllegalArgumentException.class, noSheet::hasNext);
+
+        ExcelRowStream noColumn = ExcelRowStream.open(smallWorkbook, "Cases", "operation", "result");
+        IllegalArgumentException failure = Assert.expectThrows(IllegalArgumentException.class, noColumn::hasNext);
+        Assert.assertTrue(failure.getMessage().contains("result"), failure.getMessage());
+    }
+
+    @Test(description = "Closing early stops the parser instead of reading the rest of the sheet")
+    public void testCloseStopsParser() throws InterruptedException {
+        ExcelRowStream stream = ExcelRowStream.open(largeWorkbook, "Cases");
+        for (int i = 0; i < 10; i++) {
+            stream.next();
+        }
+        stream.close();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (stream.isParsing() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertFalse(stream.isParsing());
+        Assert.assertTrue(stream.getRowsRead() < 2000, "rows parsed: " + stream.getRowsRead());
+    }
+
+    @Test(description = "Heap stays flat while 100,000 rows stream through")
+    public void testHeapStaysFlat() {
+        ExcelRowStream stream = ExcelRowStream.open(largeWorkbook, "Cases", "operation", "num1", "num2", "expected");
+        long baseline = 0;
+        long peakAfterWarmup = 0;
+        long start = System.nanoTime();
+        int rows = 0;
+        while (stream.hasNext()) {
+            stream.next();
+            rows++;
+            if (rows == 10_000) {
+                baseline = usedHeapAfterGc();
+            } else if (rows % 25_000 == 0) {
+                peakAfterWarmup = Math.max(peakAfterWarmup, usedHeapAfterGc());
+            }
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        long growth = peakAfterWarmup - baseline;
+        System.out.printf("📗 Streamed %d rows in %d ms; heap after 10k rows %d KB, growth to %dk rows %d KB%n",
+                rows, elapsedMs, baseline / 1024, rows / 1000, growth / 1024);
+
+        Assert.assertEquals(rows, LARGE_ROWS);
+        // retaining the other 90,000 rows would take around 20 MB
+        Assert.assertTrue(growth < 4L * 1024 * 1024, "heap grew by " + growth / 1024 + " KB");
+    }
+
+    @Test(description = "Chunks hand every row out exactly once across threads")
+    public void testChunksCoverEveryRow() throws Exception {
+        List<Object[]> handles = new ArrayList<>();
+        ExcelRowStream.chunks(smallWorkbook, "Cases", 15, "num1").forEachRemaining(handles::add);
+        Assert.assertEquals(handles.size(), 3);
+        Assert.assertEquals(handles.get(2)[0].toString(), "chunk 3 of 3");
+
+        ExecutorService threads = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<List<Object[]>>> taken = new ArrayList<>();
+            for (Object[] handle : handles) {
+                taken.add(threads.submit(((ExcelRowStream.Chunk) handle[0])::rows));
+            }
+            Set<String> seen = new HashSet<>();
+            int rows = 0;
+            for (Future<List<Object[]>> chunk : taken) {
+                for (Object[] row : chunk.get(30, TimeUnit.SECONDS)) {
+                    seen.add((String) row[0]);
+                    rows++;
+                }
+            }
+            Assert.assertEquals(rows, 40);
+            Assert.assertEquals(seen.size(), 40);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test(description = "TC04's chunked provider fans 100,000 rows out over threads with a flat heap")
+    public void testChunkedFanOutHeap() {
+        System.setProperty("caseWorkbook", largeWorkbook.toString());
+        ConfigReader.reload();
+        try {
+            long growth = runNested(ChunkedHeapCases.class, "TC04 chunked provider", 4);
+
+            Assert.assertTrue(HeapSamples.threads.size() > 1, "rows ran on " + HeapSamples.threads);
+            // one TestNG result per 500 rows; a result per row would be around 70 MB
+            Assert.assertTrue(growth < 8L * 1024 * 1024, "heap grew by " + growth / 1024 + " KB");
+        } finally {
+            System.clearProperty("caseWorkbook");
+            ConfigReader.reload();
+        }
+    }
+
+    static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    @Test(description = "TC04's data provider adds no heap beyond TestNG's own per-row results")
+    public void testHeapThroughTestNg() {
+        System.setProperty("caseWorkbook", largeWorkbook.toString());
+        ConfigReader.reload();
+        try {
+            long control = runNested(GeneratedHeapCases.class, "rows generated in memory", 1);
+            long excel = runNested(ExcelHeapCases.class, "TC04 provider", 1);
+
+            Assert.assertEquals(HeapSamples.threads.size(), 1, "rows are not handed to a thread pool");
+            // TestNG keeps a result per row either way (about 0.8 KB); the sheet must not add to it beyond noise
+            Assert.assertTrue(excel - control < control / 10 + 2L * 1024 * 1024,
+                    "TC04 provider grew the heap by " + excel / 1024 + " KB, in-memory rows by " + control / 1024 + " KB");
+        } finally {
+            System.clearProperty("caseWorkbook");
+            ConfigReader.reload();
+        }
+    }
+
+    /**
+     * Runs a heap-sampling class over LARGE_ROWS rows in a nested TestNG instance.
+     * @param threads data-provider threads for parallel providers
+     * @return heap growth between row 10,000 and the last sample
+     */
+    private static long runNested(Class<?> cases, String label, int threads) {
+        HeapSamples.reset();
+        TestNG testng = new TestNG(false);
+        testng.setTestClasses(new Class<?>[]{cases});
+        testng.setDataProviderThreadCount(threads);
+        testng.setVerbose(0);
+        long start = System.nanoTime();
+        testng.run();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        long growth = HeapSamples.peak - HeapSamples.baseline;
+        System.out.printf("📗 %s under TestNG: %d rows in %d ms on %d thread(s); heap growth from 10k to %dk rows %d KB%n",
+                label, HeapSamples.rows.get(), elapsedMs, HeapSamples.threads.size(),
+                HeapSamples.rows.get() / 1000, growth / 1024);
+        Assert.assertEquals(HeapSamples.rows.get(), LARGE_ROWS, label);
+        return growth;
+    }
+}
+
+/**
+ * Heap samples taken by the nested heap-measuring classes, which are not part
+ * of any suite themselves.
+ */
+final class HeapSamples {
+
+    static final AtomicInteger rows = new AtomicInteger();
+    static final Set<String> threads = ConcurrentHashMap.newKeySet();
+    static volatile long baseline;
+    static volatile long peak;
+
+    private HeapSamples() {
+    }
+
+    static void reset() {
+        rows.set(0);
+        threads.clear();
+        baseline = 0;
+        peak = 0;
+    }
+
+    static void row() {
+        threads.add(Thread.currentThread().getName());
+        int row = rows.incrementAndGet();
+        if (row == 10_000) {
+            baseline = FT10_ExcelDataProvider.usedHeapAfterGc();
+        } else if (row % 25_000 == 0) {
+            peak = Math.max(peak, FT10_ExcelDataProvider.usedHeapAfterGc());
+        }
+    }
+}
+
+/**
+ * Takes its rows from TC04_ExcelCases' data provider.
+ */
+class ExcelHeapCases {
+
+    @Test(dataProvider = "excelCases", dataProviderClass = TC04_ExcelCases.class)
+    public void runCase(String operation, String num1, String num2, String expected) {
+        HeapSamples.row();
+    }
+}
+
+/**
+ * Takes chunks of rows from TC04_ExcelCases' parallel chunked provider.
+ */
+class ChunkedHeapCases {
+
+    @Test(dataProvider = "excelCaseChunks", dataProviderClass = TC04_ExcelCases.class)
+    public void runChunk(ExcelRowStream.Chunk chunk) {
+        for (Object[] row : chunk.rows()) {
+            HeapSamples.row();
+        }
+    }
+}
+
+/**
+ * The control: rows of the same shape made one at a time in memory.
+ */
+class GeneratedHeapCases {
+
+    @DataProvider(name = "generated")
+    public Iterator<Object[]> generated() {
+        return IntStream.range(0, FT10_ExcelDataProvider.LARGE_ROWS)
+                .mapToObj(i -> new Object[]{"add", String.valueOf(i), "0." + (i % 10), String.valueOf(i)})
+                .iterator();
+    }
+
+    @Test(dataProvider = "generated")
+    public void runCase(String operation, String num1, String num2, String expected) {
+        HeapSamples.row();
+    }
+}
@@ -0,0 +1,176 @@
+package frameworkTests;
+
+import listeners.TestExecutionListener;
+import org.testng.Assert;
+import org.testng.TestNG;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import utils.ArtifactWriter;
+import utils.ConfigReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Verifies that failure artifacts are handed off cheaply, written in the
+ * background, dropped rather than blocking when the queue is full, and
+ * flushed before the suite ends.
+ */
+public class FT11_AsyncArtifacts {
+
+    private Path directory;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("artifacts");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static byte[] slowContent(String text, long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test(description = "Files are written off the test thread and indexed on flush")
+    public void testWriteAndIndex() throws IOException {
+        ArtifactWriter writer = new ArtifactWriter(directory.resolve("index.html"), 1, 8);
+
+        Assert.assertTrue(writer.submit("TC01.testAddition", "expected [42] but found [41]", List.of(
+                ArtifactWriter.file(directory.resolve("shots/a.png"), () -> new byte[]{1, 2, 3}),
+                ArtifactWriter.file(directory.resolve("a.html"), () -> "<html/>".getBytes(StandardCharsets.UTF_8)),
+                ArtifactWriter.file(directory.resolve("none.png"), () -> null))));
+
+        Assert.assertTrue(writer.flush(Duration.ofSeconds(5)));
+        Assert.assertEquals(Files.readAllBytes(directory.resolve("shots/a.png")), new byte[]{1, 2, 3});
+        Assert.assertTrue(Files.exists(directory.resolve("a.html")));
+        Assert.assertFalse(Files.exists(directory.resolve("none.png")));
+        String index = new String(Files.readAllBytes(writer.getIndexFile()), StandardCharsets.UTF_8);
+        Assert.assertTrue(index.contains("TC01.testAddition"), index);
+        Assert.assertTrue(index.contains("expected [42] but found [41]"), index);
+        Assert.assertTrue(index.contains("href=\"shots/a.png\""), index);
+        Assert.assertEquals(writer.getWritten(), 1);
+        Assert.assertEquals(writer.getWriteLatency().getCount(), 1);
+        Assert.assertEquals(writer.getQueueDepth(), 0);
+    }
+
+    @Test(description = "A burst of failures never waits for the writer; overflow is dropped and counted")
+    public void testBurstDoesNotStall() {
+        ArtifactWriter writer = new ArtifactWriter(directory.resolve("index.html"), 1, 4);
+        int burst = 30;
+        long start = System.nanoTime();
+        List<Boolean> accepted = new ArrayList<>();
+        for (int i = 0; i < burst; i++) {
+            String name = "failure-" + i;
+            accepted.add(writer.submit(name, "burst", List.of(
+                    ArtifactWriter.file(directory.resolve(name + ".html"), () -> slowContent(name, 20)))));
+        }
+        long submitMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // writing them all on the test thread would take 30 x 20 ms
+        Assert.assertTrue(submitMillis < 200, "submitting took " + submitMillis + " ms");
+        Assert.assertTrue(writer.flush(Duration.ofSeconds(10)));
+        Assert.assertEquals(writer.getSubmitted(), burst);
+        Assert.assertTrue(writer.getDropped() > 0);
+        Assert.assertEquals(writer.getWritten() + writer.getDropped(), burst);
+        Assert.assertEquals(accepted.stream().filter(Boolean::booleanValue).count(), writer.getWritten());
+        Assert.assertTrue(writer.getMaxQueueDepth() <= 4 + 1, "max depth " + writer.getMaxQueueDepth());
+        Assert.assertEquals(writer.getHandOffLatency().getCount(), burst);
+        Assert.assertTrue(writer.getWriteLatency().getPercentileNanos(50) >= TimeUnit.MILLISECONDS.toNanos(20));
+        System.out.println("📄 " + writer.summary());
+    }
+
+    @Test(description = "flush() is a barrier with a timeout")
+    public void testFlushWaitsForWriters() throws InterruptedException {
+        ArtifactWriter writer = new ArtifactWriter(directory.resolve("index.html"), 1, 4);
+        CountDownLatch gate = new CountDownLatch(1);
+        writer.submit("blocked", "", List.of(ArtifactWriter.file(directory.resolve("blocked.txt"), () -> {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new byte[0];
+        })));
+
+        Assert.assertFalse(writer.flush(Duration.ofMillis(100)));
+        Assert.assertEquals(writer.getQueueDepth(), 1);
+        gate.countDown();
+        Assert.assertTrue(writer.flush(Duration.ofSeconds(5)));
+        Assert.assertTrue(Files.exists(directory.resolve("blocked.txt")));
+    }
+
+    @Test(description = "A failing artifact is counted and the writer keeps going")
+    public void testWriteFailureIsIsolated() {
+        ArtifactWriter writer = new ArtifactWriter(directory.resolve("index.html"), 1, 4);
+
+        writer.submit("broken", "", List.of(ArtifactWriter.file(directory.resolve("broken.png"), () -> {
+            throw new UncheckedIOException(new IOException("disk full"));
+        })));
+        writer.submit("fine", "", List.of(ArtifactWriter.file(directory.resolve("fine.txt"), () -> new byte[]{7})));
+
+        Assert.assertTrue(writer.flush(Duration.ofSeconds(5)));
+        Assert.assertEquals(writer.getWriteFailures(), 1);
+        Assert.assertEquals(writer.getWritten(), 1);
+        Assert.assertTrue(Files.exists(directory.resolve("fine.txt")));
+    }
+
+    @Test(description = "The listener queues the failure report and onFinish flushes it")
+    public void testListenerFlushesOnFinish() throws IOException {
+        TestNG testng = new TestNG(false);
+        testng.setTestClasses(new Class<?>[]{FailingArtifactCase.class});
+        testng.setVerbose(0);
+        testng.addListener(new TestExecutionListener());
+
+        testng.run();
+
+        Path reports = Paths.get(ConfigReader.getSetting("reportsDir", "test-reports"));
+        List<Path> written;
+        try (Stream<Path> files = Files.list(reports)) {
+            written = files.filter(path -> path.getFileName().toString().startsWith(FailingArtifactCase.METHOD))
+                    .collect(Collectors.toList());
+        }
+        Assert.assertEquals(written.size(), 1, written.toString());
+        String report = new String(Files.readAllBytes(written.get(0)), StandardCharsets.UTF_8);
+        Assert.assertTrue(report.contains("expected [42] but found [41]"));
+        String index = new String(Files.readAllBytes(reports.resolve("index.html")), StandardCharsets.UTF_8);
+        Assert.assertTrue(index.contains(FailingArtifactCase.METHOD), index);
+        Files.delete(written.get(0));
+    }
+}
+
+/**
+ * Fails on purpose inside FT11_AsyncArtifacts.testListenerFlushesOnFinish's
+ * nested TestNG run; not part of any suite itself.
+ */
+class FailingArtifactCase {
+
+    static final String METHOD = "failsForArtifacts";
+
+    @Test
+    public void failsForArtifacts() {
+        Assert.assertEquals(41, 42);
+    }
+}
@@ -0,0 +1,218 @@
+package frameworkTests;
+
+import common.FrameRing;
+import common.MyScreenRecorder;
+import common.WindowRecording;
+import listeners.TestExecutionListener;
+import org.testng.Assert;
+import org.testng.TestNG;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import stubs.SyntheticFrameSource;
+import utils.ArtifactWriter;
+import utils.ConfigReader;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Verifies the window recording ring: it keeps only the last seconds of
+ * frames in reused memory, collapses a still window, writes nothing for a
+ * passing test and encodes a failing test's video off the test thread.
+ * Frames come from a synthetic source, so no screen is needed.
+ */
+public class FT12_WindowRecording {
+
+    private static final Rectangle WINDOW = new Rectangle(100, 50, 160, 240);
+
+    @BeforeClass
+    public void useSyntheticFrames() {
+        MyScreenRecorder.setFrameSource(new SyntheticFrameSource(3));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopRecording() {
+        MyScreenRecorder.discardWindowRecording();
+    }
+
+    @Test(description = "The ring holds the last capacity ticks and collapses repeated frames")
+    public void testRingKeepsLastFrames() {
+        SyntheticFrameSource source = new SyntheticFrameSource(3);
+        FrameRing ring = new FrameRing(10, 20);
+
+        for (int i = 0; i < 100; i++) {
+            ring.add(source.capture(WINDOW));
+        }
+
+        // 100 frames changing every 3rd: the last 20 ticks span 7 or 8 distinct frames
+        Assert.assertEquals(ring.getFramesAdded(), 100);
+        Assert.assertEquals(ring.getTicks(), 20);
+        Assert.assertTrue(ring.size() >= 7 && ring.size() <= 8, "distinct frames " + ring.size());
+        long frameBytes = (long) WINDOW.width * WINDOW.height * Integer.BYTES;
+        Assert.assertTrue(ring.getRetainedBytes() <= (ring.getCapacity() + 1) * frameBytes);
+
+        // a still window never takes a second slot
+        FrameRing still = new FrameRing(10, 20);
+        BufferedImage frame = source.capture(WINDOW);
+        for (int i = 0; i < 50; i++) {
+            still.add(frame);
+        }
+        Assert.assertEquals(still.size(), 1);
+        Assert.assertEquals(still.getTicks(), 20);
+        // the frame held plus the spare slot the next capture is copied into
+        Assert.assertEquals(still.getRetainedBytes(), 2 * frameBytes);
+    }
+
+    @Test(description = "Slots are reused: a long recording stops allocating once the ring is full")
+    public void testSlotsAreReused() {
+        SyntheticFrameSource source = new SyntheticFrameSource(1);
+        FrameRing ring = new FrameRing(10, 10);
+        for (int i = 0; i < 20; i++) {
+            ring.add(source.capture(WINDOW));
+        }
+        long retained = ring.getRetainedBytes();
+        for (int i = 0; i < 200; i++) {
+            ring.add(source.capture(WINDOW));
+        }
+        Assert.assertEquals(ring.size(), 10);
+        Assert.assertEquals(ring.getRetainedBytes(), retained);
+
+        // a resized window starts the ring over
+        ring.add(source.capture(new Rectangle(0, 0, 80, 120)));
+        Assert.assertEquals(ring.size(), 1);
+        Assert.assertEquals(ring.getFramesAdded(), 1);
+    }
+
+    @Test(description = "The ring encodes to an AVI with one chunk per distinct frame")
+    public void testEncodesAvi() {
+        SyntheticFrameSource source = new SyntheticFrameSource(5);
+        FrameRing ring = new FrameRing(10, 50);
+        Assert.assertNull(ring.toAvi());
+        for (int i = 0; i < 50; i++) {
+            ring.add(source.capture(WINDOW));
+        }
+
+        byte[] avi = ring.toAvi();
+
+        Assert.assertNotNull(avi);
+        Assert.assertEquals(new String(avi, 0, 4, StandardCharsets.US_ASCII), "RIFF");
+        Assert.assertEquals(new String(avi, 8, 4, StandardCharsets.US_ASCII), "AVI ");
+        // 10 distinct frames, far smaller than 50 raw ones
+        Assert.assertTrue(avi.length < 50L * WINDOW.width * WINDOW.height, "AVI of " + avi.length + " bytes");
+    }
+
+    @Test(description = "A discarded recording captured frames and never encoded")
+    public void testDiscardWritesNothing() throws InterruptedException {
+        WindowRecording recording = MyScreenRecorder.startWindowRecording("passing", WINDOW);
+        awaitFrames(recording, 5);
+
+        Assert.assertSame(MyScreenRecorder.discardWindowRecording(), recording);
+
+        Assert.assertNull(MyScreenRecorder.discardWindowRecording());
+        Assert.assertFalse(recording.isEncoded());
+        Assert.assertEquals(recording.getBytesWritten(), 0);
+        long captured = recording.getFramesCaptured();
+        Assert.assertTrue(captured >= 5);
+        Thread.sleep(200);
+        Assert.assertEquals(recording.getFramesCaptured(), captured, "capture kept running after discard");
+        Assert.assertEquals(recording.getCaptureFailures(), 0);
+        System.out.println("🎥 " + recording.summary());
+    }
+
+    @Test(description = "A failed test's recording is encoded on the writer thread, not the test thread")
+    public void testFailureEncodesOffTestThread() throws IOException, InterruptedException {
+        Path directory = Files.createTempDirectory("recordings");
+        ArtifactWriter writer = new ArtifactWriter(directory.resolve("index.html"), 1, 4);
+        WindowRecording recording = MyScreenRecorder.startWindowRecording("failing", WINDOW);
+        awaitFrames(recording, 10);
+
+        long start = System.nanoTime();
+        WindowRecording stopped = MyScreenRecorder.stopWindowRecording();
+        String[] encodingThread = new String[1];
+        writer.submit("failing", "recording", List.of(ArtifactWriter.file(directory.resolve("failing.avi"), () -> {
+            encodingThread[0] = Thread.currentThread().getName();
+            return stopped.encode();
+        })));
+        long handOffMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Assert.assertTrue(writer.flush(Duration.ofSeconds(10)));
+        Assert.assertSame(stopped, recording);
+        Assert.assertTrue(encodingThread[0].startsWith("artifact-writer"), encodingThread[0]);
+        Assert.assertTrue(handOffMillis < 100, "stopping and handing over took " + handOffMillis + " ms");
+        Assert.assertTrue(recording.isEncoded());
+        Assert.assertEquals(recording.getBytesWritten(), Files.size(directory.resolve("failing.avi")));
+        Assert.assertTrue(recording.getFramesKept() > 0);
+        System.out.println("🎥 " + recording.summary());
+        for (Path file : new Path[]{directory.resolve("failing.avi"), directory.resolve("index.html"), directory}) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(description = "The listener keeps the video of a failed test only")
+    public void testListenerKeepsFailedRecordingsOnly() throws IOException {
+        TestNG testng = new TestNG(false);
+        testng.setTestClasses(new Class<?>[]{RecordedCase.class});
+        testng.setVerbose(0);
+        testng.addListener(new TestExecutionListener());
+
+        testng.run();
+
+        List<Path> videos;
+        try (Stream<Path> files = Files.list(Paths.get(ConfigReader.getSetting("recordingsDir", "recordings")))) {
+            videos = files.filter(path -> path.getFileName().toString().endsWith(".avi"))
+                    .filter(path -> Arrays.stream(new String[]{RecordedCase.PASSING, RecordedCase.FAILING})
+                            .anyMatch(name -> path.getFileName().toString().startsWith(name)))
+                    .collect(Collectors.toList());
+        }
+        Assert.assertEquals(videos.size(), 1, videos.toString());
+        Assert.assertTrue(videos.get(0).getFileName().toString().startsWith(RecordedCase.FAILING));
+        Assert.assertTrue(Files.size(videos.get(0)) > 0);
+        Files.delete(videos.get(0));
+        Assert.assertNotNull(MyScreenRecorder.windowRecordingSummary());
+    }
+
+    private static void awaitFrames(WindowRecording recording, int frames) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (recording.getFramesCaptured() < frames && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        Assert.assertTrue(recording.getFramesCaptured() >= frames,
+                "captured " + recording.getFramesCaptured() + " frames");
+    }
+}
+
+/**
+ * One passing and one failing recorded test for
+ * FT12_WindowRecording.testListenerKeepsFailedRecordingsOnly's nested TestNG
+ * run; not part of any suite itself.
+ */
+class RecordedCase {
+
+    static final String PASSING = "passesWhileRecorded";
+    static final String FAILING = "failsWhileRecorded";
+
+    @Test
+    public void passesWhileRecorded() throws InterruptedException {
+        MyScreenRecorder.startWindowRecording(PASSING, new Rectangle(0, 0, 120, 200));
+        Thread.sleep(300);
+    }
+
+    @Test
+    public void failsWhileRecorded() throws InterruptedException {
+        MyScreenRecorder.startWindowRecording(FAILING, new Rectangle(0, 0, 120, 200));
+        Thread.sleep(300);
+        Assert.assertEquals(41, 42);
+    }
+}
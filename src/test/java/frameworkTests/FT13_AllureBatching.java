@@ -0,0 +1,159 @@
+package frameworkTests;
+
+import io.qameta.allure.FileSystemResultsWriter;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.model.TestResultContainer;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import utils.AllureRunExporter;
+import utils.AllureRunWriter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Verifies the batched Allure writer: a run lands in one file written a
+ * batch at a time, expands back to exactly what Allure's own writer
+ * produces, survives being cut short and keeps only the newest runs.
+ */
+public class FT13_AllureBatching {
+
+    private Path directory;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("allure-batching");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test(description = "Records are appended in batches to a single run file")
+    public void testWritesBatches() throws IOException {
+        Path runs = directory.resolve("runs");
+        try (AllureRunWriter writer = new AllureRunWriter(runs, 10, 5)) {
+            for (int i = 0; i < 25; i++) {
+                writer.write(result(i));
+            }
+            Assert.assertEquals(writer.getBatchesWritten(), 2);
+            Assert.assertEquals(writer.getRecordsWritten(), 20);
+
+            writer.flush();
+
+            Assert.assertEquals(writer.getBatchesWritten(), 3);
+            Assert.assertEquals(writer.getRecordsWritten(), 25);
+            Assert.assertEquals(files(runs).size(), 1);
+            Assert.assertEquals(writer.getBytesWritten(), Files.size(writer.getRunFile()));
+            System.out.println("📦 " + writer.summary());
+        }
+    }
+
+    @Test(description = "An expanded run matches Allure's own one-file-per-record output")
+    public void testExportMatchesStandardLayout() throws IOException {
+        Path standard = directory.resolve("standard");
+        Path expanded = directory.resolve("expanded");
+        FileSystemResultsWriter reference = new FileSystemResultsWriter(standard);
+        AllureRunWriter writer = new AllureRunWriter(directory.resolve("runs"), 4, 5);
+
+        for (int i = 0; i < 6; i++) {
+            TestResult result = result(i);
+            reference.write(result);
+            writer.write(result);
+        }
+        TestResultContainer container = new TestResultContainer().setUuid(UUID.randomUUID().toString())
+                .setName("Calculator").setChildren(Arrays.asList("a", "b"));
+        reference.write(container);
+        writer.write(container);
+        byte[] screenshot = "not really a png".getBytes(StandardCharsets.UTF_8);
+        reference.write("shot-attachment.png", new ByteArrayInputStream(screenshot));
+        writer.write("shot-attachment.png", new ByteArrayInputStream(screenshot));
+        writer.close();
+
+        Assert.assertEquals(AllureRunExporter.export(writer.getRunFile(), expanded), 8);
+
+        List<Path> expected = files(standard);
+        Assert.assertEquals(files(expanded).stream().map(Path::getFileName).collect(Collectors.toList()),
+                expected.stream().map(Path::getFileName).collect(Collectors.toList()));
+        for (Path file : expected) {
+            Assert.assertEquals(Files.readAllBytes(expanded.resolve(file.getFileName())), Files.readAllBytes(file),
+                    file.getFileName().toString());
+        }
+    }
+
+    @Test(description = "A run cut short reads back up to its last complete batch")
+    public void testTruncatedRunIsReadable() throws IOException {
+        AllureRunWriter writer = new AllureRunWriter(directory.resolve("runs"), 5, 5);
+        for (int i = 0; i < 12; i++) {
+            writer.write(result(i));
+        }
+        // two batches on disk, two records still in memory when the JVM dies
+
+        Assert.assertEquals(AllureRunExporter.export(writer.getRunFile(), directory.resolve("expanded")), 10);
+    }
+
+    @Test(description = "Starting a run prunes all but the newest keepRuns run files")
+    public void testPrunesOldRuns() throws IOException {
+        Path runs = directory.resolve("runs");
+        Files.createDirectories(runs);
+        for (int i = 0; i < 6; i++) {
+            Files.createFile(runs.resolve("20200101-00000" + i + "-000-1.results.gz"));
+        }
+        Files.createFile(runs.resolve("notes.txt"));
+
+        AllureRunWriter writer = new AllureRunWriter(runs, 10, 3);
+        writer.write(result(0));
+        writer.close();
+
+        Assert.assertEquals(writer.getRunsPruned(), 4);
+        List<String> left = files(runs).stream().map(path -> path.getFileName().toString())
+                .collect(Collectors.toList());
+        Assert.assertEquals(left, Arrays.asList("20200101-000004-000-1.results.gz",
+                "20200101-000005-000-1.results.gz", writer.getRunFile().getFileName().toString(), "notes.txt"));
+        Assert.assertEquals(AllureRunExporter.exportAll(runs, directory.resolve("expanded")), 1);
+    }
+
+    @Test(description = "A record named outside the output directory is refused")
+    public void testRejectsEscapingNames() throws IOException {
+        AllureRunWriter writer = new AllureRunWriter(directory.resolve("runs"), 10, 5);
+        writer.write("../escaped.txt", new ByteArrayInputStream(new byte[]{1}));
+        writer.close();
+
+        Assert.assertThrows(RuntimeException.class,
+                () -> AllureRunExporter.export(writer.getRunFile(), directory.resolve("expanded")));
+        Assert.assertFalse(Files.exists(directory.resolve("escaped.txt")));
+    }
+
+    private static TestResult result(int index) {
+        return new TestResult().setUuid(UUID.randomUUID().toString())
+                .setName("testAddition" + index)
+                .setFullName("testCases.TC01_Addition.testAddition" + index)
+                .setStatus(index % 5 == 0 ? Status.FAILED : Status.PASSED)
+                .setStart(1_700_000_000_000L + index)
+                .setStop(1_700_000_000_500L + index);
+    }
+
+    private static List<Path> files(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted(Comparator.comparing(path -> path.getFileName().toString()))
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package frameworkTests;
+
+import listeners.RenderingReporter;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import utils.ConfigReader;
+import utils.TestEvent;
+import utils.TestEventBus;
+import utils.TestEventSubscriber;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies the test event bus: reporters run on their own threads so a
+ * slow one delays neither the test nor the others, full queues stall and
+ * then drop rather than block forever, a throwing reporter keeps receiving
+ * events, and HTML reporters render as the suite runs.
+ */
+public class FT14_EventBus {
+
+    private TestEventBus bus;
+
+    @AfterMethod(alwaysRun = true)
+    public void closeBus() {
+        if (bus != null) {
+            bus.close(Duration.ofSeconds(5));
+            bus = null;
+        }
+        System.clearProperty("reporters");
+        ConfigReader.reload();
+    }
+
+    @Test(description = "A slow reporter does not hold up the publisher or a fast reporter")
+    public void testSlowReporterRunsOffTestThread() {
+        bus = new TestEventBus(64, Duration.ofSeconds(5), Duration.ofMillis(1));
+        RecordingSubscriber slow = new RecordingSubscriber("slow", 20);
+        RecordingSubscriber fast = new RecordingSubscriber("fast", 0);
+        bus.subscribe(slow);
+        bus.subscribe(fast);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 20; i++) {
+            bus.publish(finished(i));
+        }
+        long publishMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Assert.assertTrue(publishMillis < 200, "publishing 20 events took " + publishMillis + " ms");
+        Assert.assertTrue(bus.flush(Duration.ofSeconds(10)));
+        Assert.assertEquals(slow.methods, fast.methods);
+        Assert.assertEquals(slow.methods.size(), 20);
+        Assert.assertEquals(slow.methods.get(19), "test19");
+        Assert.assertTrue(slow.threads.stream().allMatch("reporter-slow"::equals), slow.threads.toString());
+
+        TestEventBus.SubscriberStats slowStats = bus.getStats().get(0);
+        Assert.assertEquals(slowStats.getHandled(), 20);
+        Assert.assertTrue(slowStats.getLag().getMaxNanos() > bus.getStats().get(1).getLag().getMaxNanos());
+        Assert.assertTrue(slowStats.getMaxQueueDepth() > 1);
+        System.out.println("📰 " + bus.summary());
+    }
+
+    @Test(description = "A full queue makes the publisher wait, then drops for that reporter only")
+    public void testFullQueueStallsThenDrops() throws InterruptedException {
+        bus = new TestEventBus(2, Duration.ofMillis(50), Duration.ofMillis(1));
+        CountDownLatch release = new CountDownLatch(1);
+        BlockedSubscriber blocked = new BlockedSubscriber(release);
+        RecordingSubscriber fast = new RecordingSubscriber("fast", 0);
+        bus.subscribe(blocked);
+        bus.subscribe(fast);
+
+        bus.publish(finished(0));
+        Assert.assertTrue(blocked.entered.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < 6; i++) {
+            bus.publish(finished(i));
+        }
+        release.countDown();
+
+        Assert.assertTrue(bus.flush(Duration.ofSeconds(5)));
+        TestEventBus.SubscriberStats stats = bus.getStats().get(0);
+        // one being handled, two queued, three timed out
+        Assert.assertEquals(stats.getDropped(), 3);
+        Assert.assertEquals(stats.getStalls(), 3);
+        Assert.assertEquals(stats.getHandled(), 3);
+        Assert.assertEquals(bus.getStats().get(1).getDropped(), 0);
+        Assert.assertEquals(fast.methods.size(), 6);
+    }
+
+    @Test(description = "A reporter that throws is counted and keeps getting events")
+    public void testFailingReporterKeepsRunning() {
+        bus = new TestEventBus(16, Duration.ofSeconds(5), Duration.ofMillis(1));
+        RecordingSubscriber failing = new RecordingSubscriber("failing", 0) {
+            @Override
+            public void onEvent(TestEvent event) {
+                super.onEvent(event);
+                if (methods.size() % 2 == 1) {
+                    throw new IllegalStateException("report template broken");
+                }
+            }
+        };
+        bus.subscribe(failing);
+        for (int i = 0; i < 4; i++) {
+            bus.publish(finished(i));
+        }
+
+        Assert.assertTrue(bus.close(Duration.ofSeconds(5)));
+        Assert.assertEquals(failing.methods.size(), 4);
+        Assert.assertEquals(bus.getStats().get(0).getFailed(), 2);
+        Assert.assertTrue(failing.closed);
+        Assert.assertTrue(bus.getStats().get(0).getCpuNanos() >= 0);
+    }
+
+    @Test(description = "An HTML reporter renders while tests run, at most once per interval, and at suite end")
+    public void testRendersIncrementally() throws InterruptedException {
+        bus = new TestEventBus(64, Duration.ofSeconds(5), Duration.ofMillis(1));
+        CountingRenderer renderer = new CountingRenderer(Duration.ofMillis(100));
+        bus.subscribe(renderer);
+
+        bus.publish(TestEvent.suiteStarted("suite"));
+        for (int i = 0; i < 10; i++) {
+            bus.publish(finished(i));
+        }
+        Assert.assertTrue(bus.flush(Duration.ofSeconds(5)));
+        Assert.assertEquals(renderer.getRenders(), 0, "rendered before the interval passed");
+
+        Thread.sleep(150);
+        bus.publish(finished(10));
+        Assert.assertTrue(bus.flush(Duration.ofSeconds(5)));
+        Assert.assertEquals(renderer.getRenders(), 1);
+        Assert.assertEquals(renderer.renderedTests, 11, "the mid-run render includes every test so far");
+
+        bus.publish(finished(11));
+        bus.publish(TestEvent.suiteFinished("suite"));
+        Assert.assertTrue(bus.close(Duration.ofSeconds(5)));
+        Assert.assertEquals(renderer.getRenders(), 2);
+        Assert.assertEquals(renderer.renderedTests, 12);
+    }
+
+    @Test(description = "The reporters setting switches reporters individually")
+    public void testReportersSetting() {
+        System.setProperty("reporters", " Log , chaintest");
+        ConfigReader.reload();
+        Assert.assertTrue(TestEventBus.isReporterEnabled("log"));
+        Assert.assertTrue(TestEventBus.isReporterEnabled("chaintest"));
+        Assert.assertFalse(TestEventBus.isReporterEnabled("extent"));
+        Assert.assertFalse(TestEventBus.isReporterEnabled("allure"));
+
+        System.setProperty("reporters", "none");
+        ConfigReader.reload();
+        Assert.assertFalse(TestEventBus.isReporterEnabled("log"));
+    }
+
+    private static TestEvent finished(int index) {
+        long now = System.currentTimeMillis();
+        return TestEvent.test(index % 4 == 3 ? TestEvent.Type.TEST_FAILED : TestEvent.Type.TEST_PASSED,
+                "suite", "testcases.TC01_Calculator", "test" + index, null, Collections.emptyList(),
+                Collections.emptyList(), now - 5, now, index % 4 == 3 ? new AssertionError("expected [42]") : null);
+    }
+
+    private static class RecordingSubscriber implements TestEventSubscriber {
+
+        final List<String> methods = new CopyOnWriteArrayList<>();
+        final List<String> threads = new CopyOnWriteArrayList<>();
+        volatile boolean closed;
+        private final String name;
+        private final long delayMillis;
+
+        RecordingSubscriber(String name, long delayMillis) {
+            this.name = name;
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void onEvent(TestEvent event) {
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            methods.add(event.getMethodName());
+            threads.add(Thread.currentThread().getName());
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private static final class BlockedSubscriber implements TestEventSubscriber {
+
+        final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        BlockedSubscriber(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public String getName() {
+            return "blocked";
+        }
+
+        @Override
+        public void onEvent(TestEvent event) throws InterruptedException {
+            entered.countDown();
+            release.await();
+        }
+    }
+
+    private static final class CountingRenderer extends RenderingReporter {
+
+        private final List<String> tests = new ArrayList<>();
+        volatile int renderedTests;
+
+        CountingRenderer(Duration renderInterval) {
+            super(renderInterval);
+        }
+
+        @Override
+        public String getName() {
+            return "counting";
+        }
+
+        @Override
+        protected void record(TestEvent event) {
+            if (event.isTestFinished()) {
+                tests.add(event.getTestName());
+            }
+        }
+
+        @Override
+        protected void render() {
+            renderedTests = tests.size();
+        }
+    }
+}
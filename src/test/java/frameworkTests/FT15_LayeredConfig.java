@@ -0,0 +1,167 @@
+package frameworkTests;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import utils.ConfigReader;
+import utils.ConfigSnapshot;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Verifies the layered configuration: precedence between the five sources,
+ * environment variable naming, typed lookups, atomic swaps on reload and
+ * the file watcher picking up an edited config.properties.
+ */
+public class FT15_LayeredConfig {
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreConfig() {
+        System.clearProperty("ft15.first");
+        System.clearProperty("ft15.second");
+        System.clearProperty("displaySettleTimeoutMs");
+        ConfigReader.stopWatching();
+        ConfigReader.setTestNgParameters(null);
+    }
+
+    @Test(description = "Higher layers win; an empty value falls through to the next layer")
+    public void testLayerPrecedence() {
+        ConfigSnapshot config = ConfigSnapshot.builder()
+                .layer(ConfigSnapshot.Source.SYSTEM_PROPERTIES, Map.of("url", "from-d", "blank", ""))
+                .environmentVariables(Map.of("URL", "from-env", "STUB_LATENCY_MS", "40", "Path", "/usr/bin"))
+                .layer(ConfigSnapshot.Source.TESTNG_PARAMETERS, Map.of("url", "from-testng", "winAppDriverUrl", "from-testng"))
+                .layer(ConfigSnapshot.Source.CONFIG_PROPERTIES, Map.of("winAppDriverUrl", "from-config", "blank", "kept", "fps", "10"))
+                .layer(ConfigSnapshot.Source.ENVIRONMENT_PROPERTIES, Map.of("projectName", "Calculator", "fps", "5"))
+                .build();
+
+        Assert.assertEquals(config.get("url"), "from-d");
+        Assert.assertEquals(config.getSource("url"), ConfigSnapshot.Source.SYSTEM_PROPERTIES);
+        Assert.assertEquals(config.get("winAppDriverUrl"), "from-testng");
+        Assert.assertEquals(config.get("blank"), "kept");
+        Assert.assertEquals(config.getSource("blank"), ConfigSnapshot.Source.CONFIG_PROPERTIES);
+        Assert.assertEquals(config.getInt("fps", 0), 10);
+        Assert.assertEquals(config.get("projectName"), "Calculator");
+        Assert.assertEquals(config.getLong("stubLatencyMs", 0), 40);
+        Assert.assertEquals(config.getSource("stubLatencyMs"), ConfigSnapshot.Source.ENVIRONMENT_VARIABLES);
+        Assert.assertNull(config.get("path"), "mixed-case variable names are not configuration");
+        Assert.assertEquals(config.get("missing", "default"), "default");
+        Assert.assertEquals(config.getBoolean("missing", true), true);
+    }
+
+    @Test(description = "Environment variable names map to camelCase keys")
+    public void testEnvironmentVariableNames() {
+        Assert.assertEquals(ConfigSnapshot.keyForEnvironmentVariable("WIN_APP_DRIVER_URL"), "winAppDriverUrl");
+        Assert.assertEquals(ConfigSnapshot.keyForEnvironmentVariable("STUB"), "stub");
+        Assert.assertEquals(ConfigSnapshot.keyForEnvironmentVariable("RECORDING_FPS"), "recordingFps");
+        Assert.assertEquals(ConfigSnapshot.keyForEnvironmentVariable("_LEADING"), "leading");
+        Assert.assertNull(ConfigSnapshot.keyForEnvironmentVariable("java_home"));
+        Assert.assertNull(ConfigSnapshot.keyForEnvironmentVariable("___"));
+    }
+
+    @Test(description = "A malformed number names the key and the layer it came from")
+    public void testTypedLookups() {
+        ConfigSnapshot config = ConfigSnapshot.builder()
+                .layer(ConfigSnapshot.Source.CONFIG_PROPERTIES, Map.of("timeoutMs", " 250 ", "rate", "0.5", "fps", "ten"))
+                .build();
+
+        Assert.assertEquals(config.getLong("timeoutMs", 0), 250L);
+        Assert.assertEquals(config.getInt("timeoutMs", 0), 250);
+        Assert.assertEquals(config.getDouble("rate", 0), 0.5);
+        IllegalArgumentException error = Assert.expectThrows(IllegalArgumentException.class, () -> config.getInt("fps", 1));
+        Assert.assertTrue(error.getMessage().contains("fps=ten (from config.properties)"), error.getMessage());
+    }
+
+    @Test(description = "TestNG parameters sit above the files and below -D")
+    public void testTestNgParametersLayer() {
+        long fromFile = ConfigReader.getLong("displaySettleTimeoutMs", -1);
+
+        ConfigReader.setTestNgParameters(Map.of("displaySettleTimeoutMs", "750"));
+        Assert.assertEquals(ConfigReader.getLong("displaySettleTimeoutMs", -1), 750);
+
+        System.setProperty("displaySettleTimeoutMs", "900");
+        ConfigReader.reload();
+        Assert.assertEquals(ConfigReader.getLong("displaySettleTimeoutMs", -1), 900);
+
+        System.clearProperty("displaySettleTimeoutMs");
+        ConfigReader.setTestNgParameters(null);
+        Assert.assertEquals(ConfigReader.getLong("displaySettleTimeoutMs", -1), fromFile);
+    }
+
+    @Test(description = "environment.properties is a layer: no test opens it itself")
+    public void testEnvironmentPropertiesLayer() {
+        Assert.assertEquals(ConfigReader.getProperty("projectName"), "Calculator Desktop Application");
+        Assert.assertEquals(ConfigReader.snapshot().getSource("projectName"), ConfigSnapshot.Source.ENVIRONMENT_PROPERTIES);
+    }
+
+    @Test(description = "Readers see one snapshot or the next, never a mix, while reloads swap them")
+    public void testReloadSwapsAtomically() throws Exception {
+        System.setProperty("ft15.first", "0");
+        System.setProperty("ft15.second", "0");
+        ConfigReader.reload();
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService readers = Executors.newFixedThreadPool(2);
+        try {
+            Future<Long> torn = readers.submit(() -> {
+                long mismatches = 0;
+                while (running.get()) {
+                    ConfigSnapshot config = ConfigReader.snapshot();
+                    if (!config.get("ft15.first").equals(config.get("ft15.second"))) {
+                        mismatches++;
+                    }
+                }
+                return mismatches;
+            });
+            long versionBefore = ConfigReader.snapshot().getVersion();
+            for (int i = 1; i <= 50; i++) {
+                System.setProperty("ft15.first", String.valueOf(i));
+                System.setProperty("ft15.second", String.valueOf(i));
+                ConfigReader.reload();
+            }
+            running.set(false);
+
+            Assert.assertEquals((long) torn.get(5, TimeUnit.SECONDS), 0L);
+            Assert.assertEquals(ConfigReader.snapshot().getVersion(), versionBefore + 50);
+            Assert.assertEquals(ConfigReader.getInt("ft15.first", 0), 50);
+        } finally {
+            running.set(false);
+            readers.shutdownNow();
+        }
+    }
+
+    @Test(description = "With the watcher on, editing config.properties swaps in a new snapshot")
+    public void testWatcherReloadsChangedFile() throws IOException, URISyntaxException, InterruptedException {
+        Path file = Paths.get(getClass().getClassLoader().getResource("config.properties").toURI());
+        byte[] original = Files.readAllBytes(file);
+        long reloadsBefore = ConfigReader.getWatchReloads();
+        ConfigReader.startWatching();
+        try {
+            Files.write(file, "\nft15Watched=yes\n".getBytes(StandardCharsets.ISO_8859_1), StandardOpenOption.APPEND);
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+            while ((ConfigReader.getProperty("ft15Watched") == null || ConfigReader.getWatchReloads() == reloadsBefore)
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+
+            Assert.assertEquals(ConfigReader.getProperty("ft15Watched"), "yes");
+            Assert.assertTrue(ConfigReader.getWatchReloads() > reloadsBefore);
+        } finally {
+            ConfigReader.stopWatching();
+            Files.write(file, original);
+            ConfigReader.reload();
+        }
+        Assert.assertNull(ConfigReader.getProperty("ft15Watched"));
+    }
+}
@@ -0,0 +1,155 @@
+package frameworkTests;
+
+import io.appium.java_client.windows.WindowsDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.DriverCommand;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import pages.P01_CalculatorPage;
+import pages.ShadowStats;
+import stubs.FakeCalculatorExecutor;
+import utils.AdaptiveWait;
+import utils.ConfigReader;
+import utils.ElementCache;
+
+/**
+ * Verifies the shadow model of the Calculator state: repeated clears, mode
+ * re-entry and re-reads of a known display are skipped across page objects
+ * of one session, strict mode catches a change made behind the page's back,
+ * and skips are reported per test.
+ */
+public class FT16_ShadowState {
+
+    private FakeCalculatorExecutor executor;
+    private WindowsDriver<WebElement> driver;
+
+    @BeforeMethod
+    public void startSession() {
+        executor = new FakeCalculatorExecutor();
+        driver = executor.newDriver();
+        AdaptiveWait.reset();
+        ShadowStats.reset();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void closeSession() {
+        ElementCache.release(driver);
+        driver.quit();
+        System.clearProperty("shadowState");
+        System.clearProperty("shadowVerifyEvery");
+        ConfigReader.reload();
+    }
+
+    @Test(description = "Setup clear, add() clear and the test's own clear press Clear once")
+    public void testRepeatedClearsAreSkipped() {
+        new P01_CalculatorPage(driver).clear();
+        new P01_CalculatorPage(driver).clear().add("25", "17");
+
+        Assert.assertEquals(new P01_CalculatorPage(driver).getResult(), "42");
+        // Clear, 2 + 5, plus, 1 + 7, equals
+        Assert.assertEquals(executor.getCommandCount(DriverCommand.CLICK_ELEMENT), 7);
+        Assert.assertEquals(ShadowStats.getTestSkipped(ShadowStats.Action.CLEAR), 2);
+
+        // an entry makes the next clear real again
+        new P01_CalculatorPage(driver).enterNumber("9").clear();
+        Assert.assertEquals(executor.getCommandCount(DriverCommand.CLICK_ELEMENT), 9);
+        Assert.assertEquals(new P01_CalculatorPage(driver).getResult(), "0");
+    }
+
+    @Test(description = "With shadowState=false every action goes to the app")
+    public void testShadowStateOff() {
+        System.setProperty("shadowState", "false");
+        ConfigReader.reload();
+
+        P01_CalculatorPage page = new P01_CalculatorPage(driver);
+        page.clear().clear().add("25", "17");
+        Assert.assertEquals(page.getResult(), "42");
+
+        Assert.assertEquals(executor.getCommandCount(DriverCommand.CLICK_ELEMENT), 9);
+        Assert.assertEquals(ShadowStats.getTestSkipped(), 0);
+        Assert.assertEquals(page.getState().toString(), "CalculatorState[off]");
+    }
+
+    @Test(description = "A display read since the last input is not read again")
+    public void testKnownDisplayIsNotReread() {
+        P01_CalculatorPage page = new P01_CalculatorPage(driver);
+        page.add("6", "7");
+        int reads = executor.getCommandCount(DriverCommand.GET_ELEMENT_TEXT);
+
+        Assert.assertEquals(page.getResult(), "13");
+        Assert.assertTrue(page.verifyResult("13"));
+        Assert.assertEquals(executor.getCommandCount(DriverCommand.GET_ELEMENT_TEXT), reads);
+        Assert.assertEquals(page.getState().getDisplay(), "Display is 13");
+        Assert.assertNull(page.getState().getPendingOperator());
+
+        page.clickPlus();
+        Assert.assertEquals(page.getState().getPendingOperator(), "+");
+        Assert.assertNull(page.getState().getDisplay(), "an input makes the display unknown");
+        Assert.assertEquals(page.getResult(), "13");
+        Assert.assertEquals(executor.getCommandCount(DriverCommand.GET_ELEMENT_TEXT), reads + 1);
+    }
+
+    @Test(description = "Switching to the current mode does nothing; the next real switch still happens")
+    public void testModeReentryIsSkipped() {
+        P01_CalculatorPage page = new P01_CalculatorPage(driver);
+        page.switchMode("Scientific");
+        new P01_CalculatorPage(driver).switchMode("scientific");
+
+        Assert.assertEquals(AdaptiveWait.getStats("mode-switch").getCount(), 1);
+        Assert.assertTrue(page.isInMode("Scientific"));
+        Assert.assertFalse(page.isInMode("Standard"));
+        Assert.assertEquals(ShadowStats.getTestSkipped(ShadowStats.Action.MODE_SWITCH), 1);
+        Assert.assertEquals(ShadowStats.getTestSkipped(ShadowStats.Action.MODE_READ), 2);
+
+        page.switchMode("Standard");
+        Assert.assertEquals(executor.getModel().getMode(), "Standard");
+        Assert.assertEquals(AdaptiveWait.getStats("mode-switch").getCount(), 2);
+    }
+
+    @Test(description = "Strict mode finds a change made behind the page's back and resyncs")
+    public void testStrictModeCatchesDivergence() {
+        System.setProperty("shadowVerifyEvery", "1");
+        ConfigReader.reload();
+
+        P01_CalculatorPage page = new P01_CalculatorPage(driver);
+        page.clear().clear();
+        Assert.assertEquals(ShadowStats.getChecks(), 1);
+        Assert.assertEquals(ShadowStats.getDivergences(), 0);
+
+        driver.findElement(By.name("Five")).click();
+        page.clear();
+
+        Assert.assertEquals(ShadowStats.getChecks(), 2);
+        Assert.assertEquals(ShadowStats.getDivergences(), 1);
+        Assert.assertEquals(page.getResult(), "0", "the diverged clear was sent to the app");
+        Assert.assertTrue(page.getState().isCleared());
+    }
+
+    @Test(description = "Reset does not trust the shadow state")
+    public void testResetGoesToTheApp() {
+        P01_CalculatorPage page = new P01_CalculatorPage(driver);
+        page.clear();
+        int clicks = executor.getCommandCount(DriverCommand.CLICK_ELEMENT);
+
+        Assert.assertTrue(page.resetToKnownState());
+        Assert.assertEquals(executor.getCommandCount(DriverCommand.CLICK_ELEMENT), clicks + 1);
+        Assert.assertEquals(page.getState().getMode(), "Standard");
+    }
+
+    @Test(description = "Each test reports what it skipped")
+    public void testPerTestSummary() {
+        ShadowStats.startTest();
+        P01_CalculatorPage page = new P01_CalculatorPage(driver);
+        page.clear().add("1", "2");
+        page.getResult();
+
+        Assert.assertEquals(ShadowStats.testSummary(), "Shadow: skipped 2 of 5 actions (1 clears, 1 display reads)");
+        ShadowStats.startTest();
+        Assert.assertEquals(ShadowStats.getTestSkipped(), 0);
+        Assert.assertTrue(ShadowStats.summary().startsWith("Shadow: skipped 2 of 5 actions"), ShadowStats.summary());
+        System.out.println("🪞 " + ShadowStats.summary());
+    }
+}
@@ -0,0 +1,181 @@
+package frameworkTests;
+
+import io.appium.java_client.windows.WindowsDriver;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.TestListenerAdapter;
+import org.testng.TestNG;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import stubs.WinAppDriverStub;
+import utils.ConfigReader;
+import utils.DriverManager;
+import utils.FailureClass;
+import utils.FlakeStats;
+import utils.RetryPolicy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Verifies the failure-class-aware retry: only infrastructure failures are
+ * retried, on a fresh session, within the per-test limit and the suite
+ * budget; flake statistics persist across runs and size the next budget.
+ */
+public class FT17_FailureAwareRetry {
+
+    // the framework suite points flakeStatsFile at target/ (pom.xml); put that back after each test
+    private static final String SUITE_STATS_FILE = System.getProperty("flakeStatsFile");
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreConfig() {
+        if (SUITE_STATS_FILE == null) {
+            System.clearProperty("flakeStatsFile");
+        } else {
+            System.setProperty("flakeStatsFile", SUITE_STATS_FILE);
+        }
+        System.clearProperty("retryFailures");
+        ConfigReader.reload();
+    }
+
+    @Test(description = "Sessions, HTTP and timeouts are infrastructure; assertions and missing elements are not")
+    public void testClassification() {
+        Assert.assertEquals(FailureClass.classify(new NoSuchSessionException("gone")), FailureClass.INFRASTRUCTURE);
+        Assert.assertEquals(FailureClass.classify(new TimeoutException("display-change")), FailureClass.INFRASTRUCTURE);
+        // WebDriverWait gives up on a missing button with the NoSuchElementException as the cause
+        Assert.assertEquals(FailureClass.classify(new TimeoutException("Expected condition failed: Equals",
+                new NoSuchElementException("Equals"))), FailureClass.PRODUCT);
+        Assert.assertEquals(FailureClass.classify(new WebDriverException("Injected failure for clickElement")),
+                FailureClass.INFRASTRUCTURE);
+        Assert.assertEquals(FailureClass.classify(new RuntimeException("Calculator initialization failed",
+                new UncheckedIOException(new ConnectException("Connection refused")))), FailureClass.INFRASTRUCTURE);
+
+        Assert.assertEquals(FailureClass.classify(new AssertionError("expected [42] but found [41]")), FailureClass.PRODUCT);
+        Assert.assertEquals(FailureClass.classify(new NoSuchElementException("Equals")), FailureClass.PRODUCT);
+        Assert.assertEquals(FailureClass.classify(new IllegalStateException("bug")), FailureClass.TEST);
+        Assert.assertEquals(FailureClass.classify(null), FailureClass.TEST);
+    }
+
+    @Test(description = "Per-test limit, suite budget and a history of useless retries each stop a retry")
+    public void testPolicyLimits() {
+        FlakeStats history = new FlakeStats();
+        for (int i = 0; i < 3; i++) {
+            history.record("T.broken", true, 1, false);
+        }
+        RetryPolicy policy = new RetryPolicy(history, 1, 2);
+        Throwable lost = new NoSuchSessionException("gone");
+
+        Assert.assertEquals(policy.onFailure("T.a", "T.a", new AssertionError("no"), 0), RetryPolicy.Decision.NOT_INFRASTRUCTURE);
+        Assert.assertEquals(policy.onFailure("T.b", "T.b", lost, 0), RetryPolicy.Decision.RETRY);
+        Assert.assertEquals(policy.onFailure("T.b", "T.b", lost, 0), RetryPolicy.Decision.PER_TEST_LIMIT);
+        Assert.assertEquals(policy.onFailure("T.broken", "T.broken", lost, 0), RetryPolicy.Decision.RETRIES_NEVER_HELP);
+        Assert.assertEquals(policy.onFailure("T.c", "T.c[1]", lost, 0), RetryPolicy.Decision.RETRY);
+        Assert.assertEquals(policy.onFailure("T.c", "T.c[2]", lost, 0), RetryPolicy.Decision.BUDGET_SPENT);
+
+        Assert.assertEquals(policy.getRetries(), 2);
+        Assert.assertEquals(policy.getNotRetried(FailureClass.PRODUCT), 1);
+        Assert.assertTrue(policy.summary().startsWith("Retries: 2 of budget 2"), policy.summary());
+    }
+
+    @Test(description = "Flake statistics accumulate across runs, fade, and size the automatic budget")
+    public void testFlakeStatsPersist() throws IOException {
+        Path file = Files.createTempDirectory("flake-stats").resolve("nested/flake-stats.tsv");
+        FlakeStats run = new FlakeStats();
+        run.record("T.flaky", true, 1, true);
+        run.record("T.stable", false, 0, false);
+        FlakeStats.merge(file, run);
+        FlakeStats.merge(file, run);
+
+        FlakeStats history = FlakeStats.load(file);
+        Assert.assertEquals(history.get("T.flaky").getRuns(), 2);
+        Assert.assertEquals(history.get("T.flaky").getRescued(), 2);
+        Assert.assertEquals(history.getFlakeRate("T.flaky"), 1.0);
+        Assert.assertEquals(history.getFlakeRate("T.stable"), 0.0);
+        Assert.assertEquals(RetryPolicy.autoBudget(history, List.of("T.flaky", "T.stable", "T.new"), 1), 2);
+        Assert.assertEquals(RetryPolicy.autoBudget(new FlakeStats(), List.of("T.flaky"), 1), 1);
+
+        for (int i = 0; i < 60; i++) {
+            history.record("T.flaky", false, 0, false);
+        }
+        Assert.assertTrue(history.get("T.flaky").getRuns() <= 50, "old runs fade");
+        Assert.assertTrue(history.getFlakeRate("T.flaky") < 0.1);
+    }
+
+    @Test(description = "A lost session is retried on a new session; an assertion failure runs once")
+    public void testRetriesOnlyInfrastructureOnFreshSession() throws IOException {
+        Path statsFile = Files.createTempDirectory("flake-stats").resolve("flake-stats.tsv");
+        System.setProperty("flakeStatsFile", statsFile.toString());
+        System.setProperty("retryFailures", "true");
+        ConfigReader.reload();
+        FlakyCase.sessions.clear();
+        FlakyCase.assertionRuns = 0;
+
+        try (WinAppDriverStub stub = WinAppDriverStub.start(0)) {
+            DriverManager.setWinAppDriverUrl(stub.getUrl().toString());
+            DriverManager.setAppPath("Microsoft.WindowsCalculator_8wekyb3d8bbwe!App");
+            DriverManager.setPoolSize(1);
+
+            TestNG testng = new TestNG(false);
+            testng.setTestClasses(new Class<?>[]{FlakyCase.class});
+            testng.setVerbose(0);
+            TestListenerAdapter results = new TestListenerAdapter();
+            testng.addListener(results);
+            testng.run();
+
+            Assert.assertEquals(results.getPassedTests().size(), 1);
+            Assert.assertEquals(results.getFailedTests().size(), 1);
+            Assert.assertEquals(results.getSkippedTests().size(), 1, "the retried attempt");
+            Assert.assertEquals(FlakyCase.assertionRuns, 1);
+            Assert.assertEquals(FlakyCase.sessions.size(), 2);
+            Assert.assertNotEquals(FlakyCase.sessions.get(0), FlakyCase.sessions.get(1), "retried on a new session");
+            Assert.assertEquals(stub.getSessionsCreated(), 2);
+        } finally {
+            DriverManager.shutdown();
+            DriverManager.setWinAppDriverUrl(null);
+            DriverManager.setAppPath(null);
+            DriverManager.setPoolSize(0);
+        }
+
+        FlakeStats history = FlakeStats.load(statsFile);
+        FlakeStats.Entry flaky = history.get(FlakyCase.class.getName() + ".losesSessionOnce");
+        Assert.assertEquals(flaky.getRuns(), 1);
+        Assert.assertEquals(flaky.getInfraFailures(), 1);
+        Assert.assertEquals(flaky.getRetries(), 1);
+        Assert.assertEquals(flaky.getRescued(), 1);
+        Assert.assertEquals(history.get(FlakyCase.class.getName() + ".failsAssertion").getInfraFailures(), 0);
+    }
+}
+
+/**
+ * Fails on purpose inside FT17_FailureAwareRetry's nested TestNG run; not
+ * part of any suite itself.
+ */
+class FlakyCase {
+
+    static final List<String> sessions = new ArrayList<>();
+    static int assertionRuns;
+
+    @Test
+    public void losesSessionOnce() {
+        WindowsDriver<WebElement> driver = DriverManager.getDriver();
+        sessions.add(driver.getSessionId().toString());
+        if (sessions.size() == 1) {
+            throw new NoSuchSessionException("A session is either terminated or not started");
+        }
+    }
+
+    @Test
+    public void failsAssertion() {
+        assertionRuns++;
+        Assert.assertEquals(41, 42);
+    }
+}
@@ -0,0 +1,209 @@
+package frameworkTests;
+
+import org.testng.Assert;
+import org.testng.TestNG;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import utils.ConfigReader;
+import utils.TestHistory;
+import utils.TestScheduler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Verifies the history-driven scheduler: longest tests first, disjoint
+ * shards that do not depend on history or grouping, recently failed tests
+ * first on request, predicted makespan, and durations that persist across
+ * runs and steer the next one only when schedule=history is set.
+ */
+public class FT18_TestScheduler {
+
+    private static final List<String> TESTS = List.of("T.a", "T.b", "T.c", "T.d", "T.e", "T.f");
+
+    // the framework suite points testHistoryFile at target/ (pom.xml); put that back after each test
+    private static final String SUITE_HISTORY_FILE = System.getProperty("testHistoryFile");
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreConfig() {
+        if (SUITE_HISTORY_FILE == null) {
+            System.clearProperty("testHistoryFile");
+        } else {
+            System.setProperty("testHistoryFile", SUITE_HISTORY_FILE);
+        }
+        System.clearProperty("schedule");
+        ConfigReader.reload();
+    }
+
+    private static TestHistory history() {
+        TestHistory history = new TestHistory();
+        history.record("T.a", 100, false);
+        history.record("T.b", 600, false);
+        history.record("T.c", 300, true);
+        history.record("T.d", 500, false);
+        history.record("T.e", 200, false);
+        return history;
+    }
+
+    @Test(description = "Longest first; a test without history is predicted at the average")
+    public void testLongestFirst() {
+        TestScheduler.Plan plan = TestScheduler.plan(TESTS, history(), 2, TestScheduler.Shard.ALL, false);
+        Assert.assertEquals(plan.getOrder(), List.of("T.b", "T.d", "T.f", "T.c", "T.e", "T.a"));
+        // f is predicted at 340; workers run b, c, a (1000 ms) and d, f, e (1040 ms)
+        Assert.assertEquals(plan.getPredictedMillis(), 1040.0, 0.01);
+        Assert.assertTrue(plan.getDeclaredOrderMillis() >= plan.getPredictedMillis());
+        Assert.assertTrue(plan.summary().startsWith("6 of 6 tests (shard 1/1) on 2 workers"), plan.summary());
+    }
+
+    @Test(description = "Shards are disjoint, cover every test and split the same with any history or grouping")
+    public void testShardsPartition() {
+        List<String> all = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (int i = 1; i <= 3; i++) {
+            TestScheduler.Shard shard = new TestScheduler.Shard(i, 3);
+            TestScheduler.Plan plan = TestScheduler.plan(TESTS, history(), 1, shard, false);
+            for (String test : plan.getOrder()) {
+                Assert.assertTrue(seen.add(test), test + " in two shards");
+            }
+            all.addAll(plan.getOrder());
+
+            // another machine without history, or a suite with one method per <test>, splits the same way
+            Set<String> alone = new HashSet<>();
+            for (String test : TESTS) {
+                alone.addAll(TestScheduler.plan(List.of(test), new TestHistory(), 1, shard, false).getOrder());
+            }
+            Assert.assertEquals(alone, new HashSet<>(plan.getOrder()), "shard " + shard);
+        }
+        Collections.sort(all);
+        Assert.assertEquals(all, TESTS);
+
+        Assert.assertEquals(TestScheduler.Shard.parse(" 2/3 ").toString(), "2/3");
+        Assert.assertSame(TestScheduler.Shard.parse(""), TestScheduler.Shard.ALL);
+        Assert.assertThrows(IllegalArgumentException.class, () -> TestScheduler.Shard.parse("3/2"));
+        Assert.assertThrows(IllegalArgumentException.class, () -> TestScheduler.Shard.parse("two"));
+    }
+
+    @Test(description = "Recently failed tests go first when asked, longest-first otherwise")
+    public void testFailedFirst() {
+        TestScheduler.Plan plan = TestScheduler.plan(TESTS, history(), 2, TestScheduler.Shard.ALL, true);
+        Assert.assertEquals(plan.getOrder().get(0), "T.c");
+        Assert.assertEquals(plan.getOrder().subList(1, 6), List.of("T.b", "T.d", "T.f", "T.e", "T.a"));
+    }
+
+    @Test(description = "Durations accumulate across runs as a moving average")
+    public void testHistoryPersists() throws IOException {
+        Path file = Files.createTempDirectory("test-history").resolve("nested/durations.tsv");
+        TestHistory run = new TestHistory();
+        run.record("T.a", 1000, true);
+        TestHistory.merge(file, run);
+        run = new TestHistory();
+        run.record("T.a", 2000, false);
+        TestHistory.merge(file, run);
+
+        TestHistory history = TestHistory.load(file);
+        Assert.assertEquals(history.get("T.a").getRuns(), 2);
+        Assert.assertEquals(history.get("T.a").getMillis(), 1300.0, 0.01);
+        Assert.assertFalse(history.get("T.a").isLastFailed());
+        Assert.assertNotEquals(history.getFingerprint(), 0L);
+        Assert.assertEquals(TestHistory.load(file.resolveSibling("missing.tsv")).size(), 0);
+    }
+
+    @Test(description = "A real run records durations; with schedule=history the next run starts with the slowest test")
+    public void testListenerReordersFromHistory() throws IOException {
+        Path file = Files.createTempDirectory("test-history").resolve("durations.tsv");
+        System.setProperty("testHistoryFile", file.toString());
+        ConfigReader.reload();
+
+        SleepyCase.order.clear();
+        run(SleepyCase.class);
+        Assert.assertEquals(SleepyCase.order, List.of("fast", "medium", "slow"), "declared order without history");
+        Assert.assertEquals(TestHistory.load(file).size(), 3);
+
+        SleepyCase.order.clear();
+        run(SleepyCase.class);
+        Assert.assertEquals(SleepyCase.order, List.of("fast", "medium", "slow"), "declared order by default");
+
+        System.setProperty("schedule", "history");
+        ConfigReader.reload();
+        SleepyCase.order.clear();
+        run(SleepyCase.class);
+        Assert.assertEquals(SleepyCase.order, List.of("slow", "medium", "fast"));
+    }
+
+    @Test(description = "The history only orders methods of equal declared priority")
+    public void testDeclaredPriorityWins() throws IOException {
+        System.setProperty("testHistoryFile", Files.createTempDirectory("test-history").resolve("durations.tsv").toString());
+        System.setProperty("schedule", "history");
+        ConfigReader.reload();
+
+        PrioritizedCase.order.clear();
+        run(PrioritizedCase.class);
+        PrioritizedCase.order.clear();
+        run(PrioritizedCase.class);
+        Assert.assertEquals(PrioritizedCase.order, List.of("first", "slow", "fast"));
+    }
+
+    private static void run(Class<?> cases) {
+        TestNG testng = new TestNG(false);
+        testng.setTestClasses(new Class<?>[]{cases});
+        testng.setVerbose(0);
+        testng.run();
+    }
+}
+
+/**
+ * Takes different times inside FT18_TestScheduler's nested TestNG runs; not
+ * part of any suite itself.
+ */
+class SleepyCase {
+
+    static final List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    public void fast() {
+        order.add("fast");
+    }
+
+    @Test
+    public void medium() throws InterruptedException {
+        order.add("medium");
+        Thread.sleep(40);
+    }
+
+    @Test
+    public void slow() throws InterruptedException {
+        order.add("slow");
+        Thread.sleep(120);
+    }
+}
+
+/**
+ * Declares priorities for FT18_TestScheduler.testDeclaredPriorityWins' nested
+ * TestNG runs; not part of any suite itself.
+ */
+class PrioritizedCase {
+
+    static final List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+    @Test(priority = -1)
+    public void first() {
+        order.add("first");
+    }
+
+    @Test
+    public void fast() {
+        order.add("fast");
+    }
+
+    @Test
+    public void slow() throws InterruptedException {
+        order.add("slow");
+        Thread.sleep(120);
+    }
+}
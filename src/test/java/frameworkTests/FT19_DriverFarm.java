@@ -0,0 +1,216 @@
+package frameworkTests;
+
+import io.appium.java_client.windows.WindowsDriver;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import pages.P01_CalculatorPage;
+import stubs.WinAppDriverStub;
+import utils.ConfigReader;
+import utils.DriverFarm;
+import utils.DriverManager;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies the multi-host driver farm against several WinAppDriver stubs on
+ * their own ports: unreachable hosts are left out, leases spread over the
+ * hosts, a failing host is quarantined, its in-flight tests move elsewhere,
+ * and it comes back once it answers again.
+ */
+public class FT19_DriverFarm {
+
+    private static final String APP_ID = "Microsoft.WindowsCalculator_8wekyb3d8bbwe!App";
+
+    private final List<WinAppDriverStub> stubs = new ArrayList<>();
+    private final List<ExecutorService> threads = new ArrayList<>();
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        DriverManager.shutdown();
+        DriverManager.setWinAppDriverUrls(null);
+        DriverManager.setWinAppDriverUrl(null);
+        DriverManager.setAppPath(null);
+        DriverManager.setPoolSize(0);
+        threads.forEach(ExecutorService::shutdownNow);
+        threads.clear();
+        stubs.forEach(WinAppDriverStub::close);
+        stubs.clear();
+        System.clearProperty("farmQuarantineAfter");
+        System.clearProperty("farmQuarantineMs");
+        System.clearProperty("sessionKeepAlive");
+        ConfigReader.reload();
+    }
+
+    private List<String> startFarm(int hosts, int sessionsPerHost) {
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < hosts; i++) {
+            WinAppDriverStub stub = WinAppDriverStub.start(0);
+            stubs.add(stub);
+            urls.add(stub.getUrl().toString());
+        }
+        DriverManager.setWinAppDriverUrls(urls);
+        DriverManager.setAppPath(APP_ID);
+        DriverManager.setPoolSize(sessionsPerHost);
+        return urls;
+    }
+
+    /**
+     * A worker thread of its own, so each keeps its lease like a TestNG worker does.
+     */
+    private ExecutorService worker() {
+        ExecutorService worker = Executors.newSingleThreadExecutor();
+        threads.add(worker);
+        return worker;
+    }
+
+    private static <T> T on(ExecutorService worker, Callable<T> task) throws Exception {
+        return worker.submit(task).get(30, TimeUnit.SECONDS);
+    }
+
+    private static String leaseHost() {
+        DriverManager.getDriver();
+        return DriverManager.getCurrentHost().toString();
+    }
+
+    @Test(description = "A host that does not answer /status gets no sessions")
+    public void testUnreachableHostLeftOut() throws Exception {
+        List<String> urls = startFarm(2, 2);
+        stubs.get(1).close();
+
+        Assert.assertEquals(on(worker(), FT19_DriverFarm::leaseHost), urls.get(0));
+        Assert.assertEquals(on(worker(), FT19_DriverFarm::leaseHost), urls.get(0));
+
+        DriverFarm farm = DriverManager.getFarm();
+        Assert.assertFalse(farm.getHosts().get(0).isQuarantined());
+        Assert.assertTrue(farm.getHosts().get(1).isQuarantined());
+        Assert.assertEquals(farm.getHosts().get(1).getTests(), 0);
+    }
+
+    @Test(description = "Pre-warm starts sessions on every host of the farm, up to their pools together")
+    public void testPrewarmFillsEveryHost() throws Exception {
+        startFarm(2, 2);
+
+        DriverManager.prewarm(Integer.MAX_VALUE).get(30, TimeUnit.SECONDS);
+
+        Assert.assertEquals(stubs.get(0).getSessionsCreated(), 2);
+        Assert.assertEquals(stubs.get(1).getSessionsCreated(), 2);
+    }
+
+    @Test(description = "Concurrent workers' tests spread over every host and are counted per host")
+    public void testTestsSpreadOverHosts() throws Exception {
+        startFarm(3, 4);
+        List<Future<?>> done = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            ExecutorService worker = worker();
+            int operand = w;
+            for (int test = 0; test < 5; test++) {
+                done.add(worker.submit(() -> {
+                    P01_CalculatorPage page = new P01_CalculatorPage(DriverManager.getDriver());
+                    page.add(String.valueOf(operand), "40");
+                    Assert.assertEquals(page.getResult(), String.valueOf(40 + operand));
+                    DriverManager.recordTest(1, true);
+                    DriverManager.releaseDriver();
+                    return null;
+                }));
+            }
+        }
+        for (Future<?> test : done) {
+            test.get(60, TimeUnit.SECONDS);
+        }
+
+        DriverFarm farm = DriverManager.getFarm();
+        long total = 0;
+        for (DriverFarm.Host host : farm.getHosts()) {
+            Assert.assertTrue(host.getTests() > 0, host.getUrl() + " served no test");
+            total += host.getTests();
+        }
+        Assert.assertEquals(total, 20);
+        Assert.assertTrue(farm.getMakespanMillis() > 0);
+        Assert.assertTrue(farm.summary().startsWith("Driver farm: 3 hosts, makespan "), farm.summary());
+    }
+
+    @Test(description = "A failing host is quarantined, its in-flight tests are requeued, and it returns once it answers")
+    public void testQuarantineRequeuesAndRecovers() throws Exception {
+        System.setProperty("farmQuarantineAfter", "1");
+        System.setProperty("farmQuarantineMs", "0");
+        ConfigReader.reload();
+        List<String> urls = startFarm(2, 4);
+        ExecutorService first = worker();
+        ExecutorService failing = worker();
+        ExecutorService third = worker();
+        ExecutorService inFlight = worker();
+        // least loaded host first: A, B, A, B
+        Assert.assertEquals(on(first, FT19_DriverFarm::leaseHost), urls.get(0));
+        Assert.assertEquals(on(failing, FT19_DriverFarm::leaseHost), urls.get(1));
+        Assert.assertEquals(on(third, FT19_DriverFarm::leaseHost), urls.get(0));
+        Assert.assertEquals(on(inFlight, FT19_DriverFarm::leaseHost), urls.get(1));
+
+        URL hostB = new URL(urls.get(1));
+        stubs.get(1).close();
+        on(failing, () -> {
+            Assert.assertThrows(RuntimeException.class, () -> DriverManager.getDriver().getWindowHandle());
+            Assert.assertFalse(DriverManager.isOnQuarantinedHost());
+            DriverManager.discardDriver();
+            return null;
+        });
+        DriverFarm farm = DriverManager.getFarm();
+        Assert.assertTrue(farm.getHosts().get(1).isQuarantined());
+
+        on(inFlight, () -> {
+            Assert.assertTrue(DriverManager.isOnQuarantinedHost());
+            DriverManager.requeueDriver();
+            return null;
+        });
+        Assert.assertEquals(on(inFlight, FT19_DriverFarm::leaseHost), urls.get(0));
+        Assert.assertEquals(on(failing, FT19_DriverFarm::leaseHost), urls.get(0), "B is still down");
+        Assert.assertEquals(farm.getRequeued(), 1);
+
+        stubs.set(1, WinAppDriverStub.start(hostB.getPort()));
+        Assert.assertEquals(on(worker(), FT19_DriverFarm::leaseHost), urls.get(1), "B answers again");
+        Assert.assertFalse(farm.getHosts().get(1).isQuarantined());
+        Assert.assertEquals(farm.getHosts().get(1).getQuarantines(), 1);
+    }
+
+    @Test(description = "A <test> that ends returns its own sessions and leaves the other <test>'s alone")
+    public void testQuitDriverReturnsOnlyItsTestsSessions() throws Exception {
+        System.setProperty("sessionKeepAlive", "false");
+        ConfigReader.reload();
+        startFarm(1, 2);
+        ExecutorService workerA = worker();
+        ExecutorService workerB = worker();
+        on(workerA, () -> {
+            DriverManager.setTestScope("A");
+            return leaseHost();
+        });
+        WindowsDriver<WebElement> sessionB = on(workerB, () -> {
+            DriverManager.setTestScope("B");
+            return DriverManager.getDriver();
+        });
+
+        // <test> A's @AfterTest, on the <test>'s own thread
+        on(worker(), () -> {
+            DriverManager.quitDriver("A");
+            return null;
+        });
+        Assert.assertNull(on(workerA, DriverManager::getCurrentDriver));
+        Assert.assertSame(on(workerB, DriverManager::getCurrentDriver), sessionB);
+        Assert.assertNotNull(on(workerB, () -> DriverManager.getDriver().getWindowHandle()));
+        Assert.assertEquals(stubs.get(0).getLiveSessions(), 2, "idle sessions stay while B holds a lease");
+
+        on(worker(), () -> {
+            DriverManager.quitDriver("B");
+            return null;
+        });
+        Assert.assertNull(on(workerB, DriverManager::getCurrentDriver));
+        Assert.assertEquals(stubs.get(0).getLiveSessions(), 0, "closed once the last lease is back");
+    }
+}
@@ -0,0 +1,109 @@
+package frameworkTests;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.openqa.selenium.remote.DriverCommand;
+import org.testng.annotations.Test;
+import stubs.WinAppDriverStub;
+import utils.DriverManager;
+import utils.StartupTimeline;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies the overlapped suite start: sessions pre-warmed in the background
+ * are the ones the tests lease, an unreachable WinAppDriver fails the
+ * pre-warm on its /status probe, and the startup breakdown adds up.
+ */
+public class FT20_SuiteStartup {
+
+    private static final String APP_ID = "Microsoft.WindowsCalculator_8wekyb3d8bbwe!App";
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        DriverManager.shutdown();
+        DriverManager.setWinAppDriverUrl(null);
+        DriverManager.setAppPath(null);
+        DriverManager.setPoolSize(0);
+        StartupTimeline.reset();
+    }
+
+    @Test(description = "Pre-warmed sessions wait idle in the pool and serve the first tests")
+    public void testPrewarmedSessionsAreLeased() throws Exception {
+        StartupTimeline.reset();
+        try (WinAppDriverStub stub = WinAppDriverStub.start(0)) {
+            DriverManager.setWinAppDriverUrl(stub.getUrl().toString());
+            DriverManager.setAppPath(APP_ID);
+            DriverManager.setPoolSize(2);
+
+            DriverManager.prewarm(Integer.MAX_VALUE).get(30, TimeUnit.SECONDS);
+            Assert.assertEquals(stub.getSessionsCreated(), 2, "capped at the pool size");
+
+            ExecutorService workers = Executors.newFixedThreadPool(2);
+            try {
+                for (int i = 0; i < 2; i++) {
+                    workers.submit(() -> DriverManager.getDriver().getWindowHandle()).get(30, TimeUnit.SECONDS);
+                }
+            } finally {
+                workers.shutdownNow();
+            }
+            Assert.assertEquals(stub.getSessionsCreated(), 2, "no session started on first use");
+        }
+        Assert.assertTrue(StartupTimeline.getMillis(StartupTimeline.STATUS) >= 0);
+        Assert.assertTrue(StartupTimeline.getMillis(StartupTimeline.SESSION) >= 0);
+        Assert.assertTrue(StartupTimeline.getMillis(StartupTimeline.READY) >= 0);
+    }
+
+    @Test(description = "An unreachable WinAppDriver fails the pre-warm on its /status probe")
+    public void testPrewarmFailsFastWithoutWinAppDriver() throws Exception {
+        WinAppDriverStub gone = WinAppDriverStub.start(0);
+        String url = gone.getUrl().toString();
+        gone.close();
+        DriverManager.setWinAppDriverUrl(url);
+        DriverManager.setAppPath(APP_ID);
+
+        CompletableFuture<Void> ready = DriverManager.prewarm(1);
+        CompletionException failure = Assert.expectThrows(CompletionException.class, ready::join);
+        Assert.assertTrue(failure.getCause().getMessage().contains("/status"), failure.getCause().getMessage());
+    }
+
+    @Test(description = "A session whose app fails the readiness check is quit at once, not left running")
+    public void testFailedReadinessQuitsSession() {
+        try (WinAppDriverStub stub = WinAppDriverStub.start(0)) {
+            // an unknown error is no "not ready yet": the wait gives up without waiting out appReadyTimeoutMs
+            stub.withErrorRate(DriverCommand.FIND_ELEMENT, 1.0);
+            DriverManager.setWinAppDriverUrl(stub.getUrl().toString());
+            DriverManager.setAppPath(APP_ID);
+            DriverManager.setPoolSize(1);
+
+            long start = System.nanoTime();
+            Assert.expectThrows(RuntimeException.class, DriverManager::getDriver);
+            long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            Assert.assertEquals(stub.getSessionsCreated(), 1);
+            Assert.assertEquals(stub.getLiveSessions(), 0, "the half-started session was quit");
+            Assert.assertTrue(waited < 5000, "waited " + waited + " ms");
+        }
+    }
+
+    @Test(description = "The breakdown lists phases by start, keeps the first record of each, and is logged once")
+    public void testBreakdown() {
+        StartupTimeline.reset();
+        long ms = TimeUnit.MILLISECONDS.toNanos(1);
+        long origin = System.nanoTime() - 1000 * ms;
+        StartupTimeline.record(StartupTimeline.SESSION, origin + 100 * ms, origin + 700 * ms);
+        StartupTimeline.record(StartupTimeline.CONFIG, origin, origin + 50 * ms);
+        StartupTimeline.record(StartupTimeline.REPORTERS, origin + 60 * ms, origin + 460 * ms);
+        StartupTimeline.record(StartupTimeline.SESSION, origin, origin + 5000 * ms);
+
+        Assert.assertEquals(StartupTimeline.summary(origin + 800 * ms),
+                "Startup: first test 800 ms after config started; config 50 ms, reporters 400 ms, session 600 ms; "
+                        + "phases add up to 1050 ms");
+        Assert.assertNotNull(StartupTimeline.firstTestStarted());
+        Assert.assertNull(StartupTimeline.firstTestStarted());
+    }
+}
@@ -0,0 +1,140 @@
+package frameworkTests;
+
+import io.appium.java_client.windows.WindowsDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import stubs.WinAppDriverStub;
+import utils.ConfigReader;
+import utils.DriverManager;
+import utils.PooledHttpClientFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies the pooled HTTP transport: sessions share kept-alive connections,
+ * a host that accepts but never answers fails within the read timeout, and
+ * the per-command round trip is measured against Selenium's default client.
+ */
+public class FT21_HttpTransport {
+
+    private static final String APP_ID = "Microsoft.WindowsCalculator_8wekyb3d8bbwe!App";
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        DriverManager.shutdown();
+        DriverManager.setWinAppDriverUrl(null);
+        DriverManager.setAppPath(null);
+        DriverManager.setPoolSize(0);
+        System.clearProperty("httpClient");
+        ConfigReader.reload();
+    }
+
+    private static void useTransport(String kind) {
+        System.setProperty("httpClient", kind);
+        ConfigReader.reload();
+    }
+
+    @Test(description = "Sessions started one after another reuse the same kept-alive connection, across quits")
+    public void testConnectionsOutliveSessions() {
+        useTransport("pooled");
+        try (WinAppDriverStub stub = WinAppDriverStub.start(0)) {
+            DriverManager.setWinAppDriverUrl(stub.getUrl().toString());
+            DriverManager.setAppPath(APP_ID);
+            DriverManager.setPoolSize(1);
+
+            // the transport is built with the first session
+            DriverManager.getDriver().getWindowHandle();
+            PooledHttpClientFactory transport = DriverManager.getHttpClientFactory();
+            Assert.assertNotNull(transport);
+            DriverManager.discardDriver();
+            transport.closeIdleConnections();
+
+            long requests = transport.getRequests();
+            long connections = transport.getConnections();
+            for (int session = 0; session < 3; session++) {
+                for (int i = 0; i < 20; i++) {
+                    DriverManager.getDriver().getWindowHandle();
+                }
+                DriverManager.discardDriver();
+            }
+            Assert.assertTrue(transport.getRequests() - requests >= 60, transport.summary());
+            Assert.assertEquals(transport.getConnections() - connections, 1, transport.summary());
+            Assert.assertTrue(DriverManager.getHttpSummary().startsWith("HTTP: "), DriverManager.getHttpSummary());
+        }
+    }
+
+    @Test(description = "A host that accepts the connection but never answers fails within the read timeout")
+    public void testStalledHostTimesOut() throws Exception {
+        try (ServerSocket silent = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            Thread acceptor = new Thread(() -> {
+                try (Socket accepted = silent.accept()) {
+                    // take the request and never answer; ends when the client gives up and closes
+                    accepted.getInputStream().transferTo(OutputStream.nullOutputStream());
+                } catch (IOException e) {
+                    // closed by the test
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+
+            PooledHttpClientFactory transport = new PooledHttpClientFactory(1, Duration.ofSeconds(1),
+                    Duration.ofSeconds(1), Duration.ofMillis(300));
+            HttpClient client = transport.createClient(new URL("http://127.0.0.1:" + silent.getLocalPort()));
+            long start = System.nanoTime();
+            Assert.expectThrows(IOException.class, () -> client.execute(new HttpRequest(HttpMethod.GET, "/status")));
+            long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            Assert.assertTrue(waited < 3000, "waited " + waited + " ms");
+        }
+    }
+
+    @Test(description = "Per-command round trip over the pooled transport and over Selenium's default client")
+    public void testPerCommandOverhead() {
+        try (WinAppDriverStub stub = WinAppDriverStub.start(0)) {
+            DriverManager.setWinAppDriverUrl(stub.getUrl().toString());
+            DriverManager.setAppPath(APP_ID);
+            DriverManager.setPoolSize(1);
+
+            // alternating rounds, best of each, so JIT warm-up does not favour the one measured last
+            double defaultMicros = Double.MAX_VALUE;
+            double pooledMicros = Double.MAX_VALUE;
+            for (int round = 0; round < 3; round++) {
+                defaultMicros = Math.min(defaultMicros, measure("default"));
+                pooledMicros = Math.min(pooledMicros, measure("pooled"));
+            }
+            System.out.println(String.format("🔌 Per-command round trip: default %.0f µs, pooled %.0f µs",
+                    defaultMicros, pooledMicros));
+            Assert.assertTrue(defaultMicros > 0 && pooledMicros > 0);
+        }
+    }
+
+    /**
+     * Mean getWindowHandle round trip on a new session over the given transport, after a warm-up.
+     */
+    private static double measure(String transport) {
+        useTransport(transport);
+        WindowsDriver<WebElement> session = DriverManager.getDriver();
+        for (int i = 0; i < 50; i++) {
+            session.getWindowHandle();
+        }
+        int commands = 300;
+        long start = System.nanoTime();
+        for (int i = 0; i < commands; i++) {
+            session.getWindowHandle();
+        }
+        long nanos = System.nanoTime() - start;
+        DriverManager.discardDriver();
+        return nanos / 1000.0 / commands;
+    }
+}
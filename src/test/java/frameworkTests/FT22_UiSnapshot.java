@@ -0,0 +1,98 @@
+package frameworkTests;
+
+import io.appium.java_client.windows.WindowsDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.DriverCommand;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import pages.P01_CalculatorPage;
+import stubs.FakeCalculatorExecutor;
+import utils.ConfigReader;
+import utils.ElementCache;
+import utils.UiSnapshot;
+
+/**
+ * Verifies element lookups served from a parsed page source: the index over
+ * canned WinAppDriver XML, one page source fetch instead of a findElement per
+ * button, and a new fetch after a mode switch or a stale handle.
+ */
+public class FT22_UiSnapshot {
+
+    private static final String CANNED_SOURCE = "<?xml version=\"1.0\" encoding=\"utf-16\"?>"
+            + "<Window AutomationId=\"\" ClassName=\"ApplicationFrameWindow\" Name=\"Calculator\" RuntimeId=\"42.1.0\">"
+            + "<Group AutomationId=\"NumberPad\" Name=\"Number pad\" RuntimeId=\"42.1.1\">"
+            + "<Button AutomationId=\"num1Button\" Name=\"One\" IsEnabled=\"True\" RuntimeId=\"42.1.2\" />"
+            + "<Button AutomationId=\"num2Button\" Name=\"Two\" IsEnabled=\"True\" RuntimeId=\"42.1.3\" />"
+            + "</Group>"
+            + "<Button AutomationId=\"MemPlus\" Name=\"One\" RuntimeId=\"42.1.4\" />"
+            + "<Text AutomationId=\"CalculatorResults\" Name=\"Display is 0 &amp; more\" RuntimeId=\"42.1.5\" />"
+            + "<Text AutomationId=\"Decoration\" Name=\"No runtime id\" />"
+            + "</Window>";
+
+    private FakeCalculatorExecutor executor;
+    private WindowsDriver<WebElement> driver;
+
+    @BeforeMethod
+    public void startSession() {
+        System.setProperty("uiSnapshot", "true");
+        ConfigReader.reload();
+        UiSnapshot.reset();
+        executor = new FakeCalculatorExecutor();
+        driver = executor.newDriver();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void closeSession() {
+        ElementCache.release(driver);
+        driver.quit();
+        System.clearProperty("uiSnapshot");
+        ConfigReader.reload();
+    }
+
+    @Test(description = "Canned page source is indexed by Name, AutomationId and RuntimeId")
+    public void testIndexOfCannedSource() {
+        UiSnapshot.Index index = UiSnapshot.parse(CANNED_SOURCE);
+
+        Assert.assertEquals(index.size(), 6, "the element without a RuntimeId is left out");
+        Assert.assertEquals(index.find("Name", "Two"), "42.1.3");
+        Assert.assertEquals(index.find("Name", "One"), "42.1.2", "first in document order wins");
+        Assert.assertEquals(index.find("AutomationId", "MemPlus"), "42.1.4");
+        Assert.assertEquals(index.find("AutomationId", "CalculatorResults"), "42.1.5");
+        Assert.assertEquals(index.find("Name", "Display is 0 & more"), "42.1.5");
+        Assert.assertEquals(index.controlType("RuntimeId", "42.1.1"), "Group");
+        Assert.assertNull(index.find("Name", "No runtime id"));
+        Assert.assertThrows(IllegalArgumentException.class, () -> UiSnapshot.parse("<Window><Button></Window>"));
+    }
+
+    @Test(description = "One page source fetch replaces a findElement per button")
+    public void testLookupsServedFromSnapshot() {
+        P01_CalculatorPage page = new P01_CalculatorPage(driver);
+        page.add("12", "30");
+
+        Assert.assertEquals(page.getResult(), "42");
+        Assert.assertEquals(executor.getCommandCount(DriverCommand.GET_PAGE_SOURCE), 1);
+        Assert.assertEquals(executor.getCommandCount(DriverCommand.FIND_ELEMENT), 0);
+        Assert.assertEquals(UiSnapshot.getServed(), 8, "clear, 4 digits, plus, equals and the display");
+        Assert.assertTrue(UiSnapshot.summary().contains("8 lookups served from the index"), UiSnapshot.summary());
+    }
+
+    @Test(description = "A mode switch and a stale handle each cost one new page source fetch")
+    public void testSnapshotRefetchedWhenTreeChanges() {
+        P01_CalculatorPage page = new P01_CalculatorPage(driver);
+        page.add("1", "2");
+        Assert.assertEquals(executor.getCommandCount(DriverCommand.GET_PAGE_SOURCE), 1);
+
+        page.switchMode("Scientific");
+        page.add("3", "4");
+        Assert.assertEquals(page.getResult(), "7");
+        Assert.assertEquals(executor.getCommandCount(DriverCommand.GET_PAGE_SOURCE), 2);
+
+        executor.invalidateElementIds();
+        page.add("20", "22");
+        Assert.assertEquals(page.getResult(), "42");
+        Assert.assertEquals(executor.getCommandCount(DriverCommand.GET_PAGE_SOURCE), 3);
+        Assert.assertTrue(page.getElementCache().getStaleHits() > 0);
+    }
+}
@@ -0,0 +1,200 @@
+package frameworkTests;
+
+import io.appium.java_client.windows.WindowsDriver;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import pages.InputMode;
+import pages.P01_CalculatorPage;
+import stubs.WinAppDriverStub;
+import utils.AppInstances;
+import utils.DriverManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Verifies several Calculator instances on one WinAppDriver host, against a
+ * stub whose sessions share one simulated desktop: each instance has its own
+ * window, slot and tile, keystrokes reach their own window although every
+ * instance types concurrently, and throughput and input lock waits are
+ * reported per instance.
+ */
+public class FT23_AppInstances {
+
+    private static final String APP_ID = "Microsoft.WindowsCalculator_8wekyb3d8bbwe!App";
+
+    private WinAppDriverStub stub;
+    private final List<ExecutorService> threads = new ArrayList<>();
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        DriverManager.shutdown();
+        DriverManager.setWinAppDriverUrl(null);
+        DriverManager.setAppPath(null);
+        DriverManager.setPoolSize(0);
+        threads.forEach(ExecutorService::shutdownNow);
+        threads.clear();
+        if (stub != null) {
+            stub.close();
+            stub = null;
+        }
+        AppInstances.reset();
+    }
+
+    private void startHost(int instances) {
+        AppInstances.reset();
+        stub = WinAppDriverStub.start(0);
+        DriverManager.setWinAppDriverUrl(stub.getUrl().toString());
+        DriverManager.setAppPath(APP_ID);
+        DriverManager.setPoolSize(instances);
+    }
+
+    /**
+     * One worker thread per instance, each keeping its lease like a TestNG worker does.
+     */
+    private List<ExecutorService> workers(int count) {
+        List<ExecutorService> started = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            started.add(Executors.newSingleThreadExecutor());
+        }
+        threads.addAll(started);
+        return started;
+    }
+
+    @Test(description = "Each worker gets its own instance: window, slot and tile; a relaunch reuses the slot")
+    public void testInstancesOwnWindowsAndTiles() throws Exception {
+        startHost(3);
+        Set<String> windows = new HashSet<>();
+        Set<Integer> slots = new HashSet<>();
+        Set<Point> tiles = new HashSet<>();
+        for (ExecutorService worker : workers(3)) {
+            worker.submit(() -> {
+                WindowsDriver<WebElement> session = DriverManager.getDriver();
+                windows.add(session.getWindowHandle());
+                slots.add(AppInstances.instanceOf(session));
+                tiles.add(session.manage().window().getPosition());
+                return null;
+            }).get(30, TimeUnit.SECONDS);
+        }
+        Assert.assertEquals(windows.size(), 3);
+        Assert.assertEquals(slots, Set.of(1, 2, 3));
+        Assert.assertEquals(tiles, Set.of(new Point(0, 0), new Point(320, 0), new Point(640, 0)));
+
+        ExecutorService second = threads.get(1);
+        int relaunched = second.submit(() -> {
+            DriverManager.discardDriver();
+            return AppInstances.instanceOf(DriverManager.getDriver());
+        }).get(30, TimeUnit.SECONDS);
+        Assert.assertEquals(relaunched, 2);
+    }
+
+    @Test(description = "The stub's shared desktop sends keystrokes to the window in front, whoever types")
+    public void testUnguardedKeystrokesReachTheWindowInFront() throws Exception {
+        startHost(2);
+        List<ExecutorService> workers = workers(2);
+        WindowsDriver<WebElement> first = workers.get(0).submit(DriverManager::getDriver).get(30, TimeUnit.SECONDS);
+        workers.get(1).submit(DriverManager::getDriver).get(30, TimeUnit.SECONDS);
+
+        // the second launch took the front; typing past AppInstances lands there
+        first.getKeyboard().sendKeys("7");
+        Assert.assertEquals(stub.getMisdirectedKeys(), 1);
+    }
+
+    @Test(description = "Instances typing concurrently each get their own keystrokes")
+    public void testConcurrentKeyboardInputIsIsolated() throws Exception {
+        startHost(3);
+        List<Future<?>> done = new ArrayList<>();
+        int operand = 0;
+        for (ExecutorService worker : workers(3)) {
+            int first = ++operand * 100;
+            done.add(worker.submit(() -> {
+                for (int i = 0; i < 5; i++) {
+                    P01_CalculatorPage page = new P01_CalculatorPage(DriverManager.getDriver())
+                            .withInputMode(InputMode.KEYBOARD);
+                    page.add(String.valueOf(first + i), "1");
+                    Assert.assertEquals(page.getResult(), String.valueOf(first + i + 1));
+                }
+                return null;
+            }));
+        }
+        for (Future<?> worker : done) {
+            worker.get(60, TimeUnit.SECONDS);
+        }
+        Assert.assertEquals(stub.getMisdirectedKeys(), 0, stub.summary());
+        Assert.assertTrue(AppInstances.summary().contains("focus switches"), AppInstances.summary());
+    }
+
+    @Test(description = "A slow button lookup does not hold the input lock the other instances wait on")
+    public void testLookupsStayOutsideTheInputLock() throws Exception {
+        startHost(2);
+        List<ExecutorService> workers = workers(2);
+        for (ExecutorService worker : workers) {
+            worker.submit(DriverManager::getDriver).get(30, TimeUnit.SECONDS);
+        }
+        stub.withLatency("findElement", Duration.ofMillis(400));
+
+        // #1 clicks, resolving each button for the first time; #2 types meanwhile
+        Future<?> clicking = workers.get(0).submit(() -> {
+            P01_CalculatorPage page = new P01_CalculatorPage(DriverManager.getDriver()).withInputMode(InputMode.CLICK);
+            page.add("12", "34");
+            Assert.assertEquals(page.getResult(), "46");
+            return null;
+        });
+        Future<?> typing = workers.get(1).submit(() -> {
+            P01_CalculatorPage page = new P01_CalculatorPage(DriverManager.getDriver())
+                    .withInputMode(InputMode.KEYBOARD);
+            while (!clicking.isDone()) {
+                page.add("5", "6");
+                Assert.assertEquals(page.getResult(), "11");
+            }
+            return null;
+        });
+        clicking.get(60, TimeUnit.SECONDS);
+        typing.get(60, TimeUnit.SECONDS);
+
+        String summary = AppInstances.summary();
+        Matcher maxWait = Pattern.compile("max (\\d+) ms").matcher(summary);
+        while (maxWait.find()) {
+            Assert.assertTrue(Long.parseLong(maxWait.group(1)) < 200, summary);
+        }
+    }
+
+    @Test(description = "Throughput and input lock waits per instance for 1, 2 and 4 instances on one host")
+    public void testThroughputPerInstanceCount() throws Exception {
+        for (int instances : new int[]{1, 2, 4}) {
+            startHost(instances);
+            List<Future<?>> done = new ArrayList<>();
+            for (ExecutorService worker : workers(instances)) {
+                done.add(worker.submit(() -> {
+                    for (int test = 0; test < 8 / instances; test++) {
+                        long start = System.nanoTime();
+                        P01_CalculatorPage page = new P01_CalculatorPage(DriverManager.getDriver());
+                        page.multiply("12", "34");
+                        Assert.assertEquals(page.getResult(), "408");
+                        DriverManager.recordTest(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), true);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : done) {
+                worker.get(60, TimeUnit.SECONDS);
+            }
+            String summary = AppInstances.summary();
+            System.out.println("🪟 " + summary);
+            Assert.assertTrue(summary.contains(instances + " side by side, 8 tests at "), summary);
+            tearDown();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package listeners;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.AllureResultsWriter;
+import io.qameta.allure.FileSystemResultsWriter;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.model.TestResultContainer;
+import io.qameta.allure.util.PropertiesUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IExecutionListener;
+import utils.AllureRunExporter;
+import utils.AllureRunWriter;
+import utils.ConfigReader;
+import utils.TestEventBus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Chooses how Allure results reach the disk. Registered through
+ * META-INF/services ahead of allure-testng's own listener, so the lifecycle
+ * it installs is the one AllureTestNg picks up.
+ * <p>
+ * With allureBatching=true (the default) results go to one compressed run
+ * file per JVM ({@link AllureRunWriter}); allureExpand=true expands it into
+ * the standard layout when the run finishes. With allureBatching=false
+ * Allure writes its usual one-file-per-record layout. Either way the number
+ * of files written and the time spent writing them are logged per run.
+ * Leaving allure out of the reporters setting discards the results instead.
+ */
+public class AllureResultsListener implements IExecutionListener {
+
+    private static final Logger logger = LogManager.getLogger(AllureResultsListener.class);
+
+    private static AllureRunWriter runWriter;
+    private static CountingResultsWriter fileWriter;
+    private static boolean discarding;
+
+    public AllureResultsListener() {
+        install();
+    }
+
+    @Override
+    public void onExecutionFinish() {
+        synchronized (AllureResultsListener.class) {
+            if (runWriter != null) {
+                runWriter.flush();
+                logger.info("📦 {}", runWriter.summary());
+                if (ConfigReader.getBoolean("allureExpand", false)) {
+                    int files = AllureRunExporter.export(runWriter.getRunFile(), resultsDirectory());
+                    logger.info("📦 Expanded {} into {} Allure files", runWriter.getRunFile().getFileName(), files);
+                }
+            } else if (fileWriter != null) {
+                logger.info("📦 {}", fileWriter.summary());
+            }
+        }
+    }
+
+    /**
+     * Installs the writer once per JVM; nested TestNG runs share it.
+     */
+    private static synchronized void install() {
+        if (runWriter != null || fileWriter != null || discarding) {
+            return;
+        }
+        Path directory = resultsDirectory();
+        AllureResultsWriter writer;
+        if (!TestEventBus.isReporterEnabled("allure")) {
+            discarding = true;
+            writer = new DiscardingResultsWriter();
+            logger.info("📦 Allure reporter is off, results are discarded");
+        } else if (ConfigReader.getBoolean("allureBatching", true)) {
+            runWriter = AllureRunWriter.fromConfig(directory);
+            writer = runWriter;
+        } else {
+            fileWriter = new CountingResultsWriter(new FileSystemResultsWriter(directory));
+            writer = fileWriter;
+        }
+        Allure.setLifecycle(new AllureLifecycle(writer));
+    }
+
+    private static Path resultsDirectory() {
+        return Paths.get(PropertiesUtils.loadAllureProperties()
+                .getProperty("allure.results.directory", "allure-results"));
+    }
+
+    /**
+     * Allure with nowhere to write: the reporter is switched off.
+     */
+    private static final class DiscardingResultsWriter implements AllureResultsWriter {
+
+        @Override
+        public void write(TestResult testResult) {
+        }
+
+        @Override
+        public void write(TestResultContainer testResultContainer) {
+        }
+
+        @Override
+        public void write(String source, InputStream attachment) {
+            try {
+                attachment.close();
+            } catch (IOException e) {
+                logger.debug("Could not close discarded attachment {}: {}", source, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Allure's standard writer, timed: every record is one file.
+     */
+    private static final class CountingResultsWriter implements AllureResultsWriter {
+
+        private final AllureResultsWriter delegate;
+        private final AtomicLong files = new AtomicLong();
+        private final AtomicLong ioNanos = new AtomicLong();
+
+        private CountingResultsWriter(AllureResultsWriter delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(TestResult testResult) {
+            long start = System.nanoTime();
+            delegate.write(testResult);
+            written(start);
+        }
+
+        @Override
+        public void write(TestResultContainer testResultContainer) {
+            long start = System.nanoTime();
+            delegate.write(testResultContainer);
+            written(start);
+        }
+
+        @Override
+        public void write(String source, InputStream attachment) {
+            long start = System.nanoTime();
+            delegate.write(source, attachment);
+            written(start);
+        }
+
+        private void written(long start) {
+            ioNanos.addAndGet(System.nanoTime() - start);
+            files.incrementAndGet();
+        }
+
+        String summary() {
+            return String.format("Allure results: %d files written, I/O %.1f ms", files.get(), ioNanos.get() / 1e6);
+        }
+    }
+}
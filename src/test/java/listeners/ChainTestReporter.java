@@ -0,0 +1,68 @@
+package listeners;
+
+import com.aventstack.chaintest.domain.Test;
+import com.aventstack.chaintest.service.ChainPluginService;
+import utils.TestEvent;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * ChainTest report (chaintest.properties), fed from the event bus instead
+ * of ChainTestListener. That listener keeps its state in thread-locals of
+ * the test thread and only hands the suite over at the end, so it cannot
+ * run on another thread or render mid-run. Here each finished method goes
+ * to ChainTest as its own test, tagged with its class, and the generators
+ * are flushed as the run goes.
+ */
+class ChainTestReporter extends RenderingReporter {
+
+    static final String NAME = "chaintest";
+
+    private final ChainPluginService service;
+    private boolean started;
+
+    ChainTestReporter(Duration renderInterval) {
+        super(renderInterval);
+        service = new ChainPluginService("testng");
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    protected void record(TestEvent event) {
+        if (!started) {
+            service.start();
+            started = true;
+        }
+        if (!event.isTestFinished()) {
+            return;
+        }
+        Test test = new Test(event.getMethodName(), Optional.of(event.getClassName()), event.getGroups());
+        test.setDescription(event.getDescription());
+        test.setStartedAt(event.getStartMillis());
+        if (!event.getParameters().isEmpty()) {
+            test.addLog("Parameters: " + event.getParameters());
+        }
+        test.complete(Optional.ofNullable(event.getThrowable()));
+        test.setEndedAt(event.getEndMillis());
+        test.setResult(event.getType() == TestEvent.Type.TEST_PASSED ? "PASSED"
+                : event.getType() == TestEvent.Type.TEST_FAILED ? "FAILED" : "SKIPPED");
+        service.afterTest(test, Optional.ofNullable(event.getThrowable()));
+    }
+
+    @Override
+    protected void render() {
+        service.flush();
+    }
+
+    @Override
+    public void close() {
+        if (started) {
+            service.executionFinished();
+        }
+    }
+}
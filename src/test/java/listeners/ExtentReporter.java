@@ -0,0 +1,125 @@
+package listeners;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.aventstack.extentreports.reporter.configuration.Theme;
+import utils.TestEvent;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ExtentReports Spark report (testReport.html): one node per test class
+ * with a child per test method, rendered incrementally.
+ */
+class ExtentReporter extends RenderingReporter {
+
+    static final String NAME = "extent";
+
+    private static volatile String projectName;
+    private static volatile ExtentReporter latest;
+
+    private final ExtentSparkReporter htmlReporter;
+    private final ExtentReports extent = new ExtentReports();
+    private final Map<String, ExtentTest> classes = new HashMap<>();
+    private ExtentTest projectTest;
+
+    ExtentReporter(Path reportFile, Duration renderInterval) {
+        super(renderInterval);
+        htmlReporter = new ExtentSparkReporter(reportFile.toString());
+        htmlReporter.config().setTheme(Theme.STANDARD);
+        htmlReporter.config().setTimeStampFormat("EEEE, MMMM dd, yyyy, hh:mm a '('zzz')'");
+        extent.attachReporter(htmlReporter);
+        latest = this;
+    }
+
+    /**
+     * @return the most recently started Extent reporter, or null if none was
+     */
+    static ExtentReporter latest() {
+        return latest;
+    }
+
+    /**
+     * @return the report this reporter renders
+     */
+    ExtentReports getExtent() {
+        return extent;
+    }
+
+    /**
+     * The project-level node tests used to log to directly, created on first use.
+     * @return the "&lt;project&gt; Test Automation Project" test
+     */
+    ExtentTest getProjectTest() {
+        synchronized (extent) {
+            if (projectTest == null) {
+                String name = projectName != null ? projectName : "Calculator";
+                projectTest = extent.createTest(name + " Test Automation Project");
+            }
+            return projectTest;
+        }
+    }
+
+    /**
+     * Names the report; read each time it is rendered.
+     * @param name projectName from environment.properties
+     */
+    static void setProjectName(String name) {
+        projectName = name;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    protected void record(TestEvent event) {
+        if (!event.isTestFinished()) {
+            return;
+        }
+        synchronized (extent) {
+            recordFinished(event);
+        }
+    }
+
+    private void recordFinished(TestEvent event) {
+        ExtentTest parent = classes.computeIfAbsent(event.getClassName(), extent::createTest);
+        ExtentTest test = parent.createNode(event.getMethodName(), event.getDescription());
+        test.getModel().setStartTime(new Date(event.getStartMillis()));
+        test.getModel().setEndTime(new Date(event.getEndMillis()));
+        event.getGroups().forEach(test::assignCategory);
+        if (!event.getParameters().isEmpty()) {
+            test.info("Parameters: " + event.getParameters());
+        }
+        switch (event.getType()) {
+            case TEST_PASSED:
+                test.pass("Passed in " + event.getDurationMillis() + " ms");
+                break;
+            case TEST_FAILED:
+                test.fail(event.getThrowable());
+                break;
+            default:
+                if (event.getThrowable() != null) {
+                    test.skip(event.getThrowable());
+                } else {
+                    test.skip("Skipped");
+                }
+        }
+    }
+
+    @Override
+    protected void render() {
+        String name = projectName != null ? projectName : "Calculator";
+        htmlReporter.config().setDocumentTitle(name + " Test Automation Report");
+        htmlReporter.config().setReportName(name + " Test Report");
+        synchronized (extent) {
+            extent.flush();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package listeners;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.TestEvent;
+import utils.TestEventSubscriber;
+
+/**
+ * Test start and result lines for the console, DesktopTest.log and the
+ * Log4j HTML summary; failures also go to DesktopTestFailures.log.
+ */
+class LogReporter implements TestEventSubscriber {
+
+    static final String NAME = "log";
+
+    private static final Logger logger = LogManager.getLogger(TestExecutionListener.class);
+    private static final Logger failureLogger = LogManager.getLogger("TestFailureLogger");
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void onEvent(TestEvent event) {
+        switch (event.getType()) {
+            case TEST_STARTED:
+                logger.info("▶️ TEST STARTED: {}", event.getTestName());
+                if (!event.getParameters().isEmpty()) {
+                    logger.info("Test parameters: {}", event.getParameters());
+                }
+                break;
+            case TEST_PASSED:
+                logger.info("✅ TEST PASSED: {} (Duration: {} ms)", event.getTestName(), event.getDurationMillis());
+                break;
+            case TEST_FAILED:
+                logger.error("❌ TEST FAILED: {} (Reason: {})", event.getTestName(), reason(event));
+                failureLogger.error("❌ {} failed after {} ms on {}", event.getTestName(), event.getDurationMillis(),
+                        event.getThreadName(), event.getThrowable());
+                break;
+            case TEST_SKIPPED:
+                logger.warn("⚠️ TEST SKIPPED: {}", event.getTestName());
+                if (event.getThrowable() != null) {
+                    logger.warn("Skip reason: {}", reason(event));
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static String reason(TestEvent event) {
+        return event.getThrowable() == null ? null : event.getThrowable().getMessage();
+    }
+}
@@ -0,0 +1,76 @@
+package listeners;
+
+import utils.ConfigReader;
+import utils.TestEvent;
+import utils.TestEventSubscriber;
+
+import java.time.Duration;
+
+/**
+ * A reporter that keeps a report model in memory and writes its file while
+ * the suite runs: after a finished test once the render interval has passed
+ * since the last write, and always at suite end. A report can be opened
+ * mid-run, and the end of the suite only renders the last interval's tests.
+ */
+public abstract class RenderingReporter implements TestEventSubscriber {
+
+    private final long renderIntervalNanos;
+    private long lastRender = System.nanoTime();
+    private boolean dirty;
+    private int renders;
+
+    protected RenderingReporter(Duration renderInterval) {
+        this.renderIntervalNanos = renderInterval.toNanos();
+    }
+
+    /**
+     * reportRenderIntervalMs (default 2000)
+     */
+    public static Duration renderIntervalFromConfig() {
+        return Duration.ofMillis(ConfigReader.getLong("reportRenderIntervalMs", 2000));
+    }
+
+    @Override
+    public final void onEvent(TestEvent event) throws Exception {
+        record(event);
+        if (event.isTestFinished()) {
+            dirty = true;
+            if (System.nanoTime() - lastRender >= renderIntervalNanos) {
+                renderNow();
+            }
+        } else if (event.getType() == TestEvent.Type.SUITE_FINISHED && dirty) {
+            renderNow();
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (dirty) {
+            renderNow();
+        }
+    }
+
+    /**
+     * @return times the report file was written
+     */
+    public int getRenders() {
+        return renders;
+    }
+
+    /**
+     * Adds the event to the report model.
+     */
+    protected abstract void record(TestEvent event) throws Exception;
+
+    /**
+     * Writes the report file from the model.
+     */
+    protected abstract void render() throws Exception;
+
+    private void renderNow() throws Exception {
+        render();
+        renders++;
+        dirty = false;
+        lastRender = System.nanoTime();
+    }
+}
@@ -0,0 +1,125 @@
+package listeners;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IAnnotationTransformer;
+import org.testng.IRetryAnalyzer;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.annotations.ITestAnnotation;
+import org.testng.internal.annotations.DisabledRetryAnalyzer;
+import retryTest.MyRetry;
+import utils.ConfigReader;
+import utils.RetryPolicy;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Puts {@link MyRetry} on every test that has no retry analyzer of its own,
+ * gives each suite a {@link RetryPolicy} and reports it when the suite ends.
+ * Registered through META-INF/services, as annotation transformers must be
+ * known before the test classes are read. Off unless retryFailures=true:
+ * by default tests keep running once, without a retry analyzer.
+ */
+public class RetryListener implements IAnnotationTransformer, ISuiteListener, ITestListener {
+
+    private static final Logger logger = LogManager.getLogger(RetryListener.class);
+
+    private static final Map<ISuite, RetryPolicy> policies = new ConcurrentHashMap<>();
+
+    /**
+     * @return the policy of the suite the result belongs to, or null outside a suite this listener saw start
+     */
+    public static RetryPolicy policyFor(ITestResult result) {
+        return policies.get(result.getTestContext().getSuite());
+    }
+
+    /**
+     * @return the test as kept in the flake history: class and method
+     */
+    public static String testId(ITestResult result) {
+        return result.getMethod().getQualifiedName();
+    }
+
+    /**
+     * @return the test with its parameters, so each data row has its own retries
+     */
+    public static String invocationId(ITestResult result) {
+        Object[] parameters = result.getParameters();
+        return parameters == null || parameters.length == 0
+                ? testId(result)
+                : testId(result) + Arrays.deepToString(parameters);
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
+        Class<? extends IRetryAnalyzer> current = annotation.getRetryAnalyzerClass();
+        if ((current == null || current == DisabledRetryAnalyzer.class)
+                && ConfigReader.getBoolean("retryFailures", false)) {
+            annotation.setRetryAnalyzer(MyRetry.class);
+        }
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+        Set<String> tests = new LinkedHashSet<>();
+        for (ITestNGMethod method : suite.getAllMethods()) {
+            tests.add(method.getQualifiedName());
+        }
+        RetryPolicy policy = RetryPolicy.fromConfig(tests);
+        policies.put(suite, policy);
+        logger.info("🔁 Retry budget for {}: {} retries over {} tests", suite.getName(), policy.getBudget(), tests.size());
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        RetryPolicy policy = policies.remove(suite);
+        if (policy != null) {
+            policy.save(RetryPolicy.statsFile());
+            logger.info("🔁 {}", policy.summary());
+        }
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        finished(result, true);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        finished(result, false);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        // a retried attempt is reported as skipped; the retry analyzer already counted it
+        if (!result.wasRetried() && result.getThrowable() != null) {
+            finished(result, false);
+        }
+    }
+
+    /**
+     * @return how long the attempt ran
+     */
+    public static long durationNanos(ITestResult result) {
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, result.getEndMillis() - result.getStartMillis()));
+    }
+
+    private void finished(ITestResult result, boolean passed) {
+        RetryPolicy policy = policyFor(result);
+        if (policy != null) {
+            policy.onFinished(testId(result), invocationId(result), passed, result.getThrowable(), durationNanos(result));
+        }
+    }
+}
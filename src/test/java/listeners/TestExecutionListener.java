@@ -1,79 +1,194 @@
 package listeners;
 
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import common.MyScreenRecorder;
+import common.WindowRecording;
 import io.appium.java_client.windows.WindowsDriver;
-import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.testng.*;
+import utils.ArtifactWriter;
+import utils.CommandMetrics;
+import utils.ConfigReader;
+import utils.DriverManager;
+import utils.StartupTimeline;
+import utils.TestEvent;
+import utils.TestEventBus;
 
-import java.io.File;
-import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
 
 /**
  * TestExecutionListener for Desktop (Windows) Applications using WinAppDriver.
  * Handles logging, screenshots, and report generation for all test events.
+ * Failure artifacts are grabbed on the test thread and written in the
+ * background by an {@link ArtifactWriter}; the suite waits for them in onFinish.
+ * With windowRecording on, a failed test's window recording is encoded the
+ * same way and a passed or skipped test's recording is dropped unencoded.
+ * <p>
+ * Reporters (test log lines, ExtentReports, ChainTest) are not called from
+ * here: each test event is published once on a {@link TestEventBus} and every
+ * reporter enabled by the reporters setting consumes it on its own thread.
+ * Allure keeps its own TestNG listener, as its lifecycle follows the test
+ * thread; see {@link AllureResultsListener}. The reporters are set up in the
+ * background while the suite's @BeforeSuite methods run; the first event
+ * after the suite start waits for them.
+ * <p>
+ * The first test to start logs the startup breakdown ({@link StartupTimeline}).
  */
 public class TestExecutionListener implements ITestListener, ISuiteListener, IInvokedMethodListener {
 
     private static final Logger logger = LogManager.getLogger(TestExecutionListener.class);
-    private static final Logger failureLogger = LogManager.getLogger("TestFailureLogger");
-    private static final String SCREENSHOT_DIR = "screenshots";
-    private static final String REPORTS_DIR = "test-reports";
+
+    // screenshotsDir, reportsDir and recordingsDir are read once, when the listener is created
+    private final Path screenshotDir = Paths.get(ConfigReader.getSetting("screenshotsDir", "screenshots"));
+    private final Path reportsDir = Paths.get(ConfigReader.getSetting("reportsDir", "test-reports"));
+    private final Path recordingsDir = Paths.get(ConfigReader.getSetting("recordingsDir", "recordings"));
+    private final ArtifactWriter artifacts = ArtifactWriter.fromConfig(reportsDir.resolve("index.html"));
+    private volatile CompletableFuture<TestEventBus> reporters;
+
+    // the listener of the running suite, for the deprecated Extent accessors
+    private static volatile TestExecutionListener current;
+
+    /**
+     * Names the HTML reports
+     * @param projectName projectName from environment.properties
+     */
+    public static void setProjectName(String projectName) {
+        ExtentReporter.setProjectName(projectName);
+    }
+
+    /**
+     * The running suite's Extent report, for tests written against the old
+     * testBase fields; new code reports through the test events instead.
+     * @return the report, or null when the extent reporter is off
+     */
+    public static ExtentReports extentReports() {
+        ExtentReporter reporter = extentReporter();
+        return reporter == null ? null : reporter.getExtent();
+    }
+
+    /**
+     * The project-level Extent test of the running suite.
+     * @return the test, or null when the extent reporter is off
+     */
+    public static ExtentTest extentProjectTest() {
+        ExtentReporter reporter = extentReporter();
+        return reporter == null ? null : reporter.getProjectTest();
+    }
+
+    private static ExtentReporter extentReporter() {
+        TestExecutionListener listener = current;
+        if (listener == null || listener.reporters() == null || !TestEventBus.isReporterEnabled(ExtentReporter.NAME)) {
+            return null;
+        }
+        return ExtentReporter.latest();
+    }
 
     // ------------------- SUITE LEVEL -------------------
     @Override
     public void onStart(ISuite suite) {
+        current = this;
         logger.info("=== SUITE STARTED: {} ===", suite.getName());
         createDirectories();
         logger.info("Suite parameters: {}", suite.getXmlSuite().getParameters());
+        ConfigReader.setTestNgParameters(suite.getXmlSuite().getParameters());
+        reporters = CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            TestEventBus bus = startReporters();
+            StartupTimeline.record(StartupTimeline.REPORTERS, start, System.nanoTime());
+            bus.publish(TestEvent.suiteStarted(suite.getName()));
+            return bus;
+        });
     }
 
     @Override
     public void onFinish(ISuite suite) {
         logger.info("=== SUITE FINISHED: {} ===", suite.getName());
+        Duration flushTimeout = Duration.ofMillis(ConfigReader.getLong("artifactFlushTimeoutMs", 30000));
+        if (!artifacts.flush(flushTimeout)) {
+            logger.warn("⚠️ {} artifacts still being written after {} ms", artifacts.getQueueDepth(), flushTimeout.toMillis());
+        }
+        logger.info("📄 {}", artifacts.summary());
+        TestEventBus bus = reporters();
+        if (bus != null) {
+            bus.publish(TestEvent.suiteFinished(suite.getName()));
+            Duration reportTimeout = Duration.ofMillis(ConfigReader.getLong("reporterCloseTimeoutMs", 60000));
+            if (!bus.close(reportTimeout)) {
+                logger.warn("⚠️ Reporters still busy after {} ms", reportTimeout.toMillis());
+            }
+            logger.info("📰 {}", bus.summary());
+        }
+        logger.info("⏱️ WebDriver command latency for the suite:\n{}",
+                CommandMetrics.format(CommandMetrics.getSuiteHistograms()));
     }
 
     // ------------------- TEST LEVEL -------------------
     @Override
     public void onTestStart(ITestResult result) {
-        logger.info("▶️ TEST STARTED: {}.{}",
-                result.getTestClass().getName(), result.getMethod().getMethodName());
-
-        if (result.getParameters().length > 0) {
-            logger.info("Test parameters: {}", Arrays.toString(result.getParameters()));
+        String startup = StartupTimeline.firstTestStarted();
+        if (startup != null) {
+            logger.info("🚀 {}", startup);
         }
+        publish(TestEvent.Type.TEST_STARTED, result);
+        CommandMetrics.startTest();
     }
 
     @Override
     public void onTestSuccess(ITestResult result) {
-        logger.info("✅ TEST PASSED: {}.{} (Duration: {} ms)",
-                result.getTestClass().getName(),
-                result.getMethod().getMethodName(),
-                result.getEndMillis() - result.getStartMillis());
+        publish(TestEvent.Type.TEST_PASSED, result);
+        logCommandLatency(result);
+        discardWindowRecording();
     }
 
     @Override
     public void onTestFailure(ITestResult result) {
         String testName = result.getTestClass().getName() + "." + result.getMethod().getMethodName();
-        logger.error("❌ TEST FAILED: {} (Reason: {})", testName, result.getThrowable().getMessage());
+        publish(TestEvent.Type.TEST_FAILED, result);
+        logCommandLatency(result);
 
-        // Capture screenshot
-        takeDesktopScreenshot(result);
-
-        // Create HTML failure report
-        generateFailureReport(result);
+        // Grab the screen now, while it still shows the failure; files are written in the background
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
+        String screenshot = takeDesktopScreenshot();
+        List<ArtifactWriter.PendingFile> files = new ArrayList<>();
+        if (screenshot != null) {
+            files.add(ArtifactWriter.file(screenshotDir.resolve(
+                            String.format("%s_%s_FAILED.png", result.getMethod().getMethodName(), timestamp)),
+                    () -> Base64.getMimeDecoder().decode(screenshot)));
+        }
+        String className = result.getTestClass().getName();
+        String methodName = result.getMethod().getMethodName();
+        Throwable failure = result.getThrowable();
+        files.add(ArtifactWriter.file(reportsDir.resolve(
+                        String.format("%s_%s_failure_report.html", methodName, timestamp)),
+                () -> generateFailureReport(className, methodName, failure).getBytes(StandardCharsets.UTF_8)));
+        WindowRecording recording = MyScreenRecorder.stopWindowRecording();
+        if (recording != null) {
+            files.add(ArtifactWriter.file(recordingsDir.resolve(
+                    String.format("%s_%s_FAILED.avi", methodName, timestamp)), () -> encodeRecording(recording)));
+        }
+        artifacts.submit(testName, failure.getMessage(), files);
     }
 
     @Override
     public void onTestSkipped(ITestResult result) {
-        logger.warn("⚠️ TEST SKIPPED: {}.{}", result.getTestClass().getName(), result.getMethod().getMethodName());
-        if (result.getThrowable() != null)
-            logger.warn("Skip reason: {}", result.getThrowable().getMessage());
+        publish(TestEvent.Type.TEST_SKIPPED, result);
+        logCommandLatency(result);
+        discardWindowRecording();
     }
 
     // ------------------- INVOKED METHOD LEVEL -------------------
@@ -90,76 +205,130 @@ public class TestExecutionListener implements ITestListener, ISuiteListener, IIn
     }
 
     // ------------------- HELPER METHODS -------------------
-    private void createDirectories() {
-        new File(SCREENSHOT_DIR).mkdirs();
-        new File(REPORTS_DIR).mkdirs();
+
+    /**
+     * One bus per suite with a thread for each enabled reporter
+     */
+    private TestEventBus startReporters() {
+        TestEventBus bus = TestEventBus.fromConfig();
+        if (TestEventBus.isReporterEnabled(LogReporter.NAME)) {
+            bus.subscribe(new LogReporter());
+        }
+        if (TestEventBus.isReporterEnabled(ExtentReporter.NAME)) {
+            bus.subscribe(new ExtentReporter(Paths.get(System.getProperty("user.dir"))
+                            .resolve(ConfigReader.getSetting("extentReportFile", "testReport.html")),
+                    RenderingReporter.renderIntervalFromConfig()));
+        }
+        if (TestEventBus.isReporterEnabled(ChainTestReporter.NAME)) {
+            bus.subscribe(new ChainTestReporter(RenderingReporter.renderIntervalFromConfig()));
+        }
+        return bus;
     }
 
-    private void takeDesktopScreenshot(ITestResult result) {
+    /**
+     * Snapshots the result on the test thread and queues it for the reporters
+     */
+    private void publish(TestEvent.Type type, ITestResult result) {
+        TestEventBus bus = reporters();
+        if (bus == null) {
+            return;
+        }
+        bus.publish(TestEvent.test(type, result.getTestContext().getSuite().getName(),
+                result.getTestClass().getName(), result.getMethod().getMethodName(),
+                result.getMethod().getDescription(),
+                Arrays.stream(result.getParameters()).map(String::valueOf).collect(Collectors.toList()),
+                Arrays.asList(result.getMethod().getGroups()),
+                result.getStartMillis(), type == TestEvent.Type.TEST_STARTED ? result.getStartMillis() : result.getEndMillis(),
+                result.getThrowable()));
+    }
+
+    /**
+     * @return the reporters once set up, or null if there are none
+     */
+    private TestEventBus reporters() {
+        CompletableFuture<TestEventBus> pending = reporters;
+        if (pending == null) {
+            return null;
+        }
         try {
-            WindowsDriver<?> driver = getWindowsDriverFromTest(result);
+            return pending.join();
+        } catch (CompletionException e) {
+            logger.error("❌ Reporters could not be started: {}", e.getCause().getMessage());
+            return null;
+        }
+    }
 
-            if (driver != null) {
-                String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
-                String fileName = String.format("%s_%s_FAILED.png",
-                        result.getMethod().getMethodName(), timestamp);
-                File screenshot = driver.getScreenshotAs(OutputType.FILE);
-                File destination = new File(SCREENSHOT_DIR, fileName);
-                FileUtils.copyFile(screenshot, destination);
-                logger.info("📸 Screenshot saved: {}", destination.getAbsolutePath());
-            } else {
-                logger.warn("⚠️ No WindowsDriver found — screenshot skipped");
-            }
+    private void createDirectories() {
+        screenshotDir.toFile().mkdirs();
+        reportsDir.toFile().mkdirs();
+    }
 
-        } catch (Exception e) {
-            logger.error("Failed to capture desktop screenshot", e);
+    private void logCommandLatency(ITestResult result) {
+        logger.info("⏱️ WebDriver command latency for {}:\n{}",
+                result.getMethod().getMethodName(), CommandMetrics.format(CommandMetrics.endTest()));
+    }
+
+    private void discardWindowRecording() {
+        WindowRecording recording = MyScreenRecorder.discardWindowRecording();
+        if (recording != null) {
+            logger.info("🎥 {} (discarded)", recording.summary());
         }
     }
 
-    private WindowsDriver<?> getWindowsDriverFromTest(ITestResult result) {
+    /**
+     * Encodes a failed test's window recording; runs on the artifact writer thread
+     */
+    private byte[] encodeRecording(WindowRecording recording) {
+        byte[] video = recording.encode();
+        logger.info("🎥 {}", recording.summary());
+        return video;
+    }
+
+    /**
+     * Takes the screenshot as the base64 text WinAppDriver sends; decoding and
+     * writing the PNG is left to the artifact writer
+     * @return the encoded PNG, or null if there is no session or the capture failed
+     */
+    private String takeDesktopScreenshot() {
         try {
-            Object testInstance = result.getInstance();
-            java.lang.reflect.Field driverField = null;
-
-            for (String name : new String[]{"driver", "windowsDriver", "appDriver"}) {
-                try {
-                    driverField = testInstance.getClass().getDeclaredField(name);
-                    driverField.setAccessible(true);
-                    Object driver = driverField.get(testInstance);
-                    if (driver instanceof WindowsDriver<?>) {
-                        return (WindowsDriver<?>) driver;
-                    }
-                } catch (NoSuchFieldException ignored) {
-                }
+            WindowsDriver<?> driver = getWindowsDriverFromTest();
+
+            if (driver != null) {
+                String screenshot = driver.getScreenshotAs(OutputType.BASE64);
+                logger.info("📸 Screenshot captured ({} chars)", screenshot.length());
+                return screenshot;
             }
+            logger.warn("⚠️ No WindowsDriver found — screenshot skipped");
+
         } catch (Exception e) {
-            logger.warn("Failed to retrieve WindowsDriver", e);
+            logger.error("Failed to capture desktop screenshot", e);
         }
         return null;
     }
 
-    private void generateFailureReport(ITestResult result) {
-        try {
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
-            String fileName = String.format("%s_%s_failure_report.html",
-                    result.getMethod().getMethodName(), timestamp);
-
-            StringBuilder html = new StringBuilder();
-            html.append("<html><head><title>Desktop Test Failure Report</title></head><body>");
-            html.append("<h2>❌ Test Failed:</h2>")
-                    .append("<p><b>Test Class:</b> ").append(result.getTestClass().getName()).append("</p>")
-                    .append("<p><b>Method:</b> ").append(result.getMethod().getMethodName()).append("</p>")
-                    .append("<p><b>Reason:</b> ").append(result.getThrowable().getMessage()).append("</p>")
-                    .append("<h3>Stack Trace:</h3><pre>")
-                    .append(getStackTrace(result.getThrowable()))
-                    .append("</pre></body></html>");
-
-            File reportFile = new File(REPORTS_DIR, fileName);
-            FileUtils.writeStringToFile(reportFile, html.toString(), "UTF-8");
-            logger.info("📄 Failure report created: {}", reportFile.getAbsolutePath());
-        } catch (IOException e) {
-            logger.error("Failed to generate failure report", e);
+    private WindowsDriver<?> getWindowsDriverFromTest() {
+        // Listener callbacks run on the test's worker thread, which holds its own session
+        WindowsDriver<?> driver = DriverManager.getCurrentDriver();
+        if (driver == null) {
+            logger.warn("No WindowsDriver leased by thread {}", Thread.currentThread().getName());
         }
+        return driver;
+    }
+
+    /**
+     * Builds the HTML failure report; runs on the artifact writer thread
+     */
+    private String generateFailureReport(String className, String methodName, Throwable failure) {
+        StringBuilder html = new StringBuilder();
+        html.append("<html><head><title>Desktop Test Failure Report</title></head><body>");
+        html.append("<h2>❌ Test Failed:</h2>")
+                .append("<p><b>Test Class:</b> ").append(className).append("</p>")
+                .append("<p><b>Method:</b> ").append(methodName).append("</p>")
+                .append("<p><b>Reason:</b> ").append(failure.getMessage()).append("</p>")
+                .append("<h3>Stack Trace:</h3><pre>")
+                .append(getStackTrace(failure))
+                .append("</pre></body></html>");
+        return html.toString();
     }
 
     private String getStackTrace(Throwable t) {
@@ -0,0 +1,147 @@
+package listeners;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+import utils.ConfigReader;
+import utils.TestHistory;
+import utils.TestScheduler;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * With schedule=history, runs each &lt;test&gt;'s methods in the order
+ * {@link TestScheduler} plans from the durations of previous runs: longest
+ * first, optionally recently failed first (scheduleFailedFirst=true). TestNG
+ * hands ready methods to its workers by priority, so the plan is written into
+ * the methods' priorities; a declared @Test(priority) still comes first and
+ * the plan only orders methods of equal priority. The default,
+ * schedule=declared, leaves the order alone.
+ * <p>
+ * Either way -Dshard=i/n keeps only this machine's part of the methods.
+ * <p>
+ * When a &lt;test&gt; ends, its predicted and actual makespan are logged and
+ * its durations are added to testHistoryFile. Registered through
+ * META-INF/services; methods with dependencies are ordered by TestNG itself.
+ */
+public class TestScheduleListener implements IMethodInterceptor, ITestListener {
+
+    private static final Logger logger = LogManager.getLogger(TestScheduleListener.class);
+
+    private static final String PLAN_ATTRIBUTE = "testSchedulePlan";
+
+    /**
+     * @return testHistoryFile (default test-history/durations.tsv)
+     */
+    public static Path historyFile() {
+        return Paths.get(ConfigReader.getSetting("testHistoryFile", "test-history/durations.tsv"));
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        boolean reorder = !"declared".equalsIgnoreCase(ConfigReader.getSetting("schedule", "declared").trim());
+        TestScheduler.Shard shard = TestScheduler.Shard.parse(ConfigReader.getSetting("shard", null));
+        TestHistory history = TestHistory.load(historyFile());
+
+        List<String> tests = new ArrayList<>();
+        Map<String, Deque<IMethodInstance>> instances = new HashMap<>();
+        for (IMethodInstance method : methods) {
+            String test = method.getMethod().getQualifiedName();
+            tests.add(test);
+            instances.computeIfAbsent(test, key -> new ArrayDeque<>()).add(method);
+        }
+        TestScheduler.Plan plan = TestScheduler.plan(tests, history, workers(context), shard,
+                reorder && ConfigReader.getBoolean("scheduleFailedFirst", false));
+        context.setAttribute(PLAN_ATTRIBUTE, plan);
+        logger.info("📅 {}: {} (history {} tests, fingerprint {})", context.getName(), plan.summary(),
+                history.size(), Long.toHexString(history.getFingerprint()));
+
+        List<IMethodInstance> scheduled = new ArrayList<>();
+        for (String test : plan.getOrder()) {
+            scheduled.add(instances.get(test).poll());
+        }
+        if (!reorder) {
+            // the shard's methods, as declared
+            scheduled.sort((a, b) -> Integer.compare(methods.indexOf(a), methods.indexOf(b)));
+            return scheduled;
+        }
+        // stable: methods of equal declared priority keep the planned order
+        scheduled.sort(Comparator.comparingInt((IMethodInstance method) -> method.getMethod().getPriority()));
+        for (int i = 0; i < scheduled.size(); i++) {
+            scheduled.get(i).getMethod().setPriority(i);
+        }
+        return scheduled;
+    }
+
+    @Override
+    public void onFinish(ITestContext context) {
+        List<ITestResult> results = new ArrayList<>();
+        for (Set<ITestResult> outcome : List.of(context.getPassedTests().getAllResults(),
+                context.getFailedTests().getAllResults(), context.getSkippedTests().getAllResults(),
+                context.getFailedButWithinSuccessPercentageTests().getAllResults())) {
+            results.addAll(outcome);
+        }
+        long start = Long.MAX_VALUE;
+        long end = Long.MIN_VALUE;
+        Map<String, long[]> durations = new LinkedHashMap<>();
+        for (ITestResult result : results) {
+            if (result.getStartMillis() <= 0 || result.getEndMillis() < result.getStartMillis()) {
+                continue;
+            }
+            start = Math.min(start, result.getStartMillis());
+            end = Math.max(end, result.getEndMillis());
+            long[] test = durations.computeIfAbsent(result.getMethod().getQualifiedName(), key -> new long[2]);
+            test[0] += result.getEndMillis() - result.getStartMillis();
+            if (result.getStatus() == ITestResult.FAILURE) {
+                test[1] = 1;
+            }
+        }
+        if (durations.isEmpty()) {
+            return;
+        }
+        TestHistory run = new TestHistory();
+        durations.forEach((test, totals) -> run.record(test, totals[0], totals[1] == 1));
+        TestHistory.merge(historyFile(), run);
+
+        Object plan = context.getAttribute(PLAN_ATTRIBUTE);
+        long actual = end - start;
+        if (plan instanceof TestScheduler.Plan) {
+            double predicted = ((TestScheduler.Plan) plan).getPredictedMillis();
+            logger.info("📅 {}: makespan predicted {} ms, actual {} ms ({}{}%)", context.getName(),
+                    Math.round(predicted), actual, actual >= predicted ? "+" : "",
+                    predicted > 0 ? Math.round(100 * (actual - predicted) / predicted) : 0);
+        } else {
+            logger.info("📅 {}: makespan {} ms", context.getName(), actual);
+        }
+    }
+
+    /**
+     * @return threads the &lt;test&gt;'s methods run on
+     */
+    private static int workers(ITestContext context) {
+        XmlSuite suite = context.getSuite().getXmlSuite();
+        switch (suite.getParallel()) {
+            case METHODS:
+            case CLASSES:
+            case INSTANCES:
+                return suite.getThreadCount();
+            default:
+                return 1;
+        }
+    }
+}
@@ -1,19 +1,41 @@
 package retryTest;
 
+import listeners.RetryListener;
 import org.testng.IRetryAnalyzer;
 import org.testng.ITestResult;
+import utils.DriverManager;
+import utils.RetryPolicy;
 
+/**
+ * Retries a failed test only if it failed on infrastructure - a lost
+ * session, WinAppDriver unreachable or erroring, a timeout - and its suite's
+ * {@link RetryPolicy} still allows it. Before the retry the thread's session
+ * is discarded, so the rerun starts on a fresh one instead of the session
+ * that just failed; if its WinAppDriver host was quarantined while the test
+ * ran, the session is requeued instead, so the rerun goes to another host.
+ * Requeues are retries like any other: they count against retryMaxPerTest
+ * and the suite's budget. Put on every test by {@link RetryListener}.
+ */
 public class MyRetry implements IRetryAnalyzer {
 
-    private int retryCount = 0;
-    private static final int maxRetryCount = 3;
-
     @Override
     public boolean retry(ITestResult result) {
-        if (retryCount < maxRetryCount) {
-            retryCount++;
-            return true;
+        RetryPolicy policy = RetryListener.policyFor(result);
+        if (policy == null) {
+            return false;
+        }
+        RetryPolicy.Decision decision = policy.onFailure(RetryListener.testId(result),
+                RetryListener.invocationId(result), result.getThrowable(), RetryListener.durationNanos(result));
+        if (!decision.isRetry()) {
+            return false;
+        }
+        long start = System.nanoTime();
+        if (DriverManager.isOnQuarantinedHost()) {
+            DriverManager.requeueDriver();
+        } else {
+            DriverManager.discardDriver();
         }
-        return false;
+        policy.recordRecycle(System.nanoTime() - start);
+        return true;
     }
 }
@@ -0,0 +1,415 @@
+package stubs;
+
+import org.openqa.selenium.Keys;
+import pages.expression.DisplayFormat;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * In-memory model of the Windows Calculator in Standard mode.
+ * Follows the app's immediate-execution semantics closely enough to run
+ * the TC01_Calculator scenarios without a Windows host.
+ */
+public class CalculatorModel {
+
+    private static final MathContext PRECISION = DisplayFormat.PRECISION;
+    private static final int MAX_DIGITS = DisplayFormat.DISPLAY_DIGITS;
+    private static final String[] DIGIT_NAMES = {
+            "Zero", "One", "Two", "Three", "Four", "Five", "Six", "Seven", "Eight", "Nine"
+    };
+
+    private String entry = "0";
+    private BigDecimal accumulator;
+    private String pendingOperator;
+    private String lastOperator;
+    private BigDecimal lastOperand;
+    private boolean startNewEntry = true;
+    // full-precision value behind the display when it shows a result; null for typed entries
+    private BigDecimal exact;
+    // whether an operand was given since the last operator, so the next operator applies it
+    private boolean operandEntered;
+    private boolean error;
+    private String mode = "Standard";
+    private boolean navigationOpen;
+    private BigDecimal memory;
+
+    /**
+     * Applies a button press, identified by the button's UI Automation name.
+     * @param buttonName e.g. "Seven", "Plus", "Equals"
+     * @return false if the button is unknown to the model
+     */
+    public synchronized boolean press(String buttonName) {
+        int digit = digitOf(buttonName);
+        if (digit >= 0) {
+            digit(digit);
+            return true;
+        }
+        switch (buttonName) {
+            case "Decimal separator": decimal(); return true;
+            case "Plus": operator("+"); return true;
+            case "Minus": operator("-"); return true;
+            case "Multiply by": operator("*"); return true;
+            case "Divide by": operator("/"); return true;
+            case "Equals": equals(); return true;
+            case "Clear": clear(); return true;
+            case "Clear entry": clearEntry(); return true;
+            case "Backspace": backspace(); return true;
+            case "Positive negative": negate(); return true;
+            case "Square root": squareRoot(); return true;
+            case "Square": unary(value().multiply(value(), PRECISION)); return true;
+            case "Reciprocal": reciprocal(); return true;
+            case "Percent": percent(); return true;
+            case "Memory store": memoryStore(); return true;
+            case "Memory recall": memoryRecall(); return true;
+            case "Memory add": memoryAdd(BigDecimal.ONE); return true;
+            case "Memory subtract": memoryAdd(BigDecimal.ONE.negate()); return true;
+            case "Clear all memory": memory = null; return true;
+            case "Open Navigation": navigationOpen = !navigationOpen; return true;
+            case "Standard Calculator": switchMode("Standard"); return true;
+            case "Scientific Calculator": switchMode("Scientific"); return true;
+            case "Programmer Calculator": switchMode("Programmer"); return true;
+            default: return false;
+        }
+    }
+
+    /**
+     * Applies a keystroke using the Calculator's keyboard shortcuts.
+     * @return false if the key has no Standard-mode binding
+     */
+    public boolean pressKey(char key) {
+        String buttonName = buttonForKey(key);
+        return buttonName != null && press(buttonName);
+    }
+
+    /**
+     * @return the button a keyboard shortcut maps to, or null
+     */
+    public static String buttonForKey(char key) {
+        if (key >= '0' && key <= '9') {
+            return DIGIT_NAMES[key - '0'];
+        }
+        switch (key) {
+            case '.': return "Decimal separator";
+            case '+': return "Plus";
+            case '-': return "Minus";
+            case '*': return "Multiply by";
+            case '/': return "Divide by";
+            case '=': return "Equals";
+            case '@': return "Square root";
+            case 'q': return "Square";
+            case 'r': return "Reciprocal";
+            case '%': return "Percent";
+            default:
+                break;
+        }
+        if (key == Keys.ENTER.charAt(0) || key == Keys.RETURN.charAt(0)) {
+            return "Equals";
+        } else if (key == Keys.ESCAPE.charAt(0)) {
+            return "Clear";
+        } else if (key == Keys.DELETE.charAt(0)) {
+            return "Clear entry";
+        } else if (key == Keys.BACK_SPACE.charAt(0)) {
+            return "Backspace";
+        } else if (key == Keys.F9.charAt(0)) {
+            return "Positive negative";
+        }
+        return null;
+    }
+
+    /**
+     * @return the button a Ctrl+key shortcut maps to (the memory keys), or null
+     */
+    public static String buttonForControlKey(char key) {
+        switch (Character.toLowerCase(key)) {
+            case 'm': return "Memory store";
+            case 'r': return "Memory recall";
+            case 'p': return "Memory add";
+            case 'q': return "Memory subtract";
+            case 'l': return "Clear all memory";
+            default: return null;
+        }
+    }
+
+    /**
+     * @return the value shown in the result display, e.g. "42"
+     */
+    public synchronized String getDisplay() {
+        return entry;
+    }
+
+    /**
+     * @return the accessible text of the CalculatorResults element
+     */
+    public synchronized String getDisplayText() {
+        return "Display is " + entry;
+    }
+
+    public synchronized String getMode() {
+        return mode;
+    }
+
+    /**
+     * Memory recall and Clear all memory are disabled while memory is empty.
+     */
+    public synchronized boolean hasMemory() {
+        return memory != null;
+    }
+
+    /**
+     * Menu entries are only present in the UI tree while the navigation pane is open.
+     */
+    public synchronized boolean isNavigationOpen() {
+        return navigationOpen;
+    }
+
+    public static int digitOf(String buttonName) {
+        for (int digit = 0; digit < DIGIT_NAMES.length; digit++) {
+            if (DIGIT_NAMES[digit].equals(buttonName)) {
+                return digit;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Formats a value the way the display does, see {@link DisplayFormat}.
+     */
+    public static String format(BigDecimal value) {
+        return DisplayFormat.format(value);
+    }
+
+    private void digit(int digit) {
+        if (error) {
+            clear();
+        }
+        if (startNewEntry) {
+            entry = "0";
+            startNewEntry = false;
+        }
+        exact = null;
+        operandEntered = true;
+        if (entry.replace("-", "").replace(".", "").length() >= MAX_DIGITS) {
+            return;
+        }
+        entry = "0".equals(entry) ? String.valueOf(digit) : entry + digit;
+    }
+
+    private void decimal() {
+        if (error) {
+            clear();
+        }
+        if (startNewEntry) {
+            entry = "0";
+            startNewEntry = false;
+        }
+        exact = null;
+        operandEntered = true;
+        if (!entry.contains(".")) {
+            entry += ".";
+        }
+    }
+
+    private void operator(String operator) {
+        if (error) {
+            return;
+        }
+        if (pendingOperator != null && operandEntered) {
+            BigDecimal result = apply(accumulator, pendingOperator, value());
+            if (result == null) {
+                return;
+            }
+            accumulator = result;
+            show(result);
+        } else if (pendingOperator == null) {
+            accumulator = value();
+        }
+        pendingOperator = operator;
+        lastOperator = null;
+        startNewEntry = true;
+        operandEntered = false;
+    }
+
+    private void equals() {
+        if (error) {
+            clear();
+            return;
+        }
+        BigDecimal result;
+        if (pendingOperator != null) {
+            BigDecimal operand = value();
+            result = apply(accumulator, pendingOperator, operand);
+            lastOperator = pendingOperator;
+            lastOperand = operand;
+            pendingOperator = null;
+        } else if (lastOperator != null) {
+            result = apply(value(), lastOperator, lastOperand);
+        } else {
+            result = value();
+        }
+        if (result != null) {
+            accumulator = result;
+            show(result);
+        }
+        startNewEntry = true;
+        operandEntered = false;
+    }
+
+    private void memoryStore() {
+        if (!error) {
+            memory = value();
+            startNewEntry = true;
+        }
+    }
+
+    private void memoryRecall() {
+        if (memory != null) {
+            error = false;
+            show(memory);
+            startNewEntry = true;
+            operandEntered = true;
+        }
+    }
+
+    private void memoryAdd(BigDecimal sign) {
+        if (!error) {
+            memory = (memory == null ? BigDecimal.ZERO : memory).add(value().multiply(sign), PRECISION);
+            startNewEntry = true;
+        }
+    }
+
+    private void clear() {
+        entry = "0";
+        accumulator = null;
+        pendingOperator = null;
+        lastOperator = null;
+        lastOperand = null;
+        startNewEntry = true;
+        error = false;
+        exact = null;
+        operandEntered = false;
+    }
+
+    private void clearEntry() {
+        if (error) {
+            clear();
+            return;
+        }
+        entry = "0";
+        exact = null;
+        startNewEntry = false;
+        operandEntered = true;
+    }
+
+    private void backspace() {
+        if (error) {
+            clear();
+            return;
+        }
+        if (startNewEntry) {
+            return;
+        }
+        exact = null;
+        entry = entry.substring(0, entry.length() - 1);
+        if (entry.isEmpty() || "-".equals(entry)) {
+            entry = "0";
+        }
+    }
+
+    private void negate() {
+        if (error || "0".equals(entry)) {
+            return;
+        }
+        entry = entry.startsWith("-") ? entry.substring(1) : "-" + entry;
+        if (exact != null) {
+            exact = exact.negate();
+        }
+    }
+
+    private void squareRoot() {
+        if (error) {
+            return;
+        }
+        if (value().signum() < 0) {
+            fail(DisplayFormat.INVALID_INPUT);
+            return;
+        }
+        unary(value().sqrt(PRECISION));
+    }
+
+    private void reciprocal() {
+        if (error) {
+            return;
+        }
+        if (value().signum() == 0) {
+            fail(DisplayFormat.DIVIDE_BY_ZERO);
+            return;
+        }
+        unary(BigDecimal.ONE.divide(value(), PRECISION));
+    }
+
+    private void percent() {
+        if (error) {
+            return;
+        }
+        BigDecimal percentage = value().divide(BigDecimal.valueOf(100), PRECISION);
+        if ("+".equals(pendingOperator) || "-".equals(pendingOperator)) {
+            unary(accumulator.multiply(percentage, PRECISION));
+        } else if (pendingOperator != null) {
+            unary(percentage);
+        } else {
+            unary(BigDecimal.ZERO);
+        }
+    }
+
+    private void unary(BigDecimal result) {
+        if (error) {
+            return;
+        }
+        show(result);
+        startNewEntry = true;
+        operandEntered = true;
+    }
+
+    private void show(BigDecimal result) {
+        exact = result;
+        entry = format(result);
+    }
+
+    private void switchMode(String newMode) {
+        if (navigationOpen) {
+            mode = newMode;
+            navigationOpen = false;
+            clear();
+        }
+    }
+
+    private BigDecimal apply(BigDecimal left, String operator, BigDecimal right) {
+        switch (operator) {
+            case "+": return left.add(right, PRECISION);
+            case "-": return left.subtract(right, PRECISION);
+            case "*": return left.multiply(right, PRECISION);
+            default:
+                if (right.signum() == 0) {
+                    fail(DisplayFormat.DIVIDE_BY_ZERO);
+                    return null;
+                }
+                return left.divide(right, PRECISION);
+        }
+    }
+
+    private void fail(String message) {
+        entry = message;
+        exact = null;
+        error = true;
+        pendingOperator = null;
+        startNewEntry = true;
+    }
+
+    private BigDecimal value() {
+        if (error) {
+            return BigDecimal.ZERO;
+        }
+        return exact != null ? exact : new BigDecimal(entry);
+    }
+}
@@ -0,0 +1,249 @@
+package stubs;
+
+import org.openqa.selenium.Keys;
+import org.openqa.selenium.remote.ErrorCodes;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The Calculator window as UI Automation exposes it: named elements with runtime
+ * ids over a {@link CalculatorModel}. The result display can lag behind input and
+ * element ids go stale when the tree is rebuilt, like on the real app.
+ * Shared by {@link FakeCalculatorExecutor} and {@link WinAppDriverStub}.
+ */
+public class CalculatorUi {
+
+    private static final String[] BUTTONS = {
+            "Zero", "One", "Two", "Three", "Four", "Five", "Six", "Seven", "Eight", "Nine",
+            "Plus", "Minus", "Multiply by", "Divide by", "Equals", "Clear", "Clear entry",
+            "Decimal separator", "Backspace", "Positive negative", "Square root", "Square",
+            "Reciprocal", "Percent", "Open Navigation", "Memory store", "Memory recall",
+            "Memory add", "Memory subtract", "Clear all memory"
+    };
+    private static final List<String> MENU_ITEMS = List.of(
+            "Standard Calculator", "Scientific Calculator", "Programmer Calculator");
+    private static final Set<String> NEEDS_MEMORY = Set.of("Memory recall", "Clear all memory");
+    private static final String DISPLAY_ID = "CalculatorResults";
+    private static final String HEADER_ID = "Header";
+
+    private final CalculatorModel model = new CalculatorModel();
+    private final Map<String, String> idsByName = new ConcurrentHashMap<>();
+    private final Map<String, String> namesById = new ConcurrentHashMap<>();
+    private final AtomicInteger generation = new AtomicInteger();
+
+    private volatile long displayDelayNanos;
+    private String laggingDisplayText;
+    private long laggingUntilNanos;
+    private volatile String displayOverride;
+
+    public CalculatorUi() {
+        assignElementIds();
+    }
+
+    /**
+     * Finds an element by Name or AutomationId.
+     * @return the element's runtime id
+     * @throws UiException NO_SUCH_ELEMENT if it is not in the tree right now
+     */
+    public String findElement(String name) {
+        String id = idsByName.get(name);
+        if (id == null || (MENU_ITEMS.contains(name) && !model.isNavigationOpen())) {
+            throw new UiException(ErrorCodes.NO_SUCH_ELEMENT,
+                    "An element could not be located on the page using the given search parameters.");
+        }
+        return id;
+    }
+
+    /**
+     * @return the runtime ids of matching elements; empty if there are none
+     */
+    public List<String> findElements(String name) {
+        try {
+            return Collections.singletonList(findElement(name));
+        } catch (UiException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    public void click(String id) {
+        String name = nameOf(id);
+        updateDisplay(() -> model.press(name));
+    }
+
+    public String getText(String id) {
+        String name = nameOf(id);
+        if (DISPLAY_ID.equals(name)) {
+            return visibleDisplayText();
+        } else if (HEADER_ID.equals(name)) {
+            return model.getMode() + " Calculator mode";
+        }
+        return name;
+    }
+
+    public boolean isDisplayed(String id) {
+        nameOf(id);
+        return true;
+    }
+
+    /**
+     * Memory recall and Clear all memory are disabled while memory is empty.
+     */
+    public boolean isEnabled(String id) {
+        return !NEEDS_MEMORY.contains(nameOf(id)) || model.hasMemory();
+    }
+
+    /**
+     * The UI tree as WinAppDriver's page source shows it: one element per
+     * control with its Name, AutomationId and RuntimeId. The navigation menu
+     * items are only in the tree while the menu is open.
+     */
+    public synchronized String getPageSource() {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"utf-16\"?>")
+                .append(String.format("<Window AutomationId=\"\" ClassName=\"ApplicationFrameWindow\" "
+                        + "IsEnabled=\"True\" Name=\"Calculator\" RuntimeId=\"42.%d\">", generation.get()));
+        for (String name : BUTTONS) {
+            appendElement(xml, "Button", name, "", name);
+        }
+        if (model.isNavigationOpen()) {
+            for (String item : MENU_ITEMS) {
+                appendElement(xml, "ListItem", item, "", item);
+            }
+        }
+        appendElement(xml, "Text", DISPLAY_ID, DISPLAY_ID, visibleDisplayText());
+        appendElement(xml, "Text", HEADER_ID, HEADER_ID, model.getMode() + " Calculator mode");
+        return xml.append("</Window>").toString();
+    }
+
+    private void appendElement(StringBuilder xml, String controlType, String key, String automationId, String name) {
+        String id = idsByName.get(key);
+        xml.append(String.format("<%s AutomationId=\"%s\" IsEnabled=\"%s\" IsOffscreen=\"False\" Name=\"%s\" "
+                        + "RuntimeId=\"%s\" />", controlType, escape(automationId),
+                isEnabled(id) ? "True" : "False", escape(name), id));
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace("\"", "&quot;");
+    }
+
+    /**
+     * Types into the focused window, one key at a time. Like WebDriver, Ctrl stays
+     * down from Keys.CONTROL until Keys.NULL or the end of the payload.
+     */
+    public void sendKeys(String keys) {
+        updateDisplay(() -> {
+            boolean control = false;
+            for (char key : keys.toCharArray()) {
+                if (key == Keys.CONTROL.charAt(0)) {
+                    control = true;
+                } else if (key == Keys.NULL.charAt(0)) {
+                    control = false;
+                } else if (control) {
+                    String button = CalculatorModel.buttonForControlKey(key);
+                    if (button != null) {
+                        model.press(button);
+                    }
+                } else {
+                    model.pressKey(key);
+                }
+            }
+        });
+    }
+
+    /**
+     * Makes the display keep showing its previous text for the given time after
+     * every input, like a slow UI Automation tree refresh.
+     */
+    public void setDisplayDelay(Duration delay) {
+        displayDelayNanos = delay.toNanos();
+    }
+
+    /**
+     * Makes the display show the given value whatever the model computes, like
+     * a Calculator producing a wrong result; null shows the model's value again.
+     */
+    public void setDisplayOverride(String value) {
+        displayOverride = value;
+    }
+
+    /**
+     * Simulates the UI tree being rebuilt: previously returned element ids become stale.
+     */
+    public void invalidateElementIds() {
+        generation.incrementAndGet();
+        assignElementIds();
+    }
+
+    public CalculatorModel getModel() {
+        return model;
+    }
+
+    private String nameOf(String id) {
+        String name = namesById.get(id);
+        if (name == null) {
+            throw new UiException(ErrorCodes.STALE_ELEMENT_REFERENCE,
+                    "An element command failed because the referenced element is no longer attached to the DOM.");
+        }
+        return name;
+    }
+
+    private synchronized void assignElementIds() {
+        idsByName.clear();
+        namesById.clear();
+        List<String> names = new ArrayList<>();
+        Collections.addAll(names, BUTTONS);
+        names.addAll(MENU_ITEMS);
+        names.add(DISPLAY_ID);
+        names.add(HEADER_ID);
+        for (int i = 0; i < names.size(); i++) {
+            String id = String.format("42.%d.%d", generation.get(), i);
+            idsByName.put(names.get(i), id);
+            namesById.put(id, names.get(i));
+        }
+    }
+
+    private synchronized void updateDisplay(Runnable input) {
+        String before = visibleDisplayText();
+        input.run();
+        if (displayDelayNanos > 0) {
+            laggingDisplayText = before;
+            laggingUntilNanos = System.nanoTime() + displayDelayNanos;
+        }
+    }
+
+    private synchronized String visibleDisplayText() {
+        if (laggingDisplayText != null && System.nanoTime() < laggingUntilNanos) {
+            return laggingDisplayText;
+        }
+        laggingDisplayText = null;
+        String override = displayOverride;
+        return override != null ? "Display is " + override : model.getDisplayText();
+    }
+
+    /**
+     * A failed UI Automation lookup, carrying the wire protocol status to answer with.
+     */
+    public static class UiException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+        private final int status;
+
+        public UiException(int status, String message) {
+            super(message, null, false, false);
+            this.status = status;
+        }
+
+        /**
+         * @return the JSON wire protocol status, see {@link ErrorCodes}
+         */
+        public int getStatus() {
+            return status;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package stubs;
+
+import io.appium.java_client.windows.WindowsDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.ErrorCodes;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.Response;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-process stand-in for a WinAppDriver session backed by {@link CalculatorUi}.
+ * Every command that would have been an HTTP round trip is answered locally,
+ * counted and recorded, so framework behaviour can be asserted without Windows.
+ */
+public class FakeCalculatorExecutor extends HttpCommandExecutor {
+
+    private final CalculatorUi ui = new CalculatorUi();
+    private final String sessionId = UUID.randomUUID().toString();
+    private final Map<String, AtomicInteger> commandCounts = new ConcurrentHashMap<>();
+    private final List<Command> commands = Collections.synchronizedList(new ArrayList<>());
+
+    private volatile boolean alive = true;
+    private volatile long commandLatencyNanos;
+
+    public FakeCalculatorExecutor() {
+        super(localhost());
+    }
+
+    /**
+     * Starts a WindowsDriver session against this executor.
+     */
+    public WindowsDriver<WebElement> newDriver() {
+        DesiredCapabilities capabilities = new DesiredCapabilities();
+        capabilities.setCapability("app", "Microsoft.WindowsCalculator_8wekyb3d8bbwe!App");
+        capabilities.setCapability("platformName", "Windows");
+        capabilities.setCapability("deviceName", "WindowsPC");
+        return new WindowsDriver<>(this, capabilities);
+    }
+
+    @Override
+    public Response execute(Command command) {
+        commands.add(command);
+        commandCounts.computeIfAbsent(command.getName(), name -> new AtomicInteger()).incrementAndGet();
+        Map<String, ?> params = command.getParameters();
+        simulateRoundTrip();
+
+        if (!alive && !DriverCommand.NEW_SESSION.equals(command.getName())) {
+            return error(ErrorCodes.NO_SUCH_SESSION, "A session is either terminated or not started");
+        }
+        try {
+            switch (command.getName()) {
+                case DriverCommand.NEW_SESSION:
+                    alive = true;
+                    Map<String, Object> capabilities = new HashMap<>();
+                    capabilities.put("platformName", "Windows");
+                    return success(capabilities);
+                case DriverCommand.QUIT:
+                    alive = false;
+                    return success(null);
+                case DriverCommand.GET_CURRENT_WINDOW_HANDLE:
+                    return success("0x" + Integer.toHexString(sessionId.hashCode()));
+                case DriverCommand.FIND_ELEMENT:
+                    return success(element(ui.findElement(String.valueOf(params.get("value")))));
+                case DriverCommand.FIND_ELEMENTS:
+                    return success(ui.findElements(String.valueOf(params.get("value"))).stream()
+                            .map(FakeCalculatorExecutor::element)
+                            .collect(Collectors.toList()));
+                case DriverCommand.CLICK_ELEMENT:
+                    return withElement(params, id -> {
+                        ui.click(id);
+                        return null;
+                    });
+                case DriverCommand.GET_ELEMENT_TEXT:
+                    return withElement(params, ui::getText);
+                case DriverCommand.SEND_KEYS_TO_ACTIVE_ELEMENT:
+                    ui.sendKeys(keysOf(params.get("value")));
+                    return success(null);
+                case DriverCommand.IS_ELEMENT_DISPLAYED:
+                    return withElement(params, ui::isDisplayed);
+                case DriverCommand.IS_ELEMENT_ENABLED:
+                    return withElement(params, ui::isEnabled);
+                case DriverCommand.GET_PAGE_SOURCE:
+                    return success(ui.getPageSource());
+                default:
+                    return error(ErrorCodes.UNKNOWN_COMMAND, "Unsupported command: " + command.getName());
+            }
+        } catch (CalculatorUi.UiException e) {
+            return error(e.getStatus(), e.getMessage());
+        }
+    }
+
+    /**
+     * Makes the display keep showing its previous text for the given time after
+     * every input, like a slow UI Automation tree refresh.
+     */
+    public void setDisplayDelay(Duration delay) {
+        ui.setDisplayDelay(delay);
+    }
+
+    /**
+     * Makes the display show the given value whatever the model computes; null
+     * shows the model's value again.
+     */
+    public void setDisplayOverride(String value) {
+        ui.setDisplayOverride(value);
+    }
+
+    /**
+     * Makes every command take at least the given time, like the HTTP round trip
+     * to a real WinAppDriver.
+     */
+    public void setCommandLatency(Duration latency) {
+        commandLatencyNanos = latency.toNanos();
+    }
+
+    /**
+     * Simulates the app or WinAppDriver dying: every later command fails.
+     */
+    public void kill() {
+        alive = false;
+    }
+
+    public boolean isAlive() {
+        return alive;
+    }
+
+    public CalculatorModel getModel() {
+        return ui.getModel();
+    }
+
+    /**
+     * @return total number of commands, i.e. WinAppDriver round trips
+     */
+    public int getCommandCount() {
+        return commands.size();
+    }
+
+    public int getCommandCount(String commandName) {
+        AtomicInteger count = commandCounts.get(commandName);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * @return a snapshot of every command received, in order
+     */
+    public List<Command> getCommands() {
+        synchronized (commands) {
+            return new ArrayList<>(commands);
+        }
+    }
+
+    public void resetCounters() {
+        commands.clear();
+        commandCounts.clear();
+    }
+
+    /**
+     * Simulates the UI tree being rebuilt: previously returned element ids become stale.
+     */
+    public void invalidateElementIds() {
+        ui.invalidateElementIds();
+    }
+
+    private void simulateRoundTrip() {
+        long latency = commandLatencyNanos;
+        if (latency <= 0) {
+            return;
+        }
+        long deadline = System.nanoTime() + latency;
+        for (long left = latency; left > 0; left = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(left);
+        }
+    }
+
+    private Response withElement(Map<String, ?> params, Function<String, Object> action) {
+        return success(action.apply(String.valueOf(params.get("id"))));
+    }
+
+    /**
+     * @return the JSON wire protocol form of an element reference
+     */
+    static Map<String, Object> element(String id) {
+        return Collections.singletonMap("ELEMENT", id);
+    }
+
+    /**
+     * @return the keystrokes of a sendKeys payload, which arrives either as
+     * CharSequence[] (in-process) or as a list of strings (decoded JSON)
+     */
+    public static String keysOf(Object value) {
+        StringBuilder keys = new StringBuilder();
+        if (value instanceof CharSequence[]) {
+            for (CharSequence sequence : (CharSequence[]) value) {
+                keys.append(sequence);
+            }
+        } else if (value instanceof Iterable) {
+            for (Object sequence : (Iterable<?>) value) {
+                keys.append(sequence);
+            }
+        } else if (value != null) {
+            keys.append(value);
+        }
+        return keys.toString();
+    }
+
+    private Response success(Object value) {
+        Response response = new Response();
+        response.setSessionId(sessionId);
+        response.setStatus(ErrorCodes.SUCCESS);
+        response.setValue(value);
+        return response;
+    }
+
+    private Response error(int status, String message) {
+        Response response = new Response();
+        response.setSessionId(sessionId);
+        response.setStatus(status);
+        response.setValue(Collections.singletonMap("message", message));
+        return response;
+    }
+
+    private static URL localhost() {
+        try {
+            return new URL("http://127.0.0.1:4723");
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
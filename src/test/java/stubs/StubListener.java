@@ -0,0 +1,94 @@
+package stubs;
+
+import common.MyScreenRecorder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import utils.ConfigReader;
+import utils.DriverManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * With stub=true, runs the suite against {@link WinAppDriverStub}s instead
+ * of WinAppDriver: starts one stub per host (stubHosts) before the suite's
+ * sessions are pre-warmed, points DriverManager and window recordings at
+ * them, and closes them (handing the settings back) once the suite has quit
+ * its sessions. Without stub=true it does nothing. Registered through
+ * META-INF/services, so testBase knows nothing about the stubs.
+ */
+public class StubListener implements ISuiteListener {
+
+    private static final Logger logger = LogManager.getLogger(StubListener.class);
+
+    private static final String APP_ID = "Microsoft.WindowsCalculator_8wekyb3d8bbwe!App";
+
+    // the stubs of the outermost suite; a TestNG run nested in it keeps using them
+    private static final List<WinAppDriverStub> running = new ArrayList<>();
+
+    private final List<WinAppDriverStub> started = new ArrayList<>();
+
+    @Override
+    public void onStart(ISuite suite) {
+        if (!ConfigReader.getBoolean("stub", false)) {
+            return;
+        }
+        synchronized (running) {
+            if (running.isEmpty()) {
+                started.addAll(start());
+                running.addAll(started);
+            }
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        synchronized (running) {
+            if (started.isEmpty()) {
+                return;
+            }
+            for (WinAppDriverStub stub : started) {
+                logger.info("🧪 {}", stub.summary());
+                stub.close();
+            }
+            running.removeAll(started);
+            started.clear();
+            DriverManager.setWinAppDriverUrl(null);
+            DriverManager.setWinAppDriverUrls(null);
+            DriverManager.setAppPath(null);
+            MyScreenRecorder.setFrameSource(null);
+        }
+    }
+
+    /**
+     * Starts the stubs - one per host with stubHosts - and points DriverManager at them
+     */
+    private static List<WinAppDriverStub> start() {
+        int hosts = Math.max(1, ConfigReader.getInt("stubHosts", 1));
+        int port = ConfigReader.getInt("stubPort", 0);
+        String seed = ConfigReader.getSetting("stubSeed", null);
+        List<WinAppDriverStub> stubs = new ArrayList<>();
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < hosts; i++) {
+            WinAppDriverStub stub = WinAppDriverStub.start(port == 0 ? 0 : port + i)
+                    .configure(ConfigReader.getSetting("stubLatencyMs", null),
+                            ConfigReader.getSetting("stubErrorRate", null));
+            if (seed != null) {
+                stub.withSeed(Long.parseLong(seed) + i);
+            }
+            stubs.add(stub);
+            urls.add(stub.getUrl().toString());
+        }
+        DriverManager.setWinAppDriverUrl(urls.get(0));
+        if (hosts > 1) {
+            DriverManager.setWinAppDriverUrls(urls);
+        }
+        DriverManager.setAppPath(APP_ID);
+        // no screen to record on a stub run; window recordings get synthetic frames
+        MyScreenRecorder.setFrameSource(new SyntheticFrameSource());
+        logger.info("🧪 WinAppDriver stub listening on {}", String.join(", ", urls));
+        return stubs;
+    }
+}
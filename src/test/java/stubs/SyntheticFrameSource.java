@@ -0,0 +1,82 @@
+package stubs;
+
+import common.FrameSource;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Frames for window recordings where there is no screen to capture: a
+ * Calculator-like picture (display bar over a grid of buttons) whose display
+ * changes every few frames, the way the real window sits still between key
+ * presses. Like a screen capture, each frame is a new image.
+ */
+public class SyntheticFrameSource implements FrameSource {
+
+    private static final Color BACKGROUND = new Color(0xF3F3F3);
+    private static final Color BUTTON = new Color(0xFBFBFB);
+    private static final Color DIGITS = new Color(0x1A1A1A);
+
+    private final int framesPerChange;
+    private final AtomicLong captures = new AtomicLong();
+
+    /**
+     * @param framesPerChange captures between display changes; 1 changes every frame
+     */
+    public SyntheticFrameSource(int framesPerChange) {
+        this.framesPerChange = Math.max(1, framesPerChange);
+    }
+
+    public SyntheticFrameSource() {
+        this(5);
+    }
+
+    @Override
+    public BufferedImage capture(Rectangle area) {
+        long state = captures.getAndIncrement() / framesPerChange;
+        BufferedImage frame = new BufferedImage(area.width, area.height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = frame.createGraphics();
+        try {
+            graphics.setColor(BACKGROUND);
+            graphics.fillRect(0, 0, area.width, area.height);
+
+            // display: one block per decimal digit of the state, right-aligned like the result
+            int displayHeight = area.height / 5;
+            int digitWidth = Math.max(2, area.width / 16);
+            graphics.setColor(DIGITS);
+            String digits = Long.toString(state);
+            for (int i = 0; i < digits.length(); i++) {
+                int digit = digits.charAt(digits.length() - 1 - i) - '0';
+                int x = area.width - (i + 1) * (digitWidth + 2);
+                int height = displayHeight * (digit + 1) / 10;
+                graphics.fillRect(x, displayHeight - height, digitWidth, height);
+            }
+
+            // keypad: 6 rows x 4 columns
+            int rows = 6;
+            int columns = 4;
+            int cellWidth = area.width / columns;
+            int cellHeight = (area.height - displayHeight) / rows;
+            graphics.setColor(BUTTON);
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    graphics.fillRect(column * cellWidth + 1, displayHeight + row * cellHeight + 1,
+                            cellWidth - 2, cellHeight - 2);
+                }
+            }
+        } finally {
+            graphics.dispose();
+        }
+        return frame;
+    }
+
+    /**
+     * @return frames captured so far
+     */
+    public long getCaptures() {
+        return captures.get();
+    }
+}
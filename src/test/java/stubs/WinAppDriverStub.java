@@ -0,0 +1,439 @@
+package stubs;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.ErrorCodes;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * A WinAppDriver look-alike on localhost, serving the subset of the JSON wire
+ * protocol the framework uses. Each session gets its own simulated Calculator
+ * ({@link CalculatorUi}), so TC01_Calculator runs on any OS in seconds.
+ * The sessions share one simulated desktop, like Calculator instances on
+ * one Windows host: a new session's window and a clicked window come to the
+ * front, and keystrokes go to the window in front, whichever session sent them.
+ * Latency and error rates can be injected per command, keyed by the
+ * {@link DriverCommand} name (e.g. "clickElement", "findElement").
+ */
+public class WinAppDriverStub implements AutoCloseable {
+
+    private static final Set<String> LOCATOR_STRATEGIES = Set.of("name", "accessibility id", "id");
+
+    private static final Json JSON = new Json();
+    // every simulated Calculator window sits at the same place, the size of its screenshot
+    private static final Map<String, Object> WINDOW_RECT = Map.of("x", 0, "y", 0, "width", 320, "height", 480);
+
+    static {
+        // headers and body go out as separate writes; without TCP_NODELAY each
+        // response waits ~40 ms on Nagle + delayed ACK
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService workers;
+    private final Map<String, CalculatorUi> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Long> latencyNanos = new ConcurrentHashMap<>();
+    private final Map<String, Double> errorRates = new ConcurrentHashMap<>();
+    private final AtomicInteger sessionsCreated = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final Map<String, Map<String, Object>> windowRects = new ConcurrentHashMap<>();
+    private final AtomicLong misdirectedKeys = new AtomicLong();
+    // session whose window is in front
+    private volatile String foreground;
+    private volatile Random random = new Random();
+
+    private WinAppDriverStub(HttpServer server) {
+        this.server = server;
+        this.workers = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "winappdriver-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.createContext("/", this::handle);
+        server.setExecutor(workers);
+    }
+
+    /**
+     * Starts a stub on 127.0.0.1.
+     * @param port port to listen on, or 0 for any free port
+     */
+    public static WinAppDriverStub start(int port) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            WinAppDriverStub stub = new WinAppDriverStub(server);
+            server.start();
+            return stub;
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ Could not start WinAppDriver stub on port " + port, e);
+        }
+    }
+
+    /**
+     * @return the URL to point DriverManager at, e.g. http://127.0.0.1:54321
+     */
+    public URL getUrl() {
+        try {
+            return new URL("http://127.0.0.1:" + server.getAddress().getPort());
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Delays every response to the given command, e.g. ("clickElement", 5ms).
+     */
+    public WinAppDriverStub withLatency(String command, Duration latency) {
+        latencyNanos.put(command, latency.toNanos());
+        return this;
+    }
+
+    /**
+     * Fails the given fraction (0..1) of the command's requests with an unknown error.
+     */
+    public WinAppDriverStub withErrorRate(String command, double rate) {
+        errorRates.put(command, rate);
+        return this;
+    }
+
+    /**
+     * Makes error injection repeatable.
+     */
+    public WinAppDriverStub withSeed(long seed) {
+        random = new Random(seed);
+        return this;
+    }
+
+    /**
+     * Applies "command=value" lists such as "findElement=5,clickElement=2".
+     * @param latencyMillis per-command latency in ms, may be null
+     * @param errorRates per-command error rate (0..1), may be null
+     */
+    public WinAppDriverStub configure(String latencyMillis, String errorRates) {
+        parseSpec(latencyMillis).forEach((command, millis) ->
+                withLatency(command, Duration.ofMillis(Long.parseLong(millis))));
+        parseSpec(errorRates).forEach((command, rate) -> withErrorRate(command, Double.parseDouble(rate)));
+        return this;
+    }
+
+    /**
+     * @return the simulated Calculator behind a session, or null if there is none
+     */
+    public CalculatorUi getSession(String sessionId) {
+        return sessions.get(sessionId);
+    }
+
+    public int getSessionsCreated() {
+        return sessionsCreated.get();
+    }
+
+    /**
+     * @return sessions started and not yet deleted
+     */
+    public int getLiveSessions() {
+        return sessions.size();
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getInjectedErrors() {
+        return injectedErrors.get();
+    }
+
+    /**
+     * @return keystroke payloads that landed in another session's window
+     */
+    public long getMisdirectedKeys() {
+        return misdirectedKeys.get();
+    }
+
+    /**
+     * @return the session whose window is in front, or null
+     */
+    public String getForegroundSession() {
+        return foreground;
+    }
+
+    public String summary() {
+        return String.format("WinAppDriver stub: %d sessions, %d requests, %d injected errors, "
+                        + "%d keystroke payloads sent to another session's window",
+                getSessionsCreated(), getRequestCount(), getInjectedErrors(), getMisdirectedKeys());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        workers.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            Reply reply = dispatch(exchange.getRequestMethod(), exchange.getRequestURI().getPath(), readBody(exchange));
+            byte[] body = JSON.toJson(reply.body).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(reply.httpStatus, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private Reply dispatch(String method, String path, Map<String, Object> body) {
+        String[] parts = path.replaceAll("^/+|/+$", "").split("/");
+        if (parts.length == 1 && "status".equals(parts[0])) {
+            return Reply.ok(null, Map.of("build", Map.of("version", "stub")));
+        }
+        if (!"session".equals(parts[0])) {
+            return Reply.error(null, 404, ErrorCodes.UNKNOWN_COMMAND, "Unknown command: " + method + " " + path);
+        }
+        if (parts.length == 1 && "POST".equals(method)) {
+            String sessionId = UUID.randomUUID().toString();
+            return respond(DriverCommand.NEW_SESSION, sessionId, () -> {
+                sessions.put(sessionId, new CalculatorUi());
+                sessionsCreated.incrementAndGet();
+                foreground = sessionId;
+                return Map.of("platformName", "Windows");
+            });
+        }
+        String sessionId = parts[1];
+        CalculatorUi ui = sessions.get(sessionId);
+        if (ui == null) {
+            return Reply.error(sessionId, 404, ErrorCodes.NO_SUCH_SESSION, "A session is either terminated or not started");
+        }
+        String route = method + " " + String.join("/", Arrays.copyOfRange(parts, 2, parts.length))
+                .replaceAll("^element/[^/]+", "element/:id");
+        String elementId = parts.length > 3 && "element".equals(parts[2]) ? parts[3] : null;
+        switch (route) {
+            case "DELETE ":
+                return respond(DriverCommand.QUIT, sessionId, () -> {
+                    sessions.remove(sessionId);
+                    windowRects.remove(sessionId);
+                    if (sessionId.equals(foreground)) {
+                        foreground = null;
+                    }
+                    return null;
+                });
+            case "GET window_handle":
+            case "GET window":
+                return respond(DriverCommand.GET_CURRENT_WINDOW_HANDLE, sessionId, () -> windowHandle(sessionId));
+            case "POST window":
+                return respond(DriverCommand.SWITCH_TO_WINDOW, sessionId, () -> {
+                    Object handle = body.containsKey("handle") ? body.get("handle") : body.get("name");
+                    if (!windowHandle(sessionId).equals(handle)) {
+                        throw new CalculatorUi.UiException(ErrorCodes.NO_SUCH_WINDOW, "No window " + handle + " in this session");
+                    }
+                    foreground = sessionId;
+                    return null;
+                });
+            case "GET window/rect":
+            case "GET window/current/size":
+            case "GET window/current/position":
+                return respond(DriverCommand.GET_CURRENT_WINDOW_SIZE, sessionId,
+                        () -> windowRects.getOrDefault(sessionId, WINDOW_RECT));
+            case "POST window/rect":
+            case "POST window/current/size":
+            case "POST window/current/position":
+                return respond(DriverCommand.SET_CURRENT_WINDOW_POSITION, sessionId, () -> {
+                    Map<String, Object> rect = new LinkedHashMap<>(windowRects.getOrDefault(sessionId, WINDOW_RECT));
+                    for (String key : WINDOW_RECT.keySet()) {
+                        if (body.get(key) instanceof Number) {
+                            rect.put(key, ((Number) body.get(key)).intValue());
+                        }
+                    }
+                    windowRects.put(sessionId, rect);
+                    return null;
+                });
+            case "POST element":
+                return respond(DriverCommand.FIND_ELEMENT, sessionId,
+                        () -> FakeCalculatorExecutor.element(ui.findElement(locatorValue(body))));
+            case "POST elements":
+                return respond(DriverCommand.FIND_ELEMENTS, sessionId, () -> ui.findElements(locatorValue(body))
+                        .stream().map(FakeCalculatorExecutor::element).collect(Collectors.toList()));
+            case "POST element/:id/click":
+                return respond(DriverCommand.CLICK_ELEMENT, sessionId, () -> {
+                    ui.click(elementId);
+                    foreground = sessionId;
+                    return null;
+                });
+            case "GET element/:id/text":
+                return respond(DriverCommand.GET_ELEMENT_TEXT, sessionId, () -> ui.getText(elementId));
+            case "GET element/:id/displayed":
+                return respond(DriverCommand.IS_ELEMENT_DISPLAYED, sessionId, () -> ui.isDisplayed(elementId));
+            case "GET element/:id/enabled":
+                return respond(DriverCommand.IS_ELEMENT_ENABLED, sessionId, () -> ui.isEnabled(elementId));
+            case "POST element/:id/value":
+                return respond(DriverCommand.SEND_KEYS_TO_ELEMENT, sessionId, () -> {
+                    ui.isDisplayed(elementId);
+                    foreground = sessionId;
+                    ui.sendKeys(FakeCalculatorExecutor.keysOf(body.get("value")));
+                    return null;
+                });
+            case "POST keys":
+                return respond(DriverCommand.SEND_KEYS_TO_ACTIVE_ELEMENT, sessionId, () -> {
+                    String front = foreground;
+                    CalculatorUi target = front == null ? null : sessions.get(front);
+                    if (target == null) {
+                        target = ui;
+                    } else if (target != ui) {
+                        misdirectedKeys.incrementAndGet();
+                    }
+                    target.sendKeys(FakeCalculatorExecutor.keysOf(body.get("value")));
+                    return null;
+                });
+            case "GET source":
+                return respond(DriverCommand.GET_PAGE_SOURCE, sessionId, ui::getPageSource);
+            case "GET screenshot":
+                return respond(DriverCommand.SCREENSHOT, sessionId, () -> Screenshot.BASE64);
+            default:
+                return Reply.error(sessionId, 404, ErrorCodes.UNKNOWN_COMMAND, "Unknown command: " + method + " " + path);
+        }
+    }
+
+    /**
+     * Runs a command after its injected latency, or fails it at its injected error rate.
+     */
+    private Reply respond(String command, String sessionId, Action action) {
+        Long latency = latencyNanos.get(command);
+        if (latency != null && latency > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Double errorRate = errorRates.get(command);
+        if (errorRate != null && random.nextDouble() < errorRate) {
+            injectedErrors.incrementAndGet();
+            return Reply.error(sessionId, 500, ErrorCodes.UNHANDLED_ERROR, "Injected failure for " + command);
+        }
+        try {
+            return Reply.ok(sessionId, action.run());
+        } catch (CalculatorUi.UiException e) {
+            int httpStatus = e.getStatus() == ErrorCodes.NO_SUCH_ELEMENT ? 404 : 500;
+            return Reply.error(sessionId, httpStatus, e.getStatus(), e.getMessage());
+        }
+    }
+
+    private static String windowHandle(String sessionId) {
+        return "0x" + Integer.toHexString(sessionId.hashCode());
+    }
+
+    private static String locatorValue(Map<String, Object> body) {
+        Object using = body.get("using");
+        if (!LOCATOR_STRATEGIES.contains(String.valueOf(using))) {
+            throw new CalculatorUi.UiException(ErrorCodes.INVALID_SELECTOR_ERROR, "Unsupported locator strategy: " + using);
+        }
+        return String.valueOf(body.get("value"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            return text.isBlank() ? Collections.emptyMap() : JSON.toType(text, Map.class);
+        }
+    }
+
+    private static Map<String, String> parseSpec(String spec) {
+        Map<String, String> values = new LinkedHashMap<>();
+        if (spec == null || spec.isBlank()) {
+            return values;
+        }
+        for (String entry : spec.split(",")) {
+            String[] pair = entry.split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("❌ Expected command=value but got: " + entry);
+            }
+            values.put(pair[0].trim(), pair[1].trim());
+        }
+        return values;
+    }
+
+    @FunctionalInterface
+    private interface Action {
+        Object run();
+    }
+
+    /**
+     * A JSON wire protocol response: {"sessionId", "status", "value"}.
+     */
+    private static final class Reply {
+
+        final int httpStatus;
+        final Map<String, Object> body = new LinkedHashMap<>();
+
+        private Reply(int httpStatus, String sessionId, int status, Object value) {
+            this.httpStatus = httpStatus;
+            body.put("sessionId", sessionId);
+            body.put("status", status);
+            body.put("value", value);
+        }
+
+        static Reply ok(String sessionId, Object value) {
+            return new Reply(200, sessionId, ErrorCodes.SUCCESS, value);
+        }
+
+        static Reply error(String sessionId, int httpStatus, int status, String message) {
+            return new Reply(httpStatus, sessionId, status, Collections.singletonMap("message", message));
+        }
+    }
+
+    /**
+     * A plain Calculator-sized PNG, rendered once.
+     */
+    private static final class Screenshot {
+
+        static final String BASE64 = render();
+
+        private static String render() {
+            BufferedImage image = new BufferedImage(320, 480, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = image.createGraphics();
+            graphics.setColor(new Color(0xF3F3F3));
+            graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+            graphics.dispose();
+            try (ByteArrayOutputStream png = new ByteArrayOutputStream()) {
+                ImageIO.write(image, "png", png);
+                return Base64.getEncoder().encodeToString(png.toByteArray());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
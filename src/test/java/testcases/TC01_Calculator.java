@@ -21,8 +21,8 @@ public class TC01_Calculator extends testBase{
         System.out.println("\n🧪 TEST: Addition Operation");
         System.out.println("-".repeat(40));
 
-        new P01_CalculatorPage(driver).add("25", "17");
-        String result = new P01_CalculatorPage(driver).getResult();
+        new P01_CalculatorPage(getDriver()).add("25", "17");
+        String result = new P01_CalculatorPage(getDriver()).getResult();
 
         Assert.assertEquals(result, "42", "Addition result should be 42");
         System.out.println("✅ TEST PASSED: Addition works correctly");
@@ -33,8 +33,8 @@ public class TC01_Calculator extends testBase{
         System.out.println("\n🧪 TEST: Subtraction Operation");
         System.out.println("-".repeat(40));
 
-        new P01_CalculatorPage(driver).subtract("100", "42");
-        String result = new P01_CalculatorPage(driver).getResult();
+        new P01_CalculatorPage(getDriver()).subtract("100", "42");
+        String result = new P01_CalculatorPage(getDriver()).getResult();
 
         Assert.assertEquals(result, "58", "Subtraction result should be 58");
         System.out.println("✅ TEST PASSED: Subtraction works correctly");
@@ -45,8 +45,8 @@ public class TC01_Calculator extends testBase{
         System.out.println("\n🧪 TEST: Multiplication Operation");
         System.out.println("-".repeat(40));
 
-        new P01_CalculatorPage(driver).multiply("6", "7");
-        String result = new P01_CalculatorPage(driver).getResult();
+        new P01_CalculatorPage(getDriver()).multiply("6", "7");
+        String result = new P01_CalculatorPage(getDriver()).getResult();
 
         Assert.assertEquals(result, "42", "Multiplication result should be 42");
         System.out.println("✅ TEST PASSED: Multiplication works correctly");
@@ -57,8 +57,8 @@ public class TC01_Calculator extends testBase{
         System.out.println("\n🧪 TEST: Division Operation");
         System.out.println("-".repeat(40));
 
-        new P01_CalculatorPage(driver).divide("84", "2");
-        String result = new P01_CalculatorPage(driver).getResult();
+        new P01_CalculatorPage(getDriver()).divide("84", "2");
+        String result = new P01_CalculatorPage(getDriver()).getResult();
 
         Assert.assertEquals(result, "42", "Division result should be 42");
         System.out.println("✅ TEST PASSED: Division works correctly");
@@ -69,8 +69,8 @@ public class TC01_Calculator extends testBase{
         System.out.println("\n🧪 TEST: Decimal Operations");
         System.out.println("-".repeat(40));
 
-        new P01_CalculatorPage(driver).add("10.5", "5.5");
-        String result = new P01_CalculatorPage(driver).getResult();
+        new P01_CalculatorPage(getDriver()).add("10.5", "5.5");
+        String result = new P01_CalculatorPage(getDriver()).getResult();
 
         Assert.assertEquals(result, "16", "Decimal addition result should be 16");
         System.out.println("✅ TEST PASSED: Decimal operations work correctly");
@@ -81,9 +81,9 @@ public class TC01_Calculator extends testBase{
         System.out.println("\n🧪 TEST: Clear Function");
         System.out.println("-".repeat(40));
 
-        new P01_CalculatorPage(driver).enterNumber("12345")
+        new P01_CalculatorPage(getDriver()).enterNumber("12345")
                 .clear();
-        String result = new P01_CalculatorPage(driver).getResult();
+        String result = new P01_CalculatorPage(getDriver()).getResult();
 
         Assert.assertEquals(result, "0", "Display should show 0 after clear");
         System.out.println("✅ TEST PASSED: Clear function works correctly");
@@ -94,10 +94,10 @@ public class TC01_Calculator extends testBase{
         System.out.println("\n🧪 TEST: Backspace Function");
         System.out.println("-".repeat(40));
 
-        new P01_CalculatorPage(driver).clear()
+        new P01_CalculatorPage(getDriver()).clear()
                 .enterNumber("123")
                 .clickBackspace();
-        String result = new P01_CalculatorPage(driver).getResult();
+        String result = new P01_CalculatorPage(getDriver()).getResult();
 
         Assert.assertEquals(result, "12", "Display should show 12 after backspace");
         System.out.println("✅ TEST PASSED: Backspace works correctly");
@@ -108,10 +108,10 @@ public class TC01_Calculator extends testBase{
         System.out.println("\n🧪 TEST: Positive/Negative Toggle");
         System.out.println("-".repeat(40));
 
-        new P01_CalculatorPage(driver).clear()
+        new P01_CalculatorPage(getDriver()).clear()
                 .enterNumber("42")
                 .clickPositiveNegative();
-        String result = new P01_CalculatorPage(driver).getResult();
+        String result = new P01_CalculatorPage(getDriver()).getResult();
 
         Assert.assertEquals(result, "-42", "Display should show -42");
         System.out.println("✅ TEST PASSED: Positive/Negative toggle works correctly");
@@ -122,10 +122,10 @@ public class TC01_Calculator extends testBase{
         System.out.println("\n🧪 TEST: Square Root Operation");
         System.out.println("-".repeat(40));
 
-        new P01_CalculatorPage(driver).clear()
+        new P01_CalculatorPage(getDriver()).clear()
                 .enterNumber("16")
                 .clickSquareRoot();
-        String result = new P01_CalculatorPage(driver).getResult();
+        String result = new P01_CalculatorPage(getDriver()).getResult();
 
         Assert.assertEquals(result, "4", "Square root of 16 should be 4");
         System.out.println("✅ TEST PASSED: Square root works correctly");
@@ -136,10 +136,10 @@ public class TC01_Calculator extends testBase{
         System.out.println("\n🧪 TEST: Square Operation");
         System.out.println("-".repeat(40));
 
-        new P01_CalculatorPage(driver).clear()
+        new P01_CalculatorPage(getDriver()).clear()
                 .enterNumber("5")
                 .clickSquare();
-        String result = new P01_CalculatorPage(driver).getResult();
+        String result = new P01_CalculatorPage(getDriver()).getResult();
 
         Assert.assertEquals(result, "25", "Square of 5 should be 25");
         System.out.println("✅ TEST PASSED: Square works correctly");
@@ -150,10 +150,10 @@ public class TC01_Calculator extends testBase{
         System.out.println("\n🧪 TEST: Reciprocal Operation");
         System.out.println("-".repeat(40));
 
-        new P01_CalculatorPage(driver).clear()
+        new P01_CalculatorPage(getDriver()).clear()
                 .enterNumber("4")
                 .clickReciprocal();
-        String result = new P01_CalculatorPage(driver).getResult();
+        String result = new P01_CalculatorPage(getDriver()).getResult();
 
         Assert.assertEquals(result, "0.25", "Reciprocal of 4 should be 0.25");
         System.out.println("✅ TEST PASSED: Reciprocal works correctly");
@@ -165,7 +165,7 @@ public class TC01_Calculator extends testBase{
         System.out.println("-".repeat(40));
 
         // (10 + 5) * 2 = 30
-        new P01_CalculatorPage(driver).clear()
+        new P01_CalculatorPage(getDriver()).clear()
                 .enterNumber("10")
                 .clickPlus()
                 .enterNumber("5")
@@ -174,7 +174,7 @@ public class TC01_Calculator extends testBase{
                 .enterNumber("2")
                 .clickEquals();
 
-        String result = new P01_CalculatorPage(driver).getResult();
+        String result = new P01_CalculatorPage(getDriver()).getResult();
 
         Assert.assertEquals(result, "30", "Chained operation result should be 30");
         System.out.println("✅ TEST PASSED: Chained operations work correctly");
@@ -185,8 +185,8 @@ public class TC01_Calculator extends testBase{
         System.out.println("\n🧪 TEST: Division by Zero");
         System.out.println("-".repeat(40));
 
-        new P01_CalculatorPage(driver).divide("10", "0");
-        String result = new P01_CalculatorPage(driver).getResult();
+        new P01_CalculatorPage(getDriver()).divide("10", "0");
+        String result = new P01_CalculatorPage(getDriver()).getResult();
 
         Assert.assertTrue(result.contains("Cannot divide by zero") ||
                         result.contains("∞") ||
@@ -200,8 +200,8 @@ public class TC01_Calculator extends testBase{
         System.out.println("\n🧪 TEST: Large Number Calculation");
         System.out.println("-".repeat(40));
 
-        new P01_CalculatorPage(driver).multiply("999999", "2");
-        String result = new P01_CalculatorPage(driver).getResult();
+        new P01_CalculatorPage(getDriver()).multiply("999999", "2");
+        String result = new P01_CalculatorPage(getDriver()).getResult();
 
         Assert.assertEquals(result, "1999998", "Large number multiplication should work");
         System.out.println("✅ TEST PASSED: Large numbers work correctly");
@@ -213,17 +213,17 @@ public class TC01_Calculator extends testBase{
         System.out.println("-".repeat(40));
 
         // 5 + 3 = 8, press = again should give 11 (8+3), press = again should give 14 (11+3)
-        new P01_CalculatorPage(driver).clear()
+        new P01_CalculatorPage(getDriver()).clear()
                 .enterNumber("5")
                 .clickPlus()
                 .enterNumber("3")
                 .clickEquals();
 
-        String firstResult = new P01_CalculatorPage(driver).getResult();
+        String firstResult = new P01_CalculatorPage(getDriver()).getResult();
         Assert.assertEquals(firstResult, "8", "First result should be 8");
 
-        new P01_CalculatorPage(driver).clickEquals();
-        String secondResult = new P01_CalculatorPage(driver).getResult();
+        new P01_CalculatorPage(getDriver()).clickEquals();
+        String secondResult = new P01_CalculatorPage(getDriver()).getResult();
         Assert.assertEquals(secondResult, "11", "Second result should be 11");
 
         System.out.println("✅ TEST PASSED: Consecutive equals works correctly");
@@ -235,14 +235,14 @@ public class TC01_Calculator extends testBase{
         System.out.println("-".repeat(40));
 
         // 200 * 50% = 100
-        new P01_CalculatorPage(driver).clear()
+        new P01_CalculatorPage(getDriver()).clear()
                 .enterNumber("200")
                 .clickMultiply()
                 .enterNumber("50")
                 .clickPercent()
                 .clickEquals();
 
-        String result = new P01_CalculatorPage(driver).getResult();
+        String result = new P01_CalculatorPage(getDriver()).getResult();
 
         Assert.assertEquals(result, "100", "200 * 50% should be 100");
         System.out.println("✅ TEST PASSED: Percent operation works correctly");
@@ -254,16 +254,16 @@ public class TC01_Calculator extends testBase{
         System.out.println("-".repeat(40));
 
         // Test Clear Entry
-        new P01_CalculatorPage(driver).clear()
+        new P01_CalculatorPage(getDriver()).clear()
                 .enterNumber("10")
                 .clickPlus()
                 .enterNumber("999")
                 .clearEntry();
 
-        new P01_CalculatorPage(driver).enterNumber("5")
+        new P01_CalculatorPage(getDriver()).enterNumber("5")
                 .clickEquals();
 
-        String result = new P01_CalculatorPage(driver).getResult();
+        String result = new P01_CalculatorPage(getDriver()).getResult();
         Assert.assertEquals(result, "15", "After clear entry, operation should continue (10+5=15)");
 
         System.out.println("✅ TEST PASSED: Clear entry works correctly");
@@ -275,7 +275,7 @@ public class TC01_Calculator extends testBase{
         System.out.println("-".repeat(40));
 
         // 100 - 50 + 20 = 70
-        new P01_CalculatorPage(driver).clear()
+        new P01_CalculatorPage(getDriver()).clear()
                 .enterNumber("100")
                 .clickMinus()
                 .enterNumber("50")
@@ -283,7 +283,7 @@ public class TC01_Calculator extends testBase{
                 .enterNumber("20")
                 .clickEquals();
 
-        String result = new P01_CalculatorPage(driver).getResult();
+        String result = new P01_CalculatorPage(getDriver()).getResult();
 
         Assert.assertEquals(result, "70", "Mixed operations result should be 70");
         System.out.println("✅ TEST PASSED: Mixed operations work correctly");
@@ -294,12 +294,12 @@ public class TC01_Calculator extends testBase{
         System.out.println("\n🧪 TEST: Result Verification Method");
         System.out.println("-".repeat(40));
 
-        new P01_CalculatorPage(driver).add("20", "22");
-        boolean isCorrect = new P01_CalculatorPage(driver).verifyResult("42");
+        new P01_CalculatorPage(getDriver()).add("20", "22");
+        boolean isCorrect = new P01_CalculatorPage(getDriver()).verifyResult("42");
 
         Assert.assertTrue(isCorrect, "Result verification should return true for correct result");
 
-        boolean isIncorrect = new P01_CalculatorPage(driver).verifyResult("100");
+        boolean isIncorrect = new P01_CalculatorPage(getDriver()).verifyResult("100");
         Assert.assertFalse(isIncorrect, "Result verification should return false for incorrect result");
 
         System.out.println("✅ TEST PASSED: Result verification method works correctly");
@@ -311,12 +311,12 @@ public class TC01_Calculator extends testBase{
         System.out.println("-".repeat(40));
 
         // Test 0 + 0
-        new P01_CalculatorPage(driver).add("0", "0");
-        Assert.assertEquals(new P01_CalculatorPage(driver).getResult(), "0", "0 + 0 should be 0");
+        new P01_CalculatorPage(getDriver()).add("0", "0");
+        Assert.assertEquals(new P01_CalculatorPage(getDriver()).getResult(), "0", "0 + 0 should be 0");
 
         // Test 0 * 100
-        new P01_CalculatorPage(driver).multiply("0", "100");
-        Assert.assertEquals(new P01_CalculatorPage(driver).getResult(), "0", "0 * 100 should be 0");
+        new P01_CalculatorPage(getDriver()).multiply("0", "100");
+        Assert.assertEquals(new P01_CalculatorPage(getDriver()).getResult(), "0", "0 * 100 should be 0");
 
         System.out.println("✅ TEST PASSED: Zero operations work correctly");
     }
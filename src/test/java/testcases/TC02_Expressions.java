@@ -0,0 +1,34 @@
+package testcases;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import pages.P01_CalculatorPage;
+import pages.expression.EvaluationResult;
+
+public class TC02_Expressions extends testBase {
+
+    @DataProvider(name = "expressions")
+    public Object[][] expressions() {
+        return new Object[][]{
+                {"2 + 3 * 4"},
+                {"(25 + 17) * (100 - 58)"},
+                {"100 - 84 / 2"},
+                {"1 / 3 * 3"},
+                {"-6.5 * 4 + sqrt(81)"},
+                {"sqr(12) / recip(0.5)"},
+                {"42 / (7 - 7)"},
+        };
+    }
+
+    @Test(dataProvider = "expressions", description = "Verify expressions evaluate to their exact decimal value")
+    public void testExpression(String expression) {
+        System.out.println("\n🧪 TEST: Expression " + expression);
+        System.out.println("-".repeat(40));
+
+        EvaluationResult result = new P01_CalculatorPage(getDriver()).evaluate(expression);
+
+        Assert.assertEquals(result.getDisplayed(), result.getExpected(), "Display should match " + result);
+        System.out.println("✅ TEST PASSED: " + expression + " = " + result.getDisplayed());
+    }
+}
@@ -0,0 +1,27 @@
+package testcases;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import pages.P01_CalculatorPage;
+import pages.fuzz.CalculatorFuzzer;
+import pages.fuzz.FuzzReport;
+import utils.ConfigReader;
+
+public class TC03_Fuzz extends testBase {
+
+    @Test(description = "Verify random key sequences against the in-JVM oracle")
+    public void testDifferentialFuzzing() {
+        System.out.println("\n🧪 TEST: Differential Fuzzing");
+        System.out.println("-".repeat(40));
+
+        int cases = ConfigReader.getInt("fuzzCases", 500);
+        double maxMismatchRate = ConfigReader.getDouble("fuzzMaxMismatchRate", 0);
+
+        FuzzReport report = CalculatorFuzzer.fromConfig(new P01_CalculatorPage(getDriver())).run(cases);
+        report.getSamples().forEach(mismatch -> System.out.println("❌ " + mismatch));
+
+        Assert.assertTrue(report.getMismatchRate() <= maxMismatchRate, report.summary());
+        Assert.assertTrue(report.isTargetSustained(), report.summary());
+        System.out.println("✅ TEST PASSED: " + report.summary());
+    }
+}
@@ -0,0 +1,98 @@
+package testcases;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import pages.P01_CalculatorPage;
+import utils.ConfigReader;
+import utils.ExcelRowStream;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+public class TC04_ExcelCases extends testBase {
+
+    private static final String[] COLUMNS = {"operation", "num1", "num2", "expected"};
+
+    /**
+     * Rows of the case workbook (caseWorkbook / caseSheet), streamed one at a time.
+     * Serial on purpose: TestNG reads a parallel provider's whole iterator up front
+     */
+    @DataProvider(name = "excelCases")
+    public Iterator<Object[]> excelCases() {
+        return ExcelRowStream.open(workbook(), sheet(), COLUMNS);
+    }
+
+    /**
+     * The case workbook in chunks of caseChunkSize rows, fanned out over the
+     * data-provider threads; TestNG holds one handle per chunk, not the rows
+     */
+    @DataProvider(name = "excelCaseChunks", parallel = true)
+    public Iterator<Object[]> excelCaseChunks() {
+        return ExcelRowStream.chunks(workbook(), sheet(), ConfigReader.getInt("caseChunkSize", 500), COLUMNS);
+    }
+
+    @Test(dataProvider = "excelCases", description = "Verify a calculation from the case workbook")
+    public void testExcelCase(String operation, String num1, String num2, String expected) {
+        System.out.println("\n🧪 TEST: " + num1 + " " + operation + " " + num2);
+        System.out.println("-".repeat(40));
+
+        String result = calculate(new P01_CalculatorPage(getDriver()), operation, num1, num2);
+
+        Assert.assertEquals(result, expected, num1 + " " + operation + " " + num2);
+        System.out.println("✅ TEST PASSED: " + num1 + " " + operation + " " + num2 + " = " + result);
+    }
+
+    @Test(dataProvider = "excelCaseChunks", description = "Verify a chunk of calculations from the case workbook")
+    public void testExcelChunk(ExcelRowStream.Chunk chunk) {
+        List<Object[]> rows = chunk.rows();
+        System.out.println("\n🧪 TEST: " + rows.size() + " rows, " + chunk);
+        System.out.println("-".repeat(40));
+
+        P01_CalculatorPage page = new P01_CalculatorPage(getDriver());
+        List<String> failures = new ArrayList<>();
+        for (Object[] row : rows) {
+            String operation = (String) row[0];
+            String num1 = (String) row[1];
+            String num2 = (String) row[2];
+            String result = calculate(page, operation, num1, num2);
+            if (!result.equals(row[3])) {
+                failures.add(num1 + " " + operation + " " + num2 + " = " + result + ", expected " + row[3]);
+            }
+        }
+
+        Assert.assertTrue(failures.isEmpty(), failures.size() + " of " + rows.size() + " rows failed: " + failures);
+        System.out.println("✅ TEST PASSED: " + rows.size() + " rows, " + chunk);
+    }
+
+    private static String calculate(P01_CalculatorPage page, String operation, String num1, String num2) {
+        switch (operation.trim().toLowerCase()) {
+            case "add":
+                page.add(num1, num2);
+                break;
+            case "subtract":
+                page.subtract(num1, num2);
+                break;
+            case "multiply":
+                page.multiply(num1, num2);
+                break;
+            case "divide":
+                page.divide(num1, num2);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown operation in case workbook: " + operation);
+        }
+        return page.getResult();
+    }
+
+    private static Path workbook() {
+        return Paths.get(ConfigReader.getSetting("caseWorkbook", "src/test/resources/testdata/calculator-cases.xlsx"));
+    }
+
+    private static String sheet() {
+        return ConfigReader.getSetting("caseSheet", "Cases");
+    }
+}
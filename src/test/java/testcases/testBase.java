@@ -1,60 +1,63 @@
 package testcases;
 
-import com.aventstack.chaintest.plugins.ChainTestListener;
 import com.aventstack.extentreports.ExtentReports;
-import com.aventstack.extentreports.reporter.ExtentSparkReporter;
-import com.aventstack.extentreports.reporter.configuration.Theme;
+import com.aventstack.extentreports.ExtentTest;
+import common.MyScreenRecorder;
 import io.appium.java_client.windows.WindowsDriver;
 import listeners.TestExecutionListener;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import org.testng.ISuite;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
 import org.testng.ITestResult;
+import org.testng.Reporter;
 import org.testng.annotations.*;
 import pages.P01_CalculatorPage;
+import pages.ShadowStats;
+import utils.AdaptiveWait;
+import utils.AppInstances;
 import utils.ConfigReader;
 import utils.DriverManager;
-import listeners.TestExecutionListener;
-import com.aventstack.extentreports.ExtentReports;
-import com.aventstack.extentreports.ExtentTest;
-import com.aventstack.extentreports.Status;
-import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import utils.InputStats;
+import utils.StartupTimeline;
+import utils.UiSnapshot;
+import org.testng.xml.XmlSuite;
 
-import java.io.FileInputStream;
-import java.io.IOException;
+import java.awt.Rectangle;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.time.format.DateTimeFormatter;
-import java.util.Properties;
 
 /**
  * Base Test Class for Calculator Automation
  * Handles driver lifecycle, configuration, and common test utilities
  */
-@Listeners({ChainTestListener.class, TestExecutionListener.class})
+@Listeners(TestExecutionListener.class)
 public class testBase {
 
-    static FileInputStream readProperty;
-    static Properties prop;
     private static String PROJECT_NAME = null;
     private static String PROJECT_URL = null;
-    protected WindowsDriver<WebElement> driver;
-    protected P01_CalculatorPage calculatorPage;
+
+    // first sessions, started in the background by beforeSuite
+    private static volatile CompletableFuture<Void> sessionsReady;
 
     // logger
     private static final Logger logger = LogManager.getLogger(testBase.class);
-
-    // extend report
-    protected static ExtentSparkReporter htmlReporter;
-    protected static ExtentReports extent;
-    protected static ExtentTest test;
+    private static final String SUITE_RULE = "=".repeat(70);
+    private static final String TEST_RULE = "-".repeat(70);
+    private static final String METHOD_RULE = "─".repeat(70);
 
     // Load configuration once when class is loaded
     static {
         try {
-            ConfigReader.loadConfig();
-            System.out.println("✅ Configuration loaded successfully");
+            logger.info("✅ {}", ConfigReader.snapshot().summary());
         } catch (Exception e) {
-            System.err.println("❌ Failed to load configuration: " + e.getMessage());
+            logger.error("❌ Failed to load configuration: {}", e.getMessage());
             throw new RuntimeException("Configuration initialization failed", e);
         }
     }
@@ -62,23 +65,31 @@ public class testBase {
     @BeforeSuite
     public void beforeSuite() throws Exception {
 
-        // initialize the HtmlReporter
-        htmlReporter = new ExtentSparkReporter(System.getProperty("user.dir") + "/testReport.html");
+        // kept-alive sessions start each test from a known state
+        DriverManager.setResetAction(session -> new P01_CalculatorPage(session).resetToKnownState());
+
+        // one session per worker thread when methods or data-provider rows run in parallel
+        // (read when the pool is created)
+        // (@BeforeSuite methods cannot be handed the suite; this method's own result knows it)
+        ISuite running = Reporter.getCurrentTestResult().getTestContext().getSuite();
+        XmlSuite suite = running.getXmlSuite();
+        int workers = suite.getParallel() != XmlSuite.ParallelMode.NONE ? suite.getThreadCount() : 0;
+        if (running.getAllMethods().stream().anyMatch(this::hasParallelDataProvider)) {
+            workers = Math.max(workers, suite.getDataProviderThreadCount());
+        }
+        if (workers > 0) {
+            DriverManager.setPoolSize(workers);
+        }
 
-        //initialize ExtentReports and attach the HtmlReporter
-        extent = new ExtentReports();
-        extent.attachReporter(htmlReporter);
+        // the first sessions start while the rest of the suite sets up; setupTest waits for them
+        String prewarm = ConfigReader.getSetting("sessionPrewarm", "all").trim();
+        int sessions = prewarm.equalsIgnoreCase("all") ? Integer.MAX_VALUE : Integer.parseInt(prewarm);
+        if (sessions > 0) {
+            sessionsReady = DriverManager.prewarm(sessions);
+        }
 
+        // reports are written by the listener's reporters (extent, chaintest, ...) as tests finish
         setProjectDetails();
-
-        // initialize test
-        test = extent.createTest(PROJECT_NAME + " Test Automation Project");
-
-        //configuration items to change the look and fee add content, manage tests etc
-        htmlReporter.config().setDocumentTitle(PROJECT_NAME + " Test Automation Report");
-        htmlReporter.config().setReportName(PROJECT_NAME + " Test Report");
-        htmlReporter.config().setTheme(Theme.STANDARD);
-        htmlReporter.config().setTimeStampFormat("EEEE, MMMM dd, yyyy, hh:mm a '('zzz')'");
     }
 
 
@@ -87,16 +98,11 @@ public class testBase {
      * Configures WinAppDriver URL and Calculator path
      */
     @BeforeSuite(alwaysRun = true)
-    private void setProjectDetails() throws IOException {
-        // TODO: Step1: define object of properties file
-        readProperty = new FileInputStream(
-                System.getProperty("user.dir") + "/src/test/resources/properties/environment.properties");
-        prop = new Properties();
-        prop.load(readProperty);
-
-        // define project name from properties file
-        PROJECT_NAME = prop.getProperty("projectName");
-        PROJECT_URL = prop.getProperty("url");
+    private void setProjectDetails() {
+        // define project name from environment.properties (a configuration layer)
+        PROJECT_NAME = ConfigReader.getProperty("projectName");
+        PROJECT_URL = ConfigReader.getProperty("url");
+        TestExecutionListener.setProjectName(PROJECT_NAME);
     }
 
     @Parameters({"winAppDriverUrl", "calculatorAppPath"})
@@ -104,72 +110,76 @@ public class testBase {
             @Optional("http://127.0.0.1:4723") String winAppDriverUrl,
             @Optional("") String calculatorAppPath
     ) {
-        System.out.println("\n" + "=".repeat(70));
-        System.out.println("🚀 CALCULATOR AUTOMATION TEST SUITE INITIALIZATION");
-        System.out.println("=".repeat(70));
-        System.out.println("⏰ Start Time: " + getCurrentTimestamp());
+        logger.info(SUITE_RULE);
+        logger.info("🚀 CALCULATOR AUTOMATION TEST SUITE INITIALIZATION");
+        logger.info(SUITE_RULE);
+        logger.info("⏰ Start Time: {}", getCurrentTimestamp());
 
         // Use TestNG parameters if provided, otherwise fallback to config.properties
         if (calculatorAppPath == null || calculatorAppPath.isEmpty()) {
             calculatorAppPath = ConfigReader.getProperty("calculatorAppPath");
-            System.out.println("📋 Using Calculator path from config: " + calculatorAppPath);
+            logger.info("📋 Using Calculator path from config: {}", calculatorAppPath);
         } else {
-            System.out.println("📋 Using Calculator path from TestNG parameter: " + calculatorAppPath);
+            logger.info("📋 Using Calculator path from TestNG parameter: {}", calculatorAppPath);
         }
 
         // Configure DriverManager with runtime parameters
         DriverManager.setWinAppDriverUrl(winAppDriverUrl);
         DriverManager.setAppPath(calculatorAppPath);
 
-        System.out.println("🔗 WinAppDriver URL: " + winAppDriverUrl);
-        System.out.println("✅ Suite setup completed successfully\n");
+        logger.info("🔗 WinAppDriver URL: {}", winAppDriverUrl);
+        logger.info("✅ Suite setup completed successfully");
     }
 
     /**
      * Test-level setup - runs before each test class
-     * Initializes driver and page objects
+     * Launches the Calculator and returns the ready session to the pool
      */
     @BeforeTest(alwaysRun = true)
-    public void setupTest() {
-        System.out.println("\n" + "-".repeat(70));
-        System.out.println("📱 Launching Calculator Application...");
+    public void setupTest(ITestContext context) {
+        logger.info(TEST_RULE);
+        logger.info("📱 Launching Calculator Application...");
 
         try {
-            driver = DriverManager.getDriver();
-            calculatorPage = new P01_CalculatorPage(driver);
-            calculatorPage.waitForCalculatorToLoad();
-            System.out.println("✅ Calculator launched and ready for testing");
+            DriverManager.setTestScope(context.getName());
+            awaitSessionsReady();
+            new P01_CalculatorPage(getDriver()).waitForCalculatorToLoad();
+            DriverManager.releaseDriver();
+            logger.info("✅ Calculator launched and ready for testing");
         } catch (Exception e) {
-            System.err.println("❌ Failed to launch Calculator: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("❌ Failed to launch Calculator: {}", e.getMessage(), e);
             throw new RuntimeException("Calculator initialization failed", e);
         }
     }
 
     /**
      * Method-level setup - runs before each test method
-     * Can be used for test-specific initialization
+     * Leases this thread's session and clears the calculator
      */
     @BeforeMethod(alwaysRun = true)
-    public void setupMethod(ITestResult result) {
+    public void setupMethod(ITestResult result, ITestContext context) {
         String testName = result.getMethod().getMethodName();
         String description = result.getMethod().getDescription();
 
-        System.out.println("\n" + "─".repeat(70));
-        System.out.println("🧪 Starting Test: " + testName);
+        logger.info(METHOD_RULE);
+        logger.info("🧪 Starting Test: {}", testName);
         if (description != null && !description.isEmpty()) {
-            System.out.println("📝 Description: " + description);
+            logger.info("📝 Description: {}", description);
+        }
+        logger.info("⏰ Test Start Time: {}", getCurrentTimestamp());
+        logger.info(METHOD_RULE);
+
+        if (MyScreenRecorder.isWindowRecordingEnabled()) {
+            startWindowRecording(testName);
         }
-        System.out.println("⏰ Test Start Time: " + getCurrentTimestamp());
-        System.out.println("─".repeat(70));
-
-        // Clear calculator before each test
-        if (calculatorPage != null) {
-            try {
-                calculatorPage.clear();
-            } catch (Exception e) {
-                System.out.println("⚠️ Could not clear calculator: " + e.getMessage());
-            }
+
+        DriverManager.setTestScope(context.getName());
+        // Clear calculator before each test; later clears of the cleared display are skipped
+        ShadowStats.startTest();
+        try {
+            new P01_CalculatorPage(getDriver()).clear();
+        } catch (Exception e) {
+            logger.warn("⚠️ Could not clear calculator: {}", e.getMessage());
         }
     }
 
@@ -182,45 +192,47 @@ public class testBase {
         String testName = result.getMethod().getMethodName();
         String status = getTestStatus(result);
 
-        System.out.println("─".repeat(70));
-        System.out.println("📊 Test Result: " + status);
-        System.out.println("⏰ Test End Time: " + getCurrentTimestamp());
+        logger.info(METHOD_RULE);
+        logger.info("📊 Test Result: {}", status);
+        logger.info("⏰ Test End Time: {}", getCurrentTimestamp());
 
         if (result.getStatus() == ITestResult.FAILURE) {
-            System.err.println("❌ Test Failed: " + testName);
-            System.err.println("💥 Failure Reason: " + result.getThrowable().getMessage());
+            logger.error("❌ Test Failed: {}", testName);
+            logger.error("💥 Failure Reason: {}", result.getThrowable().getMessage());
         } else if (result.getStatus() == ITestResult.SUCCESS) {
-            System.out.println("✅ Test Passed: " + testName);
+            logger.info("✅ Test Passed: {}", testName);
         } else if (result.getStatus() == ITestResult.SKIP) {
-            System.out.println("⏭️ Test Skipped: " + testName);
+            logger.info("⏭️ Test Skipped: {}", testName);
+        }
+        logger.info("🪞 {}", ShadowStats.testSummary());
+        DriverManager.recordTest(Math.max(0, result.getEndMillis() - result.getStartMillis()),
+                result.getStatus() == ITestResult.SUCCESS);
+        if (hasParallelDataProvider(result.getMethod())) {
+            // data-provider threads are short-lived, so hand the session back after every invocation
+            DriverManager.releaseDriver();
         }
 
-        System.out.println("─".repeat(70) + "\n");
+        logger.info(METHOD_RULE);
     }
 
     /**
      * Test-level teardown - runs after each test class
-     * Closes driver and cleans up resources
+     * Closes the sessions and cleans up resources
      */
     @AfterTest(alwaysRun = true)
-    public void teardownTest() {
-        System.out.println("\n" + "-".repeat(70));
-        System.out.println("🧹 Cleaning up test session...");
-
-        if (driver != null) {
-            try {
-                DriverManager.quitDriver();
-                driver = null;
-                calculatorPage = null;
-                System.out.println("✅ Calculator closed successfully");
-            } catch (Exception e) {
-                System.err.println("⚠️ Error during cleanup: " + e.getMessage());
-            }
-        } else {
-            System.out.println("ℹ️ No driver to clean up");
+    public void teardownTest(ITestContext context) {
+        logger.info(TEST_RULE);
+        logger.info("🧹 Cleaning up test session...");
+
+        try {
+            // only this <test>'s sessions: with parallel="tests" the others are still running
+            DriverManager.quitDriver(context.getName());
+            logger.info("✅ Calculator closed successfully");
+        } catch (Exception e) {
+            logger.warn("⚠️ Error during cleanup: {}", e.getMessage());
         }
 
-        System.out.println("-".repeat(70));
+        logger.info(TEST_RULE);
     }
 
     /**
@@ -229,10 +241,143 @@ public class testBase {
      */
     @AfterSuite(alwaysRun = true)
     public void teardownSuite() {
-        System.out.println("\n" + "=".repeat(70));
-        System.out.println("🏁 CALCULATOR TEST SUITE COMPLETED");
-        System.out.println("⏰ End Time: " + getCurrentTimestamp());
-        System.out.println("=".repeat(70) + "\n");
+        logger.info(SUITE_RULE);
+        logger.info("🏁 CALCULATOR TEST SUITE COMPLETED");
+        logger.info("⏰ End Time: {}", getCurrentTimestamp());
+        String poolSummary = DriverManager.shutdown();
+        if (poolSummary != null) {
+            logger.info("🧰 {}", poolSummary);
+        }
+        String instanceSummary = AppInstances.summary();
+        if (instanceSummary != null) {
+            logger.info("🪟 {}", instanceSummary);
+        }
+        String httpSummary = DriverManager.getHttpSummary();
+        if (httpSummary != null) {
+            logger.info("🔌 {}", httpSummary);
+        }
+        String recordingSummary = MyScreenRecorder.windowRecordingSummary();
+        if (recordingSummary != null) {
+            logger.info("🎥 {}", recordingSummary);
+        }
+        logger.info("⌨️ {}", InputStats.summary());
+        logger.info("🪞 {}", ShadowStats.summary());
+        logger.info("🌳 {}", UiSnapshot.summary());
+        logger.info("⏱️ {}", AdaptiveWait.summary());
+        logger.info(SUITE_RULE);
+    }
+
+    /**
+     * Whether a test method's rows come from a @DataProvider(parallel = true)
+     * @param method the test method
+     * @return true if its rows run concurrently
+     */
+    private boolean hasParallelDataProvider(ITestNGMethod method) {
+        Test test = method.getConstructorOrMethod().getMethod().getAnnotation(Test.class);
+        if (test == null || test.dataProvider().isEmpty()) {
+            return false;
+        }
+        Class<?> source = test.dataProviderClass() == Object.class ? method.getRealClass() : test.dataProviderClass();
+        return Arrays.stream(source.getMethods())
+                .filter(candidate -> candidate.isAnnotationPresent(DataProvider.class))
+                .filter(candidate -> {
+                    String name = candidate.getAnnotation(DataProvider.class).name();
+                    return test.dataProvider().equals(name.isEmpty() ? candidate.getName() : name);
+                })
+                .anyMatch(candidate -> candidate.getAnnotation(DataProvider.class).parallel());
+    }
+
+    /**
+     * Blocks until the pre-warmed sessions are ready; only the first caller can wait
+     * @throws RuntimeException if they could not be started
+     */
+    private void awaitSessionsReady() {
+        CompletableFuture<Void> pending = sessionsReady;
+        if (pending == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            pending.join();
+        } catch (CompletionException e) {
+            throw new RuntimeException(e.getCause().getMessage(), e.getCause());
+        } finally {
+            StartupTimeline.record(StartupTimeline.WAIT, start, System.nanoTime());
+        }
+    }
+
+    /**
+     * Starts recording the Calculator window into memory; the listener keeps
+     * the video only if the test fails
+     * @param testName name for the video file
+     */
+    private void startWindowRecording(String testName) {
+        try {
+            WebDriver.Window window = getDriver().manage().window();
+            org.openqa.selenium.Point position = window.getPosition();
+            org.openqa.selenium.Dimension size = window.getSize();
+            MyScreenRecorder.startWindowRecording(testName,
+                    new Rectangle(position.getX(), position.getY(), size.getWidth(), size.getHeight()));
+        } catch (Exception e) {
+            logger.warn("⚠️ Could not start window recording: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * The session leased by the current worker thread
+     * @return this thread's WindowsDriver
+     */
+    protected WindowsDriver<WebElement> getDriver() {
+        return DriverManager.getDriver();
+    }
+
+    /**
+     * A page object over the session leased by the current worker thread
+     * @return the Calculator page for this thread's WindowsDriver
+     */
+    protected P01_CalculatorPage getPage() {
+        return new P01_CalculatorPage(getDriver());
+    }
+
+    /**
+     * Formerly the protected driver field, shared by every thread of the class
+     * @return this thread's WindowsDriver
+     * @deprecated use {@link #getDriver()}
+     */
+    @Deprecated
+    protected WindowsDriver<WebElement> driver() {
+        return getDriver();
+    }
+
+    /**
+     * Formerly the protected calculatorPage field
+     * @return a Calculator page for this thread's WindowsDriver
+     * @deprecated use {@link #getPage()}
+     */
+    @Deprecated
+    protected P01_CalculatorPage calculatorPage() {
+        return getPage();
+    }
+
+    /**
+     * Formerly the protected extent field; the report is now written by the
+     * listener's extent reporter
+     * @return the suite's Extent report, or null when the extent reporter is off
+     * @deprecated results reach the report through TestExecutionListener
+     */
+    @Deprecated
+    protected static ExtentReports extent() {
+        return TestExecutionListener.extentReports();
+    }
+
+    /**
+     * Formerly the protected test field: the project-level node of the Extent report
+     * @return the project test, or null when the extent reporter is off
+     * @deprecated results reach the report through TestExecutionListener
+     */
+    @Deprecated
+    protected static ExtentTest test() {
+        return TestExecutionListener.extentProjectTest();
     }
 
     /**
@@ -271,7 +416,7 @@ public class testBase {
             Thread.sleep(milliseconds);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            System.err.println("⚠️ Sleep interrupted: " + e.getMessage());
+            logger.warn("⚠️ Sleep interrupted: {}", e.getMessage());
         }
     }
 
@@ -280,7 +425,7 @@ public class testBase {
      * @param message message to log
      */
     protected void logInfo(String message) {
-        System.out.println("ℹ️ " + message);
+        logger.info("ℹ️ {}", message);
     }
 
     /**
@@ -288,7 +433,7 @@ public class testBase {
      * @param message error message to log
      */
     protected void logError(String message) {
-        System.err.println("❌ " + message);
+        logger.error("❌ {}", message);
     }
 
     /**
@@ -296,6 +441,6 @@ public class testBase {
      * @param message warning message to log
      */
     protected void logWarning(String message) {
-        System.out.println("⚠️ " + message);
+        logger.warn("⚠️ {}", message);
     }
 }
\ No newline at end of file